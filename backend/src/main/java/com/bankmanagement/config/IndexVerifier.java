@@ -0,0 +1,145 @@
+package com.bankmanagement.config;
+
+import com.bankmanagement.repository.SupportedByIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Startup check that every repository query annotated with {@link SupportedByIndex}
+ * has a matching index in the live schema. Only warns; it never blocks startup.
+ */
+@Component
+public class IndexVerifier implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IndexVerifier.class);
+    
+    @Autowired
+    private ApplicationContext applicationContext;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Value("${schema.index-verification.enabled:true}")
+    private boolean enabled;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        
+        try (Connection connection = dataSource.getConnection()) {
+            List<String> missing = verify(connection.getMetaData());
+            if (missing.isEmpty()) {
+                logger.info("Index verification passed for all annotated repository queries");
+            } else {
+                missing.forEach(logger::warn);
+            }
+        } catch (SQLException e) {
+            logger.warn("Index verification skipped: {}", e.getMessage());
+        }
+    }
+    
+    // Returns one warning per annotated query without a supporting index
+    public List<String> verify(DatabaseMetaData metaData) throws SQLException {
+        List<String> missing = new ArrayList<>();
+        Map<String, List<List<String>>> indexCache = new HashMap<>();
+        
+        for (Class<?> repositoryInterface : findRepositoryInterfaces()) {
+            for (Method method : repositoryInterface.getDeclaredMethods()) {
+                for (SupportedByIndex expected : method.getAnnotationsByType(SupportedByIndex.class)) {
+                    String table = expected.table().toLowerCase(Locale.ROOT);
+                    if (!indexCache.containsKey(table)) {
+                        indexCache.put(table, loadIndexes(metaData, table));
+                    }
+                    if (!isSupported(indexCache.get(table), expected.columns())) {
+                        missing.add(String.format("No index on %s%s supports %s.%s",
+                                table, Arrays.toString(expected.columns()),
+                                repositoryInterface.getSimpleName(), method.getName()));
+                    }
+                }
+            }
+        }
+        return missing;
+    }
+    
+    private List<Class<?>> findRepositoryInterfaces() {
+        List<Class<?>> interfaces = new ArrayList<>();
+        for (Object bean : applicationContext.getBeansOfType(Repository.class).values()) {
+            for (Class<?> candidate : bean.getClass().getInterfaces()) {
+                if (Repository.class.isAssignableFrom(candidate)
+                        && candidate.getPackageName().startsWith("com.bankmanagement")) {
+                    interfaces.add(candidate);
+                    // Custom fragments (e.g. AccountRepositoryCustom) carry annotated queries too
+                    for (Class<?> fragment : candidate.getInterfaces()) {
+                        if (!Repository.class.isAssignableFrom(fragment)
+                                && fragment.getPackageName().startsWith("com.bankmanagement")) {
+                            interfaces.add(fragment);
+                        }
+                    }
+                }
+            }
+        }
+        return interfaces;
+    }
+    
+    // Each index as its ordered column list; the primary key counts as an index too
+    private List<List<String>> loadIndexes(DatabaseMetaData metaData, String table) throws SQLException {
+        String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        Map<String, TreeMap<Short, String>> columnsByIndex = new HashMap<>();
+        
+        try (ResultSet rs = metaData.getIndexInfo(null, null, tableName, false, true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName == null || column == null) {
+                    continue;
+                }
+                columnsByIndex.computeIfAbsent(indexName, name -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        }
+        
+        List<List<String>> indexes = new ArrayList<>();
+        columnsByIndex.values().forEach(columns -> indexes.add(new ArrayList<>(columns.values())));
+        return indexes;
+    }
+    
+    private boolean isSupported(List<List<String>> indexes, String[] required) {
+        Set<String> requiredColumns = new HashSet<>();
+        for (String column : required) {
+            requiredColumns.add(column.toLowerCase(Locale.ROOT));
+        }
+        
+        for (List<String> index : indexes) {
+            if (index.size() >= requiredColumns.size()
+                    && new HashSet<>(index.subList(0, requiredColumns.size())).equals(requiredColumns)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -20,6 +20,8 @@ import java.io.IOException;
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
     
+    private static final String STREAM_PATH = "/api/accounts/stream";
+    
     @Autowired
     @Lazy
     private UserService userService;
@@ -31,7 +33,16 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain chain) throws ServletException, IOException {
         
-        final String requestTokenHeader = request.getHeader("Authorization");
+        String requestTokenHeader = request.getHeader("Authorization");
+        
+        // EventSource cannot set headers, so the SSE stream passes a short-lived stream ticket
+        // instead; the long-lived token never appears in a URL, and tickets work nowhere else
+        boolean streamTicket = false;
+        if (requestTokenHeader == null && STREAM_PATH.equals(request.getRequestURI())
+                && request.getParameter("ticket") != null) {
+            requestTokenHeader = "Bearer " + request.getParameter("ticket");
+            streamTicket = true;
+        }
         
         String username = null;
         String jwtToken = null;
@@ -39,7 +50,11 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwtToken);
+                if (jwtUtil.isStreamTicket(jwtToken) == streamTicket) {
+                    username = jwtUtil.extractUsername(jwtToken);
+                } else {
+                    logger.warn("JWT Token used outside its scope");
+                }
             } catch (IllegalArgumentException e) {
                 System.out.println("Unable to get JWT Token");
             } catch (ExpiredJwtException e) {
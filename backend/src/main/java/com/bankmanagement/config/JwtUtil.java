@@ -21,6 +21,13 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private int expiration;
     
+    @Value("${jwt.stream-ticket-expiration:60000}")
+    private int streamTicketExpiration;
+    
+    // Marks short-lived tickets for the SSE stream; they are not accepted as bearer tokens
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String STREAM_SCOPE = "stream";
+    
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
@@ -55,12 +62,31 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername());
     }
     
+    // EventSource can't send headers, so the stream is opened with one of these in the query string
+    public String generateStreamTicket(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(SCOPE_CLAIM, STREAM_SCOPE);
+        return createToken(claims, userDetails.getUsername(), streamTicketExpiration);
+    }
+    
+    public int getStreamTicketExpiration() {
+        return streamTicketExpiration;
+    }
+    
+    public boolean isStreamTicket(String token) {
+        return STREAM_SCOPE.equals(extractClaim(token, claims -> claims.get(SCOPE_CLAIM, String.class)));
+    }
+    
     private String createToken(Map<String, Object> claims, String subject) {
+        return createToken(claims, subject, expiration);
+    }
+    
+    private String createToken(Map<String, Object> claims, String subject, int expiresInMs) {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .expiration(new Date(System.currentTimeMillis() + expiresInMs))
                 .signWith(getSigningKey())
                 .compact();
     }
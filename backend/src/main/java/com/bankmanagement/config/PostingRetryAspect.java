@@ -0,0 +1,152 @@
+package com.bankmanagement.config;
+
+import com.bankmanagement.exception.ConcurrentUpdateException;
+import com.bankmanagement.model.LockingStrategy;
+import com.bankmanagement.service.LockingStrategyService;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleStateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Re-runs {@link com.bankmanagement.service.RetryOnConflict} methods that lose a concurrent update:
+ * a version check failing at flush under OPTIMISTIC banks, or a deadlock or lock wait timeout
+ * under PESSIMISTIC ones. It runs outside the transactional proxy, so every attempt is a fresh
+ * transaction that re-reads the rows and re-runs the posting's checks. Called inside a caller's
+ * transaction it doesn't retry; that transaction is already lost and the caller decides.
+ *
+ * Backoff is exponential with full jitter, so postings that collided don't collide again in
+ * lockstep. Attempts, conflicts and exhausted retries are counted per method and locking strategy.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PostingRetryAspect {
+    
+    private static final Logger log = LoggerFactory.getLogger(PostingRetryAspect.class);
+    
+    // Methods that loaded no account through a bank's strategy (holds, status changes)
+    private static final String NO_STRATEGY = "NONE";
+    
+    @Autowired
+    private LockingStrategyService lockingStrategyService;
+    
+    @Value("${posting.retry.max-attempts:4}")
+    private int maxAttempts;
+    
+    @Value("${posting.retry.backoff-ms:5}")
+    private long backoffMs;
+    
+    @Value("${posting.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+    
+    private final Map<String, ConflictStats> stats = new ConcurrentHashMap<>();
+    
+    @Around("@annotation(com.bankmanagement.service.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            lockingStrategyService.takeResolved();
+            try {
+                Object result = joinPoint.proceed();
+                statsFor(method).attempts.increment();
+                return result;
+            } catch (RuntimeException e) {
+                ConflictStats methodStats = statsFor(method);
+                methodStats.attempts.increment();
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                methodStats.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    methodStats.exhausted.increment();
+                    log.warn("{} lost {} concurrent updates in a row: {}", method, attempt, e.getMessage());
+                    throw new ConcurrentUpdateException("The account was changed by another transaction; please try again");
+                }
+                methodStats.retries.increment();
+                Thread.sleep(backoff(attempt));
+            }
+        }
+    }
+    
+    // Per method and locking strategy, sorted by key
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        new TreeMap<>(stats).forEach((key, counters) -> {
+            long attempts = counters.attempts.sum();
+            long conflicts = counters.conflicts.sum();
+            Map<String, Object> row = new TreeMap<>();
+            row.put("method", counters.method);
+            row.put("lockingStrategy", counters.strategy);
+            row.put("attempts", attempts);
+            row.put("conflicts", conflicts);
+            row.put("retries", counters.retries.sum());
+            row.put("exhausted", counters.exhausted.sum());
+            row.put("conflictRate", attempts > 0 ? (double) conflicts / attempts : 0.0);
+            rows.add(row);
+        });
+        return rows;
+    }
+    
+    // Keyed by the strategy the attempt resolved, read once it has finished
+    private ConflictStats statsFor(String method) {
+        LockingStrategy strategy = lockingStrategyService.takeResolved();
+        String strategyName = strategy != null ? strategy.name() : NO_STRATEGY;
+        return stats.computeIfAbsent(method + ":" + strategyName, key -> new ConflictStats(method, strategyName));
+    }
+    
+    // Random in [0, min(max, base * 2^(attempt - 1))]
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+    
+    // Translated or not, depending on where the flush that failed ran
+    private static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException || cause instanceof OptimisticLockException
+                    || cause instanceof PessimisticLockException || cause instanceof LockTimeoutException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static final class ConflictStats {
+        private final String method;
+        private final String strategy;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+        
+        ConflictStats(String method, String strategy) {
+            this.method = method;
+            this.strategy = strategy;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.bankmanagement.config;
+
+import com.bankmanagement.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets, one budget per endpoint group. Runs right after JwtRequestFilter,
+ * so authenticated requests are keyed by user id and anonymous ones by client IP.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+    
+    enum Group { AUTH, POSTING, READS }
+    
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Group, Budget> budgets = new EnumMap<>(Group.class);
+    
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${rate-limit.max-clients:100000}")
+    private int maxClients;
+    
+    @Value("${rate-limit.auth.capacity:10}")
+    private int authCapacity;
+    
+    @Value("${rate-limit.auth.per-minute:20}")
+    private int authPerMinute;
+    
+    @Value("${rate-limit.posting.capacity:20}")
+    private int postingCapacity;
+    
+    @Value("${rate-limit.posting.per-minute:60}")
+    private int postingPerMinute;
+    
+    @Value("${rate-limit.reads.capacity:100}")
+    private int readsCapacity;
+    
+    @Value("${rate-limit.reads.per-minute:600}")
+    private int readsPerMinute;
+    
+    @PostConstruct
+    public void init() {
+        budgets.put(Group.AUTH, new Budget(authCapacity, authPerMinute));
+        budgets.put(Group.POSTING, new Budget(postingCapacity, postingPerMinute));
+        budgets.put(Group.READS, new Budget(readsCapacity, readsPerMinute));
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Group group = classify(request);
+        Budget budget = budgets.get(group);
+        String key = group.name() + ":" + clientKey(request);
+        long now = System.nanoTime();
+        
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                evictIdle();
+            }
+            if (buckets.size() >= maxClients) {
+                // Fail open rather than turn memory pressure into an outage
+                log.warn("Rate limiter is tracking {} clients; not limiting {}", buckets.size(), key);
+                chain.doFilter(request, response);
+                return;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+        
+        long waitNanos = bucket.tryAcquire(now, budget);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Too many requests, retry in " + retryAfterSeconds + "s\"}");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+    
+    // A bucket that has fully refilled is the same as a new one, so dropping it loses nothing
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+    
+    private Group classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/auth/")) {
+            return "GET".equals(request.getMethod()) ? Group.READS : Group.AUTH;
+        }
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()) ? Group.READS : Group.POSTING;
+    }
+    
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+    
+    private static final class Budget {
+        final long intervalNanos;
+        final long burstNanos;
+        
+        Budget(int capacity, int perMinute) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burstNanos = intervalNanos * Math.max(0, capacity - 1);
+        }
+    }
+    
+    /**
+     * Token bucket kept as a single "theoretical arrival time" (GCRA), so acquiring a token is
+     * one compare-and-set with no lock. The bucket is empty when that time runs more than the
+     * burst allowance ahead of now.
+     */
+    private static final class Bucket {
+        private final AtomicLong arrival;
+        
+        Bucket(long now) {
+            this.arrival = new AtomicLong(now);
+        }
+        
+        // Returns 0 when a token was taken, otherwise how long until one is available
+        long tryAcquire(long now, Budget budget) {
+            while (true) {
+                long current = arrival.get();
+                long start = Math.max(current, now);
+                long ahead = start - now;
+                if (ahead > budget.burstNanos) {
+                    return ahead - budget.burstNanos;
+                }
+                if (arrival.compareAndSet(current, start + budget.intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+        
+        boolean isFull(long now) {
+            return arrival.get() - now <= 0;
+        }
+    }
+}
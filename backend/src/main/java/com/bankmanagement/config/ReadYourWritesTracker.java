@@ -0,0 +1,73 @@
+package com.bankmanagement.config;
+
+import com.bankmanagement.model.User;
+import com.bankmanagement.service.TransactionPostedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers users whose accounts were written recently, so their reads stay on the
+ * primary until the replica has had time to catch up (read-your-writes).
+ */
+@Component
+public class ReadYourWritesTracker {
+    
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    
+    @Value("${datasource.replica.sticky-window-ms:5000}")
+    private long stickyWindowMs;
+    
+    public void markWrite(Long userId) {
+        if (userId != null && stickyWindowMs > 0) {
+            lastWriteByUser.put(userId, System.currentTimeMillis());
+        }
+    }
+    
+    public boolean isSticky(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(userId);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < stickyWindowMs;
+    }
+    
+    // Sticky check for whoever is authenticated on the current thread
+    public boolean isCurrentUserSticky() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return isSticky(user.getId());
+        }
+        return false;
+    }
+    
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+    
+    // The poster and both account owners read from the primary for a while after a posting
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        markWrite(getCurrentUserId());
+        markWrite(event.getFromUserId());
+        markWrite(event.getToUserId());
+    }
+    
+    // Keeps the map bounded to users active within the window
+    @Scheduled(fixedDelayString = "${datasource.replica.sticky-cleanup-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - stickyWindowMs;
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+}
@@ -0,0 +1,64 @@
+package com.bankmanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Measures replica staleness with a heartbeat row: the primary stamps replica_heartbeat,
+ * the replica's copy of that row shows how far behind it is. Works with any replication
+ * setup because it needs nothing beyond the replicated table itself.
+ */
+public class ReplicaLagMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    
+    private volatile long lastLagMs = Long.MAX_VALUE;
+    
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, long maxLagMs) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+    }
+    
+    // A negative tolerance disables the check, e.g. for two unreplicated local databases
+    public boolean isReplicaHealthy() {
+        return maxLagMs < 0 || lastLagMs <= maxLagMs;
+    }
+    
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+    
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:1000}")
+    public void check() {
+        if (maxLagMs < 0) {
+            return;
+        }
+        try {
+            Timestamp now = Timestamp.from(Instant.now());
+            int updated = primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", now);
+            if (updated == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            }
+            
+            List<Timestamp> beats = replica.queryForList("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Timestamp.class);
+            lastLagMs = beats.isEmpty()
+                    ? Long.MAX_VALUE
+                    : Math.max(0, Duration.between(beats.get(0).toInstant(), Instant.now()).toMillis());
+        } catch (Exception e) {
+            lastLagMs = Long.MAX_VALUE;
+            logger.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.bankmanagement.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ * Falls back to the primary when the replica is too far behind or when the current
+ * user has just written (read-your-writes).
+ * Must sit behind a LazyConnectionDataSourceProxy so the read-only flag is set before
+ * a connection is fetched.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Route { PRIMARY, REPLICA }
+    
+    private final BooleanSupplier replicaHealthy;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    BooleanSupplier replicaHealthy, ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaHealthy = replicaHealthy;
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && replicaHealthy.getAsBoolean()
+                && !readYourWritesTracker.isCurrentUserSticky()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
@@ -1,18 +1,24 @@
 package com.bankmanagement.controller;
 
+import com.bankmanagement.config.JwtUtil;
 import com.bankmanagement.model.Account;
 import com.bankmanagement.model.AccountStatus;
 import com.bankmanagement.model.AccountType;
 import com.bankmanagement.model.User;
 import com.bankmanagement.service.AccountService;
+import com.bankmanagement.service.AccountStreamService;
+import com.bankmanagement.service.ETagService;
 import com.bankmanagement.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
@@ -30,6 +36,15 @@ public class AccountController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AccountStreamService accountStreamService;
+
+    @Autowired
+    private ETagService eTagService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     // Customer endpoints
     @PostMapping
     @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
@@ -52,10 +67,13 @@ public class AccountController {
 
     @GetMapping("/my-accounts")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<List<Account>> getMyAccounts(Authentication authentication) {
+    public ResponseEntity<List<Account>> getMyAccounts(Authentication authentication, WebRequest request) {
         User user = userService.getUserByUsername(authentication.getName());
+        if (request.checkNotModified(eTagService.forUserAccounts(user.getId()))) {
+            return null;
+        }
         List<Account> accounts = accountService.getAccountsByUserId(user.getId());
-        return ResponseEntity.ok(accounts);
+        return ResponseEntity.ok().cacheControl(ETagService.REVALIDATE).body(accounts);
     }
 
     @GetMapping("/my-accounts/active")
@@ -66,22 +84,75 @@ public class AccountController {
         return ResponseEntity.ok(accounts);
     }
 
-    @GetMapping("/{id}")
+    // Short-lived ticket for opening the stream, which EventSource can't send an Authorization header to
+    @PostMapping("/stream/ticket")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<?> getAccountById(@PathVariable Long id, Authentication authentication) {
-        try {
-            Account account = accountService.getAccountById(id);
-            User user = userService.getUserByUsername(authentication.getName());
+    public ResponseEntity<?> createStreamTicket(Authentication authentication) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("ticket", jwtUtil.generateStreamTicket(userService.loadUserByUsername(authentication.getName())));
+        response.put("expiresInMs", jwtUtil.getStreamTicketExpiration());
+        return ResponseEntity.ok(response);
+    }
+
+    // Live balance and transaction updates for the current user's accounts, or for one account
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<SseEmitter> streamMyAccounts(@RequestParam(required = false) Long accountId,
+                                                       Authentication authentication) {
+        User user = userService.getUserByUsername(authentication.getName());
+        Long streamUserId = user.getId();
+        if (accountId != null) {
+            Account account;
+            try {
+                account = accountService.getAccountById(accountId);
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
             
             // Check if user owns this account or has admin/employee role
             if (!account.getUser().getId().equals(user.getId()) && 
                 !user.getRole().name().equals("ADMIN") && 
                 !user.getRole().name().equals("EMPLOYEE")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            // Updates are published to the owner's streams
+            streamUserId = account.getUser().getId();
+        }
+        
+        try {
+            SseEmitter emitter = accountStreamService.subscribe(streamUserId, accountId);
+            return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+        } catch (Exception e) {
+            // Global or per-user stream limit reached
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> getAccountById(@PathVariable Long id, Authentication authentication, WebRequest request) {
+        try {
+            User user = userService.getUserByUsername(authentication.getName());
+            boolean staff = user.getRole().name().equals("ADMIN") || user.getRole().name().equals("EMPLOYEE");
+            
+            // A customer's tag lookup is scoped to their own accounts, so a 304 never skips the access check
+            String eTag = eTagService.forAccount(id, staff ? null : user.getId());
+            if (eTag != null && request.checkNotModified(eTag)) {
+                return null;
+            }
+            
+            Account account = accountService.getAccountById(id);
+            
+            // Check if user owns this account or has admin/employee role
+            if (!account.getUser().getId().equals(user.getId()) && !staff) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("message", "Access denied"));
             }
             
-            return ResponseEntity.ok(account);
+            return ResponseEntity.ok().cacheControl(ETagService.REVALIDATE).body(account);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("message", e.getMessage()));
@@ -4,21 +4,41 @@ import com.bankmanagement.model.User;
 import com.bankmanagement.model.Account;
 import com.bankmanagement.model.Transaction;
 import com.bankmanagement.model.Role;
+import com.bankmanagement.model.AccountStatus;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.AuditLog;
+import com.bankmanagement.model.LimitPolicy;
+import com.bankmanagement.model.LockingStrategy;
+import com.bankmanagement.model.TransactionType;
 import com.bankmanagement.dto.AccountAdminDTO;
+import com.bankmanagement.dto.TransactionDTO;
+import com.bankmanagement.config.PostingRetryAspect;
+import com.bankmanagement.service.AuditService;
 import com.bankmanagement.service.UserService;
 import com.bankmanagement.service.AccountService;
 import com.bankmanagement.service.TransactionService;
+import com.bankmanagement.service.ReconciliationService;
+import com.bankmanagement.service.ReversalService;
+import com.bankmanagement.service.JournalReplayService;
+import com.bankmanagement.service.LimitPolicyService;
+import com.bankmanagement.service.LockingStrategyService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -35,6 +55,27 @@ public class AdminController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private ReversalService reversalService;
+
+    @Autowired
+    private JournalReplayService journalReplayService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private LimitPolicyService limitPolicyService;
+
+    @Autowired
+    private LockingStrategyService lockingStrategyService;
+
+    @Autowired
+    private PostingRetryAspect postingRetryAspect;
+
     // Dashboard statistics - Bank specific
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats(Authentication authentication) {
@@ -95,60 +136,61 @@ public class AdminController {
 
     // User management - Bank specific
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers(Authentication authentication) {
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) Boolean active,
+                                                  @RequestParam(required = false) Role role,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+                                                  @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+                                                  Authentication authentication) {
         try {
             User adminUser = userService.getUserByUsername(authentication.getName());
             Long bankId = adminUser.getBank().getId();
             
-            List<User> bankUsers = userService.getUsersByBankId(bankId);
-            return ResponseEntity.ok(bankUsers);
+            return pageResponse(userService.getUsersByBankId(bankId, active, role, createdFrom, createdTo, pageable));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
     @GetMapping("/users/active")
-    public ResponseEntity<List<User>> getActiveUsers(Authentication authentication) {
+    public ResponseEntity<List<User>> getActiveUsers(@RequestParam(required = false) Role role,
+                                                     @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+                                                     Authentication authentication) {
         try {
             User adminUser = userService.getUserByUsername(authentication.getName());
             Long bankId = adminUser.getBank().getId();
             
-            List<User> users = userService.getActiveUsersByBankId(bankId);
-            return ResponseEntity.ok(users);
+            return pageResponse(userService.getUsersByBankId(bankId, true, role, null, null, pageable));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
     @GetMapping("/users/inactive")
-    public ResponseEntity<List<User>> getInactiveUsers(Authentication authentication) {
+    public ResponseEntity<List<User>> getInactiveUsers(@RequestParam(required = false) Role role,
+                                                       @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+                                                       Authentication authentication) {
         try {
             User adminUser = userService.getUserByUsername(authentication.getName());
             Long bankId = adminUser.getBank().getId();
             
-            List<User> allUsers = userService.getUsersByBankId(bankId);
-            List<User> inactiveUsers = allUsers.stream()
-                    .filter(user -> !user.isActive())
-                    .collect(java.util.stream.Collectors.toList());
-            return ResponseEntity.ok(inactiveUsers);
+            return pageResponse(userService.getUsersByBankId(bankId, false, role, null, null, pageable));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
     @GetMapping("/users/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String name, Authentication authentication) {
+    public ResponseEntity<List<User>> searchUsers(@RequestParam String name,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "50") int size,
+                                                  Authentication authentication) {
         try {
             User adminUser = userService.getUserByUsername(authentication.getName());
             Long bankId = adminUser.getBank().getId();
             
-            List<User> allUsers = userService.getUsersByBankId(bankId);
-            List<User> matchingUsers = allUsers.stream()
-                    .filter(user -> user.getFirstName().toLowerCase().contains(name.toLowerCase()) ||
-                                   user.getLastName().toLowerCase().contains(name.toLowerCase()) ||
-                                   user.getUsername().toLowerCase().contains(name.toLowerCase()))
-                    .collect(java.util.stream.Collectors.toList());
-            return ResponseEntity.ok(matchingUsers);
+            // Results are ranked best match first; the total lets clients page further
+            return pageResponse(userService.searchUsers(bankId, name, Math.max(page, 0), Math.min(Math.max(size, 1), 200)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
@@ -169,6 +211,8 @@ public class AdminController {
             // Ensure user remains in the same bank
             userDetails.setBank(existingUser.getBank());
             User updatedUser = userService.updateUser(id, userDetails);
+            auditService.record(adminUser, "USER_UPDATED", AuditService.TARGET_USER, id,
+                AuditService.userSnapshot(existingUser), AuditService.userSnapshot(updatedUser));
             return ResponseEntity.ok(Map.of(
                 "message", "User updated successfully",
                 "user", updatedUser
@@ -192,6 +236,8 @@ public class AdminController {
             }
             
             User user = userService.activateUser(id);
+            auditService.record(adminUser, "USER_ACTIVATED", AuditService.TARGET_USER, id,
+                AuditService.userSnapshot(existingUser), AuditService.userSnapshot(user));
             return ResponseEntity.ok(Map.of(
                 "message", "User activated successfully",
                 "user", user
@@ -215,6 +261,8 @@ public class AdminController {
             }
             
             User user = userService.deactivateUser(id);
+            auditService.record(adminUser, "USER_DEACTIVATED", AuditService.TARGET_USER, id,
+                AuditService.userSnapshot(existingUser), AuditService.userSnapshot(user));
             return ResponseEntity.ok(Map.of(
                 "message", "User deactivated successfully",
                 "user", user
@@ -240,8 +288,11 @@ public class AdminController {
             String roleStr = request.get("role");
             Role role = Role.valueOf(roleStr.toUpperCase());
             
+            Map<String, Object> before = AuditService.userSnapshot(existingUser);
             existingUser.setRole(role);
             User updatedUser = userService.updateUser(id, existingUser);
+            auditService.record(adminUser, "USER_ROLE_CHANGED", AuditService.TARGET_USER, id,
+                before, AuditService.userSnapshot(updatedUser));
             
             return ResponseEntity.ok(Map.of(
                 "message", "User role updated successfully",
@@ -266,6 +317,8 @@ public class AdminController {
             }
             
             userService.deleteUser(id);
+            auditService.record(adminUser, "USER_DELETED", AuditService.TARGET_USER, id,
+                AuditService.userSnapshot(existingUser), null);
             return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -275,17 +328,20 @@ public class AdminController {
 
     // Account management - Bank specific
     @GetMapping("/accounts")
-    public ResponseEntity<List<AccountAdminDTO>> getAllAccounts(Authentication authentication) {
+    public ResponseEntity<List<AccountAdminDTO>> getAllAccounts(@RequestParam(required = false) AccountStatus status,
+                                                                @RequestParam(required = false) AccountType type,
+                                                                @RequestParam(required = false) BigDecimal minBalance,
+                                                                @RequestParam(required = false) BigDecimal maxBalance,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+                                                                @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+                                                                Authentication authentication) {
         try {
             User adminUser = userService.getUserByUsername(authentication.getName());
             Long bankId = adminUser.getBank().getId();
             
-            List<Account> bankAccounts = accountService.getAccountsByBankId(bankId);
-            List<AccountAdminDTO> accountDTOs = bankAccounts.stream()
-                    .map(AccountAdminDTO::new)
-                    .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(accountDTOs);
+            return pageResponse(accountService.getAdminAccounts(bankId, status, type, minBalance, maxBalance,
+                    createdFrom, createdTo, pageable));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
@@ -293,13 +349,13 @@ public class AdminController {
 
     // Transaction management - Bank specific
     @GetMapping("/transactions")
-    public ResponseEntity<List<Transaction>> getAllTransactions(Authentication authentication) {
+    public ResponseEntity<List<TransactionDTO>> getAllTransactions(Authentication authentication) {
         try {
             User adminUser = userService.getUserByUsername(authentication.getName());
             Long bankId = adminUser.getBank().getId();
             
             List<Transaction> bankTransactions = transactionService.getTransactionsByBankId(bankId);
-            return ResponseEntity.ok(bankTransactions);
+            return ResponseEntity.ok(TransactionDTO.from(bankTransactions));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
@@ -318,6 +374,8 @@ public class AdminController {
             user.setRole(Role.CUSTOMER);
             
             User newUser = userService.createUser(user);
+            auditService.record(adminUser, "USER_CREATED", AuditService.TARGET_USER, newUser.getId(),
+                null, AuditService.userSnapshot(newUser));
             return ResponseEntity.ok(newUser);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -356,6 +414,8 @@ public class AdminController {
             employeeData.setBank(adminUser.getBank());
             employeeData.setRole(Role.EMPLOYEE);
             User createdEmployee = userService.createUser(employeeData);
+            auditService.record(adminUser, "EMPLOYEE_CREATED", AuditService.TARGET_USER, createdEmployee.getId(),
+                null, AuditService.userSnapshot(createdEmployee));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
                 "message", "Employee created successfully",
@@ -376,6 +436,8 @@ public class AdminController {
             adminData.setBank(adminUser.getBank());
             adminData.setRole(Role.ADMIN);
             User createdAdmin = userService.createUser(adminData);
+            auditService.record(adminUser, "ADMIN_CREATED", AuditService.TARGET_USER, createdAdmin.getId(),
+                null, AuditService.userSnapshot(createdAdmin));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
                 "message", "Admin created successfully",
@@ -386,4 +448,226 @@ public class AdminController {
                 .body(Map.of("message", e.getMessage()));
         }
     }
+
+    // Balance reconciliation - runs in the background; incremental unless full=true
+    @PostMapping("/reconciliation/run")
+    public ResponseEntity<?> runReconciliation(@RequestParam(defaultValue = "false") boolean full, Authentication authentication) {
+        if (!reconciliationService.startReconciliation(full)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "Reconciliation is already running"));
+        }
+        User adminUser = userService.getUserByUsername(authentication.getName());
+        auditService.record(adminUser, "RECONCILIATION_STARTED", AuditService.TARGET_RECONCILIATION, null,
+            null, Map.of("mode", full ? ReconciliationService.FULL : ReconciliationService.INCREMENTAL));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(Map.of("message", full ? "Full reconciliation started" : "Reconciliation started"));
+    }
+
+    @GetMapping("/reconciliation/runs")
+    public ResponseEntity<?> getReconciliationRuns(Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            return ResponseEntity.ok(reconciliationService.getRecentRuns(adminUser.getBank().getId(), 20));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/reconciliation/runs/{runId}/discrepancies")
+    public ResponseEntity<?> getReconciliationDiscrepancies(@PathVariable Long runId, Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            return ResponseEntity.ok(reconciliationService.getDiscrepancies(adminUser.getBank().getId(), runId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Bulk reversal, e.g. every posting of a failed payroll run; transactions outside this bank are refused
+    @PostMapping("/reversals")
+    public ResponseEntity<?> reverseTransactions(@RequestBody Map<String, Object> request, Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            Object ids = request.get("transactionIds");
+            if (!(ids instanceof List)) {
+                throw new RuntimeException("transactionIds must be a list");
+            }
+            List<Long> transactionIds = ((List<?>) ids).stream().map(id -> Long.valueOf(id.toString())).toList();
+            String reason = request.get("reason") != null ? request.get("reason").toString() : null;
+            
+            ReversalService.ReversalResult result = reversalService.reverseAll(transactionIds, reason,
+                adminUser.getBank().getId());
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("requested", transactionIds.size());
+            summary.put("reversed", result.getReversed());
+            summary.put("failed", result.getFailures().size());
+            summary.put("reason", reason);
+            auditService.record(adminUser, "TRANSACTIONS_REVERSED", AuditService.TARGET_TRANSACTION, null, null, summary);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Replays this instance's posting journal and compares it with the bank's balances; read-only
+    @GetMapping("/journal/verify")
+    public ResponseEntity<?> verifyJournal(Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            return ResponseEntity.ok(journalReplayService.verify(adminUser.getBank().getId()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Overwrites the bank's mismatched balances with the journal's; only in journal maintenance
+    @PostMapping("/journal/rebuild")
+    public ResponseEntity<?> rebuildFromJournal(Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            JournalReplayService.ReplayResult result = journalReplayService.rebuild(adminUser.getBank().getId());
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("lastSequence", result.getLastSequence());
+            summary.put("mismatches", result.getMismatchCount());
+            summary.put("repaired", result.getRepaired());
+            summary.put("accounts", result.getMismatches());
+            auditService.record(adminUser, "BALANCES_REBUILT_FROM_JOURNAL", AuditService.TARGET_JOURNAL, null, null, summary);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // This bank's locking strategy, with retry and conflict counts for both strategies on this instance
+    @GetMapping("/locking")
+    public ResponseEntity<?> getLocking(Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            return ResponseEntity.ok(Map.of(
+                "lockingStrategy", lockingStrategyService.getStrategy(adminUser.getBank().getId()),
+                "conflicts", postingRetryAspect.getStats()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Switches this bank's postings between row locks (PESSIMISTIC) and version checks with retries (OPTIMISTIC)
+    @PutMapping("/locking")
+    public ResponseEntity<?> setLockingStrategy(@RequestBody Map<String, String> request, Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            Long bankId = adminUser.getBank().getId();
+            LockingStrategy strategy = request.get("lockingStrategy") != null
+                ? LockingStrategy.valueOf(request.get("lockingStrategy").toUpperCase()) : null;
+            
+            LockingStrategy previous = lockingStrategyService.getStrategy(bankId);
+            lockingStrategyService.setStrategy(bankId, strategy);
+            auditService.record(adminUser, "LOCKING_STRATEGY_CHANGED", AuditService.TARGET_BANK, bankId,
+                Map.of("lockingStrategy", previous.name()), Map.of("lockingStrategy", strategy.name()));
+            return ResponseEntity.ok(Map.of(
+                "message", "Locking strategy updated successfully",
+                "lockingStrategy", strategy
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Audit trail of admin actions in this bank, newest first
+    @GetMapping("/audit-log")
+    public ResponseEntity<List<AuditLog>> getAuditLog(@RequestParam(required = false) String action,
+                                                      @RequestParam(required = false) Long actorId,
+                                                      @RequestParam(required = false) String targetType,
+                                                      @RequestParam(required = false) Long targetId,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                      @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+                                                      Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            return pageResponse(auditService.search(adminUser.getBank().getId(), action, actorId, targetType, targetId,
+                from, to, pageable));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    // Transaction limits: this bank's policies plus the all-banks defaults they override
+    @GetMapping("/limit-policies")
+    public ResponseEntity<?> getLimitPolicies(Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            return ResponseEntity.ok(limitPolicyService.getPolicies(adminUser.getBank().getId()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Creates or replaces the policy for (accountType, transactionType); omit accountType for all types
+    @PutMapping("/limit-policies")
+    public ResponseEntity<?> saveLimitPolicy(@RequestBody Map<String, Object> request, Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            Long bankId = adminUser.getBank().getId();
+            
+            AccountType accountType = request.get("accountType") != null
+                ? AccountType.valueOf(request.get("accountType").toString().toUpperCase()) : null;
+            TransactionType transactionType = request.get("transactionType") != null
+                ? TransactionType.valueOf(request.get("transactionType").toString().toUpperCase()) : null;
+            BigDecimal dailyLimit = request.get("dailyLimit") != null
+                ? new BigDecimal(request.get("dailyLimit").toString()) : null;
+            BigDecimal maxSingleAmount = request.get("maxSingleAmount") != null
+                ? new BigDecimal(request.get("maxSingleAmount").toString()) : null;
+            
+            LimitPolicy existing = limitPolicyService.findPolicy(bankId, accountType, transactionType);
+            Map<String, Object> before = existing != null ? AuditService.limitPolicySnapshot(existing) : null;
+            LimitPolicy policy = limitPolicyService.savePolicy(bankId, accountType, transactionType, dailyLimit, maxSingleAmount);
+            auditService.record(adminUser, existing != null ? "LIMIT_POLICY_UPDATED" : "LIMIT_POLICY_CREATED",
+                AuditService.TARGET_LIMIT_POLICY, policy.getId(), before, AuditService.limitPolicySnapshot(policy));
+            return ResponseEntity.ok(Map.of(
+                "message", "Limit policy saved successfully",
+                "policy", policy
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/limit-policies/{id}")
+    public ResponseEntity<?> deleteLimitPolicy(@PathVariable Long id, Authentication authentication) {
+        try {
+            User adminUser = userService.getUserByUsername(authentication.getName());
+            LimitPolicy policy = limitPolicyService.getPolicy(id);
+            // The all-banks defaults are managed by migrations, not by any one bank's admin
+            if (policy.getBankId() == null || !policy.getBankId().equals(adminUser.getBank().getId())) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Limit policy not found or not in your bank"));
+            }
+            
+            limitPolicyService.deletePolicy(id);
+            auditService.record(adminUser, "LIMIT_POLICY_DELETED", AuditService.TARGET_LIMIT_POLICY, id,
+                AuditService.limitPolicySnapshot(policy), null);
+            return ResponseEntity.ok(Map.of("message", "Limit policy deleted successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Listings keep a plain array body; the total goes in a header so clients can page
+    private <T> ResponseEntity<List<T>> pageResponse(Page<T> page) {
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.getTotalElements()))
+                .body(page.getContent());
+    }
 }
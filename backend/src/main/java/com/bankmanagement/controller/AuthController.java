@@ -2,12 +2,16 @@ package com.bankmanagement.controller;
 
 import com.bankmanagement.config.JwtUtil;
 import com.bankmanagement.dto.RegisterRequest;
+import com.bankmanagement.exception.PasswordHashingBusyException;
 import com.bankmanagement.model.Role;
 import com.bankmanagement.model.User;
 import com.bankmanagement.model.Bank;
 import com.bankmanagement.service.UserService;
 import com.bankmanagement.service.BankService;
+import com.bankmanagement.service.ETagService;
+import com.bankmanagement.service.PasswordHashingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,10 +20,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -35,34 +42,63 @@ public class AuthController {
     @Autowired
     private BankService bankService;
     
+    @Autowired
+    private ETagService eTagService;
+    
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> credentials) {
+        String username = credentials.get("username");
+        String password = credentials.get("password");
+        
         try {
-            String username = credentials.get("username");
-            String password = credentials.get("password");
-            
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(username, password)
-            );
-            
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtUtil.generateToken(userDetails);
-            
-            User user = userService.getUserByUsername(username);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
-            response.put("user", user);
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("message", "Invalid credentials");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+            // Authentication runs on the hashing pool; the request thread is released meanwhile
+            return passwordHashingService.submit(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)
+                ))
+                .handle((authentication, error) -> error == null
+                        ? loginResponse(authentication)
+                        : loginFailure(error));
+        } catch (PasswordHashingBusyException e) {
+            return CompletableFuture.completedFuture(tooManyRequests(e));
+        }
+    }
+    
+    private ResponseEntity<?> loginResponse(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String token = jwtUtil.generateToken(userDetails);
+        
+        // The principal was loaded from the primary; a replica may not have a just-registered user yet
+        User user = (User) userDetails;
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", token);
+        response.put("user", user);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    private ResponseEntity<?> loginFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof PasswordHashingBusyException) {
+            return tooManyRequests((PasswordHashingBusyException) cause);
         }
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Invalid credentials");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+    }
+    
+    private ResponseEntity<?> tooManyRequests(PasswordHashingBusyException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
     }
     
     @PostMapping("/register")
@@ -93,6 +129,8 @@ public class AuthController {
             response.put("user", createdUser);
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -101,9 +139,12 @@ public class AuthController {
     }
     
     @GetMapping("/banks")
-    public ResponseEntity<?> getAvailableBanks() {
+    public ResponseEntity<?> getAvailableBanks(WebRequest request) {
         try {
-            return ResponseEntity.ok(bankService.getAllBanks());
+            if (request.checkNotModified(eTagService.forBanks())) {
+                return null;
+            }
+            return ResponseEntity.ok().cacheControl(ETagService.REVALIDATE).body(bankService.getAllBanks());
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to fetch banks");
@@ -146,6 +187,8 @@ public class AuthController {
             response.put("user", createdUser);
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -189,6 +232,8 @@ public class AuthController {
                 error.put("message", "Current password is incorrect");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -0,0 +1,38 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.model.User;
+import com.bankmanagement.service.CustomerOverviewService;
+import com.bankmanagement.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/customers")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001", "http://localhost:3002"})
+public class CustomerController {
+
+    @Autowired
+    private CustomerOverviewService customerOverviewService;
+
+    @Autowired
+    private UserService userService;
+
+    // Accounts, balances, recent transactions per account and remaining daily limits in one call
+    @GetMapping("/me/overview")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> getMyOverview(Authentication authentication) {
+        try {
+            User user = userService.getUserByUsername(authentication.getName());
+            return ResponseEntity.ok(customerOverviewService.getOverview(user.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.model.OutboxConsumerOffset;
+import com.bankmanagement.model.OutboxEvent;
+import com.bankmanagement.service.OutboxRelay;
+import com.bankmanagement.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001", "http://localhost:3002"})
+@PreAuthorize("hasAnyRole('EMPLOYEE', 'ADMIN', 'EVENT_CONSUMER')")
+public class EventController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    // Incremental read without a stored offset; after is a sequence number
+    @GetMapping
+    public ResponseEntity<List<OutboxEvent>> getEventsAfter(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(outboxService.getEventsAfter(after, limit));
+    }
+
+    // Next batch for a named consumer, starting after its committed offset
+    @GetMapping("/consumers/{consumer}")
+    public ResponseEntity<Map<String, Object>> pollEvents(
+            @PathVariable String consumer,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<OutboxEvent> events = outboxService.getEventsForConsumer(consumer, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("consumer", consumer);
+        response.put("offset", outboxService.getConsumerOffset(consumer));
+        response.put("events", events);
+        return ResponseEntity.ok(response);
+    }
+
+    // Moving an offset skips events for that consumer: admins may move any but the relay's sinks,
+    // an event consumer only the one named after its own username
+    @PutMapping("/consumers/{consumer}/offset")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EVENT_CONSUMER')")
+    public ResponseEntity<?> acknowledgeEvents(@PathVariable String consumer, @RequestBody Map<String, Object> request,
+                                               Authentication authentication) {
+        if (consumer.startsWith(OutboxRelay.SINK_CONSUMER_PREFIX)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("message", "Offsets of relay sinks are managed by the relay"));
+        }
+        boolean admin = authentication.getAuthorities().stream()
+            .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+        if (!admin && !consumer.equals(authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("message", "Event consumers may only acknowledge their own offset"));
+        }
+        try {
+            Long lastSequenceNumber = Long.valueOf(request.get("lastSequenceNumber").toString());
+            OutboxConsumerOffset offset = outboxService.acknowledge(consumer, lastSequenceNumber);
+            return ResponseEntity.ok(Map.of(
+                "message", "Offset updated successfully",
+                "offset", offset
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", String.valueOf(e.getMessage())));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.model.ScheduleFrequency;
+import com.bankmanagement.model.ScheduledTransfer;
+import com.bankmanagement.model.User;
+import com.bankmanagement.service.ScheduledTransferService;
+import com.bankmanagement.service.TransactionService;
+import com.bankmanagement.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/scheduled-transfers")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001", "http://localhost:3002"})
+public class ScheduledTransferController {
+    
+    @Autowired
+    private ScheduledTransferService scheduledTransferService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @PostMapping
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> createScheduledTransfer(@RequestBody Map<String, Object> request, Authentication authentication) {
+        try {
+            Long fromAccountId = Long.valueOf(request.get("fromAccountId").toString());
+            BigDecimal amount = new BigDecimal(request.get("amount").toString());
+            String description = request.containsKey("description") ? request.get("description").toString() : null;
+            ScheduleFrequency frequency = request.containsKey("frequency")
+                ? ScheduleFrequency.valueOf(request.get("frequency").toString().toUpperCase())
+                : ScheduleFrequency.ONCE;
+            LocalDateTime startAt = request.containsKey("startAt") ? LocalDateTime.parse(request.get("startAt").toString()) : null;
+            LocalDateTime endAt = request.containsKey("endAt") ? LocalDateTime.parse(request.get("endAt").toString()) : null;
+            
+            // Handle both toAccountId and toAccountNumber
+            Long toAccountId;
+            if (request.containsKey("toAccountId")) {
+                toAccountId = Long.valueOf(request.get("toAccountId").toString());
+            } else if (request.containsKey("toAccountNumber")) {
+                toAccountId = transactionService.getAccountIdByAccountNumber(request.get("toAccountNumber").toString());
+            } else {
+                throw new RuntimeException("Either toAccountId or toAccountNumber must be provided");
+            }
+            
+            User user = userService.getUserByUsername(authentication.getName());
+            ScheduledTransfer scheduledTransfer = scheduledTransferService.createScheduledTransfer(user, fromAccountId,
+                toAccountId, amount, description, frequency, startAt, endAt);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Scheduled transfer created");
+            response.put("scheduledTransfer", scheduledTransfer);
+            
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/my")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> getMyScheduledTransfers(Authentication authentication) {
+        try {
+            User user = userService.getUserByUsername(authentication.getName());
+            List<ScheduledTransfer> scheduledTransfers = scheduledTransferService.getScheduledTransfersByUserId(user.getId());
+            return ResponseEntity.ok(scheduledTransfers);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @PutMapping("/{id}/pause")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> pauseScheduledTransfer(@PathVariable Long id, Authentication authentication) {
+        try {
+            User user = userService.getUserByUsername(authentication.getName());
+            ScheduledTransfer scheduledTransfer = scheduledTransferService.pauseScheduledTransfer(id, user);
+            return ResponseEntity.ok(scheduledTransfer);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @PutMapping("/{id}/resume")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> resumeScheduledTransfer(@PathVariable Long id, Authentication authentication) {
+        try {
+            User user = userService.getUserByUsername(authentication.getName());
+            ScheduledTransfer scheduledTransfer = scheduledTransferService.resumeScheduledTransfer(id, user);
+            return ResponseEntity.ok(scheduledTransfer);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> cancelScheduledTransfer(@PathVariable Long id, Authentication authentication) {
+        try {
+            User user = userService.getUserByUsername(authentication.getName());
+            scheduledTransferService.cancelScheduledTransfer(id, user);
+            return ResponseEntity.ok(Map.of("message", "Scheduled transfer cancelled"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+}
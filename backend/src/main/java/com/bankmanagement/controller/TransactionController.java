@@ -1,9 +1,17 @@
 package com.bankmanagement.controller;
 
+import com.bankmanagement.dto.TransactionDTO;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountHold;
 import com.bankmanagement.model.Transaction;
 import com.bankmanagement.model.TransactionStatus;
 import com.bankmanagement.model.TransactionType;
 import com.bankmanagement.model.User;
+import com.bankmanagement.service.AccountService;
+import com.bankmanagement.service.ETagService;
+import com.bankmanagement.service.FxRateService;
+import com.bankmanagement.service.LimitPolicyService;
+import com.bankmanagement.service.ReversalService;
 import com.bankmanagement.service.TransactionService;
 import com.bankmanagement.service.UserService;
 import jakarta.validation.Valid;
@@ -14,6 +22,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -32,6 +41,21 @@ public class TransactionController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LimitPolicyService limitPolicyService;
+
+    @Autowired
+    private ReversalService reversalService;
+
+    @Autowired
+    private ETagService eTagService;
+
+    @Autowired
+    private FxRateService fxRateService;
+
     // Customer transaction endpoints
     @PostMapping("/deposit")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
@@ -51,7 +75,7 @@ public class TransactionController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Deposit successful");
-            response.put("transaction", transaction);
+            response.put("transaction", new TransactionDTO(transaction));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -78,7 +102,7 @@ public class TransactionController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Withdrawal successful");
-            response.put("transaction", transaction);
+            response.put("transaction", new TransactionDTO(transaction));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -116,7 +140,36 @@ public class TransactionController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Transfer successful");
-            response.put("transaction", transaction);
+            response.put("transaction", new TransactionDTO(transaction));
+            
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Card-style authorizations: reserve now, capture or void later
+    @PostMapping("/authorize")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> authorize(@RequestBody Map<String, Object> request, Authentication authentication) {
+        try {
+            Long accountId = Long.valueOf(request.get("accountId").toString());
+            BigDecimal amount = new BigDecimal(request.get("amount").toString());
+            String description = request.getOrDefault("description", "Card authorization").toString();
+            Integer expiresInMinutes = request.get("expiresInMinutes") != null
+                    ? Integer.valueOf(request.get("expiresInMinutes").toString()) : null;
+            
+            if (!canAccess(accountService.getAccountById(accountId), authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Access denied"));
+            }
+            
+            AccountHold hold = transactionService.authorize(accountId, amount, description, expiresInMinutes);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Authorization successful");
+            response.put("hold", hold);
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -125,33 +178,107 @@ public class TransactionController {
         }
     }
 
+    // Captures the full authorized amount unless a smaller "amount" is given
+    @PostMapping("/holds/{holdId}/capture")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> captureHold(@PathVariable Long holdId, @RequestBody(required = false) Map<String, Object> request,
+                                         Authentication authentication) {
+        try {
+            AccountHold hold = transactionService.getHold(holdId);
+            if (!canAccess(accountService.getAccountById(hold.getAccountId()), authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Access denied"));
+            }
+            
+            BigDecimal amount = request != null && request.get("amount") != null
+                    ? new BigDecimal(request.get("amount").toString()) : null;
+            AccountHold captured = transactionService.capture(holdId, amount);
+            
+            return ResponseEntity.ok(Map.of(
+                "message", "Capture successful",
+                "hold", captured
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/holds/{holdId}/void")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> voidHold(@PathVariable Long holdId, Authentication authentication) {
+        try {
+            AccountHold hold = transactionService.getHold(holdId);
+            if (!canAccess(accountService.getAccountById(hold.getAccountId()), authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Access denied"));
+            }
+            
+            AccountHold voided = transactionService.voidHold(holdId);
+            
+            return ResponseEntity.ok(Map.of(
+                "message", "Authorization voided",
+                "hold", voided
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/account/{accountId}/holds")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> getActiveHolds(@PathVariable Long accountId, Authentication authentication) {
+        try {
+            if (!canAccess(accountService.getAccountById(accountId), authentication)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Access denied"));
+            }
+            return ResponseEntity.ok(transactionService.getActiveHolds(accountId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // Get transactions
     @GetMapping("/my-transactions")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<List<Transaction>> getMyTransactions(Authentication authentication) {
+    public ResponseEntity<List<TransactionDTO>> getMyTransactions(Authentication authentication, WebRequest request) {
         User user = userService.getUserByUsername(authentication.getName());
+        if (request.checkNotModified(eTagService.forUserHistory(user.getId()))) {
+            return null;
+        }
         List<Transaction> transactions = transactionService.getTransactionsByUserId(user.getId());
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok().cacheControl(ETagService.REVALIDATE).body(TransactionDTO.from(transactions));
     }
 
     @GetMapping("/account/{accountId}")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<List<Transaction>> getTransactionsByAccountId(@PathVariable Long accountId, Authentication authentication) {
+    public ResponseEntity<List<TransactionDTO>> getTransactionsByAccountId(@PathVariable Long accountId, Authentication authentication,
+                                                                           WebRequest request) {
         // Add verification for customer role
+        if (request.checkNotModified(eTagService.forAccountHistory(accountId))) {
+            return null;
+        }
         List<Transaction> transactions = transactionService.getTransactionsByAccountIdOrderByDate(accountId);
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok().cacheControl(ETagService.REVALIDATE).body(TransactionDTO.from(transactions));
     }
 
     @GetMapping("/account/{accountId}/date-range")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<List<Transaction>> getTransactionsByDateRange(
+    public ResponseEntity<List<TransactionDTO>> getTransactionsByDateRange(
             @PathVariable Long accountId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest request) {
         
+        if (request.checkNotModified(eTagService.forAccountHistory(accountId))) {
+            return null;
+        }
         List<Transaction> transactions = transactionService.getTransactionsByDateRange(accountId, startDate, endDate);
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok().cacheControl(ETagService.REVALIDATE).body(TransactionDTO.from(transactions));
     }
 
     @GetMapping("/{id}")
@@ -160,7 +287,7 @@ public class TransactionController {
         try {
             Transaction transaction = transactionService.getTransactionById(id);
             // Add verification for customer role
-            return ResponseEntity.ok(transaction);
+            return ResponseEntity.ok(new TransactionDTO(transaction));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("message", e.getMessage()));
@@ -173,7 +300,7 @@ public class TransactionController {
         try {
             Transaction transaction = transactionService.getTransactionByReference(reference);
             // Add verification for customer role
-            return ResponseEntity.ok(transaction);
+            return ResponseEntity.ok(new TransactionDTO(transaction));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("message", e.getMessage()));
@@ -183,18 +310,18 @@ public class TransactionController {
     // Admin/Employee endpoints
     @GetMapping("/all")
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
+    public ResponseEntity<List<TransactionDTO>> getAllTransactions() {
         List<Transaction> transactions = transactionService.getAllTransactions();
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok(TransactionDTO.from(transactions));
     }
 
     @GetMapping("/type/{type}")
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<List<Transaction>> getTransactionsByType(@PathVariable String type) {
+    public ResponseEntity<List<TransactionDTO>> getTransactionsByType(@PathVariable String type) {
         try {
             TransactionType transactionType = TransactionType.valueOf(type.toUpperCase());
             List<Transaction> transactions = transactionService.getTransactionsByType(transactionType);
-            return ResponseEntity.ok(transactions);
+            return ResponseEntity.ok(TransactionDTO.from(transactions));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -202,11 +329,11 @@ public class TransactionController {
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<List<Transaction>> getTransactionsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<TransactionDTO>> getTransactionsByStatus(@PathVariable String status) {
         try {
             TransactionStatus transactionStatus = TransactionStatus.valueOf(status.toUpperCase());
             List<Transaction> transactions = transactionService.getTransactionsByStatus(transactionStatus);
-            return ResponseEntity.ok(transactions);
+            return ResponseEntity.ok(TransactionDTO.from(transactions));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -214,9 +341,9 @@ public class TransactionController {
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<List<Transaction>> getTransactionsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<List<TransactionDTO>> getTransactionsByUserId(@PathVariable Long userId) {
         List<Transaction> transactions = transactionService.getTransactionsByUserId(userId);
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok(TransactionDTO.from(transactions));
     }
 
     @PutMapping("/{id}/status")
@@ -229,7 +356,7 @@ public class TransactionController {
             
             return ResponseEntity.ok(Map.of(
                 "message", "Transaction status updated successfully",
-                "transaction", updatedTransaction
+                "transaction", new TransactionDTO(updatedTransaction)
             ));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -244,7 +371,7 @@ public class TransactionController {
             Transaction cancelledTransaction = transactionService.cancelTransaction(id);
             return ResponseEntity.ok(Map.of(
                 "message", "Transaction cancelled successfully",
-                "transaction", cancelledTransaction
+                "transaction", new TransactionDTO(cancelledTransaction)
             ));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -252,15 +379,99 @@ public class TransactionController {
         }
     }
     
+    // Compensating REFUND posting; omit amount to refund everything not yet refunded
+    @PostMapping("/{id}/refund")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> refundTransaction(@PathVariable Long id, @RequestBody(required = false) Map<String, Object> request,
+                                               Authentication authentication) {
+        try {
+            User user = userService.getUserByUsername(authentication.getName());
+            BigDecimal amount = request != null && request.get("amount") != null
+                    ? new BigDecimal(request.get("amount").toString()) : null;
+            String reason = request != null && request.get("reason") != null ? request.get("reason").toString() : null;
+            
+            Transaction refund = reversalService.refund(id, amount, reason,
+                    user.getBank() != null ? user.getBank().getId() : null);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Refund successful");
+            response.put("transaction", new TransactionDTO(refund));
+            
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/refunds")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> getRefunds(@PathVariable Long id, Authentication authentication) {
+        Transaction original;
+        try {
+            original = transactionService.getTransactionById(id);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", e.getMessage()));
+        }
+        // Refund postings carry both accounts and their balances; only the original's parties may see them
+        boolean allowed = (original.getFromAccount() != null && canAccess(original.getFromAccount(), authentication))
+                || (original.getToAccount() != null && canAccess(original.getToAccount(), authentication));
+        if (!allowed) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("message", "Access denied"));
+        }
+        return ResponseEntity.ok(TransactionDTO.from(reversalService.getRefunds(id)));
+    }
+    
     @GetMapping("/limits")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
-    public ResponseEntity<Map<String, Object>> getTransactionLimits() {
+    public ResponseEntity<Map<String, Object>> getTransactionLimits(Authentication authentication) {
+        // Bank-wide policy for the caller's bank, in the base currency; per-account figures are under /limits/{accountId}
+        User user = userService.getUserByUsername(authentication.getName());
+        Long bankId = user.getBank() != null ? user.getBank().getId() : null;
+        
         Map<String, Object> limits = new HashMap<>();
-        limits.put("dailyWithdrawalLimit", transactionService.getDailyWithdrawalLimit());
-        limits.put("dailyTransferLimit", transactionService.getDailyTransferLimit());
-        limits.put("maxSingleTransaction", transactionService.getMaxSingleTransactionLimit());
+        limits.put("dailyWithdrawalLimit", limitPolicyService.getRule(bankId, null, TransactionType.WITHDRAWAL).getDailyLimit());
+        limits.put("dailyTransferLimit", limitPolicyService.getRule(bankId, null, TransactionType.TRANSFER).getDailyLimit());
+        limits.put("maxSingleTransaction", limitPolicyService.getRule(bankId, null, TransactionType.TRANSFER).getMaxSingleAmount());
         limits.put("minTransactionAmount", transactionService.getMinTransactionAmount());
+        limits.put("currency", fxRateService.getBaseCurrency());
         
         return ResponseEntity.ok(limits);
     }
+
+    @GetMapping("/limits/{accountId}")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'EMPLOYEE', 'ADMIN')")
+    public ResponseEntity<?> getRemainingLimits(@PathVariable Long accountId, Authentication authentication) {
+        try {
+            Account account = accountService.getAccountById(accountId);
+            User user = userService.getUserByUsername(authentication.getName());
+            
+            // Check if user owns this account or has admin/employee role
+            if (!account.getUser().getId().equals(user.getId()) && 
+                !user.getRole().name().equals("ADMIN") && 
+                !user.getRole().name().equals("EMPLOYEE")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Access denied"));
+            }
+            
+            return ResponseEntity.ok(transactionService.getRemainingDailyLimits(accountId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    // Account owner, or staff
+    // The owner, or staff of the account's bank
+    private boolean canAccess(Account account, Authentication authentication) {
+        User user = userService.getUserByUsername(authentication.getName());
+        if (account.getUser().getId().equals(user.getId())) {
+            return true;
+        }
+        boolean staff = user.getRole().name().equals("ADMIN") || user.getRole().name().equals("EMPLOYEE");
+        return staff && user.getBank() != null && account.getBank() != null
+                && user.getBank().getId().equals(account.getBank().getId());
+    }
 }
@@ -33,6 +33,23 @@ public class AccountAdminDTO {
         }
     }
     
+    // Projection constructor used by AccountRepository.findAdminAccounts
+    public AccountAdminDTO(Long id, String accountNumber, AccountType accountType, BigDecimal balance,
+                           AccountStatus accountStatus, LocalDateTime createdAt, LocalDateTime updatedAt,
+                           Long userId, String firstName, String lastName, String email, String username) {
+        this.id = id;
+        this.accountNumber = accountNumber;
+        this.accountType = accountType;
+        this.balance = balance;
+        this.accountStatus = accountStatus;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        
+        if (userId != null) {
+            this.user = new UserBasicDTO(userId, firstName, lastName, email, username);
+        }
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
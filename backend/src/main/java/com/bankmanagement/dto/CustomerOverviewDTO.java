@@ -0,0 +1,160 @@
+package com.bankmanagement.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Everything the customer dashboard shows, in one response
+public class CustomerOverviewDTO {
+    // Sum of the account balances converted to totalBalanceCurrency
+    private BigDecimal totalBalance = BigDecimal.ZERO;
+    private String totalBalanceCurrency;
+    private BigDecimal dailyWithdrawalLimit;
+    private BigDecimal dailyTransferLimit;
+    private BigDecimal maxSingleTransaction;
+    private BigDecimal minTransactionAmount;
+    private List<AccountSummary> accounts = new ArrayList<>();
+    private LocalDateTime generatedAt;
+    
+    public static class AccountSummary {
+        private Long id;
+        private String accountNumber;
+        private String accountType;
+        private String accountStatus;
+        private BigDecimal balance;
+        private BigDecimal availableBalance;
+        private String currency;
+        private BigDecimal dailyWithdrawalLimit;
+        private BigDecimal remainingDailyWithdrawal;
+        private BigDecimal dailyTransferLimit;
+        private BigDecimal remainingDailyTransfer;
+        private List<TransactionSummary> recentTransactions = new ArrayList<>();
+        
+        public AccountSummary() {}
+        
+        public AccountSummary(Long id, String accountNumber, String accountType, String accountStatus, BigDecimal balance) {
+            this.id = id;
+            this.accountNumber = accountNumber;
+            this.accountType = accountType;
+            this.accountStatus = accountStatus;
+            this.balance = balance;
+        }
+        
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        
+        public String getAccountNumber() { return accountNumber; }
+        public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+        
+        public String getAccountType() { return accountType; }
+        public void setAccountType(String accountType) { this.accountType = accountType; }
+        
+        public String getAccountStatus() { return accountStatus; }
+        public void setAccountStatus(String accountStatus) { this.accountStatus = accountStatus; }
+        
+        public BigDecimal getBalance() { return balance; }
+        public void setBalance(BigDecimal balance) { this.balance = balance; }
+        
+        public BigDecimal getAvailableBalance() { return availableBalance; }
+        public void setAvailableBalance(BigDecimal availableBalance) { this.availableBalance = availableBalance; }
+        
+        public String getCurrency() { return currency; }
+        public void setCurrency(String currency) { this.currency = currency; }
+        
+        public BigDecimal getDailyWithdrawalLimit() { return dailyWithdrawalLimit; }
+        public void setDailyWithdrawalLimit(BigDecimal dailyWithdrawalLimit) { this.dailyWithdrawalLimit = dailyWithdrawalLimit; }
+        
+        public BigDecimal getRemainingDailyWithdrawal() { return remainingDailyWithdrawal; }
+        public void setRemainingDailyWithdrawal(BigDecimal remainingDailyWithdrawal) { this.remainingDailyWithdrawal = remainingDailyWithdrawal; }
+        
+        public BigDecimal getDailyTransferLimit() { return dailyTransferLimit; }
+        public void setDailyTransferLimit(BigDecimal dailyTransferLimit) { this.dailyTransferLimit = dailyTransferLimit; }
+        
+        public BigDecimal getRemainingDailyTransfer() { return remainingDailyTransfer; }
+        public void setRemainingDailyTransfer(BigDecimal remainingDailyTransfer) { this.remainingDailyTransfer = remainingDailyTransfer; }
+        
+        public List<TransactionSummary> getRecentTransactions() { return recentTransactions; }
+        public void setRecentTransactions(List<TransactionSummary> recentTransactions) { this.recentTransactions = recentTransactions; }
+    }
+    
+    public static class TransactionSummary {
+        private Long id;
+        private String transactionReference;
+        private String transactionType;
+        private String transactionStatus;
+        private BigDecimal amount;
+        private String currency;
+        private BigDecimal creditedAmount;
+        private String creditedCurrency;
+        private String description;
+        private Long fromAccountId;
+        private Long toAccountId;
+        private BigDecimal balanceAfterTransaction;
+        private LocalDateTime createdAt;
+        
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        
+        public String getTransactionReference() { return transactionReference; }
+        public void setTransactionReference(String transactionReference) { this.transactionReference = transactionReference; }
+        
+        public String getTransactionType() { return transactionType; }
+        public void setTransactionType(String transactionType) { this.transactionType = transactionType; }
+        
+        public String getTransactionStatus() { return transactionStatus; }
+        public void setTransactionStatus(String transactionStatus) { this.transactionStatus = transactionStatus; }
+        
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+        
+        public String getCurrency() { return currency; }
+        public void setCurrency(String currency) { this.currency = currency; }
+        
+        public BigDecimal getCreditedAmount() { return creditedAmount; }
+        public void setCreditedAmount(BigDecimal creditedAmount) { this.creditedAmount = creditedAmount; }
+        
+        public String getCreditedCurrency() { return creditedCurrency; }
+        public void setCreditedCurrency(String creditedCurrency) { this.creditedCurrency = creditedCurrency; }
+        
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+        
+        public Long getFromAccountId() { return fromAccountId; }
+        public void setFromAccountId(Long fromAccountId) { this.fromAccountId = fromAccountId; }
+        
+        public Long getToAccountId() { return toAccountId; }
+        public void setToAccountId(Long toAccountId) { this.toAccountId = toAccountId; }
+        
+        public BigDecimal getBalanceAfterTransaction() { return balanceAfterTransaction; }
+        public void setBalanceAfterTransaction(BigDecimal balanceAfterTransaction) { this.balanceAfterTransaction = balanceAfterTransaction; }
+        
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    }
+    
+    // Getters and Setters
+    public BigDecimal getTotalBalance() { return totalBalance; }
+    public void setTotalBalance(BigDecimal totalBalance) { this.totalBalance = totalBalance; }
+    
+    public String getTotalBalanceCurrency() { return totalBalanceCurrency; }
+    public void setTotalBalanceCurrency(String totalBalanceCurrency) { this.totalBalanceCurrency = totalBalanceCurrency; }
+    
+    public BigDecimal getDailyWithdrawalLimit() { return dailyWithdrawalLimit; }
+    public void setDailyWithdrawalLimit(BigDecimal dailyWithdrawalLimit) { this.dailyWithdrawalLimit = dailyWithdrawalLimit; }
+    
+    public BigDecimal getDailyTransferLimit() { return dailyTransferLimit; }
+    public void setDailyTransferLimit(BigDecimal dailyTransferLimit) { this.dailyTransferLimit = dailyTransferLimit; }
+    
+    public BigDecimal getMaxSingleTransaction() { return maxSingleTransaction; }
+    public void setMaxSingleTransaction(BigDecimal maxSingleTransaction) { this.maxSingleTransaction = maxSingleTransaction; }
+    
+    public BigDecimal getMinTransactionAmount() { return minTransactionAmount; }
+    public void setMinTransactionAmount(BigDecimal minTransactionAmount) { this.minTransactionAmount = minTransactionAmount; }
+    
+    public List<AccountSummary> getAccounts() { return accounts; }
+    public void setAccounts(List<AccountSummary> accounts) { this.accounts = accounts; }
+    
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+}
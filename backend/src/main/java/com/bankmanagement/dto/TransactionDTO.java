@@ -0,0 +1,222 @@
+package com.bankmanagement.dto;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Transaction;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.hibernate.Hibernate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the API returns for a transaction: the posting's own columns plus the ids and numbers of
+ * its accounts, instead of the entity with both Account graphs attached. Built while the entity
+ * is loaded, so serializing it never touches Hibernate; written by a hand-written serializer
+ * with pre-encoded field names. Cross-currency and refund fields are left out when empty.
+ */
+@JsonSerialize(using = TransactionDTO.Serializer.class)
+public class TransactionDTO {
+    private final Long id;
+    private final String transactionReference;
+    private final String transactionType;
+    private final String transactionStatus;
+    private final BigDecimal amount;
+    private final String currency;
+    private final String description;
+    private final Long fromAccountId;
+    private final String fromAccountNumber;
+    private final Long toAccountId;
+    private final String toAccountNumber;
+    private final BigDecimal balanceAfterTransaction;
+    private final String failureReason;
+    private final BigDecimal creditedAmount;
+    private final String creditedCurrency;
+    private final BigDecimal fxRate;
+    private final Long fxRateVersion;
+    private final Long originalTransactionId;
+    private final BigDecimal refundedAmount;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    
+    public TransactionDTO(Transaction transaction) {
+        this.id = transaction.getId();
+        this.transactionReference = transaction.getTransactionReference();
+        this.transactionType = transaction.getTransactionType() != null ? transaction.getTransactionType().name() : null;
+        this.transactionStatus = transaction.getTransactionStatus() != null ? transaction.getTransactionStatus().name() : null;
+        this.amount = transaction.getAmount();
+        this.currency = transaction.getCurrency();
+        this.description = transaction.getDescription();
+        this.fromAccountId = accountId(transaction.getFromAccount());
+        this.fromAccountNumber = accountNumber(transaction.getFromAccount());
+        this.toAccountId = accountId(transaction.getToAccount());
+        this.toAccountNumber = accountNumber(transaction.getToAccount());
+        this.balanceAfterTransaction = transaction.getBalanceAfterTransaction();
+        this.failureReason = transaction.getFailureReason();
+        this.creditedAmount = transaction.getCreditedAmount();
+        this.creditedCurrency = transaction.getCreditedCurrency();
+        this.fxRate = transaction.getFxRate();
+        this.fxRateVersion = transaction.getFxRateVersion();
+        this.originalTransactionId = transaction.getOriginalTransactionId();
+        this.refundedAmount = transaction.getRefundedAmount();
+        this.createdAt = transaction.getCreatedAt();
+        this.updatedAt = transaction.getUpdatedAt();
+    }
+    
+    public static List<TransactionDTO> from(List<Transaction> transactions) {
+        List<TransactionDTO> dtos = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            dtos.add(new TransactionDTO(transaction));
+        }
+        return dtos;
+    }
+    
+    // A proxy's id is known without loading it
+    private static Long accountId(Account account) {
+        return account != null ? account.getId() : null;
+    }
+    
+    // Only from an account that is already loaded; never triggers a lazy load
+    private static String accountNumber(Account account) {
+        return account != null && Hibernate.isInitialized(account) ? account.getAccountNumber() : null;
+    }
+    
+    public Long getId() { return id; }
+    public String getTransactionReference() { return transactionReference; }
+    public String getTransactionType() { return transactionType; }
+    public String getTransactionStatus() { return transactionStatus; }
+    public BigDecimal getAmount() { return amount; }
+    public String getCurrency() { return currency; }
+    public String getDescription() { return description; }
+    public Long getFromAccountId() { return fromAccountId; }
+    public String getFromAccountNumber() { return fromAccountNumber; }
+    public Long getToAccountId() { return toAccountId; }
+    public String getToAccountNumber() { return toAccountNumber; }
+    public BigDecimal getBalanceAfterTransaction() { return balanceAfterTransaction; }
+    public String getFailureReason() { return failureReason; }
+    public BigDecimal getCreditedAmount() { return creditedAmount; }
+    public String getCreditedCurrency() { return creditedCurrency; }
+    public BigDecimal getFxRate() { return fxRate; }
+    public Long getFxRateVersion() { return fxRateVersion; }
+    public Long getOriginalTransactionId() { return originalTransactionId; }
+    public BigDecimal getRefundedAmount() { return refundedAmount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    
+    // Field order is fixed; dates go through the configured LocalDateTime serializer, resolved once
+    public static class Serializer extends StdSerializer<TransactionDTO> implements ResolvableSerializer {
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString TRANSACTION_REFERENCE = new SerializedString("transactionReference");
+        private static final SerializedString TRANSACTION_TYPE = new SerializedString("transactionType");
+        private static final SerializedString TRANSACTION_STATUS = new SerializedString("transactionStatus");
+        private static final SerializedString AMOUNT = new SerializedString("amount");
+        private static final SerializedString CURRENCY = new SerializedString("currency");
+        private static final SerializedString DESCRIPTION = new SerializedString("description");
+        private static final SerializedString FROM_ACCOUNT_ID = new SerializedString("fromAccountId");
+        private static final SerializedString FROM_ACCOUNT_NUMBER = new SerializedString("fromAccountNumber");
+        private static final SerializedString TO_ACCOUNT_ID = new SerializedString("toAccountId");
+        private static final SerializedString TO_ACCOUNT_NUMBER = new SerializedString("toAccountNumber");
+        private static final SerializedString BALANCE_AFTER_TRANSACTION = new SerializedString("balanceAfterTransaction");
+        private static final SerializedString FAILURE_REASON = new SerializedString("failureReason");
+        private static final SerializedString CREDITED_AMOUNT = new SerializedString("creditedAmount");
+        private static final SerializedString CREDITED_CURRENCY = new SerializedString("creditedCurrency");
+        private static final SerializedString FX_RATE = new SerializedString("fxRate");
+        private static final SerializedString FX_RATE_VERSION = new SerializedString("fxRateVersion");
+        private static final SerializedString ORIGINAL_TRANSACTION_ID = new SerializedString("originalTransactionId");
+        private static final SerializedString REFUNDED_AMOUNT = new SerializedString("refundedAmount");
+        private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+        private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+        
+        private JsonSerializer<Object> dateSerializer;
+        
+        public Serializer() {
+            super(TransactionDTO.class);
+        }
+        
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            dateSerializer = provider.findValueSerializer(LocalDateTime.class);
+        }
+        
+        @Override
+        public void serialize(TransactionDTO dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeNumber(gen, ID, dto.id);
+            writeString(gen, TRANSACTION_REFERENCE, dto.transactionReference);
+            writeString(gen, TRANSACTION_TYPE, dto.transactionType);
+            writeString(gen, TRANSACTION_STATUS, dto.transactionStatus);
+            writeNumber(gen, AMOUNT, dto.amount);
+            writeString(gen, CURRENCY, dto.currency);
+            writeString(gen, DESCRIPTION, dto.description);
+            writeNumber(gen, FROM_ACCOUNT_ID, dto.fromAccountId);
+            writeString(gen, FROM_ACCOUNT_NUMBER, dto.fromAccountNumber);
+            writeNumber(gen, TO_ACCOUNT_ID, dto.toAccountId);
+            writeString(gen, TO_ACCOUNT_NUMBER, dto.toAccountNumber);
+            writeNumber(gen, BALANCE_AFTER_TRANSACTION, dto.balanceAfterTransaction);
+            if (dto.failureReason != null) {
+                writeString(gen, FAILURE_REASON, dto.failureReason);
+            }
+            if (dto.creditedAmount != null) {
+                writeNumber(gen, CREDITED_AMOUNT, dto.creditedAmount);
+                writeString(gen, CREDITED_CURRENCY, dto.creditedCurrency);
+                writeNumber(gen, FX_RATE, dto.fxRate);
+                writeNumber(gen, FX_RATE_VERSION, dto.fxRateVersion);
+            }
+            if (dto.originalTransactionId != null) {
+                writeNumber(gen, ORIGINAL_TRANSACTION_ID, dto.originalTransactionId);
+            }
+            if (dto.refundedAmount != null && dto.refundedAmount.signum() != 0) {
+                writeNumber(gen, REFUNDED_AMOUNT, dto.refundedAmount);
+            }
+            writeDate(gen, provider, CREATED_AT, dto.createdAt);
+            writeDate(gen, provider, UPDATED_AT, dto.updatedAt);
+            gen.writeEndObject();
+        }
+        
+        private static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+            gen.writeFieldName(name);
+            if (value != null) {
+                gen.writeString(value);
+            } else {
+                gen.writeNull();
+            }
+        }
+        
+        private static void writeNumber(JsonGenerator gen, SerializedString name, Long value) throws IOException {
+            gen.writeFieldName(name);
+            if (value != null) {
+                gen.writeNumber(value);
+            } else {
+                gen.writeNull();
+            }
+        }
+        
+        private static void writeNumber(JsonGenerator gen, SerializedString name, BigDecimal value) throws IOException {
+            gen.writeFieldName(name);
+            if (value != null) {
+                gen.writeNumber(value);
+            } else {
+                gen.writeNull();
+            }
+        }
+        
+        private void writeDate(JsonGenerator gen, SerializerProvider provider, SerializedString name, LocalDateTime value)
+                throws IOException {
+            gen.writeFieldName(name);
+            if (value != null) {
+                dateSerializer.serialize(value, gen, provider);
+            } else {
+                gen.writeNull();
+            }
+        }
+    }
+}
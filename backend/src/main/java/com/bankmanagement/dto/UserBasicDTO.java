@@ -19,6 +19,14 @@ public class UserBasicDTO {
         this.username = user.getUsername();
     }
     
+    public UserBasicDTO(Long id, String firstName, String lastName, String email, String username) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.username = username;
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -1,7 +1,9 @@
 package com.bankmanagement.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -57,6 +59,55 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(RiskDeclinedException.class)
+    public ResponseEntity<Map<String, Object>> handleRiskDeclined(
+            RiskDeclinedException ex, WebRequest request) {
+        Map<String, Object> errorDetails = createErrorResponse(
+            "RISK_DECLINED", 
+            ex.getMessage(),
+            HttpStatus.FORBIDDEN
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.FORBIDDEN);
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, Object>> handlePasswordHashingBusy(
+            PasswordHashingBusyException ex, WebRequest request) {
+        Map<String, Object> errorDetails = createErrorResponse(
+            "TOO_MANY_REQUESTS", 
+            ex.getMessage(),
+            HttpStatus.TOO_MANY_REQUESTS
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(errorDetails);
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrentUpdate(
+            ConcurrentUpdateException ex, WebRequest request) {
+        Map<String, Object> errorDetails = createErrorResponse(
+            "CONCURRENT_UPDATE", 
+            ex.getMessage(),
+            HttpStatus.CONFLICT
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(errorDetails);
+    }
+
+    // @PreAuthorize denials would otherwise fall through to the RuntimeException handler as a 500
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Map<String, Object>> handleAccessDenied(
+            AccessDeniedException ex, WebRequest request) {
+        Map<String, Object> errorDetails = createErrorResponse(
+            "ACCESS_DENIED", 
+            ex.getMessage(),
+            HttpStatus.FORBIDDEN
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.FORBIDDEN);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntimeException(
             RuntimeException ex, WebRequest request) {
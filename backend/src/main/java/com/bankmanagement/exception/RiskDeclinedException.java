@@ -0,0 +1,7 @@
+package com.bankmanagement.exception;
+
+public class RiskDeclinedException extends RuntimeException {
+    public RiskDeclinedException(String message) {
+        super(message);
+    }
+}
@@ -6,6 +6,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,6 +25,7 @@ public class Account {
     
     @NotNull(message = "Account type is required")
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private AccountType accountType;
     
@@ -30,16 +33,32 @@ public class Account {
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal balance;
     
+    // Sum of ACTIVE holds. Only ever changed by relative SQL updates (see TransactionService
+    // and HoldExpiryService), so saving a stale entity can't overwrite it.
+    @Column(nullable = false, precision = 15, scale = 2, insertable = false, updatable = false)
+    private BigDecimal heldAmount;
+    
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private AccountStatus accountStatus;
     
+    // ISO 4217 code; balance and all postings on this account are in it
+    @Column(nullable = false, length = 3)
+    private String currency;
+    
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Checked and bumped on every JPA update; the JDBC balance and hold updates bump it too
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonBackReference
@@ -62,7 +81,9 @@ public class Account {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
         this.balance = BigDecimal.ZERO;
+        this.heldAmount = BigDecimal.ZERO;
         this.accountStatus = AccountStatus.ACTIVE;
+        this.currency = "INR";
     }
     
     @PreUpdate
@@ -83,15 +104,28 @@ public class Account {
     public BigDecimal getBalance() { return balance; }
     public void setBalance(BigDecimal balance) { this.balance = balance; }
     
+    public BigDecimal getHeldAmount() { return heldAmount; }
+    public void setHeldAmount(BigDecimal heldAmount) { this.heldAmount = heldAmount; }
+    
+    // What withdrawals, transfers and new holds can spend
+    public BigDecimal getAvailableBalance() {
+        return heldAmount != null ? balance.subtract(heldAmount) : balance;
+    }
+    
     public AccountStatus getAccountStatus() { return accountStatus; }
     public void setAccountStatus(AccountStatus accountStatus) { this.accountStatus = accountStatus; }
     
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getVersion() { return version; }
+    
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
     
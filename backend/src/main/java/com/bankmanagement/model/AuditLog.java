@@ -0,0 +1,64 @@
+package com.bankmanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "audit_log")
+public class AuditLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    private Long bankId;
+    
+    private Long actorUserId;
+    
+    private String actorUsername;
+    
+    @Column(nullable = false, length = 64)
+    private String action;
+    
+    @Column(nullable = false, length = 64)
+    private String targetType;
+    
+    private Long targetId;
+    
+    // JSON object of changed fields: {"field": {"before": ..., "after": ...}}
+    @Column(columnDefinition = "TEXT")
+    @JsonRawValue
+    private String changes;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getBankId() { return bankId; }
+    public void setBankId(Long bankId) { this.bankId = bankId; }
+    
+    public Long getActorUserId() { return actorUserId; }
+    public void setActorUserId(Long actorUserId) { this.actorUserId = actorUserId; }
+    
+    public String getActorUsername() { return actorUsername; }
+    public void setActorUsername(String actorUsername) { this.actorUsername = actorUsername; }
+    
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+    
+    public String getTargetType() { return targetType; }
+    public void setTargetType(String targetType) { this.targetType = targetType; }
+    
+    public Long getTargetId() { return targetId; }
+    public void setTargetId(Long targetId) { this.targetId = targetId; }
+    
+    public String getChanges() { return changes; }
+    public void setChanges(String changes) { this.changes = changes; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -1,6 +1,9 @@
 package com.bankmanagement.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -35,6 +38,13 @@ public class Bank {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Internal tuning, not part of the public bank listing
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "locking_strategy", nullable = false, length = 20)
+    @JsonIgnore
+    private LockingStrategy lockingStrategy = LockingStrategy.PESSIMISTIC;
+    
     @OneToMany(mappedBy = "bank", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<User> users;
     
@@ -55,6 +65,11 @@ public class Bank {
         this.email = email;
     }
     
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -128,6 +143,14 @@ public class Bank {
         this.updatedAt = updatedAt;
     }
     
+    public LockingStrategy getLockingStrategy() {
+        return lockingStrategy;
+    }
+    
+    public void setLockingStrategy(LockingStrategy lockingStrategy) {
+        this.lockingStrategy = lockingStrategy;
+    }
+    
     public List<User> getUsers() {
         return users;
     }
@@ -0,0 +1,8 @@
+package com.bankmanagement.model;
+
+public enum HoldStatus {
+    ACTIVE,
+    CAPTURED,
+    VOIDED,
+    EXPIRED
+}
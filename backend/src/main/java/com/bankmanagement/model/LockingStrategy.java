@@ -0,0 +1,7 @@
+package com.bankmanagement.model;
+
+// How postings on a bank's accounts serialize: SELECT ... FOR UPDATE, or a version check at flush with retries
+public enum LockingStrategy {
+    PESSIMISTIC,
+    OPTIMISTIC
+}
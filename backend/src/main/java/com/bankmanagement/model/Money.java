@@ -0,0 +1,95 @@
+package com.bankmanagement.model;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount held as a long count of hundredths (paise, cents), the scale every money column is
+ * stored at. Checks and sums on the posting, limit and reconciliation paths use it so they run
+ * on primitive longs; amounts become BigDecimal again only at the JPA/JSON boundary.
+ * Arithmetic is overflow-checked and throws ArithmeticException rather than wrapping.
+ */
+public final class Money implements Comparable<Money> {
+    
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+    
+    private final long minor;
+    
+    private Money(long minor) {
+        this.minor = minor;
+    }
+    
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+    
+    // Exact: an amount finer than a hundredth throws ArithmeticException
+    public static Money of(BigDecimal amount) {
+        return ofMinor(toMinor(amount));
+    }
+    
+    // Null stays null, for optional caps
+    public static Money ofNullable(BigDecimal amount) {
+        return amount != null ? of(amount) : null;
+    }
+    
+    public static long toMinor(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+    
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+    
+    public long getMinor() {
+        return minor;
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(minor);
+    }
+    
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+    
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+    
+    public int signum() {
+        return Long.signum(minor);
+    }
+    
+    public boolean isLessThan(Money other) {
+        return minor < other.minor;
+    }
+    
+    public boolean isGreaterThan(Money other) {
+        return minor > other.minor;
+    }
+    
+    public Money max(Money other) {
+        return minor >= other.minor ? this : other;
+    }
+    
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money && ((Money) other).minor == minor;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
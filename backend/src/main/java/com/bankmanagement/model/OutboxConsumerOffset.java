@@ -0,0 +1,45 @@
+package com.bankmanagement.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_consumer_offsets")
+public class OutboxConsumerOffset {
+    @Id
+    @Column(length = 100)
+    private String consumerName;
+    
+    // Sequence number of the last outbox event this consumer has processed
+    @Column(nullable = false)
+    private Long lastSequenceNumber;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public OutboxConsumerOffset() {
+        this.lastSequenceNumber = 0L;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public OutboxConsumerOffset(String consumerName) {
+        this();
+        this.consumerName = consumerName;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getConsumerName() { return consumerName; }
+    public void setConsumerName(String consumerName) { this.consumerName = consumerName; }
+    
+    public Long getLastSequenceNumber() { return lastSequenceNumber; }
+    public void setLastSequenceNumber(Long lastSequenceNumber) { this.lastSequenceNumber = lastSequenceNumber; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -3,5 +3,7 @@ package com.bankmanagement.model;
 public enum Role {
     ADMIN,
     CUSTOMER,
-    EMPLOYEE
+    EMPLOYEE,
+    // Service account that tails the event outbox and acknowledges its own consumer offset
+    EVENT_CONSUMER
 }
@@ -0,0 +1,8 @@
+package com.bankmanagement.model;
+
+public enum ScheduleFrequency {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY
+}
@@ -0,0 +1,9 @@
+package com.bankmanagement.model;
+
+public enum ScheduledTransferStatus {
+    ACTIVE,
+    PAUSED,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
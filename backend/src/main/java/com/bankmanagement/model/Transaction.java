@@ -1,10 +1,12 @@
 package com.bankmanagement.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -22,6 +24,7 @@ public class Transaction {
     
     @NotNull(message = "Transaction type is required")
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private TransactionType transactionType;
     
@@ -30,11 +33,16 @@ public class Transaction {
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal amount;
     
+    // Currency of amount: the source account's, or the only account's
+    @Column(nullable = false, length = 3)
+    private String currency;
+    
     @Column(length = 500)
     private String description;
     
     @NotNull(message = "Transaction status is required")
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private TransactionStatus transactionStatus;
     
@@ -44,23 +52,54 @@ public class Transaction {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Responses carry the account ids and numbers through TransactionDTO, never the Account graph
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "from_account_id")
-    @JsonIgnoreProperties({"outgoingTransactions", "incomingTransactions", "user", "hibernateLazyInitializer", "handler"})
+    @JsonIgnore
     private Account fromAccount;
     
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "to_account_id")
-    @JsonIgnoreProperties({"outgoingTransactions", "incomingTransactions", "user", "hibernateLazyInitializer", "handler"})
+    @JsonIgnore
     private Account toAccount;
     
     @Column(precision = 15, scale = 2)
     private BigDecimal balanceAfterTransaction;
     
+    @Column(length = 255)
+    private String failureReason;
+    
+    // Cross-currency transfers only: what the destination received, and at which rate table version
+    @Column(precision = 15, scale = 2)
+    private BigDecimal creditedAmount;
+    
+    @Column(length = 3)
+    private String creditedCurrency;
+    
+    @Column(precision = 19, scale = 8)
+    private BigDecimal fxRate;
+    
+    private Long fxRateVersion;
+    
+    // REFUND postings: the transaction they compensate
+    private Long originalTransactionId;
+    
+    // Sum of REFUND postings against this transaction; only changed under row lock by ReversalService
+    @Column(nullable = false, precision = 15, scale = 2, insertable = false, updatable = false)
+    private BigDecimal refundedAmount;
+    
+    // Guards status changes against concurrent ones; the JDBC status and refund updates bump it too
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long version;
+    
     public Transaction() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
         this.transactionStatus = TransactionStatus.PENDING;
+        this.currency = "INR";
+        this.refundedAmount = BigDecimal.ZERO;
     }
     
     @PreUpdate
@@ -93,6 +132,8 @@ public class Transaction {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getVersion() { return version; }
+    
     public Account getFromAccount() { return fromAccount; }
     public void setFromAccount(Account fromAccount) { this.fromAccount = fromAccount; }
     
@@ -101,4 +142,28 @@ public class Transaction {
     
     public BigDecimal getBalanceAfterTransaction() { return balanceAfterTransaction; }
     public void setBalanceAfterTransaction(BigDecimal balanceAfterTransaction) { this.balanceAfterTransaction = balanceAfterTransaction; }
+    
+    public String getFailureReason() { return failureReason; }
+    public void setFailureReason(String failureReason) { this.failureReason = failureReason; }
+    
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    
+    public BigDecimal getCreditedAmount() { return creditedAmount; }
+    public void setCreditedAmount(BigDecimal creditedAmount) { this.creditedAmount = creditedAmount; }
+    
+    public String getCreditedCurrency() { return creditedCurrency; }
+    public void setCreditedCurrency(String creditedCurrency) { this.creditedCurrency = creditedCurrency; }
+    
+    public BigDecimal getFxRate() { return fxRate; }
+    public void setFxRate(BigDecimal fxRate) { this.fxRate = fxRate; }
+    
+    public Long getFxRateVersion() { return fxRateVersion; }
+    public void setFxRateVersion(Long fxRateVersion) { this.fxRateVersion = fxRateVersion; }
+    
+    public Long getOriginalTransactionId() { return originalTransactionId; }
+    public void setOriginalTransactionId(Long originalTransactionId) { this.originalTransactionId = originalTransactionId; }
+    
+    public BigDecimal getRefundedAmount() { return refundedAmount; }
+    public void setRefundedAmount(BigDecimal refundedAmount) { this.refundedAmount = refundedAmount; }
 }
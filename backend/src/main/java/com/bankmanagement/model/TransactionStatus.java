@@ -4,5 +4,7 @@ public enum TransactionStatus {
     PENDING,
     COMPLETED,
     FAILED,
-    CANCELLED
+    CANCELLED,
+    // An authorization whose capture was posted as a transaction of its own
+    CAPTURED
 }
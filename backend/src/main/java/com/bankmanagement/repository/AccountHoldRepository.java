@@ -0,0 +1,28 @@
+package com.bankmanagement.repository;
+
+import com.bankmanagement.model.AccountHold;
+import com.bankmanagement.model.HoldStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountHoldRepository extends JpaRepository<AccountHold, Long> {
+    
+    @SupportedByIndex(table = "account_holds", columns = {"account_id", "status", "created_at"})
+    List<AccountHold> findByAccountIdAndStatusOrderByCreatedAtDesc(Long accountId, HoldStatus status);
+    
+    // Served by the index MySQL keeps for the transaction_id foreign key
+    @SupportedByIndex(table = "account_holds", columns = {"transaction_id"})
+    Optional<AccountHold> findByTransactionId(Long transactionId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM AccountHold h WHERE h.id = :id")
+    Optional<AccountHold> findByIdForUpdate(@Param("id") Long id);
+}
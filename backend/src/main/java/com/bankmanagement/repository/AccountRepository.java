@@ -3,23 +3,47 @@ package com.bankmanagement.repository;
 import com.bankmanagement.model.Account;
 import com.bankmanagement.model.AccountStatus;
 import com.bankmanagement.model.AccountType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, JpaSpecificationExecutor<Account>, AccountRepositoryCustom {
     Optional<Account> findByAccountNumber(String accountNumber);
+    @SupportedByIndex(table = "accounts", columns = {"user_id"})
     List<Account> findByUserId(Long userId);
     List<Account> findByAccountType(AccountType accountType);
     List<Account> findByAccountStatus(AccountStatus accountStatus);
     boolean existsByAccountNumber(String accountNumber);
     
+    // Serializes holds on one account so two authorizations can't both pass the available check
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+    
+    // Relative update, so it composes with the batch releases in HoldExpiryService
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE accounts SET held_amount = held_amount + :delta, updated_at = :now, version = version + 1 " +
+            "WHERE id = :id", nativeQuery = true)
+    int adjustHeldAmount(@Param("id") Long id, @Param("delta") BigDecimal delta, @Param("now") LocalDateTime now);
+    
+    // Marks the accounts changed for their ETags when only their transactions changed
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE accounts SET updated_at = :now, version = version + 1 WHERE id IN (:ids)", nativeQuery = true)
+    int touch(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @SupportedByIndex(table = "accounts", columns = {"user_id", "account_status"})
     @Query("SELECT a FROM Account a WHERE a.user.id = :userId AND a.accountStatus = :status")
     List<Account> findByUserIdAndAccountStatus(@Param("userId") Long userId, 
                                               @Param("status") AccountStatus status);
@@ -31,7 +55,9 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     long countByUserId(@Param("userId") Long userId);
     
     // Bank-specific queries
+    @SupportedByIndex(table = "accounts", columns = {"bank_id"})
     List<Account> findByBankId(Long bankId);
+    @SupportedByIndex(table = "accounts", columns = {"bank_id", "account_status"})
     List<Account> findByBankIdAndAccountStatus(Long bankId, AccountStatus status);
     
     @Query("SELECT a FROM Account a WHERE a.bank.id = :bankId")
@@ -40,6 +66,7 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT COUNT(a) FROM Account a WHERE a.bank.id = :bankId")
     long countByBankId(@Param("bankId") Long bankId);
     
+    @SupportedByIndex(table = "accounts", columns = {"bank_id", "account_status"})
     @Query("SELECT COUNT(a) FROM Account a WHERE a.bank.id = :bankId AND a.accountStatus = :status")
     long countByBankIdAndAccountStatus(@Param("bankId") Long bankId, @Param("status") AccountStatus status);
 }
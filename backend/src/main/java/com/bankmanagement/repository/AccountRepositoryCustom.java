@@ -0,0 +1,14 @@
+package com.bankmanagement.repository;
+
+import com.bankmanagement.dto.AccountAdminDTO;
+import com.bankmanagement.model.Account;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface AccountRepositoryCustom {
+    
+    // Selects only the DTO columns (account plus owner) instead of loading entities
+    @SupportedByIndex(table = "accounts", columns = {"bank_id", "created_at"})
+    Page<AccountAdminDTO> findAdminAccounts(Specification<Account> specification, Pageable pageable);
+}
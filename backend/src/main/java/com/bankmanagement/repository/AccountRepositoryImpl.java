@@ -0,0 +1,72 @@
+package com.bankmanagement.repository;
+
+import com.bankmanagement.dto.AccountAdminDTO;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+public class AccountRepositoryImpl implements AccountRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Page<AccountAdminDTO> findAdminAccounts(Specification<Account> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        
+        CriteriaQuery<AccountAdminDTO> query = cb.createQuery(AccountAdminDTO.class);
+        Root<Account> root = query.from(Account.class);
+        Join<Account, User> user = root.join("user", JoinType.LEFT);
+        query.select(cb.construct(AccountAdminDTO.class,
+                root.get("id"), root.get("accountNumber"), root.get("accountType"), root.get("balance"),
+                root.get("accountStatus"), root.get("createdAt"), root.get("updatedAt"),
+                user.get("id"), user.get("firstName"), user.get("lastName"), user.get("email"), user.get("username")));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        
+        TypedQuery<AccountAdminDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<AccountAdminDTO> content = typedQuery.getResultList();
+        
+        // Skip the count when the first page already holds everything
+        if (pageable.isUnpaged() || (pageable.getOffset() == 0 && content.size() < pageable.getPageSize())) {
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        return new PageImpl<>(content, pageable, count(specification));
+    }
+    
+    private long count(Specification<Account> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Account> root = query.from(Account.class);
+        query.select(cb.count(root));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,51 @@
+package com.bankmanagement.repository;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountStatus;
+import com.bankmanagement.model.AccountType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Filters for admin account listings; a null argument leaves that filter off
+public final class AccountSpecifications {
+    
+    private AccountSpecifications() {}
+    
+    public static Specification<Account> inBank(Long bankId) {
+        return (root, query, cb) -> cb.equal(root.get("bank").get("id"), bankId);
+    }
+    
+    public static Specification<Account> hasStatus(AccountStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("accountStatus"), status);
+    }
+    
+    public static Specification<Account> hasType(AccountType type) {
+        return (root, query, cb) -> type == null ? null : cb.equal(root.get("accountType"), type);
+    }
+    
+    public static Specification<Account> balanceBetween(BigDecimal min, BigDecimal max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.get("balance"), min, max);
+            }
+            if (min != null) {
+                return cb.greaterThanOrEqualTo(root.get("balance"), min);
+            }
+            return max == null ? null : cb.lessThanOrEqualTo(root.get("balance"), max);
+        };
+    }
+    
+    public static Specification<Account> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.between(root.get("createdAt"), from, to);
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+            }
+            return to == null ? null : cb.lessThanOrEqualTo(root.get("createdAt"), to);
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.bankmanagement.repository;
+
+import com.bankmanagement.model.AuditLog;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// Filters for the compliance audit query; a null argument leaves that filter off
+public final class AuditLogSpecifications {
+    
+    private AuditLogSpecifications() {}
+    
+    public static Specification<AuditLog> inBank(Long bankId) {
+        return (root, query, cb) -> cb.equal(root.get("bankId"), bankId);
+    }
+    
+    public static Specification<AuditLog> hasAction(String action) {
+        return (root, query, cb) -> action == null ? null : cb.equal(root.get("action"), action);
+    }
+    
+    public static Specification<AuditLog> byActor(Long actorUserId) {
+        return (root, query, cb) -> actorUserId == null ? null : cb.equal(root.get("actorUserId"), actorUserId);
+    }
+    
+    public static Specification<AuditLog> onTarget(String targetType, Long targetId) {
+        return (root, query, cb) -> {
+            if (targetType == null) {
+                return null;
+            }
+            return targetId == null
+                    ? cb.equal(root.get("targetType"), targetType)
+                    : cb.and(cb.equal(root.get("targetType"), targetType), cb.equal(root.get("targetId"), targetId));
+        };
+    }
+    
+    public static Specification<AuditLog> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.between(root.get("createdAt"), from, to);
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+            }
+            return to == null ? null : cb.lessThanOrEqualTo(root.get("createdAt"), to);
+        };
+    }
+}
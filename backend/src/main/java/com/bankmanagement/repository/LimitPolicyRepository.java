@@ -0,0 +1,30 @@
+package com.bankmanagement.repository;
+
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.LimitPolicy;
+import com.bankmanagement.model.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LimitPolicyRepository extends JpaRepository<LimitPolicy, Long> {
+    
+    // A bank's own policies plus the all-banks defaults
+    @Query("SELECT p FROM LimitPolicy p WHERE p.bankId = :bankId OR p.bankId IS NULL " +
+           "ORDER BY p.bankId, p.transactionType, p.accountType")
+    List<LimitPolicy> findForBank(@Param("bankId") Long bankId);
+    
+    @Query("SELECT p FROM LimitPolicy p WHERE p.bankId = :bankId AND p.transactionType = :transactionType " +
+           "AND ((:accountType IS NULL AND p.accountType IS NULL) OR p.accountType = :accountType)")
+    Optional<LimitPolicy> findScope(@Param("bankId") Long bankId, @Param("accountType") AccountType accountType,
+                                    @Param("transactionType") TransactionType transactionType);
+    
+    // Cheap change check for hot reload: any insert, update or delete moves one of these
+    @Query("SELECT COUNT(p), MAX(p.updatedAt), COALESCE(SUM(p.id), 0) FROM LimitPolicy p")
+    List<Object[]> fingerprint();
+}
@@ -0,0 +1,22 @@
+package com.bankmanagement.repository;
+
+import com.bankmanagement.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // Keyset read used by the relay and by consumers tailing the outbox; unnumbered events aren't committed yet
+    @SupportedByIndex(table = "outbox_events", columns = {"sequence_number"})
+    @Query("SELECT e FROM OutboxEvent e WHERE e.sequenceNumber > :afterSequenceNumber ORDER BY e.sequenceNumber ASC")
+    List<OutboxEvent> findEventsAfter(@Param("afterSequenceNumber") Long afterSequenceNumber, Pageable pageable);
+    
+    @Query("SELECT COALESCE(MAX(e.sequenceNumber), 0) FROM OutboxEvent e")
+    long findMaxSequenceNumber();
+}
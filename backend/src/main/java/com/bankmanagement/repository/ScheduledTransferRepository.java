@@ -0,0 +1,31 @@
+package com.bankmanagement.repository;
+
+import com.bankmanagement.model.ScheduledTransfer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+    
+    @SupportedByIndex(table = "scheduled_transfers", columns = {"user_id"})
+    List<ScheduledTransfer> findByUserIdOrderByNextRunAtAsc(Long userId);
+    
+    // Due queue: rows other nodes are claiming are skipped instead of waited on
+    @SupportedByIndex(table = "scheduled_transfers", columns = {"status", "next_run_at"})
+    @Query(value = "SELECT * FROM scheduled_transfers WHERE status = 'ACTIVE' AND next_run_at <= :now " +
+            "AND (lease_until IS NULL OR lease_until < :now) ORDER BY next_run_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<ScheduledTransfer> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScheduledTransfer s WHERE s.id = :id")
+    Optional<ScheduledTransfer> findByIdForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,28 @@
+package com.bankmanagement.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the index a repository query relies on: the table and the columns that must
+ * form the leading part of some index, in any order.
+ * Checked at startup by {@link com.bankmanagement.config.IndexVerifier}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Repeatable(SupportedByIndex.List.class)
+public @interface SupportedByIndex {
+    
+    String table();
+    
+    String[] columns();
+    
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface List {
+        SupportedByIndex[] value();
+    }
+}
@@ -15,9 +15,14 @@ import java.util.Optional;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByTransactionReference(String transactionReference);
+    
+    @SupportedByIndex(table = "transactions", columns = {"original_transaction_id"})
+    List<Transaction> findByOriginalTransactionIdOrderByCreatedAtAsc(Long originalTransactionId);
     List<Transaction> findByFromAccountId(Long fromAccountId);
     List<Transaction> findByToAccountId(Long toAccountId);
+    @SupportedByIndex(table = "transactions", columns = {"transaction_type"})
     List<Transaction> findByTransactionType(TransactionType transactionType);
+    @SupportedByIndex(table = "transactions", columns = {"transaction_status"})
     List<Transaction> findByTransactionStatus(TransactionStatus transactionStatus);
     
     @Query("SELECT t FROM Transaction t LEFT JOIN t.fromAccount fa LEFT JOIN t.toAccount ta " +
@@ -35,12 +40,34 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
            "WHERE (fa IS NOT NULL AND fa.user.id = :userId) OR (ta IS NOT NULL AND ta.user.id = :userId)")
     List<Transaction> findByUserId(@Param("userId") Long userId);
     
+    @SupportedByIndex(table = "transactions", columns = {"from_account_id", "created_at"})
+    @SupportedByIndex(table = "transactions", columns = {"to_account_id", "created_at"})
     @Query("SELECT t FROM Transaction t LEFT JOIN t.fromAccount fa LEFT JOIN t.toAccount ta " +
            "WHERE (fa IS NOT NULL AND fa.id = :accountId) OR (ta IS NOT NULL AND ta.id = :accountId) " +
            "ORDER BY t.createdAt DESC")
     List<Transaction> findByAccountIdOrderByCreatedAtDesc(@Param("accountId") Long accountId);
     
+    // Date-bounded variants: the created_at predicate lets MySQL prune monthly partitions
+    @SupportedByIndex(table = "transactions", columns = {"from_account_id", "created_at"})
+    @SupportedByIndex(table = "transactions", columns = {"to_account_id", "created_at"})
+    @Query("SELECT t FROM Transaction t LEFT JOIN t.fromAccount fa LEFT JOIN t.toAccount ta " +
+           "WHERE ((fa IS NOT NULL AND fa.id = :accountId) OR (ta IS NOT NULL AND ta.id = :accountId)) " +
+           "AND t.createdAt >= :since ORDER BY t.createdAt DESC")
+    List<Transaction> findByAccountIdSinceOrderByCreatedAtDesc(@Param("accountId") Long accountId,
+                                                              @Param("since") LocalDateTime since);
+    
+    @Query("SELECT t FROM Transaction t LEFT JOIN t.fromAccount fa LEFT JOIN t.toAccount ta " +
+           "WHERE ((fa IS NOT NULL AND fa.user.id = :userId) OR (ta IS NOT NULL AND ta.user.id = :userId)) " +
+           "AND t.createdAt >= :since")
+    List<Transaction> findByUserIdSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+    
+    @Query("SELECT t FROM Transaction t LEFT JOIN t.fromAccount fa LEFT JOIN t.toAccount ta WHERE " +
+           "((fa IS NOT NULL AND fa.bank.id = :bankId) OR (ta IS NOT NULL AND ta.bank.id = :bankId)) " +
+           "AND t.createdAt >= :since")
+    List<Transaction> findByBankIdSince(@Param("bankId") Long bankId, @Param("since") LocalDateTime since);
+    
     // New methods for daily limit checking
+    @SupportedByIndex(table = "transactions", columns = {"from_account_id", "transaction_type", "transaction_status", "created_at"})
     @Query("SELECT t FROM Transaction t WHERE t.fromAccount.id = :accountId " +
            "AND t.transactionType = :transactionType " +
            "AND t.createdAt BETWEEN :startDate AND :endDate " +
@@ -1,7 +1,11 @@
 package com.bankmanagement.repository;
 
 import com.bankmanagement.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,7 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
@@ -23,12 +27,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByIsActiveFalse();
     
     // Bank-specific queries
+    @SupportedByIndex(table = "users", columns = {"bank_id"})
     List<User> findByBankId(Long bankId);
+    @SupportedByIndex(table = "users", columns = {"bank_id", "is_active"})
     List<User> findByBankIdAndIsActiveTrue(Long bankId);
     
+    // Only the columns the search index needs, to avoid hydrating full entities per bank
+    @SupportedByIndex(table = "users", columns = {"bank_id"})
+    @Query("SELECT u.id, u.firstName, u.lastName, u.username, u.email, u.phoneNumber FROM User u WHERE u.bank.id = :bankId")
+    List<Object[]> findSearchFieldsByBankId(@Param("bankId") Long bankId);
+    
+    // Admin listings filter through UserSpecifications; default order is newest first
+    @SupportedByIndex(table = "users", columns = {"bank_id", "created_at"})
+    Page<User> findAll(Specification<User> specification, Pageable pageable);
+    
     @Query("SELECT COUNT(u) FROM User u WHERE u.bank.id = :bankId")
     long countByBankId(@Param("bankId") Long bankId);
     
+    @SupportedByIndex(table = "users", columns = {"bank_id", "is_active"})
     @Query("SELECT COUNT(u) FROM User u WHERE u.bank.id = :bankId AND u.isActive = true")
     long countByBankIdAndIsActiveTrue(@Param("bankId") Long bankId);
 }
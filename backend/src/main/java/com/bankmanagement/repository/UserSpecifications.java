@@ -0,0 +1,37 @@
+package com.bankmanagement.repository;
+
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// Filters for admin user listings; a null argument leaves that filter off
+public final class UserSpecifications {
+    
+    private UserSpecifications() {}
+    
+    public static Specification<User> inBank(Long bankId) {
+        return (root, query, cb) -> cb.equal(root.get("bank").get("id"), bankId);
+    }
+    
+    public static Specification<User> isActive(Boolean active) {
+        return (root, query, cb) -> active == null ? null : cb.equal(root.get("isActive"), active);
+    }
+    
+    public static Specification<User> hasRole(Role role) {
+        return (root, query, cb) -> role == null ? null : cb.equal(root.get("role"), role);
+    }
+    
+    public static Specification<User> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.between(root.get("createdAt"), from, to);
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+            }
+            return to == null ? null : cb.lessThanOrEqualTo(root.get("createdAt"), to);
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.bankmanagement.service;
+
+/**
+ * Published by {@link AccountService} when an account is opened, changed or removed,
+ * so per-user views built from accounts can be refreshed.
+ */
+public class AccountChangedEvent {
+    private final Long accountId;
+    private final Long userId;
+    
+    public AccountChangedEvent(Long accountId, Long userId) {
+        this.accountId = accountId;
+        this.userId = userId;
+    }
+    
+    public Long getAccountId() { return accountId; }
+    public Long getUserId() { return userId; }
+}
@@ -0,0 +1,111 @@
+package com.bankmanagement.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recent outgoing postings of one account, kept in fixed-size primitive ring buffers, plus the
+ * allowed postings whose transaction hasn't finished yet.
+ * Not thread-safe; {@link RiskEngine} evaluates and records under the window's monitor.
+ */
+public class AccountRiskWindow {
+    
+    // Reserved until their transaction commits or rolls back; only the velocity count sees them
+    private final List<RiskCheck> pending = new ArrayList<>(2);
+    
+    private final long[] postedAt;
+    private int postedHead;
+    private int postedSize;
+    
+    private final long[] amounts;
+    private int amountHead;
+    private int amountSize;
+    private long amountSum;
+    
+    private final long[] beneficiaries;
+    private int beneficiaryHead;
+    private int beneficiarySize;
+    
+    private volatile long lastSeen;
+    
+    public AccountRiskWindow(int postings, int amountSamples, int beneficiaryCount) {
+        this.postedAt = new long[Math.max(1, postings)];
+        this.amounts = new long[Math.max(1, amountSamples)];
+        this.beneficiaries = new long[Math.max(1, beneficiaryCount)];
+    }
+    
+    // Number of the most recent postings made at or after the given time, pending ones included
+    public int countPostedSince(long since) {
+        int count = 0;
+        for (int i = 0; i < postedSize; i++) {
+            if (postedAt[i] >= since) {
+                count++;
+            }
+        }
+        for (RiskCheck check : pending) {
+            if (check.getTimestamp() >= since) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    public int getAmountSamples() {
+        return amountSize;
+    }
+    
+    // Rolling mean of the last amountSamples posted amounts, in paise
+    public long getMeanAmount() {
+        return amountSize == 0 ? 0 : amountSum / amountSize;
+    }
+    
+    public boolean hasPaid(long beneficiaryId) {
+        for (int i = 0; i < beneficiarySize; i++) {
+            if (beneficiaries[i] == beneficiaryId) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public void reserve(RiskCheck check) {
+        pending.add(check);
+        lastSeen = check.getTimestamp();
+    }
+    
+    // The posting committed
+    public void commit(RiskCheck check) {
+        pending.remove(check);
+        record(check.getTimestamp(), check.getAmount(), check.getBeneficiaryId());
+    }
+    
+    // The posting rolled back, e.g. to be retried after a conflict
+    public void release(RiskCheck check) {
+        pending.remove(check);
+    }
+    
+    public void record(long timestamp, long amount, long beneficiaryId) {
+        postedAt[postedHead] = timestamp;
+        postedHead = (postedHead + 1) % postedAt.length;
+        postedSize = Math.min(postedSize + 1, postedAt.length);
+        
+        if (amountSize == amounts.length) {
+            amountSum -= amounts[amountHead];
+        }
+        amounts[amountHead] = amount;
+        amountSum += amount;
+        amountHead = (amountHead + 1) % amounts.length;
+        amountSize = Math.min(amountSize + 1, amounts.length);
+        
+        if (beneficiaryId != 0 && !hasPaid(beneficiaryId)) {
+            beneficiaries[beneficiaryHead] = beneficiaryId;
+            beneficiaryHead = (beneficiaryHead + 1) % beneficiaries.length;
+            beneficiarySize = Math.min(beneficiarySize + 1, beneficiaries.length);
+        }
+        lastSeen = timestamp;
+    }
+    
+    public long getLastSeen() {
+        return lastSeen;
+    }
+}
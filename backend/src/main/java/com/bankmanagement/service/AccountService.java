@@ -1,16 +1,30 @@
 package com.bankmanagement.service;
 
+import com.bankmanagement.dto.AccountAdminDTO;
 import com.bankmanagement.model.Account;
 import com.bankmanagement.model.AccountStatus;
 import com.bankmanagement.model.AccountType;
 import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.LockingStrategy;
 import com.bankmanagement.model.User;
 import com.bankmanagement.repository.AccountRepository;
+import com.bankmanagement.repository.AccountSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 
@@ -23,10 +37,37 @@ public class AccountService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private FxRateService fxRateService;
+    
+    @Autowired
+    private LockingStrategyService lockingStrategyService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     // Get accounts by bank ID
+    @Transactional(readOnly = true)
     public List<Account> getAccountsByBankId(Long bankId) {
         return accountRepository.findByBankId(bankId);
     }
+    
+    // Filtered, paged admin listing; null filters are ignored
+    @Transactional(readOnly = true)
+    public Page<AccountAdminDTO> getAdminAccounts(Long bankId, AccountStatus status, AccountType type,
+                                                  BigDecimal minBalance, BigDecimal maxBalance,
+                                                  LocalDateTime createdFrom, LocalDateTime createdTo,
+                                                  Pageable pageable) {
+        Specification<Account> specification = Specification.where(AccountSpecifications.inBank(bankId))
+                .and(AccountSpecifications.hasStatus(status))
+                .and(AccountSpecifications.hasType(type))
+                .and(AccountSpecifications.balanceBetween(minBalance, maxBalance))
+                .and(AccountSpecifications.createdBetween(createdFrom, createdTo));
+        return accountRepository.findAdminAccounts(specification, pageable);
+    }
 
     public Account createAccount(Account account, Long userId) {
         User user = userService.getUserById(userId);
@@ -35,8 +76,9 @@ public class AccountService {
         account.setAccountNumber(generateAccountNumber(account.getAccountType(), user.getBank()));
         account.setBalance(BigDecimal.ZERO);
         account.setAccountStatus(AccountStatus.ACTIVE);
+        account.setCurrency(fxRateService.requireSupported(account.getCurrency()));
         
-        return accountRepository.save(account);
+        return publishChange(accountRepository.save(account));
     }
     
     public Account updateAccount(Long id, Account accountDetails) {
@@ -45,31 +87,57 @@ public class AccountService {
         account.setAccountType(accountDetails.getAccountType());
         account.setAccountStatus(accountDetails.getAccountStatus());
         
-        return accountRepository.save(account);
+        return publishChange(accountRepository.save(account));
     }
     
+    @Transactional(readOnly = true)
     public Account getAccountById(Long id) {
         return accountRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Account not found with id: " + id));
     }
     
+    // Row-locked until the caller's transaction ends
+    @Transactional
+    public Account getAccountForUpdate(Long id) {
+        return accountRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Account not found with id: " + id));
+    }
+    
+    // Under the bank's locking strategy: row-locked for PESSIMISTIC; for OPTIMISTIC a plain read
+    // whose version is checked when the posting flushes
+    @Transactional
+    public Account getAccountForPosting(Long id) {
+        Account account = getAccountById(id);
+        Long bankId = account.getBank() != null ? account.getBank().getId() : null;
+        if (lockingStrategyService.resolve(bankId) == LockingStrategy.PESSIMISTIC) {
+            // Re-read under the lock, so the posting's checks see the current row
+            entityManager.refresh(account, LockModeType.PESSIMISTIC_WRITE);
+        }
+        return account;
+    }
+    
+    @Transactional(readOnly = true)
     public Account getAccountByNumber(String accountNumber) {
         return accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new RuntimeException("Account not found with number: " + accountNumber));
     }
     
+    @Transactional(readOnly = true)
     public List<Account> getAllAccounts() {
         return accountRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public List<Account> getAccountsByUserId(Long userId) {
         return accountRepository.findByUserId(userId);
     }
     
+    @Transactional(readOnly = true)
     public List<Account> getActiveAccountsByUserId(Long userId) {
         return accountRepository.findByUserIdAndAccountStatus(userId, AccountStatus.ACTIVE);
     }
     
+    @Transactional(readOnly = true)
     public List<Account> getAccountsByStatus(AccountStatus status) {
         return accountRepository.findByAccountStatus(status);
     }
@@ -80,18 +148,19 @@ public class AccountService {
             throw new RuntimeException("Cannot delete account with positive balance");
         }
         accountRepository.delete(account);
+        publishChange(account);
     }
     
     public Account suspendAccount(Long id) {
         Account account = getAccountById(id);
         account.setAccountStatus(AccountStatus.SUSPENDED);
-        return accountRepository.save(account);
+        return publishChange(accountRepository.save(account));
     }
     
     public Account activateAccount(Long id) {
         Account account = getAccountById(id);
         account.setAccountStatus(AccountStatus.ACTIVE);
-        return accountRepository.save(account);
+        return publishChange(accountRepository.save(account));
     }
     
     public Account closeAccount(Long id) {
@@ -100,13 +169,13 @@ public class AccountService {
             throw new RuntimeException("Cannot close account with positive balance");
         }
         account.setAccountStatus(AccountStatus.CLOSED);
-        return accountRepository.save(account);
+        return publishChange(accountRepository.save(account));
     }
     
     public Account updateBalance(Long id, BigDecimal newBalance) {
         Account account = getAccountById(id);
         account.setBalance(newBalance);
-        return accountRepository.save(account);
+        return publishChange(accountRepository.save(account));
     }
     
     public Account addBalance(Long id, BigDecimal amount) {
@@ -124,15 +193,49 @@ public class AccountService {
         return accountRepository.save(account);
     }
     
+    // Positive to reserve, negative to release; the entity's heldAmount isn't refreshed
+    @Transactional
+    public void adjustHeldAmount(Long id, BigDecimal delta) {
+        accountRepository.adjustHeldAmount(id, delta, LocalDateTime.now());
+        refreshIfLoaded(id);
+    }
+    
+    // For changes that don't otherwise write the account row, so its history's ETag moves
+    @Transactional
+    public void touchAccounts(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            accountRepository.touch(ids, LocalDateTime.now());
+            ids.forEach(this::refreshIfLoaded);
+        }
+    }
+    
+    // The SQL update bumped the row's version; a copy already loaded in this transaction is re-read
+    // so that saving it later doesn't fail its own version check
+    private void refreshIfLoaded(Long id) {
+        Account loaded = entityManager.getReference(Account.class, id);
+        if (Hibernate.isInitialized(loaded)) {
+            entityManager.refresh(loaded);
+        }
+    }
+    
+    @Transactional(readOnly = true)
     public BigDecimal getAccountBalance(Long id) {
         Account account = getAccountById(id);
         return account.getBalance();
     }
     
+    @Transactional(readOnly = true)
     public long getAccountCountByUserId(Long userId) {
         return accountRepository.countByUserId(userId);
     }
     
+    // Postings are announced by TransactionService; this covers the account itself changing
+    private Account publishChange(Account account) {
+        eventPublisher.publishEvent(new AccountChangedEvent(account.getId(),
+                account.getUser() != null ? account.getUser().getId() : null));
+        return account;
+    }
+    
     private String generateAccountNumber(AccountType accountType, Bank bank) {
         String accountNumber;
         int year = LocalDate.now().getYear();
@@ -0,0 +1,229 @@
+package com.bankmanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans transaction events out to Server-Sent Event connections, keyed by user.
+ * Idle connections hold no thread (servlet async); each client has a small bounded
+ * buffer and is evicted when it falls behind instead of blocking the publisher.
+ */
+@Service
+public class AccountStreamService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AccountStreamService.class);
+    
+    private final Map<Long, Set<StreamClient>> clientsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger clientCount = new AtomicInteger();
+    private final ExecutorService dispatcher;
+    
+    @Value("${stream.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${stream.sse.max-clients:10000}")
+    private int maxClients;
+    
+    // A handful of tabs per user; stops one login from holding a large share of maxClients
+    @Value("${stream.sse.max-clients-per-user:5}")
+    private int maxClientsPerUser;
+    
+    @Value("${stream.sse.client-buffer-size:32}")
+    private int clientBufferSize;
+    
+    public AccountStreamService(@Value("${stream.sse.dispatcher-threads:4}") int dispatcherThreads) {
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public SseEmitter subscribe(Long userId) {
+        return subscribe(userId, null);
+    }
+    
+    // With an account id, only that account's updates are sent; userId is the account's owner
+    public SseEmitter subscribe(Long userId, Long accountId) {
+        if (clientCount.incrementAndGet() > maxClients) {
+            clientCount.decrementAndGet();
+            throw new RuntimeException("Too many open streams, please retry later");
+        }
+        
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        StreamClient client = new StreamClient(userId, accountId, emitter, clientBufferSize);
+        AtomicBoolean added = new AtomicBoolean();
+        // Checked and added under the map's per-key lock, so concurrent connects can't overshoot
+        clientsByUser.compute(userId, (id, clients) -> {
+            Set<StreamClient> userClients = clients != null ? clients : ConcurrentHashMap.newKeySet();
+            if (userClients.size() < maxClientsPerUser) {
+                added.set(userClients.add(client));
+            }
+            return userClients.isEmpty() ? null : userClients;
+        });
+        if (!added.get()) {
+            clientCount.decrementAndGet();
+            throw new RuntimeException("Too many open streams for this user");
+        }
+        
+        emitter.onCompletion(() -> remove(client));
+        emitter.onTimeout(() -> remove(client));
+        emitter.onError(error -> remove(client));
+        
+        enqueue(client, SseEmitter.event().name("connected").data(Map.of("userId", userId)));
+        return emitter;
+    }
+    
+    // Only committed postings are pushed, so clients never see a rolled-back balance
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        if (event.getFromUserId() != null) {
+            publish(event.getFromUserId(), event, event.getFromAccountId(), event.getFromAccountBalance());
+        }
+        if (event.getToUserId() != null) {
+            publish(event.getToUserId(), event, event.getToAccountId(), event.getToAccountBalance());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${stream.sse.heartbeat-ms:20000}")
+    public void sendHeartbeats() {
+        for (Set<StreamClient> clients : clientsByUser.values()) {
+            for (StreamClient client : clients) {
+                enqueue(client, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+    
+    public int getOpenStreamCount() {
+        return clientCount.get();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        clientsByUser.values().forEach(clients -> clients.forEach(client -> client.emitter.complete()));
+    }
+    
+    private void publish(Long userId, TransactionPostedEvent event, Long accountId, Object balance) {
+        Set<StreamClient> clients = clientsByUser.get(userId);
+        if (clients == null || clients.isEmpty()) {
+            return;
+        }
+        
+        Map<String, Object> balanceUpdate = new LinkedHashMap<>();
+        balanceUpdate.put("accountId", accountId);
+        balanceUpdate.put("balance", balance);
+        
+        Map<String, Object> transaction = new LinkedHashMap<>();
+        transaction.put("id", event.getTransactionId());
+        transaction.put("transactionReference", event.getTransactionReference());
+        transaction.put("transactionType", event.getTransactionType());
+        transaction.put("transactionStatus", event.getTransactionStatus());
+        transaction.put("amount", event.getAmount());
+        transaction.put("currency", event.getCurrency());
+        if (event.getCreditedAmount() != null) {
+            transaction.put("creditedAmount", event.getCreditedAmount());
+            transaction.put("creditedCurrency", event.getCreditedCurrency());
+        }
+        transaction.put("description", event.getDescription());
+        transaction.put("fromAccountId", event.getFromAccountId());
+        transaction.put("toAccountId", event.getToAccountId());
+        transaction.put("createdAt", String.valueOf(event.getCreatedAt()));
+        
+        for (StreamClient client : clients) {
+            if (client.accountId != null && !client.accountId.equals(accountId)) {
+                continue;
+            }
+            enqueue(client, SseEmitter.event().name("balance").data(balanceUpdate));
+            enqueue(client, SseEmitter.event().id(String.valueOf(event.getTransactionId()))
+                    .name("transaction").data(transaction));
+        }
+    }
+    
+    private void enqueue(StreamClient client, SseEmitter.SseEventBuilder event) {
+        if (client.closed.get()) {
+            return;
+        }
+        if (!client.buffer.offer(event)) {
+            // Slow consumer: drop the connection, the client reconnects and re-fetches
+            logger.debug("Evicting slow SSE client for user {}", client.userId);
+            evict(client);
+            return;
+        }
+        if (client.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(client));
+        }
+    }
+    
+    private void drain(StreamClient client) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = client.buffer.poll()) != null) {
+                client.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            evict(client);
+        } finally {
+            client.draining.set(false);
+        }
+        // An event may have been queued between the last poll and clearing the flag
+        if (!client.buffer.isEmpty() && !client.closed.get() && client.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(client));
+        }
+    }
+    
+    private void evict(StreamClient client) {
+        remove(client);
+        try {
+            client.emitter.complete();
+        } catch (IllegalStateException ignored) {
+            // Already completed by the container
+        }
+    }
+    
+    private void remove(StreamClient client) {
+        if (!client.closed.compareAndSet(false, true)) {
+            return;
+        }
+        clientCount.decrementAndGet();
+        client.buffer.clear();
+        clientsByUser.computeIfPresent(client.userId, (id, clients) -> {
+            clients.remove(client);
+            return clients.isEmpty() ? null : clients;
+        });
+    }
+    
+    private static class StreamClient {
+        private final Long userId;
+        private final Long accountId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        
+        StreamClient(Long userId, Long accountId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.accountId = accountId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+// Declines amounts far above the account's rolling mean, once there is enough history to judge
+@Component
+@Order(2)
+public class AmountOutlierRiskRule implements RiskRule {
+    
+    @Autowired
+    private FxRateService fxRateService;
+    
+    @Value("${risk.outlier.min-samples:10}")
+    private int minSamples;
+    
+    @Value("${risk.outlier.multiplier:10}")
+    private long multiplier;
+    
+    // Amounts below this (in the base currency, converted to the account's) are never outliers
+    @Value("${risk.outlier.min-amount:10000}")
+    private long minAmount;
+    
+    @Override
+    public String evaluate(RiskCheck check, AccountRiskWindow window) {
+        if (window.getAmountSamples() < minSamples) {
+            return null;
+        }
+        long mean = window.getMeanAmount();
+        if (check.getAmount() <= mean * multiplier
+                || check.getAmount() < Money.toMinor(fxRateService.fromBaseCurrency(BigDecimal.valueOf(minAmount), check.getCurrency()))) {
+            return null;
+        }
+        return String.format("Amount %s is more than %dx the account's recent average of %s",
+                TransactionService.money(check.getCurrency(), BigDecimal.valueOf(check.getAmount(), 2)), multiplier,
+                TransactionService.money(check.getCurrency(), BigDecimal.valueOf(mean, 2)));
+    }
+}
@@ -0,0 +1,60 @@
+package com.bankmanagement.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer. Producers claim a slot with one CAS
+ * and never block; the single consumer frees slots before advancing, so a claimed slot is
+ * always empty. Used by {@link AuditService} to hand records to its batch writer.
+ */
+public class AuditRingBuffer<T> {
+    
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    
+    public AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+    
+    // False when the buffer is full
+    public boolean offer(T item) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.set((int) (claimed & mask), item);
+        return true;
+    }
+    
+    // Consumer only. Stops at the first claimed slot whose producer has not published yet.
+    public int drainTo(List<T> target, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            T item = slots.get(index);
+            if (item == null) {
+                break;
+            }
+            slots.set(index, null);
+            target.add(item);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+    
+    public int size() {
+        return (int) (tail.get() - head);
+    }
+}
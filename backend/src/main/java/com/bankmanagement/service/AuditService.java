@@ -0,0 +1,205 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.AuditLog;
+import com.bankmanagement.model.LimitPolicy;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.AuditLogRepository;
+import com.bankmanagement.repository.AuditLogSpecifications;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Audit trail for admin actions. Callers only enqueue a record on a lock-free ring buffer;
+ * a scheduled writer diffs and batch-inserts them, so auditing adds no database round trip
+ * to the request. When the buffer is full the record is written inline rather than dropped.
+ */
+@Service
+public class AuditService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+    
+    public static final String TARGET_USER = "USER";
+    public static final String TARGET_RECONCILIATION = "RECONCILIATION";
+    public static final String TARGET_LIMIT_POLICY = "LIMIT_POLICY";
+    public static final String TARGET_TRANSACTION = "TRANSACTION";
+    public static final String TARGET_JOURNAL = "JOURNAL";
+    public static final String TARGET_BANK = "BANK";
+    
+    private final AuditRingBuffer<AuditRecord> buffer;
+    
+    // Batch that failed to insert; retried before anything newer is drained
+    private List<AuditRecord> pending = new ArrayList<>();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${audit.batch-size:500}")
+    private int batchSize;
+    
+    public AuditService(@Value("${audit.buffer-size:8192}") int bufferSize) {
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+    }
+    
+    /**
+     * Records an action by actor on a target. before/after are field snapshots (null for
+     * creates and deletes); only fields that differ end up in the stored diff.
+     */
+    public void record(User actor, String action, String targetType, Long targetId,
+                       Map<String, Object> before, Map<String, Object> after) {
+        AuditRecord record = new AuditRecord(actor.getBank() != null ? actor.getBank().getId() : null, actor.getId(),
+                actor.getUsername(), action, targetType, targetId, before, after, LocalDateTime.now());
+        if (!buffer.offer(record)) {
+            logger.warn("Audit buffer is full; writing {} on {} {} inline", action, targetType, targetId);
+            insert(List.of(record));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${audit.flush-ms:500}")
+    public synchronized void flush() {
+        while (true) {
+            if (pending.isEmpty() && buffer.drainTo(pending, batchSize) == 0) {
+                return;
+            }
+            try {
+                insert(pending);
+            } catch (RuntimeException e) {
+                logger.error("Could not write {} audit records; retrying on the next flush", pending.size(), e);
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<AuditLog> search(Long bankId, String action, Long actorUserId, String targetType, Long targetId,
+                                 LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        Specification<AuditLog> spec = Specification.where(AuditLogSpecifications.inBank(bankId))
+                .and(AuditLogSpecifications.hasAction(action))
+                .and(AuditLogSpecifications.byActor(actorUserId))
+                .and(AuditLogSpecifications.onTarget(targetType, targetId))
+                .and(AuditLogSpecifications.createdBetween(from, to));
+        return auditLogRepository.findAll(spec, pageable);
+    }
+    
+    // Audited fields of a user; never includes the password hash
+    public static Map<String, Object> userSnapshot(User user) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("username", user.getUsername());
+        snapshot.put("email", user.getEmail());
+        snapshot.put("firstName", user.getFirstName());
+        snapshot.put("lastName", user.getLastName());
+        snapshot.put("phoneNumber", user.getPhoneNumber());
+        snapshot.put("address", user.getAddress());
+        snapshot.put("role", user.getRole());
+        snapshot.put("active", user.isActive());
+        return snapshot;
+    }
+    
+    public static Map<String, Object> limitPolicySnapshot(LimitPolicy policy) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("accountType", policy.getAccountType());
+        snapshot.put("transactionType", policy.getTransactionType());
+        snapshot.put("dailyLimit", policy.getDailyLimit());
+        snapshot.put("maxSingleAmount", policy.getMaxSingleAmount());
+        return snapshot;
+    }
+    
+    private void insert(List<AuditRecord> records) {
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (AuditRecord record : records) {
+            rows.add(new Object[] { record.bankId, record.actorUserId, record.actorUsername, record.action,
+                    record.targetType, record.targetId, diff(record.before, record.after),
+                    Timestamp.valueOf(record.createdAt) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO audit_log (bank_id, actor_user_id, actor_username, action, target_type, " +
+                "target_id, changes, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+    
+    private String diff(Map<String, Object> before, Map<String, Object> after) {
+        if (before == null && after == null) {
+            return null;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        if (before != null) {
+            fields.addAll(before.keySet());
+        }
+        if (after != null) {
+            fields.addAll(after.keySet());
+        }
+        
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String field : fields) {
+            Object oldValue = before != null ? before.get(field) : null;
+            Object newValue = after != null ? after.get(field) : null;
+            if (!Objects.equals(oldValue, newValue)) {
+                Map<String, Object> change = new LinkedHashMap<>();
+                change.put("before", oldValue);
+                change.put("after", newValue);
+                changes.put(field, change);
+            }
+        }
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+    
+    private static final class AuditRecord {
+        private final Long bankId;
+        private final Long actorUserId;
+        private final String actorUsername;
+        private final String action;
+        private final String targetType;
+        private final Long targetId;
+        private final Map<String, Object> before;
+        private final Map<String, Object> after;
+        private final LocalDateTime createdAt;
+        
+        private AuditRecord(Long bankId, Long actorUserId, String actorUsername, String action, String targetType,
+                            Long targetId, Map<String, Object> before, Map<String, Object> after, LocalDateTime createdAt) {
+            this.bankId = bankId;
+            this.actorUserId = actorUserId;
+            this.actorUsername = actorUsername;
+            this.action = action;
+            this.targetType = targetType;
+            this.targetId = targetId;
+            this.before = before;
+            this.after = after;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.bankmanagement.model.Bank;
 import com.bankmanagement.repository.BankRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -13,19 +14,23 @@ public class BankService {
     @Autowired
     private BankRepository bankRepository;
     
+    @Transactional(readOnly = true)
     public List<Bank> getAllActiveBanks() {
         return bankRepository.findByIsActiveTrue();
     }
     
+    @Transactional(readOnly = true)
     public List<Bank> getAllBanks() {
         return bankRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Bank getBankById(Long id) {
         return bankRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Bank not found with id: " + id));
     }
     
+    @Transactional(readOnly = true)
     public Bank getBankByCode(String bankCode) {
         return bankRepository.findByBankCode(bankCode)
                 .orElseThrow(() -> new RuntimeException("Bank not found with code: " + bankCode));
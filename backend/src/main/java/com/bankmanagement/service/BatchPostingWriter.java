@@ -0,0 +1,88 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC batch path for jobs that post many transactions at once (interest accrual, bulk
+ * reversals): one batched insert for the postings, one batched relative balance update per
+ * account in id order, and one batched outbox insert, all in the caller's transaction. The
+ * postings are also journaled, and forced to the journal before that transaction commits.
+ *
+ * Callers lock the affected account rows (SELECT ... ORDER BY id FOR UPDATE) before computing
+ * balanceAfterTransaction, so the balances posted are the ones the rows end up with. They also
+ * publish a TransactionPostedEvent per posting (with the account's owner and new balance set),
+ * which is what invalidates overview caches and reaches live streams.
+ */
+@Service
+public class BatchPostingWriter {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private PostingJournal postingJournal;
+    
+    // Writes COMPLETED postings (references must be unique) and sets their ids
+    public void write(List<Transaction> postings, Map<Long, BigDecimal> balanceDeltas, Timestamp now) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (Transaction posting : postings) {
+            rows.add(new Object[] { posting.getTransactionReference(), posting.getTransactionType().name(),
+                    posting.getAmount(), posting.getCurrency(), posting.getDescription(),
+                    posting.getTransactionStatus().name(),
+                    posting.getFromAccount() != null ? posting.getFromAccount().getId() : null,
+                    posting.getToAccount() != null ? posting.getToAccount().getId() : null,
+                    posting.getBalanceAfterTransaction(), posting.getCreditedAmount(), posting.getCreditedCurrency(),
+                    posting.getFxRate(), posting.getFxRateVersion(), posting.getOriginalTransactionId(), now, now });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (transaction_reference, transaction_type, amount, currency, " +
+                "description, transaction_status, from_account_id, to_account_id, balance_after_transaction, " +
+                "credited_amount, credited_currency, fx_rate, fx_rate_version, original_transaction_id, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        
+        // Ascending account id, the same order the rows were locked in
+        List<Object[]> balanceUpdates = new ArrayList<>();
+        new TreeMap<>(balanceDeltas).forEach((accountId, delta) -> balanceUpdates.add(new Object[] { delta, now, accountId }));
+        jdbcTemplate.batchUpdate("UPDATE accounts SET balance = balance + ?, updated_at = ?, version = version + 1 WHERE id = ?", balanceUpdates);
+        
+        recordEvents(postings, now);
+        postings.forEach(postingJournal::record);
+    }
+    
+    // Outbox rows in the same payload format as interactive postings
+    private void recordEvents(List<Transaction> postings, Timestamp createdAt) {
+        Map<String, Transaction> byReference = new HashMap<>();
+        postings.forEach(posting -> byReference.put(posting.getTransactionReference(), posting));
+        List<String> references = new ArrayList<>(byReference.keySet());
+        String placeholders = String.join(",", Collections.nCopies(references.size(), "?"));
+        jdbcTemplate.query("SELECT id, transaction_reference FROM transactions WHERE transaction_reference IN (" + placeholders + ")",
+                rs -> {
+                    byReference.get(rs.getString(2)).setId(rs.getLong(1));
+                }, references.toArray());
+        
+        List<Object[]> events = new ArrayList<>();
+        for (Transaction posting : postings) {
+            events.add(new Object[] { OutboxService.TRANSACTION_POSTED, posting.getId(),
+                    outboxService.toPayload(posting), createdAt });
+        }
+        events.sort((a, b) -> Long.compare((Long) a[1], (Long) b[1]));
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (event_type, aggregate_id, payload, created_at) VALUES (?, ?, ?, ?)", events);
+    }
+}
@@ -0,0 +1,226 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.dto.CustomerOverviewDTO;
+import com.bankmanagement.dto.CustomerOverviewDTO.AccountSummary;
+import com.bankmanagement.dto.CustomerOverviewDTO.TransactionSummary;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Money;
+import com.bankmanagement.model.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the customer dashboard (accounts, recent transactions per account, remaining daily
+ * limits) with a fixed number of set-based queries regardless of how many accounts the user
+ * has, and caches it per user until one of their accounts posts or changes.
+ */
+@Service
+public class CustomerOverviewService {
+    
+    private final Map<Long, CachedOverview> cache = new ConcurrentHashMap<>();
+    
+    // Last invalidation per user (System.nanoTime); an entry built before it is stale
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private DailyLimitUsageCache dailyLimitUsageCache;
+    
+    @Autowired
+    private LimitPolicyService limitPolicyService;
+    
+    @Autowired
+    private FxRateService fxRateService;
+    
+    @Value("${customers.overview.recent-transactions:5}")
+    private int recentTransactions;
+    
+    @Value("${customers.overview.cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+    
+    @Value("${customers.overview.cache-max-users:100000}")
+    private int cacheMaxUsers;
+    
+    // Same window as the transaction history listings; 0 means unbounded
+    @Value("${transactions.history.window-days:0}")
+    private int historyWindowDays;
+    
+    public CustomerOverviewDTO getOverview(Long userId) {
+        long now = System.nanoTime();
+        CachedOverview cached = cache.get(userId);
+        if (cached != null && isFresh(cached, userId, now)) {
+            return cached.overview;
+        }
+        
+        // One read-only transaction, so the queries see the same snapshot
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        CustomerOverviewDTO overview = readOnly.execute(status -> buildOverview(userId));
+        if (cache.size() < cacheMaxUsers) {
+            cache.put(userId, new CachedOverview(overview, now, dailyLimitUsageCache.today()));
+        }
+        return overview;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        invalidate(event.getFromUserId());
+        invalidate(event.getToUserId());
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+    
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            invalidatedAt.put(userId, System.nanoTime());
+            cache.remove(userId);
+        }
+    }
+    
+    // Marks older than the TTL can no longer make any live entry stale
+    @Scheduled(fixedDelayString = "${customers.overview.eviction-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.nanoTime() - cacheTtlSeconds * 1_000_000_000L;
+        cache.values().removeIf(entry -> entry.builtAt - cutoff < 0);
+        invalidatedAt.values().removeIf(mark -> mark - cutoff < 0);
+    }
+    
+    private boolean isFresh(CachedOverview cached, Long userId, long now) {
+        Long mark = invalidatedAt.get(userId);
+        return now - cached.builtAt < cacheTtlSeconds * 1_000_000_000L
+                && (mark == null || cached.builtAt - mark > 0)
+                && cached.day.equals(dailyLimitUsageCache.today());
+    }
+    
+    private CustomerOverviewDTO buildOverview(Long userId) {
+        CustomerOverviewDTO overview = new CustomerOverviewDTO();
+        overview.setMinTransactionAmount(transactionService.getMinTransactionAmount());
+        overview.setGeneratedAt(LocalDateTime.now());
+        
+        // Limits depend on the account's bank and type, so they are resolved per account
+        Map<Long, AccountSummary> accounts = new LinkedHashMap<>();
+        Long[] bankId = new Long[1];
+        namedParameterJdbcTemplate.query(
+                "SELECT id, account_number, account_type, account_status, balance, bank_id, currency, held_amount FROM accounts " +
+                "WHERE user_id = :userId ORDER BY id",
+                new MapSqlParameterSource("userId", userId),
+                rs -> {
+                    AccountSummary account = new AccountSummary(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getString(4), rs.getBigDecimal(5));
+                    bankId[0] = rs.getLong(6);
+                    account.setCurrency(rs.getString(7));
+                    account.setAvailableBalance(account.getBalance().subtract(rs.getBigDecimal(8)));
+                    AccountType accountType = AccountType.valueOf(account.getAccountType());
+                    account.setDailyWithdrawalLimit(limitPolicyService.getRule(bankId[0], accountType,
+                            TransactionType.WITHDRAWAL, account.getCurrency()).getDailyLimit());
+                    account.setDailyTransferLimit(limitPolicyService.getRule(bankId[0], accountType,
+                            TransactionType.TRANSFER, account.getCurrency()).getDailyLimit());
+                    accounts.put(account.getId(), account);
+                });
+        
+        // Bank-wide figures for the header; a customer's accounts all belong to their bank
+        overview.setDailyWithdrawalLimit(limitPolicyService.getRule(bankId[0], null, TransactionType.WITHDRAWAL).getDailyLimit());
+        overview.setDailyTransferLimit(limitPolicyService.getRule(bankId[0], null, TransactionType.TRANSFER).getDailyLimit());
+        overview.setMaxSingleTransaction(limitPolicyService.getRule(bankId[0], null, TransactionType.TRANSFER).getMaxSingleAmount());
+        if (accounts.isEmpty()) {
+            return overview;
+        }
+        
+        overview.setAccounts(List.copyOf(accounts.values()));
+        overview.setTotalBalanceCurrency(fxRateService.getBaseCurrency());
+        overview.setTotalBalance(Money.toBigDecimal(accounts.values().stream()
+                .mapToLong(account -> Money.toMinor(fxRateService.convert(account.getBalance(), account.getCurrency(),
+                        fxRateService.getBaseCurrency()).getAmount()))
+                .reduce(0L, Math::addExact)));
+        
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", accounts.keySet())
+                .addValue("limit", recentTransactions)
+                .addValue("since", Timestamp.valueOf(historyWindowDays > 0
+                        ? LocalDate.now().minusDays(historyWindowDays).atStartOfDay()
+                        : LocalDateTime.of(1970, 1, 1, 0, 0)));
+        
+        // Top N per account: ranked on the (account, created_at) indexes, rows fetched only for the winners
+        namedParameterJdbcTemplate.query(
+                "SELECT r.account_id, t.id, t.transaction_reference, t.transaction_type, t.transaction_status, t.amount, " +
+                "t.description, t.from_account_id, t.to_account_id, t.balance_after_transaction, t.created_at, " +
+                "t.currency, t.credited_amount, t.credited_currency " +
+                "FROM (SELECT x.id, x.account_id, " +
+                "ROW_NUMBER() OVER (PARTITION BY x.account_id ORDER BY x.created_at DESC, x.id DESC) AS rn " +
+                "FROM (SELECT id, from_account_id AS account_id, created_at FROM transactions " +
+                "WHERE from_account_id IN (:ids) AND created_at >= :since " +
+                "UNION ALL " +
+                "SELECT id, to_account_id AS account_id, created_at FROM transactions " +
+                "WHERE to_account_id IN (:ids) AND created_at >= :since) x) r " +
+                "JOIN transactions t ON t.id = r.id " +
+                "WHERE r.rn <= :limit ORDER BY r.account_id, r.rn",
+                params,
+                rs -> {
+                    TransactionSummary transaction = new TransactionSummary();
+                    transaction.setId(rs.getLong(2));
+                    transaction.setTransactionReference(rs.getString(3));
+                    transaction.setTransactionType(rs.getString(4));
+                    transaction.setTransactionStatus(rs.getString(5));
+                    transaction.setAmount(rs.getBigDecimal(6));
+                    transaction.setDescription(rs.getString(7));
+                    transaction.setFromAccountId(rs.getObject(8, Long.class));
+                    transaction.setToAccountId(rs.getObject(9, Long.class));
+                    transaction.setBalanceAfterTransaction(rs.getBigDecimal(10));
+                    Timestamp createdAt = rs.getTimestamp(11);
+                    transaction.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+                    transaction.setCurrency(rs.getString(12));
+                    transaction.setCreditedAmount(rs.getBigDecimal(13));
+                    transaction.setCreditedCurrency(rs.getString(14));
+                    accounts.get(rs.getLong(1)).getRecentTransactions().add(transaction);
+                });
+        
+        // Today's usage against the daily limits, from the same cache the limit checks use
+        dailyLimitUsageCache.getUsage(accounts.keySet()).forEach((accountId, usage) -> {
+            AccountSummary account = accounts.get(accountId);
+            account.setRemainingDailyWithdrawal(TransactionService.remaining(Money.ofNullable(account.getDailyWithdrawalLimit()),
+                    usage.getWithdrawnMoney()));
+            account.setRemainingDailyTransfer(TransactionService.remaining(Money.ofNullable(account.getDailyTransferLimit()),
+                    usage.getTransferredMoney()));
+        });
+        return overview;
+    }
+    
+    private static final class CachedOverview {
+        private final CustomerOverviewDTO overview;
+        private final long builtAt;
+        private final LocalDate day;
+        
+        private CachedOverview(CustomerOverviewDTO overview, long builtAt, LocalDate day) {
+            this.overview = overview;
+            this.builtAt = builtAt;
+            this.day = day;
+        }
+    }
+}
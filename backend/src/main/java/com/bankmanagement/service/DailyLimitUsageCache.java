@@ -0,0 +1,337 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Money;
+import com.bankmanagement.model.TransactionStatus;
+import com.bankmanagement.model.TransactionType;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Today's completed withdrawals and transfers per source account, kept in memory so the daily
+ * limit checks and remaining-limit queries don't sum the transactions table on every call.
+ * An account is loaded from the DB on first use each day and then kept current from posting
+ * events; everything resets at midnight in {@code limits.timezone}.
+ *
+ * Events arrive after commit and other instances' postings only at the next reload, so postings
+ * enforce their limit with {@link #getUsageForPosting} instead, which answers from a separate entry
+ * tagged with the account's version: every change to an account's completed withdrawals and
+ * transfers also bumps its version (postings write the row, status changes touch it), so usage
+ * recorded at the version the posting holds is exactly what the DB would sum. On any other version
+ * it reads the DB inside the posting's transaction. The cached figures serve the remaining-limit
+ * and overview reads.
+ */
+@Service
+public class DailyLimitUsageCache {
+    
+    private final Map<Long, AccountUsage> usage = new ConcurrentHashMap<>();
+    
+    // Usage as of an account version, written after the posting that produced it commits
+    private final Map<Long, VersionedUsage> usageByVersion = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    // Blank means the server's zone, which is also what created_at is stored in
+    @Value("${limits.timezone:}")
+    private String timezone;
+    
+    @Value("${limits.usage.max-accounts:500000}")
+    private int maxAccounts;
+    
+    // Reload interval so postings made on other instances are picked up; 0 never reloads
+    @Value("${limits.usage.refresh-seconds:60}")
+    private long refreshSeconds;
+    
+    private ZoneId zone;
+    
+    @PostConstruct
+    void init() {
+        zone = timezone == null || timezone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timezone);
+    }
+    
+    public DailyUsage getUsage(Long accountId) {
+        return getUsage(List.of(accountId)).get(accountId);
+    }
+    
+    // Accounts that aren't cached yet are loaded together in one query
+    public Map<Long, DailyUsage> getUsage(Collection<Long> accountIds) {
+        LocalDate today = today();
+        long now = System.nanoTime();
+        Map<Long, DailyUsage> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long accountId : accountIds) {
+            AccountUsage entry = usage.get(accountId);
+            if (entry != null && entry.isCurrent(today, now, refreshSeconds * 1_000_000_000L)) {
+                result.put(accountId, entry.snapshot());
+            } else {
+                missing.add(accountId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        
+        Map<Long, AccountUsage> loaded = load(missing, today, false);
+        
+        // Merge rather than replace: a posting that committed while the query ran may only be in the entry
+        for (Long accountId : missing) {
+            AccountUsage rows = loaded.getOrDefault(accountId, new AccountUsage(today));
+            AccountUsage entry = entryFor(accountId, today);
+            if (entry == null) {
+                result.put(accountId, rows.snapshot());
+                continue;
+            }
+            entry.mergeAll(rows, now);
+            result.put(accountId, entry.snapshot());
+        }
+        return result;
+    }
+    
+    /**
+     * Today's usage as committed, for enforcing a limit inside the posting's transaction after the
+     * account has been loaded for posting. When the entry recorded by the last posting carries the
+     * account's current version, that entry is the answer and no query runs. Otherwise the rows
+     * are summed: with {@code lockRows} (PESSIMISTIC banks) by a locking read, which sees commits
+     * made while the posting waited for the account lock; OPTIMISTIC postings read their snapshot,
+     * and a posting committed since then fails their version check. The result also refreshes the
+     * cached entry.
+     */
+    public DailyUsage getUsageForPosting(Account account, boolean lockRows) {
+        LocalDate today = today();
+        VersionedUsage recorded = usageByVersion.get(account.getId());
+        if (recorded != null && recorded.matches(today, account.getVersion())) {
+            return recorded.usage;
+        }
+        
+        AccountUsage rows = load(List.of(account.getId()), today, lockRows).getOrDefault(account.getId(), new AccountUsage(today));
+        AccountUsage entry = entryFor(account.getId(), today);
+        if (entry != null) {
+            entry.mergeAll(rows, System.nanoTime());
+        }
+        return rows.snapshot();
+    }
+    
+    /**
+     * Records usage plus this posting against the version the account commits with, so the next
+     * posting on it can skip the query. Call after the posting's balance change, with the usage
+     * {@link #getUsageForPosting} returned; nothing is recorded if the transaction rolls back.
+     */
+    public void recordPosting(Account account, DailyUsage before, TransactionType type, BigDecimal amount) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        DailyUsage after = before.plus(type, Money.toMinor(amount));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The managed entity holds the version written at flush; if it lags the row, the
+                // next posting simply misses and sums the DB
+                Long version = account.getVersion();
+                if (version == null || (usageByVersion.size() >= maxAccounts && !usageByVersion.containsKey(account.getId()))) {
+                    return;
+                }
+                VersionedUsage next = new VersionedUsage(version, after);
+                usageByVersion.merge(account.getId(), next, (current, candidate) ->
+                        candidate.version >= current.version ? candidate : current);
+            }
+        });
+    }
+    
+    public LocalDate today() {
+        return LocalDate.now(zone);
+    }
+    
+    // Start of the limit day in the server's local time, for comparing with created_at
+    public LocalDateTime startOfDay(LocalDate day) {
+        return day.atStartOfDay(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+    
+    public LocalDateTime nextReset() {
+        return startOfDay(today().plusDays(1));
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        TransactionType type = event.getTransactionType();
+        if ((type != TransactionType.WITHDRAWAL && type != TransactionType.TRANSFER)
+                || event.getFromAccountId() == null || event.getCreatedAt() == null) {
+            return;
+        }
+        LocalDate today = today();
+        if (event.getCreatedAt().isBefore(startOfDay(today))) {
+            return;
+        }
+        
+        AccountUsage entry = entryFor(event.getFromAccountId(), today);
+        if (entry == null) {
+            return;
+        }
+        if (event.getTransactionStatus() == TransactionStatus.COMPLETED) {
+            entry.apply(event.getTransactionId(), type, Money.toMinor(event.getAmount()));
+        } else {
+            entry.remove(event.getTransactionId());
+        }
+    }
+    
+    private Map<Long, AccountUsage> load(List<Long> accountIds, LocalDate today, boolean lockRows) {
+        Map<Long, AccountUsage> loaded = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT from_account_id, id, transaction_type, amount FROM transactions " +
+                "WHERE from_account_id IN (:ids) AND transaction_type IN ('WITHDRAWAL', 'TRANSFER') " +
+                "AND transaction_status = 'COMPLETED' AND created_at >= :startOfDay" + (lockRows ? " FOR UPDATE" : ""),
+                new MapSqlParameterSource()
+                        .addValue("ids", accountIds)
+                        .addValue("startOfDay", Timestamp.valueOf(startOfDay(today))),
+                rs -> {
+                    loaded.computeIfAbsent(rs.getLong(1), id -> new AccountUsage(today))
+                            .merge(rs.getLong(2), TransactionType.valueOf(rs.getString(3)), Money.toMinor(rs.getBigDecimal(4)));
+                });
+        return loaded;
+    }
+    
+    @Scheduled(cron = "0 0 0 * * *", zone = "${limits.timezone:}")
+    public void resetDay() {
+        usage.clear();
+        usageByVersion.clear();
+    }
+    
+    // Today's entry for the account, or null when the cache is full
+    private AccountUsage entryFor(Long accountId, LocalDate today) {
+        return usage.compute(accountId, (id, entry) -> {
+            if (entry != null && entry.day.equals(today)) {
+                return entry;
+            }
+            return entry != null || usage.size() < maxAccounts ? new AccountUsage(today) : null;
+        });
+    }
+    
+    public static final class DailyUsage {
+        private final LocalDate day;
+        private final Money withdrawn;
+        private final Money transferred;
+        
+        private DailyUsage(LocalDate day, Money withdrawn, Money transferred) {
+            this.day = day;
+            this.withdrawn = withdrawn;
+            this.transferred = transferred;
+        }
+        
+        public BigDecimal getWithdrawn() { return withdrawn.toBigDecimal(); }
+        public BigDecimal getTransferred() { return transferred.toBigDecimal(); }
+        Money getWithdrawnMoney() { return withdrawn; }
+        Money getTransferredMoney() { return transferred; }
+        
+        private DailyUsage plus(TransactionType type, long amount) {
+            if (type == TransactionType.WITHDRAWAL) {
+                return new DailyUsage(day, withdrawn.plus(Money.ofMinor(amount)), transferred);
+            }
+            if (type == TransactionType.TRANSFER) {
+                return new DailyUsage(day, withdrawn, transferred.plus(Money.ofMinor(amount)));
+            }
+            return this;
+        }
+    }
+    
+    private static final class VersionedUsage {
+        private final long version;
+        private final DailyUsage usage;
+        
+        private VersionedUsage(long version, DailyUsage usage) {
+            this.version = version;
+            this.usage = usage;
+        }
+        
+        boolean matches(LocalDate today, Long accountVersion) {
+            return accountVersion != null && accountVersion == version && usage.day.equals(today);
+        }
+    }
+    
+    // Postings are kept by id so DB loads and events can overlap without double counting
+    private static final class AccountUsage {
+        private final LocalDate day;
+        private final Map<Long, Posting> postings = new HashMap<>();
+        private final Set<Long> removed = new HashSet<>();
+        private boolean loaded;
+        private long loadedAt;
+        
+        private AccountUsage(LocalDate day) {
+            this.day = day;
+        }
+        
+        synchronized boolean isCurrent(LocalDate today, long now, long refreshNanos) {
+            return loaded && day.equals(today) && (refreshNanos <= 0 || now - loadedAt < refreshNanos);
+        }
+        
+        // From an event, which is authoritative for this id
+        synchronized void apply(Long id, TransactionType type, long amount) {
+            removed.remove(id);
+            postings.put(id, new Posting(type, amount));
+        }
+        
+        synchronized void remove(Long id) {
+            removed.add(id);
+            postings.remove(id);
+        }
+        
+        // From a DB read, which may predate an event that already moved the posting out of COMPLETED
+        synchronized void merge(Long id, TransactionType type, long amount) {
+            if (!removed.contains(id)) {
+                postings.put(id, new Posting(type, amount));
+            }
+        }
+        
+        synchronized void mergeAll(AccountUsage rows, long loadedAt) {
+            rows.postings.forEach((id, posting) -> merge(id, posting.type, posting.amount));
+            this.loaded = true;
+            this.loadedAt = loadedAt;
+        }
+        
+        synchronized DailyUsage snapshot() {
+            long withdrawn = 0;
+            long transferred = 0;
+            for (Posting posting : postings.values()) {
+                if (posting.type == TransactionType.WITHDRAWAL) {
+                    withdrawn = Math.addExact(withdrawn, posting.amount);
+                } else {
+                    transferred = Math.addExact(transferred, posting.amount);
+                }
+            }
+            return new DailyUsage(day, Money.ofMinor(withdrawn), Money.ofMinor(transferred));
+        }
+    }
+    
+    // Amount in minor units
+    private static final class Posting {
+        private final TransactionType type;
+        private final long amount;
+        
+        private Posting(TransactionType type, long amount) {
+            this.type = type;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.bankmanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * ETags for the account, history and bank listings, derived from the rows' ids and updated_at
+ * instead of from the response body, so a current If-None-Match is answered with 304 before the
+ * listing is queried or serialized. They change whenever the data does, but are sent weak (W/):
+ * Tomcat won't gzip a response carrying a strong tag, which would have to differ per encoding,
+ * and If-None-Match compares weakly anyway.
+ *
+ * Every write to an account row sets updated_at, and a change to a transaction either writes its
+ * accounts' rows (postings, holds) or touches them (status changes, declines), so an account's
+ * updated_at versions its transaction history as well. Callers take the tag before reading the
+ * data: a change in between pairs an old tag with new data, which only costs a refetch.
+ */
+@Service
+public class ETagService {
+    
+    // Stored and revalidated on every use; the tags make the revalidation cheap
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    public String forUserAccounts(Long userId) {
+        return tag("ua" + userId, stamp("SELECT id, updated_at FROM accounts WHERE user_id = ? ORDER BY id", userId));
+    }
+    
+    // Null when there is no such account, or it isn't the given owner's
+    public String forAccount(Long accountId, Long ownerId) {
+        Long stamp = ownerId != null
+                ? stampOrNull("SELECT id, updated_at FROM accounts WHERE id = ? AND user_id = ?", accountId, ownerId)
+                : stampOrNull("SELECT id, updated_at FROM accounts WHERE id = ?", accountId);
+        return stamp != null ? tag("a" + accountId, stamp) : null;
+    }
+    
+    public String forAccountHistory(Long accountId) {
+        return tag("h" + accountId, withHistoryStart(stamp("SELECT id, updated_at FROM accounts WHERE id = ?", accountId)));
+    }
+    
+    public String forUserHistory(Long userId) {
+        return tag("uh" + userId,
+                withHistoryStart(stamp("SELECT id, updated_at FROM accounts WHERE user_id = ? ORDER BY id", userId)));
+    }
+    
+    public String forBanks() {
+        return tag("b", stamp("SELECT id, updated_at FROM banks ORDER BY id"));
+    }
+    
+    private static String tag(String resource, long stamp) {
+        return "W/\"" + resource + "-" + Long.toHexString(stamp) + "\"";
+    }
+    
+    // A windowed history also changes when the window moves on to the next day
+    private long withHistoryStart(long stamp) {
+        LocalDateTime since = transactionService.getHistoryStart();
+        return since != null ? mix(stamp, since.toLocalDate().toEpochDay()) : stamp;
+    }
+    
+    private Long stampOrNull(String sql, Object... args) {
+        long[] stamp = { 1 };
+        boolean[] found = { false };
+        jdbcTemplate.query(sql, rs -> {
+            found[0] = true;
+            stamp[0] = mix(mix(stamp[0], rs.getLong(1)), micros(rs.getTimestamp(2)));
+        }, args);
+        return found[0] ? stamp[0] : null;
+    }
+    
+    private long stamp(String sql, Object... args) {
+        Long stamp = stampOrNull(sql, args);
+        return stamp != null ? stamp : 0;
+    }
+    
+    // Each step is a bijection of the running value, so changing any single input changes the tag
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+    
+    private static long micros(Timestamp timestamp) {
+        return timestamp != null ? timestamp.getTime() * 1000 + (timestamp.getNanos() / 1000) % 1000 : 0;
+    }
+}
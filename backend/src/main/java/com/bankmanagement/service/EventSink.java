@@ -0,0 +1,19 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for outbox events drained by {@link OutboxRelay}.
+ * Implement this as a Spring bean to forward events to a message broker;
+ * each sink gets its own offset so one slow or failing sink does not hold back the others.
+ */
+public interface EventSink {
+    
+    // Unique name, used as the key of this sink's stored offset
+    String getName();
+    
+    // Events arrive in ascending sequence number (commit) order. Throwing leaves the offset untouched so the batch is retried.
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,221 @@
+package com.bankmanagement.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exchange rates held as an immutable, versioned table that is swapped in with one volatile
+ * write when the source changes, so converting on the posting path is a map lookup with no I/O.
+ * Rates come from the fx_rates table or from a CSV file of {@code BASE,QUOTE,RATE} lines.
+ *
+ * Rounding: rates are kept to 8 decimal places (HALF_EVEN). Inverse and cross rates through
+ * the base currency are derived once per table. A converted amount is amount × rate rounded
+ * HALF_EVEN to the target currency's minor unit.
+ */
+@Service
+public class FxRateService {
+    
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+    
+    public static final int RATE_SCALE = 8;
+    
+    // Ledger columns are DECIMAL(15,2), so currencies with finer minor units can't be held exactly
+    private static final int MAX_FRACTION_DIGITS = 2;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${fx.base-currency:INR}")
+    private String baseCurrency;
+    
+    // db or file
+    @Value("${fx.rates.source:db}")
+    private String source;
+    
+    @Value("${fx.rates.file:}")
+    private String ratesFile;
+    
+    private volatile RateTable table = new RateTable(0, Map.of(), null);
+    
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+    
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${fx.rates.refresh-ms:60000}", initialDelayString = "${fx.rates.refresh-ms:60000}")
+    public synchronized void refresh() {
+        Map<String, BigDecimal> quoted;
+        try {
+            quoted = "file".equalsIgnoreCase(source) ? loadFile() : loadDb();
+        } catch (Exception e) {
+            // Keep converting at the last good rates rather than failing postings
+            log.warn("FX rate refresh failed, keeping version {}: {}", table.version, e.getMessage());
+            return;
+        }
+        if (!quoted.equals(table.quoted)) {
+            RateTable current = table;
+            table = new RateTable(current.version + 1, quoted, derive(quoted));
+            log.info("Loaded FX rate table version {} with {} quoted pairs", current.version + 1, quoted.size());
+        }
+    }
+    
+    public Conversion convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        // One read of the table, so the rate and its version always match
+        RateTable rates = table;
+        if (fromCurrency.equals(toCurrency)) {
+            return new Conversion(amount, BigDecimal.ONE, rates.version);
+        }
+        BigDecimal rate = rates.rate(fromCurrency, toCurrency);
+        if (rate == null) {
+            throw new RuntimeException("No exchange rate from " + fromCurrency + " to " + toCurrency);
+        }
+        BigDecimal converted = amount.multiply(rate).setScale(fractionDigits(toCurrency), RoundingMode.HALF_EVEN);
+        return new Conversion(converted, rate, rates.version);
+    }
+    
+    // An amount configured in the base currency, e.g. a risk threshold, in the given currency
+    public BigDecimal fromBaseCurrency(BigDecimal amount, String currency) {
+        return convert(amount, baseCurrency, currency).getAmount();
+    }
+    
+    // Normalizes a requested account currency; null means the base currency
+    public String requireSupported(String currency) {
+        String code = currency == null || currency.isBlank() ? baseCurrency : currency.trim().toUpperCase();
+        try {
+            Currency.getInstance(code);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown currency: " + code);
+        }
+        if (Currency.getInstance(code).getDefaultFractionDigits() > MAX_FRACTION_DIGITS) {
+            throw new RuntimeException("Currency " + code + " is not supported");
+        }
+        if (!code.equals(baseCurrency) && table.rate(code, baseCurrency) == null) {
+            throw new RuntimeException("No exchange rate available for " + code);
+        }
+        return code;
+    }
+    
+    public static int fractionDigits(String currency) {
+        int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+        return digits < 0 ? MAX_FRACTION_DIGITS : Math.min(digits, MAX_FRACTION_DIGITS);
+    }
+    
+    private Map<String, BigDecimal> loadDb() {
+        Map<String, BigDecimal> quoted = new HashMap<>();
+        jdbcTemplate.query("SELECT base_currency, quote_currency, rate FROM fx_rates",
+                rs -> {
+                    addQuote(quoted, rs.getString(1), rs.getString(2), rs.getBigDecimal(3));
+                });
+        return quoted;
+    }
+    
+    private Map<String, BigDecimal> loadFile() throws IOException {
+        Map<String, BigDecimal> quoted = new HashMap<>();
+        if (ratesFile.isBlank()) {
+            throw new IOException("fx.rates.file is not set");
+        }
+        List<String> lines = Files.readAllLines(Path.of(ratesFile));
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split(",");
+            if (fields.length != 3) {
+                throw new IOException("Bad FX rate line: " + trimmed);
+            }
+            addQuote(quoted, fields[0].trim(), fields[1].trim(), new BigDecimal(fields[2].trim()));
+        }
+        return quoted;
+    }
+    
+    private static void addQuote(Map<String, BigDecimal> quoted, String base, String quote, BigDecimal rate) {
+        String from = Currency.getInstance(base.toUpperCase()).getCurrencyCode();
+        String to = Currency.getInstance(quote.toUpperCase()).getCurrencyCode();
+        if (rate == null || rate.signum() <= 0) {
+            throw new IllegalArgumentException("Rate for " + from + "/" + to + " must be positive");
+        }
+        quoted.put(pair(from, to), rate.setScale(RATE_SCALE, RoundingMode.HALF_EVEN));
+    }
+    
+    // Every convertible pair: quoted rates win, then inverses, then crosses through the base currency
+    private Map<String, Map<String, BigDecimal>> derive(Map<String, BigDecimal> quoted) {
+        Map<String, Map<String, BigDecimal>> rates = new HashMap<>();
+        quoted.forEach((pair, rate) -> {
+            String from = pair.substring(0, 3);
+            String to = pair.substring(4);
+            rates.computeIfAbsent(to, c -> new HashMap<>())
+                    .putIfAbsent(from, BigDecimal.ONE.divide(rate, RATE_SCALE, RoundingMode.HALF_EVEN));
+        });
+        quoted.forEach((pair, rate) -> rates.computeIfAbsent(pair.substring(0, 3), c -> new HashMap<>())
+                .put(pair.substring(4), rate));
+        
+        Map<String, BigDecimal> toBase = new HashMap<>();
+        Map<String, BigDecimal> fromBase = rates.getOrDefault(baseCurrency, Map.of());
+        rates.forEach((from, targets) -> {
+            if (targets.containsKey(baseCurrency)) {
+                toBase.put(from, targets.get(baseCurrency));
+            }
+        });
+        toBase.forEach((from, fromRate) -> fromBase.forEach((to, toRate) -> {
+            if (!from.equals(to)) {
+                rates.computeIfAbsent(from, c -> new HashMap<>())
+                        .putIfAbsent(to, fromRate.multiply(toRate).setScale(RATE_SCALE, RoundingMode.HALF_EVEN));
+            }
+        }));
+        return rates;
+    }
+    
+    private static String pair(String from, String to) {
+        return from + "/" + to;
+    }
+    
+    public static final class Conversion {
+        private final BigDecimal amount;
+        private final BigDecimal rate;
+        private final long rateVersion;
+        
+        private Conversion(BigDecimal amount, BigDecimal rate, long rateVersion) {
+            this.amount = amount;
+            this.rate = rate;
+            this.rateVersion = rateVersion;
+        }
+        
+        public BigDecimal getAmount() { return amount; }
+        public BigDecimal getRate() { return rate; }
+        public long getRateVersion() { return rateVersion; }
+    }
+    
+    private static final class RateTable {
+        private final long version;
+        private final Map<String, BigDecimal> quoted;
+        private final Map<String, Map<String, BigDecimal>> rates;
+        
+        private RateTable(long version, Map<String, BigDecimal> quoted, Map<String, Map<String, BigDecimal>> rates) {
+            this.version = version;
+            this.quoted = quoted;
+            this.rates = rates != null ? rates : Map.of();
+        }
+        
+        BigDecimal rate(String from, String to) {
+            Map<String, BigDecimal> targets = rates.get(from);
+            return targets != null ? targets.get(to) : null;
+        }
+    }
+}
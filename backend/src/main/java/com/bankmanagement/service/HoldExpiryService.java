@@ -0,0 +1,207 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Releases authorization holds that reach their expiry without being captured or voided.
+ * Holds expiring within the next {@code holds.expiry.horizon-minutes} are indexed in memory by
+ * expiry time, so the DB is only touched when something is actually due; the index is refilled
+ * from account_holds every refill-ms. Due holds are expired in batches, one transaction each.
+ *
+ * Every instance indexes every hold. Batches lock their rows with SKIP LOCKED and re-check the
+ * status, so a hold is expired once even when instances race each other or a capture.
+ */
+@Service
+public class HoldExpiryService {
+    
+    private static final Logger log = LoggerFactory.getLogger(HoldExpiryService.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${holds.expiry.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${holds.expiry.horizon-minutes:10}")
+    private long horizonMinutes;
+    
+    @Value("${holds.expiry.max-indexed:100000}")
+    private int maxIndexed;
+    
+    @Value("${holds.expiry.batch-size:200}")
+    private int batchSize;
+    
+    private final PriorityQueue<IndexedHold> queue = new PriorityQueue<>(
+            Comparator.comparing((IndexedHold hold) -> hold.expiresAt).thenComparing(hold -> hold.holdId));
+    
+    // Live entries by hold id; queue entries missing here were untracked and are skipped when polled
+    private final Map<Long, LocalDateTime> indexed = new HashMap<>();
+    
+    // Holds expiring before this are all in the index (or were loaded and since released)
+    private LocalDateTime indexedUntil = LocalDateTime.MIN;
+    
+    public synchronized void track(Long holdId, LocalDateTime expiresAt) {
+        if (expiresAt.isBefore(indexedUntil) && !indexed.containsKey(holdId)) {
+            indexed.put(holdId, expiresAt);
+            queue.add(new IndexedHold(holdId, expiresAt));
+        }
+    }
+    
+    // Captured or voided: nothing left to expire
+    public synchronized void untrack(Long holdId) {
+        indexed.remove(holdId);
+    }
+    
+    @Scheduled(fixedDelayString = "${holds.expiry.refill-ms:60000}")
+    public void refill() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime until = LocalDateTime.now().plusMinutes(horizonMinutes);
+        List<IndexedHold> due = jdbcTemplate.query(
+                "SELECT id, expires_at FROM account_holds WHERE status = 'ACTIVE' AND expires_at < ? " +
+                "ORDER BY expires_at LIMIT ?",
+                (rs, rowNum) -> new IndexedHold(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()),
+                Timestamp.valueOf(until), maxIndexed);
+        
+        synchronized (this) {
+            // A full page may have cut off mid-horizon; only claim coverage up to the last row loaded
+            indexedUntil = due.size() < maxIndexed ? until : due.get(due.size() - 1).expiresAt;
+            for (IndexedHold hold : due) {
+                if (indexed.putIfAbsent(hold.holdId, hold.expiresAt) == null) {
+                    queue.add(hold);
+                }
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${holds.expiry.poll-ms:1000}")
+    public void expireDue() {
+        if (!enabled) {
+            return;
+        }
+        TransactionTemplate batchTransaction = new TransactionTemplate(transactionManager);
+        List<Long> due;
+        while (!(due = pollDue(LocalDateTime.now())).isEmpty()) {
+            List<Long> batch = due;
+            try {
+                Integer expired = batchTransaction.execute(status -> expireBatch(batch));
+                log.debug("Expired {} of {} due holds", expired, batch.size());
+            } catch (Exception e) {
+                // Still ACTIVE in the DB, so the next refill indexes them again
+                log.warn("Expiring {} holds failed: {}", batch.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+    
+    private synchronized List<Long> pollDue(LocalDateTime now) {
+        List<Long> due = new ArrayList<>();
+        while (due.size() < batchSize && !queue.isEmpty() && !queue.peek().expiresAt.isAfter(now)) {
+            IndexedHold hold = queue.poll();
+            if (hold.expiresAt.equals(indexed.get(hold.holdId))) {
+                indexed.remove(hold.holdId);
+                due.add(hold.holdId);
+            }
+        }
+        return due;
+    }
+    
+    private int expireBatch(List<Long> holdIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowStamp = Timestamp.valueOf(now);
+        
+        // Holds a capture or another instance has locked are left to them
+        List<Object[]> holds = namedParameterJdbcTemplate.query(
+                "SELECT id, account_id, amount, transaction_id FROM account_holds " +
+                "WHERE id IN (:ids) AND status = 'ACTIVE' AND expires_at <= :now FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource()
+                        .addValue("ids", holdIds)
+                        .addValue("now", nowStamp),
+                (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3), rs.getLong(4) });
+        if (holds.isEmpty()) {
+            return 0;
+        }
+        
+        List<Object[]> statusUpdates = new ArrayList<>();
+        List<Long> transactionIds = new ArrayList<>();
+        // Sorted so concurrent batches lock account rows in the same order
+        Map<Long, BigDecimal> released = new TreeMap<>();
+        for (Object[] hold : holds) {
+            statusUpdates.add(new Object[] { nowStamp, hold[0] });
+            released.merge((Long) hold[1], (BigDecimal) hold[2], BigDecimal::add);
+            transactionIds.add((Long) hold[3]);
+        }
+        List<Object[]> heldUpdates = new ArrayList<>();
+        released.forEach((accountId, amount) -> heldUpdates.add(new Object[] { amount, nowStamp, accountId }));
+        
+        jdbcTemplate.batchUpdate("UPDATE account_holds SET status = 'EXPIRED', updated_at = ? WHERE id = ?", statusUpdates);
+        jdbcTemplate.batchUpdate("UPDATE accounts SET held_amount = held_amount - ?, updated_at = ?, version = version + 1 WHERE id = ?", heldUpdates);
+        namedParameterJdbcTemplate.update(
+                "UPDATE transactions SET transaction_status = 'CANCELLED', failure_reason = 'Authorization expired', " +
+                "updated_at = :now, version = version + 1 WHERE id IN (:ids)",
+                new MapSqlParameterSource()
+                        .addValue("ids", transactionIds)
+                        .addValue("now", nowStamp));
+        
+        // Same outbox payload and in-process event as a void, written as one batch
+        List<Object[]> events = new ArrayList<>();
+        for (Transaction transaction : transactionRepository.findAllById(transactionIds)) {
+            events.add(new Object[] { OutboxService.TRANSACTION_STATUS_CHANGED, transaction.getId(),
+                    outboxService.toPayload(transaction), nowStamp });
+            eventPublisher.publishEvent(new TransactionPostedEvent(transaction));
+        }
+        events.sort((a, b) -> Long.compare((Long) a[1], (Long) b[1]));
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (event_type, aggregate_id, payload, created_at) VALUES (?, ?, ?, ?)", events);
+        return holds.size();
+    }
+    
+    private static final class IndexedHold {
+        private final long holdId;
+        private final LocalDateTime expiresAt;
+        
+        private IndexedHold(long holdId, LocalDateTime expiresAt) {
+            this.holdId = holdId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.TransactionStatus;
+import com.bankmanagement.model.TransactionType;
+import com.bankmanagement.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily interest accrual for ACTIVE SAVINGS accounts.
+ * Accounts are split into id ranges worked in parallel; each range is read by keyset in chunks,
+ * and every chunk is written with JDBC batches in one transaction together with its checkpoint.
+ * Sub-cent interest is carried per account, so only whole cents are ever posted.
+ */
+@Service
+public class InterestAccrualService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualService.class);
+    
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+    private static final String PENDING = "PENDING";
+    
+    private static final int ACCRUAL_SCALE = 10;
+    private static final DateTimeFormatter REFERENCE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private BatchPostingWriter batchPostingWriter;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${interest.accrual.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${interest.savings.annual-rate:0.0350}")
+    private BigDecimal annualRate;
+    
+    // ACT/365 by default
+    @Value("${interest.savings.day-count-basis:365}")
+    private int dayCountBasis;
+    
+    @Value("${interest.accrual.threads:4}")
+    private int threads;
+    
+    @Value("${interest.accrual.partitions-per-thread:4}")
+    private int partitionsPerThread;
+    
+    @Value("${interest.accrual.chunk-size:1000}")
+    private int chunkSize;
+    
+    // Accrues the day that just ended
+    @Scheduled(cron = "${interest.accrual.cron:0 15 0 * * *}")
+    public void runScheduledAccrual() {
+        if (enabled) {
+            runAccrual(LocalDate.now().minusDays(1));
+        }
+    }
+    
+    // Picks up runs interrupted by a crash or deploy, without holding up startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeIncompleteRuns() {
+        if (!enabled) {
+            return;
+        }
+        List<LocalDate> dates = jdbcTemplate.queryForList(
+                "SELECT accrual_date FROM interest_runs WHERE status <> ? ORDER BY accrual_date",
+                LocalDate.class, COMPLETED);
+        if (dates.isEmpty()) {
+            return;
+        }
+        Thread resume = new Thread(() -> dates.forEach(this::runAccrual), "interest-resume");
+        resume.setDaemon(true);
+        resume.start();
+    }
+    
+    // Runs (or resumes) accrual for one date; completed ranges and chunks are skipped
+    public synchronized void runAccrual(LocalDate accrualDate) {
+        long runId = startRun(accrualDate);
+        if (runId < 0) {
+            logger.info("Interest accrual for {} already completed", accrualDate);
+            return;
+        }
+        
+        List<long[]> partitions = loadOrCreatePartitions(runId);
+        long started = System.currentTimeMillis();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "interest-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long[] partition : partitions) {
+                futures.add(workers.submit(() -> processPartition(runId, accrualDate, partition)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            jdbcTemplate.update("UPDATE interest_runs SET status = ?, finished_at = ? WHERE id = ?",
+                    COMPLETED, Timestamp.valueOf(LocalDateTime.now()), runId);
+            
+            Map<String, Object> totals = jdbcTemplate.queryForMap(
+                    "SELECT accounts_processed, interest_posted FROM interest_runs WHERE id = ?", runId);
+            logger.info("Interest accrual for {} completed in {} ms: {} accounts, {} posted", accrualDate,
+                    System.currentTimeMillis() - started, totals.get("accounts_processed"), totals.get("interest_posted"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopWorkers(workers);
+            markFailed(runId);
+        } catch (ExecutionException e) {
+            stopWorkers(workers);
+            markFailed(runId);
+            logger.error("Interest accrual for {} failed; it resumes from its checkpoints on the next run",
+                    accrualDate, e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+    
+    // Returns the run id, or -1 when the date is already done
+    private long startRun(LocalDate accrualDate) {
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList(
+                "SELECT id, status FROM interest_runs WHERE accrual_date = ?", Date.valueOf(accrualDate));
+        if (!existing.isEmpty()) {
+            if (COMPLETED.equals(existing.get(0).get("status"))) {
+                return -1;
+            }
+            long runId = ((Number) existing.get(0).get("id")).longValue();
+            jdbcTemplate.update("UPDATE interest_runs SET status = ? WHERE id = ?", RUNNING, runId);
+            return runId;
+        }
+        
+        jdbcTemplate.update("INSERT INTO interest_runs (accrual_date, status, accounts_processed, interest_posted, started_at) " +
+                "VALUES (?, ?, 0, 0, ?)", Date.valueOf(accrualDate), RUNNING, Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.queryForObject("SELECT id FROM interest_runs WHERE accrual_date = ?",
+                Long.class, Date.valueOf(accrualDate));
+    }
+    
+    // Each partition is {partitionNo, fromAccountId, toAccountId, lastAccountId}; finished ones are left out
+    private List<long[]> loadOrCreatePartitions(long runId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM interest_run_partitions WHERE run_id = ?", Integer.class, runId);
+        if (count == null || count == 0) {
+            createPartitions(runId);
+        }
+        return jdbcTemplate.query(
+                "SELECT partition_no, from_account_id, to_account_id, last_account_id FROM interest_run_partitions " +
+                "WHERE run_id = ? AND status <> ? ORDER BY partition_no",
+                (rs, rowNum) -> new long[] { rs.getInt(1), rs.getLong(2), rs.getLong(3), rs.getLong(4) },
+                runId, COMPLETED);
+    }
+    
+    // Evenly sized account-id ranges; ids are dense enough that equal ranges balance well
+    private void createPartitions(long runId) {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM accounts WHERE account_type = 'SAVINGS' AND account_status = 'ACTIVE'");
+        if (bounds.get("min_id") == null) {
+            return;
+        }
+        long minId = ((Number) bounds.get("min_id")).longValue();
+        long maxId = ((Number) bounds.get("max_id")).longValue();
+        int partitionCount = (int) Math.max(1, Math.min((long) Math.max(1, threads) * Math.max(1, partitionsPerThread),
+                maxId - minId + 1));
+        long span = (maxId - minId + partitionCount) / partitionCount;
+        
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < partitionCount; i++) {
+            long from = minId + i * span;
+            long to = i == partitionCount - 1 ? maxId : from + span - 1;
+            rows.add(new Object[] { runId, i, from, to, from - 1, PENDING, now });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO interest_run_partitions " +
+                "(run_id, partition_no, from_account_id, to_account_id, last_account_id, status, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+    
+    private void processPartition(long runId, LocalDate accrualDate, long[] partition) {
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        int partitionNo = (int) partition[0];
+        long toId = partition[2];
+        long lastId = partition[3];
+        
+        while (!Thread.currentThread().isInterrupted()) {
+            long afterId = lastId;
+            Long next = chunkTransaction.execute(status -> processChunk(runId, partitionNo, accrualDate, afterId, toId));
+            if (next == null) {
+                jdbcTemplate.update("UPDATE interest_run_partitions SET status = ?, updated_at = ? WHERE run_id = ? AND partition_no = ?",
+                        COMPLETED, Timestamp.valueOf(LocalDateTime.now()), runId, partitionNo);
+                return;
+            }
+            lastId = next;
+        }
+    }
+    
+    // Accrues one keyset chunk; returns the last account id seen, or null when the range is exhausted
+    private Long processChunk(long runId, int partitionNo, LocalDate accrualDate, long afterId, long toId) {
+        // Rows are locked for the chunk so balanceAfterTransaction matches the balance that was credited
+        List<Object[]> accounts = jdbcTemplate.query(
+                "SELECT a.id, a.balance, ia.carry, ia.last_accrual_date, a.currency, a.user_id FROM accounts a " +
+                "LEFT JOIN interest_accruals ia ON ia.account_id = a.id " +
+                "WHERE a.account_type = 'SAVINGS' AND a.account_status = 'ACTIVE' AND a.id > ? AND a.id <= ? " +
+                "AND a.created_at < ? ORDER BY a.id LIMIT ? FOR UPDATE",
+                (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3),
+                        rs.getObject(4, LocalDate.class), rs.getString(5), rs.getLong(6) },
+                afterId, toId, Timestamp.valueOf(accrualDate.plusDays(1).atStartOfDay()), chunkSize);
+        if (accounts.isEmpty()) {
+            return null;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowStamp = Timestamp.valueOf(now);
+        String description = "Interest for " + accrualDate;
+        List<Transaction> postings = new ArrayList<>();
+        Map<Long, BigDecimal> balanceDeltas = new HashMap<>();
+        List<Object[]> accrualUpserts = new ArrayList<>();
+        BigDecimal chunkInterest = BigDecimal.ZERO;
+        int processed = 0;
+        
+        for (Object[] row : accounts) {
+            long accountId = (Long) row[0];
+            BigDecimal balance = (BigDecimal) row[1];
+            BigDecimal carry = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            LocalDate lastAccrual = (LocalDate) row[3];
+            String currency = (String) row[4];
+            long userId = (Long) row[5];
+            if (lastAccrual != null && !lastAccrual.isBefore(accrualDate)) {
+                continue;
+            }
+            
+            // Days missed while the job was not running are caught up at the current balance
+            long days = lastAccrual == null ? 1 : ChronoUnit.DAYS.between(lastAccrual, accrualDate);
+            BigDecimal accrued = balance.multiply(annualRate).multiply(BigDecimal.valueOf(days))
+                    .divide(BigDecimal.valueOf(dayCountBasis), ACCRUAL_SCALE, RoundingMode.HALF_EVEN);
+            BigDecimal total = carry.add(accrued);
+            BigDecimal posted = total.setScale(FxRateService.fractionDigits(currency), RoundingMode.DOWN);
+            processed++;
+            
+            if (posted.signum() > 0) {
+                String reference = "INT" + accrualDate.format(REFERENCE_DATE) + "-" + accountId;
+                BigDecimal balanceAfter = balance.add(posted);
+                postings.add(interestTransaction(reference, accountId, userId, posted, currency, balanceAfter, description, now));
+                balanceDeltas.put(accountId, posted);
+                chunkInterest = chunkInterest.add(posted);
+            }
+            accrualUpserts.add(new Object[] { accountId, total.subtract(posted), Date.valueOf(accrualDate), nowStamp });
+        }
+        
+        // The deterministic reference is unique, so a chunk can never be posted twice
+        batchPostingWriter.write(postings, balanceDeltas, nowStamp);
+        // Delivered when the chunk commits, so overview caches and live streams see the interest
+        postings.forEach(posting -> eventPublisher.publishEvent(new TransactionPostedEvent(posting)));
+        if (!accrualUpserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO interest_accruals (account_id, carry, last_accrual_date, updated_at) " +
+                    "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE carry = VALUES(carry), " +
+                    "last_accrual_date = VALUES(last_accrual_date), updated_at = VALUES(updated_at)", accrualUpserts);
+        }
+        
+        long lastId = (Long) accounts.get(accounts.size() - 1)[0];
+        jdbcTemplate.update("UPDATE interest_run_partitions SET last_account_id = ?, status = ?, updated_at = ? " +
+                "WHERE run_id = ? AND partition_no = ?", lastId, RUNNING, nowStamp, runId, partitionNo);
+        jdbcTemplate.update("UPDATE interest_runs SET accounts_processed = accounts_processed + ?, " +
+                "interest_posted = interest_posted + ? WHERE id = ?", processed, chunkInterest, runId);
+        return lastId;
+    }
+    
+    private Transaction interestTransaction(String reference, long accountId, long userId, BigDecimal amount, String currency,
+                                            BigDecimal balanceAfter, String description, LocalDateTime createdAt) {
+        User user = new User();
+        user.setId(userId);
+        Account account = new Account();
+        account.setId(accountId);
+        account.setBalance(balanceAfter);
+        account.setCurrency(currency);
+        account.setUser(user);
+        
+        Transaction transaction = new Transaction();
+        transaction.setTransactionReference(reference);
+        transaction.setTransactionType(TransactionType.INTEREST);
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setAmount(amount);
+        transaction.setCurrency(currency);
+        transaction.setDescription(description);
+        transaction.setToAccount(account);
+        transaction.setBalanceAfterTransaction(balanceAfter);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+    
+    // Lets in-flight chunks commit so the checkpoints are final before the run is marked failed
+    private void stopWorkers(ExecutorService workers) {
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void markFailed(long runId) {
+        jdbcTemplate.update("UPDATE interest_runs SET status = ? WHERE id = ?", FAILED, runId);
+    }
+}
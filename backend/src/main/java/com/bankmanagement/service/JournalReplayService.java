@@ -0,0 +1,191 @@
+package com.bankmanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays the posting journal into per-account balances and compares them with one bank's
+ * accounts. Only accounts opened after the journal was started are covered: older accounts had
+ * postings before journaling started, so the journal cannot account for their balance.
+ *
+ * The journal is this instance's: postings served by another instance are in that one's journal
+ * only. With several instances, verify shows their accounts as mismatches, and rebuild is only
+ * right for a bank whose postings this instance alone has served since its journal started.
+ *
+ * Rebuild overwrites mismatched covered balances with the journal's figure. A posting journaled
+ * but not yet committed would be counted, so rebuild refuses to run unless the instance was
+ * started with journal.maintenance=true, which fails every posting before it is journaled.
+ */
+@Service
+public class JournalReplayService {
+    
+    @Autowired
+    private PostingJournal postingJournal;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${journal.replay.max-mismatches:1000}")
+    private int maxMismatches;
+    
+    public ReplayResult verify(Long bankId) {
+        return replay(false, bankId);
+    }
+    
+    public ReplayResult rebuild(Long bankId) {
+        if (postingJournal.isEnabled() && !postingJournal.isMaintenance()) {
+            throw new RuntimeException("Rebuild needs postings stopped: restart this instance with journal.maintenance=true");
+        }
+        TransactionTemplate rebuildTransaction = new TransactionTemplate(transactionManager);
+        return rebuildTransaction.execute(status -> replay(true, bankId));
+    }
+    
+    private ReplayResult replay(boolean repair, Long bankId) {
+        if (!postingJournal.isEnabled()) {
+            throw new RuntimeException("Posting journal is not enabled");
+        }
+        if (repair) {
+            // The covered accounts are known once the journal's start is; lock them, then replay the journal in full
+            LocalDateTime coveredFrom = replayJournal(new ReplayResult()).coveredFrom;
+            if (coveredFrom != null) {
+                jdbcTemplate.queryForList("SELECT id FROM accounts WHERE bank_id = ? AND created_at >= ? ORDER BY id FOR UPDATE",
+                        Long.class, bankId, Timestamp.valueOf(coveredFrom));
+            }
+        }
+        ReplayResult result = new ReplayResult();
+        JournalBalances balances = replayJournal(result);
+        if (balances.coveredFrom == null) {
+            return result;
+        }
+        result.coveredFrom = balances.coveredFrom;
+        
+        List<Object[]> repairs = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.query("SELECT id, balance, currency, created_at FROM accounts WHERE bank_id = ? ORDER BY id",
+                rs -> {
+                    if (rs.getTimestamp(4).toLocalDateTime().isBefore(balances.coveredFrom)) {
+                        result.accountsNotCovered++;
+                        return;
+                    }
+                    result.accountsChecked++;
+                    long accountId = rs.getLong(1);
+                    String currency = rs.getString(3);
+                    BigDecimal actual = rs.getBigDecimal(2);
+                    String journaledCurrency = balances.currencies.getOrDefault(accountId, currency);
+                    BigDecimal expected = PostingJournal.fromMinor(balances.minor.getOrDefault(accountId, 0L), currency);
+                    if (!journaledCurrency.equals(currency)) {
+                        result.addMismatch(accountId, currency, actual, null, maxMismatches);
+                    } else if (expected.compareTo(actual) != 0) {
+                        result.addMismatch(accountId, currency, actual, expected, maxMismatches);
+                        if (repair) {
+                            repairs.add(new Object[] { expected, now, accountId });
+                        }
+                    }
+                }, bankId);
+        if (!repairs.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE accounts SET balance = ?, updated_at = ?, version = version + 1 WHERE id = ?", repairs);
+            result.repaired = repairs.size();
+        }
+        return result;
+    }
+    
+    private JournalBalances replayJournal(ReplayResult result) {
+        try {
+            return replay(postingJournal.getDirectory(), result);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read the posting journal: " + e.getMessage());
+        }
+    }
+    
+    // Net journaled amount per account in minor units; rollback records cancel their posting
+    static JournalBalances replay(Path dir, ReplayResult result) throws IOException {
+        JournalBalances balances = new JournalBalances();
+        PostingJournal.read(dir, record -> {
+            if (balances.coveredFrom == null) {
+                balances.coveredFrom = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getTimestamp()), ZoneId.systemDefault());
+                result.firstSequence = record.getSequence();
+            }
+            result.lastSequence = record.getSequence();
+            if (record.getKind() == PostingJournal.KIND_START) {
+                return;
+            }
+            long sign = record.getKind() == PostingJournal.KIND_ROLLBACK ? -1 : 1;
+            if (sign < 0) {
+                result.rollbacks++;
+            } else {
+                result.postings++;
+            }
+            if (record.getFromAccountId() != 0) {
+                balances.minor.merge(record.getFromAccountId(), -sign * record.getDebitMinor(), Long::sum);
+                balances.currencies.put(record.getFromAccountId(), record.getDebitCurrency());
+            }
+            if (record.getToAccountId() != 0) {
+                balances.minor.merge(record.getToAccountId(), sign * record.getCreditMinor(), Long::sum);
+                balances.currencies.put(record.getToAccountId(), record.getCreditCurrency());
+            }
+        });
+        return balances;
+    }
+    
+    static final class JournalBalances {
+        final Map<Long, Long> minor = new HashMap<>();
+        final Map<Long, String> currencies = new HashMap<>();
+        LocalDateTime coveredFrom;
+    }
+    
+    public static final class ReplayResult {
+        private long postings;
+        private long rollbacks;
+        private long firstSequence;
+        private long lastSequence;
+        private LocalDateTime coveredFrom;
+        private long accountsChecked;
+        private long accountsNotCovered;
+        private long mismatchCount;
+        private int repaired;
+        private final List<Map<String, Object>> mismatches = new ArrayList<>();
+        
+        // A null expected balance means the journal posted to the account in another currency
+        private void addMismatch(long accountId, String currency, BigDecimal actual, BigDecimal expected, int max) {
+            mismatchCount++;
+            if (mismatches.size() < max) {
+                Map<String, Object> mismatch = new HashMap<>();
+                mismatch.put("accountId", accountId);
+                mismatch.put("currency", currency);
+                mismatch.put("balance", actual);
+                mismatch.put("journalBalance", expected);
+                mismatches.add(mismatch);
+            }
+        }
+        
+        public long getPostings() { return postings; }
+        public long getRollbacks() { return rollbacks; }
+        public long getFirstSequence() { return firstSequence; }
+        public long getLastSequence() { return lastSequence; }
+        public LocalDateTime getCoveredFrom() { return coveredFrom; }
+        public long getAccountsChecked() { return accountsChecked; }
+        public long getAccountsNotCovered() { return accountsNotCovered; }
+        public long getMismatchCount() { return mismatchCount; }
+        public int getRepaired() { return repaired; }
+        public List<Map<String, Object>> getMismatches() { return mismatches; }
+    }
+}
@@ -0,0 +1,33 @@
+package com.bankmanagement.service;
+
+import java.nio.file.Path;
+import java.util.TreeMap;
+
+/**
+ * Offline replay of a posting journal directory, for when the application (or its database) is
+ * not available: prints each journaled account's balance as CSV, then a summary line.
+ *
+ * Usage: {@code java -cp <classpath> com.bankmanagement.service.JournalReplayTool <journal-dir>}
+ */
+public final class JournalReplayTool {
+    
+    private JournalReplayTool() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: JournalReplayTool <journal-dir>");
+            System.exit(2);
+        }
+        JournalReplayService.ReplayResult result = new JournalReplayService.ReplayResult();
+        JournalReplayService.JournalBalances balances = JournalReplayService.replay(Path.of(args[0]), result);
+        
+        System.out.println("account_id,currency,balance");
+        new TreeMap<>(balances.minor).forEach((accountId, minor) -> {
+            String currency = balances.currencies.get(accountId);
+            System.out.println(accountId + "," + currency + "," + PostingJournal.fromMinor(minor, currency).toPlainString());
+        });
+        System.err.println("postings=" + result.getPostings() + " rollbacks=" + result.getRollbacks()
+                + " sequences=" + result.getFirstSequence() + ".." + result.getLastSequence());
+    }
+}
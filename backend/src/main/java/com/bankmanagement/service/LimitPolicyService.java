@@ -0,0 +1,239 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.LimitPolicy;
+import com.bankmanagement.model.Money;
+import com.bankmanagement.model.TransactionType;
+import com.bankmanagement.repository.LimitPolicyRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily and single-transaction caps per (bank, account type, transaction type), read from
+ * limit_policies and compiled into an immutable table so a posting's limit lookup is two
+ * array indexes and a map get, with no DB access or allocation. The table is rebuilt when
+ * the policies change, here or on another instance.
+ * <p>
+ * Policy amounts are in the base currency (fx.base-currency). Rules for accounts in other
+ * currencies are converted at the current rates when they are looked up.
+ */
+@Service
+public class LimitPolicyService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LimitPolicyService.class);
+    
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+    
+    // Extra account-type slot for lookups that don't name one (bank-wide figures)
+    private static final int ANY_ACCOUNT_TYPE = ACCOUNT_TYPES.length;
+    
+    @Autowired
+    private LimitPolicyRepository limitPolicyRepository;
+    
+    @Autowired
+    private FxRateService fxRateService;
+    
+    private volatile LimitTable table = LimitTable.compile(List.of());
+    
+    private List<Object> fingerprint = List.of();
+    
+    // Caps in the account's own currency
+    public LimitRule getRule(Account account, TransactionType transactionType) {
+        return getRule(account.getBank().getId(), account.getAccountType(), transactionType, account.getCurrency());
+    }
+    
+    public LimitRule getRule(Long bankId, AccountType accountType, TransactionType transactionType, String currency) {
+        LimitRule rule = table.lookup(bankId, accountType, transactionType);
+        if (currency == null || currency.equals(fxRateService.getBaseCurrency())) {
+            return rule;
+        }
+        return new LimitRule(
+                rule.dailyLimit != null ? fxRateService.fromBaseCurrency(rule.dailyLimit, currency) : null,
+                rule.maxSingleAmount != null ? fxRateService.fromBaseCurrency(rule.maxSingleAmount, currency) : null);
+    }
+    
+    // Caps in the base currency
+    public LimitRule getRule(Long bankId, AccountType accountType, TransactionType transactionType) {
+        return table.lookup(bankId, accountType, transactionType);
+    }
+    
+    @PostConstruct
+    public synchronized void reload() {
+        List<LimitPolicy> policies = limitPolicyRepository.findAll();
+        table = LimitTable.compile(policies);
+        fingerprint = currentFingerprint();
+        log.info("Loaded {} limit policies", policies.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${limits.policy.reload-ms:30000}", initialDelayString = "${limits.policy.reload-ms:30000}")
+    public synchronized void reloadIfChanged() {
+        if (!currentFingerprint().equals(fingerprint)) {
+            reload();
+        }
+    }
+    
+    public List<LimitPolicy> getPolicies(Long bankId) {
+        return limitPolicyRepository.findForBank(bankId);
+    }
+    
+    // Creates or replaces the bank's policy for one scope; takes effect on this instance immediately
+    public LimitPolicy savePolicy(Long bankId, AccountType accountType, TransactionType transactionType,
+                                  BigDecimal dailyLimit, BigDecimal maxSingleAmount) {
+        if (transactionType == null) {
+            throw new RuntimeException("Transaction type is required");
+        }
+        if ((dailyLimit != null && dailyLimit.signum() <= 0) || (maxSingleAmount != null && maxSingleAmount.signum() <= 0)) {
+            throw new RuntimeException("Limits must be greater than zero");
+        }
+        if ((dailyLimit != null && dailyLimit.scale() > Money.SCALE) || (maxSingleAmount != null && maxSingleAmount.scale() > Money.SCALE)) {
+            throw new RuntimeException("Limits cannot have more than 2 decimal places");
+        }
+        
+        LimitPolicy policy = limitPolicyRepository.findScope(bankId, accountType, transactionType)
+                .orElseGet(LimitPolicy::new);
+        policy.setBankId(bankId);
+        policy.setAccountType(accountType);
+        policy.setTransactionType(transactionType);
+        policy.setDailyLimit(dailyLimit);
+        policy.setMaxSingleAmount(maxSingleAmount);
+        policy = limitPolicyRepository.save(policy);
+        reload();
+        return policy;
+    }
+    
+    public LimitPolicy findPolicy(Long bankId, AccountType accountType, TransactionType transactionType) {
+        return limitPolicyRepository.findScope(bankId, accountType, transactionType).orElse(null);
+    }
+    
+    public LimitPolicy getPolicy(Long id) {
+        return limitPolicyRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Limit policy not found with id: " + id));
+    }
+    
+    public void deletePolicy(Long id) {
+        limitPolicyRepository.deleteById(id);
+        reload();
+    }
+    
+    private List<Object> currentFingerprint() {
+        List<Object[]> rows = limitPolicyRepository.fingerprint();
+        return rows.isEmpty() ? List.of() : Arrays.asList(rows.get(0));
+    }
+    
+    /** Effective caps for one scope; a null limit means uncapped. */
+    public static final class LimitRule {
+        private final BigDecimal dailyLimit;
+        private final BigDecimal maxSingleAmount;
+        // The same caps in minor units, converted once per reload for the per-posting checks
+        private final Money dailyLimitMoney;
+        private final Money maxSingleAmountMoney;
+        
+        private LimitRule(BigDecimal dailyLimit, BigDecimal maxSingleAmount) {
+            this.dailyLimit = dailyLimit;
+            this.maxSingleAmount = maxSingleAmount;
+            this.dailyLimitMoney = Money.ofNullable(dailyLimit);
+            this.maxSingleAmountMoney = Money.ofNullable(maxSingleAmount);
+        }
+        
+        public BigDecimal getDailyLimit() { return dailyLimit; }
+        public BigDecimal getMaxSingleAmount() { return maxSingleAmount; }
+        Money getDailyLimitMoney() { return dailyLimitMoney; }
+        Money getMaxSingleAmountMoney() { return maxSingleAmountMoney; }
+        
+        // Policy values override; nulls keep what the less specific level had
+        private LimitRule overlay(LimitPolicy policy) {
+            return new LimitRule(
+                    policy.getDailyLimit() != null ? policy.getDailyLimit() : dailyLimit,
+                    policy.getMaxSingleAmount() != null ? policy.getMaxSingleAmount() : maxSingleAmount);
+        }
+    }
+    
+    /**
+     * rules[accountType][transactionType], fully resolved per bank at compile time. Precedence,
+     * most specific last: all banks/any type, all banks/account type, bank/any type, bank/account type.
+     */
+    private static final class LimitTable {
+        private final LimitRule[][] defaults;
+        private final Map<Long, LimitRule[][]> byBank;
+        
+        private LimitTable(LimitRule[][] defaults, Map<Long, LimitRule[][]> byBank) {
+            this.defaults = defaults;
+            this.byBank = byBank;
+        }
+        
+        LimitRule lookup(Long bankId, AccountType accountType, TransactionType transactionType) {
+            LimitRule[][] rules = bankId != null ? byBank.getOrDefault(bankId, defaults) : defaults;
+            return rules[accountType != null ? accountType.ordinal() : ANY_ACCOUNT_TYPE][transactionType.ordinal()];
+        }
+        
+        static LimitTable compile(List<LimitPolicy> policies) {
+            List<LimitPolicy> sorted = new ArrayList<>(policies);
+            // Any-type rows before account-type rows so the more specific one lands on top
+            sorted.sort(Comparator.comparing((LimitPolicy p) -> p.getAccountType() != null));
+            
+            LimitRule[][] defaults = builtIn();
+            Map<Long, List<LimitPolicy>> bankPolicies = new HashMap<>();
+            for (LimitPolicy policy : sorted) {
+                if (policy.getBankId() == null) {
+                    apply(defaults, policy);
+                } else {
+                    bankPolicies.computeIfAbsent(policy.getBankId(), id -> new ArrayList<>()).add(policy);
+                }
+            }
+            
+            Map<Long, LimitRule[][]> byBank = new HashMap<>();
+            bankPolicies.forEach((bankId, list) -> {
+                LimitRule[][] rules = copy(defaults);
+                list.forEach(policy -> apply(rules, policy));
+                byBank.put(bankId, rules);
+            });
+            return new LimitTable(defaults, byBank);
+        }
+        
+        private static void apply(LimitRule[][] rules, LimitPolicy policy) {
+            int transactionType = policy.getTransactionType().ordinal();
+            if (policy.getAccountType() != null) {
+                int accountType = policy.getAccountType().ordinal();
+                rules[accountType][transactionType] = rules[accountType][transactionType].overlay(policy);
+                return;
+            }
+            for (int accountType = 0; accountType <= ANY_ACCOUNT_TYPE; accountType++) {
+                rules[accountType][transactionType] = rules[accountType][transactionType].overlay(policy);
+            }
+        }
+        
+        // The limits that used to be hardcoded; policies are layered on top, so an empty table stays capped
+        private static LimitRule[][] builtIn() {
+            LimitRule[][] rules = new LimitRule[ANY_ACCOUNT_TYPE + 1][TRANSACTION_TYPES.length];
+            for (LimitRule[] row : rules) {
+                Arrays.fill(row, new LimitRule(null, null));
+                row[TransactionType.DEPOSIT.ordinal()] = new LimitRule(null, new BigDecimal("100000.00"));
+                row[TransactionType.WITHDRAWAL.ordinal()] = new LimitRule(new BigDecimal("50000.00"), new BigDecimal("100000.00"));
+                row[TransactionType.TRANSFER.ordinal()] = new LimitRule(new BigDecimal("100000.00"), new BigDecimal("100000.00"));
+            }
+            return rules;
+        }
+        
+        private static LimitRule[][] copy(LimitRule[][] rules) {
+            LimitRule[][] copy = new LimitRule[rules.length][];
+            for (int i = 0; i < rules.length; i++) {
+                copy[i] = rules[i].clone();
+            }
+            return copy;
+        }
+    }
+}
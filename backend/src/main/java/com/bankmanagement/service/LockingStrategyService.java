@@ -0,0 +1,79 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.LockingStrategy;
+import com.bankmanagement.repository.BankRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Each bank's locking strategy, held in memory so resolving it adds no query to a posting.
+ * Changes made here take effect on this instance at once and on the others at their next reload.
+ *
+ * Also notes which strategies the current posting attempt resolved, so PostingRetryAspect can
+ * count conflicts per strategy and the two modes can be compared side by side.
+ */
+@Service
+public class LockingStrategyService {
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    private volatile Map<Long, LockingStrategy> strategies = Map.of();
+    
+    private final ThreadLocal<LockingStrategy> resolved = new ThreadLocal<>();
+    
+    // Banks without an entry (or accounts without a bank) keep row locks
+    public LockingStrategy getStrategy(Long bankId) {
+        LockingStrategy strategy = bankId != null ? strategies.get(bankId) : null;
+        return strategy != null ? strategy : LockingStrategy.PESSIMISTIC;
+    }
+    
+    // For a posting: looks the strategy up and notes it; a transfer that mixes both counts as OPTIMISTIC
+    public LockingStrategy resolve(Long bankId) {
+        LockingStrategy strategy = getStrategy(bankId);
+        if (resolved.get() != LockingStrategy.OPTIMISTIC) {
+            resolved.set(strategy);
+        }
+        return strategy;
+    }
+    
+    // The strategy noted since the last call, or null if the attempt loaded no account through resolve
+    public LockingStrategy takeResolved() {
+        LockingStrategy strategy = resolved.get();
+        resolved.remove();
+        return strategy;
+    }
+    
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${locking.reload-ms:30000}", initialDelayString = "${locking.reload-ms:30000}")
+    public void reload() {
+        Map<Long, LockingStrategy> loaded = new HashMap<>();
+        for (Bank bank : bankRepository.findAll()) {
+            loaded.put(bank.getId(), bank.getLockingStrategy());
+        }
+        strategies = loaded;
+    }
+    
+    @Transactional
+    public Bank setStrategy(Long bankId, LockingStrategy strategy) {
+        if (strategy == null) {
+            throw new RuntimeException("Locking strategy is required");
+        }
+        Bank bank = bankRepository.findById(bankId)
+                .orElseThrow(() -> new RuntimeException("Bank not found with id: " + bankId));
+        bank.setLockingStrategy(strategy);
+        bank = bankRepository.save(bank);
+        
+        Map<Long, LockingStrategy> updated = new HashMap<>(strategies);
+        updated.put(bankId, strategy);
+        strategies = updated;
+        return bank;
+    }
+}
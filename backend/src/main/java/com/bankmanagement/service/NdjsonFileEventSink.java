@@ -0,0 +1,51 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends outbox events as newline-delimited JSON, mainly for local testing
+@Component
+@ConditionalOnProperty(name = "outbox.sink.file.enabled", havingValue = "true")
+public class NdjsonFileEventSink implements EventSink {
+    
+    @Value("${outbox.sink.file.path:outbox-events.ndjson}")
+    private String filePath;
+    
+    @Override
+    public String getName() {
+        return "ndjson-file";
+    }
+    
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        Path path = Paths.get(filePath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                // Payload is already JSON, so wrap it rather than re-serializing
+                writer.write("{\"id\":" + event.getId()
+                        + ",\"sequenceNumber\":" + event.getSequenceNumber()
+                        + ",\"eventType\":\"" + event.getEventType() + "\""
+                        + ",\"aggregateId\":" + event.getAggregateId()
+                        + ",\"createdAt\":\"" + event.getCreatedAt() + "\""
+                        + ",\"payload\":" + event.getPayload() + "}");
+                writer.newLine();
+            }
+        }
+    }
+}
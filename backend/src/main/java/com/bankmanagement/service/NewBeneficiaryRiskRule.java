@@ -0,0 +1,40 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Money;
+import com.bankmanagement.model.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+// Caps the first transfer to an account this account has not paid recently
+@Component
+@Order(3)
+public class NewBeneficiaryRiskRule implements RiskRule {
+    
+    @Autowired
+    private FxRateService fxRateService;
+    
+    // In the base currency; converted to the account's currency at the current rate
+    @Value("${risk.beneficiary.new-max-amount:25000}")
+    private long newMaxAmount;
+    
+    // Postings seen before the rule applies; a cold window (e.g. after a restart) knows no beneficiaries
+    @Value("${risk.beneficiary.min-history:5}")
+    private int minHistory;
+    
+    @Override
+    public String evaluate(RiskCheck check, AccountRiskWindow window) {
+        if (check.getTransactionType() != TransactionType.TRANSFER || window.getAmountSamples() < minHistory
+                || window.hasPaid(check.getBeneficiaryId())) {
+            return null;
+        }
+        BigDecimal maxAmount = fxRateService.fromBaseCurrency(BigDecimal.valueOf(newMaxAmount), check.getCurrency());
+        if (check.getAmount() > Money.toMinor(maxAmount)) {
+            return "First transfer to a new beneficiary cannot exceed " + TransactionService.money(check.getCurrency(), maxAmount);
+        }
+        return null;
+    }
+}
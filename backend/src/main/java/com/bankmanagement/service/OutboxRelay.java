@@ -0,0 +1,76 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Background relay that numbers committed outbox events and drains them to every registered EventSink in that order
+@Component
+public class OutboxRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    public static final String SINK_CONSUMER_PREFIX = "sink:";
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired(required = false)
+    private List<EventSink> sinks = new ArrayList<>();
+    
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+    
+    // Events reach consumers only once numbered, so this interval bounds their delivery latency
+    @Scheduled(fixedDelayString = "${outbox.sequencer.interval-ms:200}")
+    public void assignSequenceNumbers() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (outboxService.assignSequenceNumbers(batchSize) < batchSize) {
+                return;
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        for (EventSink sink : sinks) {
+            drainSink(sink);
+        }
+    }
+    
+    private void drainSink(EventSink sink) {
+        String consumerName = SINK_CONSUMER_PREFIX + sink.getName();
+        
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<OutboxEvent> batch = outboxService.getEventsForConsumer(consumerName, batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            try {
+                sink.publish(batch);
+            } catch (Exception e) {
+                // Offset is not advanced, so the same batch is retried on the next run
+                logger.warn("Outbox sink {} failed to publish batch starting at sequence number {}: {}",
+                        sink.getName(), batch.get(0).getSequenceNumber(), e.getMessage());
+                return;
+            }
+            
+            outboxService.acknowledge(consumerName, batch.get(batch.size() - 1).getSequenceNumber());
+            
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+}
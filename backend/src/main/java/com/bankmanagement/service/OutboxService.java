@@ -0,0 +1,150 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.OutboxConsumerOffset;
+import com.bankmanagement.model.OutboxEvent;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.repository.OutboxConsumerOffsetRepository;
+import com.bankmanagement.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class OutboxService {
+    
+    public static final String TRANSACTION_POSTED = "TRANSACTION_POSTED";
+    public static final String TRANSACTION_STATUS_CHANGED = "TRANSACTION_STATUS_CHANGED";
+    public static final String TRANSACTION_DECLINED = "TRANSACTION_DECLINED";
+    public static final String TRANSACTION_AUTHORIZED = "TRANSACTION_AUTHORIZED";
+    
+    private static final int MAX_BATCH_SIZE = 1000;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private OutboxConsumerOffsetRepository offsetRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Joins the caller's transaction so the event commits or rolls back together with the posting
+    @Transactional
+    public OutboxEvent recordTransactionEvent(String eventType, Transaction transaction) {
+        return outboxEventRepository.save(new OutboxEvent(eventType, transaction.getId(), toPayload(transaction)));
+    }
+    
+    // JSON payload of a transaction event; batch writers use it to stay in the same format
+    public String toPayload(Transaction transaction) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("transactionId", transaction.getId());
+        payload.put("transactionReference", transaction.getTransactionReference());
+        payload.put("transactionType", transaction.getTransactionType());
+        payload.put("transactionStatus", transaction.getTransactionStatus());
+        payload.put("amount", transaction.getAmount());
+        payload.put("currency", transaction.getCurrency());
+        payload.put("fromAccountId", transaction.getFromAccount() != null ? transaction.getFromAccount().getId() : null);
+        payload.put("toAccountId", transaction.getToAccount() != null ? transaction.getToAccount().getId() : null);
+        payload.put("balanceAfterTransaction", transaction.getBalanceAfterTransaction());
+        payload.put("createdAt", String.valueOf(transaction.getCreatedAt()));
+        if (transaction.getFailureReason() != null) {
+            payload.put("failureReason", transaction.getFailureReason());
+        }
+        if (transaction.getOriginalTransactionId() != null) {
+            payload.put("originalTransactionId", transaction.getOriginalTransactionId());
+        }
+        if (transaction.getCreditedAmount() != null) {
+            payload.put("creditedAmount", transaction.getCreditedAmount());
+            payload.put("creditedCurrency", transaction.getCreditedCurrency());
+            payload.put("fxRate", transaction.getFxRate());
+            payload.put("fxRateVersion", transaction.getFxRateVersion());
+        }
+        
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox event: " + e.getMessage());
+        }
+    }
+    
+    // Events in commit order; those not yet numbered by the relay are not handed out
+    public List<OutboxEvent> getEventsAfter(Long afterSequenceNumber, int limit) {
+        int batchSize = Math.max(1, Math.min(limit, MAX_BATCH_SIZE));
+        return outboxEventRepository.findEventsAfter(afterSequenceNumber, PageRequest.of(0, batchSize));
+    }
+    
+    /**
+     * Numbers up to limit committed events that have no sequence number yet, in id order, after
+     * the last number handed out. Uncommitted events aren't visible here, so one that commits late
+     * is numbered after everything already numbered and no consumer offset can have passed it.
+     * The sequencer row lock serializes relays; the event query is the transaction's first
+     * consistent read, so it sees everything committed before the lock was granted.
+     */
+    @Transactional
+    public int assignSequenceNumbers(int limit) {
+        long last = jdbcTemplate.queryForObject(
+                "SELECT last_sequence_number FROM outbox_sequencer WHERE id = 1 FOR UPDATE", Long.class);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM outbox_events WHERE sequence_number IS NULL ORDER BY id LIMIT ?", Long.class, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        List<Object[]> numbers = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            numbers.add(new Object[] { ++last, id });
+        }
+        jdbcTemplate.batchUpdate("UPDATE outbox_events SET sequence_number = ? WHERE id = ?", numbers);
+        jdbcTemplate.update("UPDATE outbox_sequencer SET last_sequence_number = ? WHERE id = 1", last);
+        return ids.size();
+    }
+    
+    // Next batch for a consumer, starting after its committed offset
+    public List<OutboxEvent> getEventsForConsumer(String consumerName, int limit) {
+        return getEventsAfter(getConsumerOffset(consumerName), limit);
+    }
+    
+    public Long getConsumerOffset(String consumerName) {
+        return offsetRepository.findById(consumerName)
+                .map(OutboxConsumerOffset::getLastSequenceNumber)
+                .orElse(0L);
+    }
+    
+    // Offsets only move forward, so a late or duplicate acknowledgement is harmless
+    @Transactional
+    public OutboxConsumerOffset acknowledge(String consumerName, Long lastSequenceNumber) {
+        if (consumerName == null || consumerName.isBlank()) {
+            throw new RuntimeException("Consumer name is required");
+        }
+        if (lastSequenceNumber == null || lastSequenceNumber < 0) {
+            throw new RuntimeException("Last sequence number must be zero or positive");
+        }
+        // An offset past the newest event would silently skip the events numbered next
+        if (lastSequenceNumber > getLatestSequenceNumber()) {
+            throw new RuntimeException("Last sequence number is beyond the latest event");
+        }
+        
+        OutboxConsumerOffset offset = offsetRepository.findById(consumerName)
+                .orElseGet(() -> new OutboxConsumerOffset(consumerName));
+        if (lastSequenceNumber > offset.getLastSequenceNumber()) {
+            offset.setLastSequenceNumber(lastSequenceNumber);
+        }
+        return offsetRepository.save(offset);
+    }
+    
+    public long getLatestSequenceNumber() {
+        return outboxEventRepository.findMaxSequenceNumber();
+    }
+}
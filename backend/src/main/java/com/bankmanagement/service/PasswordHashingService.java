@@ -0,0 +1,102 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.exception.PasswordHashingBusyException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a small bounded pool so a login burst cannot occupy every
+ * request thread. When the queue is full callers fail fast with PasswordHashingBusyException.
+ */
+@Service
+public class PasswordHashingService {
+    
+    private static final String THREAD_NAME = "password-hashing";
+    
+    private final ThreadPoolExecutor executor;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    // Work that waited longer than this is dropped; the client has likely given up already
+    @Value("${security.password.hashing.max-wait-ms:2000}")
+    private long maxWaitMs;
+    
+    public PasswordHashingService(@Value("${security.password.hashing.threads:0}") int threads,
+                                  @Value("${security.password.hashing.queue-per-thread:4}") int queuePerThread) {
+        // Hashing is CPU bound, so default to one thread per core
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, poolSize * queuePerThread)), runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME);
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    // Queues work that hashes passwords (e.g. a whole authentication) and returns without blocking
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt) > maxWaitMs) {
+                    throw new PasswordHashingBusyException("Too many password operations in progress, please retry shortly");
+                }
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException("Too many password operations in progress, please retry shortly");
+        }
+    }
+    
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+    
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+    
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+    
+    // Blocking variant for service code; runs inline when already on a hashing thread
+    private <T> T run(Supplier<T> task) {
+        if (Thread.currentThread().getName().equals(THREAD_NAME)) {
+            return task.get();
+        }
+        CompletableFuture<T> future = submit(task);
+        try {
+            return future.get(maxWaitMs * 2, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new PasswordHashingBusyException("Password operation timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Password operation interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,517 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.TransactionType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal of postings: every COMPLETED posting is appended as a fixed 96-byte record
+ * to a memory-mapped segment file and forced to disk before its DB transaction commits, so the
+ * journal always has at least what the ledger has. Appends from concurrent postings are forced
+ * together by one flusher thread (group commit); a posting waits only for the force covering it.
+ * If the DB commit then fails, a ROLLBACK copy of the record is appended.
+ *
+ * Record layout (big-endian): crc32c of bytes 4..95 (int), kind, transaction type ordinal,
+ * format version, a reserved byte, sequence, epoch millis, from account id, to account id,
+ * debit in minor units, credit in minor units (longs; 0 = no account), debit currency, credit
+ * currency (3 ASCII bytes each), reserved (2), transaction reference (32 ASCII bytes, zero padded).
+ *
+ * Segments are named after their first sequence and rolled when full. On startup the last
+ * segment is scanned to the first record that is empty or fails its CRC (a torn write), and
+ * appending resumes there.
+ *
+ * Each instance keeps its own journal of the postings it served; nothing merges them.
+ */
+@Service
+public class PostingJournal {
+    
+    private static final Logger log = LoggerFactory.getLogger(PostingJournal.class);
+    
+    public static final int RECORD_SIZE = 96;
+    public static final byte KIND_POSTING = 1;
+    public static final byte KIND_ROLLBACK = 2;
+    // First record of a new journal; accounts opened after it have every posting journaled
+    public static final byte KIND_START = 3;
+    
+    private static final byte FORMAT_VERSION = 1;
+    private static final int REFERENCE_BYTES = 32;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    
+    @Value("${journal.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${journal.dir:journal}")
+    private String directory;
+    
+    @Value("${journal.segment-bytes:67108864}")
+    private int segmentBytes;
+    
+    // How long a posting may wait for its record to be forced before it fails
+    @Value("${journal.sync-timeout-ms:5000}")
+    private long syncTimeoutMs;
+    
+    // Set at startup for a rebuild: every posting on this instance fails before it is journaled
+    @Value("${journal.maintenance:false}")
+    private boolean maintenance;
+    
+    private final Object lock = new Object();
+    private Path dir;
+    private MappedByteBuffer segment;
+    private int position;
+    private int dirtyFrom;
+    private long lastSequence;
+    private long durableSequence;
+    private IOException failure;
+    private Thread flusher;
+    private volatile boolean running;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public boolean isMaintenance() {
+        return enabled && maintenance;
+    }
+    
+    public Path getDirectory() {
+        return dir;
+    }
+    
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        dir = Path.of(directory).toAbsolutePath();
+        Files.createDirectories(dir);
+        segmentBytes = Math.max(RECORD_SIZE, segmentBytes - segmentBytes % RECORD_SIZE);
+        
+        List<Path> segments = segments(dir);
+        if (segments.isEmpty()) {
+            map(1);
+            JournalRecord start = new JournalRecord();
+            start.kind = KIND_START;
+            start.timestamp = System.currentTimeMillis();
+            start.sequence = ++lastSequence;
+            byte[] bytes = new byte[RECORD_SIZE];
+            encode(start, ByteBuffer.wrap(bytes));
+            segment.put(0, bytes);
+            segment.force(0, RECORD_SIZE);
+            position = RECORD_SIZE;
+            dirtyFrom = position;
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            segment = mapSegment(last, FileChannel.MapMode.READ_WRITE);
+            long firstSequence = firstSequence(last);
+            lastSequence = firstSequence - 1;
+            position = 0;
+            JournalRecord record;
+            while (position + RECORD_SIZE <= segment.capacity()
+                    && (record = decode(segment, position)) != null && record.sequence == lastSequence + 1) {
+                lastSequence = record.sequence;
+                position += RECORD_SIZE;
+            }
+            if (position + RECORD_SIZE <= segment.capacity() && segment.get(position + 4) != 0) {
+                log.warn("Journal segment {} has a torn record at offset {}; appending over it", last.getFileName(), position);
+            }
+            dirtyFrom = position;
+        }
+        durableSequence = lastSequence;
+        
+        running = true;
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Posting journal open at {} (last sequence {})", dir, lastSequence);
+    }
+    
+    @PreDestroy
+    void close() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        flusher.join(syncTimeoutMs);
+    }
+    
+    /**
+     * Journals a COMPLETED posting. Inside a transaction the record is appended and forced just
+     * before commit; outside one it is written immediately. Refused in maintenance, which
+     * rolls the posting back.
+     */
+    public void record(Transaction posting) {
+        if (!enabled) {
+            return;
+        }
+        if (maintenance) {
+            throw new RuntimeException("Postings are stopped for journal maintenance");
+        }
+        JournalRecord record = JournalRecord.of(posting);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            awaitDurable(append(List.of(record)));
+            return;
+        }
+        PendingRecords pending = (PendingRecords) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRecords();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.records.add(record);
+    }
+    
+    // Appends in order and returns the last sequence assigned
+    private long append(List<JournalRecord> records) {
+        synchronized (lock) {
+            if (failure != null) {
+                throw new RuntimeException("Posting journal is unavailable: " + failure.getMessage());
+            }
+            byte[] bytes = new byte[RECORD_SIZE];
+            for (JournalRecord record : records) {
+                if (position + RECORD_SIZE > segment.capacity()) {
+                    roll();
+                }
+                record.sequence = ++lastSequence;
+                encode(record, ByteBuffer.wrap(bytes));
+                segment.put(position, bytes);
+                position += RECORD_SIZE;
+            }
+            lock.notifyAll();
+            return lastSequence;
+        }
+    }
+    
+    private void awaitDurable(long sequence) {
+        long deadline = System.currentTimeMillis() + syncTimeoutMs;
+        synchronized (lock) {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new RuntimeException("Posting journal is unavailable: " + failure.getMessage());
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new RuntimeException("Posting journal sync timed out");
+                }
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted waiting for the posting journal");
+                }
+            }
+        }
+    }
+    
+    // Group commit: everything appended since the last force is forced together
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer buffer;
+            int from;
+            int to;
+            long target;
+            synchronized (lock) {
+                while (running && durableSequence == lastSequence) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (durableSequence == lastSequence) {
+                    return;
+                }
+                buffer = segment;
+                from = dirtyFrom;
+                to = position;
+                target = lastSequence;
+                dirtyFrom = position;
+            }
+            try {
+                if (to > from) {
+                    buffer.force(from, to - from);
+                }
+            } catch (UncheckedIOException e) {
+                synchronized (lock) {
+                    failure = e.getCause();
+                    lock.notifyAll();
+                }
+                log.error("Posting journal force failed; postings will be refused", e);
+                return;
+            }
+            synchronized (lock) {
+                durableSequence = Math.max(durableSequence, target);
+                lock.notifyAll();
+            }
+        }
+    }
+    
+    // Caller holds the lock. The full segment is forced before the next one is used.
+    private void roll() {
+        try {
+            if (position > dirtyFrom) {
+                segment.force(dirtyFrom, position - dirtyFrom);
+            }
+            map(lastSequence + 1);
+        } catch (IOException e) {
+            failure = e;
+            throw new RuntimeException("Posting journal could not roll its segment: " + e.getMessage());
+        }
+    }
+    
+    private void map(long firstSequence) throws IOException {
+        Path file = dir.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        position = 0;
+        dirtyFrom = 0;
+        log.info("Posting journal segment {} started", file.getFileName());
+    }
+    
+    /**
+     * Reads every record in order. A bad record in the last segment is a torn tail and ends the
+     * read; anywhere else it means the journal is corrupt.
+     */
+    public static void read(Path dir, Consumer<JournalRecord> visitor) throws IOException {
+        List<Path> segments = segments(dir);
+        long expected = -1;
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            boolean lastSegment = i == segments.size() - 1;
+            MappedByteBuffer buffer = mapSegment(file, FileChannel.MapMode.READ_ONLY);
+            if (expected < 0) {
+                expected = firstSequence(file);
+            } else if (firstSequence(file) != expected) {
+                throw new IOException("Journal segment " + file.getFileName() + " does not follow sequence " + (expected - 1));
+            }
+            for (int offset = 0; offset + RECORD_SIZE <= buffer.capacity(); offset += RECORD_SIZE) {
+                JournalRecord record = decode(buffer, offset);
+                if (record == null || record.sequence != expected) {
+                    boolean empty = buffer.get(offset + 4) == 0;
+                    if (lastSegment || empty) {
+                        break;
+                    }
+                    throw new IOException("Corrupt journal record in " + file.getFileName() + " at offset " + offset);
+                }
+                visitor.accept(record);
+                expected++;
+            }
+        }
+    }
+    
+    private static List<Path> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+    
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+    
+    private static MappedByteBuffer mapSegment(Path file, FileChannel.MapMode mode) throws IOException {
+        try (FileChannel channel = mode == FileChannel.MapMode.READ_ONLY
+                ? FileChannel.open(file, StandardOpenOption.READ)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(mode, 0, channel.size());
+        }
+    }
+    
+    private static void encode(JournalRecord record, ByteBuffer buffer) {
+        buffer.clear();
+        buffer.putInt(0);
+        buffer.put(record.kind);
+        buffer.put(record.transactionType != null ? (byte) record.transactionType.ordinal() : 0);
+        buffer.put(FORMAT_VERSION);
+        buffer.put((byte) 0);
+        buffer.putLong(record.sequence);
+        buffer.putLong(record.timestamp);
+        buffer.putLong(record.fromAccountId);
+        buffer.putLong(record.toAccountId);
+        buffer.putLong(record.debitMinor);
+        buffer.putLong(record.creditMinor);
+        buffer.put(ascii(record.debitCurrency, 3));
+        buffer.put(ascii(record.creditCurrency, 3));
+        buffer.put(new byte[2]);
+        buffer.put(ascii(record.reference, REFERENCE_BYTES));
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 4, RECORD_SIZE - 4);
+        buffer.putInt(0, (int) crc.getValue());
+    }
+    
+    // Null when the slot is empty or fails its CRC
+    private static JournalRecord decode(ByteBuffer source, int offset) {
+        byte[] bytes = new byte[RECORD_SIZE];
+        source.get(offset, bytes);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 4, RECORD_SIZE - 4);
+        if (bytes[4] == 0 || buffer.getInt(0) != (int) crc.getValue()) {
+            return null;
+        }
+        JournalRecord record = new JournalRecord();
+        buffer.position(4);
+        record.kind = buffer.get();
+        byte type = buffer.get();
+        record.transactionType = record.kind != KIND_START ? TransactionType.values()[type] : null;
+        buffer.position(8);
+        record.sequence = buffer.getLong();
+        record.timestamp = buffer.getLong();
+        record.fromAccountId = buffer.getLong();
+        record.toAccountId = buffer.getLong();
+        record.debitMinor = buffer.getLong();
+        record.creditMinor = buffer.getLong();
+        record.debitCurrency = text(bytes, 56, 3);
+        record.creditCurrency = text(bytes, 59, 3);
+        record.reference = text(bytes, 64, REFERENCE_BYTES);
+        return record;
+    }
+    
+    private static byte[] ascii(String value, int length) {
+        byte[] padded = new byte[length];
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(bytes, 0, padded, 0, Math.min(bytes.length, length));
+        }
+        return padded;
+    }
+    
+    private static String text(byte[] bytes, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && bytes[end] != 0) {
+            end++;
+        }
+        return end > offset ? new String(bytes, offset, end - offset, StandardCharsets.US_ASCII) : null;
+    }
+    
+    public static long toMinor(BigDecimal amount, String currency) {
+        return amount.setScale(FxRateService.fractionDigits(currency), RoundingMode.UNNECESSARY)
+                .unscaledValue().longValueExact();
+    }
+    
+    public static BigDecimal fromMinor(long minor, String currency) {
+        return BigDecimal.valueOf(minor, FxRateService.fractionDigits(currency));
+    }
+    
+    /** One journaled posting: debitMinor leaves fromAccountId, creditMinor arrives at toAccountId. */
+    public static final class JournalRecord {
+        private byte kind;
+        private TransactionType transactionType;
+        private long sequence;
+        private long timestamp;
+        private long fromAccountId;
+        private long toAccountId;
+        private long debitMinor;
+        private long creditMinor;
+        private String debitCurrency;
+        private String creditCurrency;
+        private String reference;
+        
+        static JournalRecord of(Transaction posting) {
+            JournalRecord record = new JournalRecord();
+            record.kind = KIND_POSTING;
+            record.transactionType = posting.getTransactionType();
+            record.timestamp = posting.getCreatedAt() != null
+                    ? posting.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : System.currentTimeMillis();
+            record.reference = posting.getTransactionReference();
+            if (posting.getFromAccount() != null) {
+                record.fromAccountId = posting.getFromAccount().getId();
+                record.debitCurrency = posting.getCurrency();
+                record.debitMinor = toMinor(posting.getAmount(), posting.getCurrency());
+            }
+            if (posting.getToAccount() != null) {
+                record.toAccountId = posting.getToAccount().getId();
+                record.creditCurrency = posting.getCreditedAmount() != null ? posting.getCreditedCurrency() : posting.getCurrency();
+                record.creditMinor = toMinor(posting.getCreditedAmount() != null ? posting.getCreditedAmount() : posting.getAmount(),
+                        record.creditCurrency);
+            }
+            return record;
+        }
+        
+        JournalRecord rollback() {
+            JournalRecord record = new JournalRecord();
+            record.kind = KIND_ROLLBACK;
+            record.transactionType = transactionType;
+            record.timestamp = System.currentTimeMillis();
+            record.fromAccountId = fromAccountId;
+            record.toAccountId = toAccountId;
+            record.debitMinor = debitMinor;
+            record.creditMinor = creditMinor;
+            record.debitCurrency = debitCurrency;
+            record.creditCurrency = creditCurrency;
+            record.reference = reference;
+            return record;
+        }
+        
+        public byte getKind() { return kind; }
+        public TransactionType getTransactionType() { return transactionType; }
+        public long getSequence() { return sequence; }
+        public long getTimestamp() { return timestamp; }
+        public long getFromAccountId() { return fromAccountId; }
+        public long getToAccountId() { return toAccountId; }
+        public long getDebitMinor() { return debitMinor; }
+        public long getCreditMinor() { return creditMinor; }
+        public String getDebitCurrency() { return debitCurrency; }
+        public String getCreditCurrency() { return creditCurrency; }
+        public String getReference() { return reference; }
+    }
+    
+    // The current transaction's records: forced before it commits, compensated if it then rolls back
+    private final class PendingRecords implements TransactionSynchronization {
+        private final List<JournalRecord> records = new ArrayList<>();
+        private boolean appended;
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            long last = append(records);
+            appended = true;
+            awaitDurable(last);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PostingJournal.this);
+            if (appended && status != STATUS_COMMITTED) {
+                try {
+                    append(records.stream().map(JournalRecord::rollback).toList());
+                } catch (RuntimeException e) {
+                    log.error("Could not journal the rollback of {} postings", records.size(), e);
+                }
+            }
+        }
+    }
+}
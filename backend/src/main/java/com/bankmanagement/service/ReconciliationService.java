@@ -0,0 +1,368 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks every account balance against the sum of its COMPLETED transactions.
+ * New transactions are streamed in id order, in parallel id ranges, into per-account deltas;
+ * accounts are then compared in parallel account-id ranges. Amounts are summed as exact paise.
+ * Incremental runs start from the last completed run's watermark, so they only read new rows;
+ * full runs recompute every ledger from the first transaction, starting from the archived totals
+ * of partitions that TransactionPartitionService has dropped.
+ */
+@Service
+public class ReconciliationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+    
+    public static final String FULL = "FULL";
+    public static final String INCREMENTAL = "INCREMENTAL";
+    
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private TransactionPartitionService transactionPartitionService;
+    
+    @Value("${reconciliation.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${reconciliation.parallelism:4}")
+    private int parallelism;
+    
+    // Transaction ids per streaming task
+    @Value("${reconciliation.transaction-chunk-size:50000}")
+    private long transactionChunkSize;
+    
+    // Accounts compared per task (and per database transaction)
+    @Value("${reconciliation.account-chunk-size:1000}")
+    private long accountChunkSize;
+    
+    // Rows younger than this stay above the watermark, so no in-flight posting is skipped
+    @Value("${reconciliation.settle-seconds:300}")
+    private long settleSeconds;
+    
+    // A RUNNING run older than this is treated as crashed
+    @Value("${reconciliation.stale-run-minutes:360}")
+    private long staleRunMinutes;
+    
+    @Scheduled(cron = "${reconciliation.cron:0 30 1 * * *}")
+    public void runScheduledReconciliation() {
+        if (enabled) {
+            runReconciliation(false);
+        }
+    }
+    
+    // Starts a run in the background; false when one is already running
+    public boolean startReconciliation(boolean full) {
+        if (running.get()) {
+            return false;
+        }
+        Thread thread = new Thread(() -> runReconciliation(full), "reconciliation");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+    
+    // Returns the run id, or -1 when another run is in progress
+    public long runReconciliation(boolean full) {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Reconciliation is already running");
+            return -1;
+        }
+        try {
+            return reconcile(full);
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    // Runs cover every bank; the discrepancy count is the given bank's share
+    public List<Map<String, Object>> getRecentRuns(Long bankId, int limit) {
+        return jdbcTemplate.queryForList("SELECT r.id, r.run_mode, r.status, r.from_transaction_id, r.to_transaction_id, " +
+                "r.started_at, r.finished_at, (SELECT COUNT(*) FROM reconciliation_discrepancies d " +
+                "JOIN accounts a ON a.id = d.account_id WHERE d.run_id = r.id AND a.bank_id = ?) AS discrepancies " +
+                "FROM reconciliation_runs r ORDER BY r.id DESC LIMIT ?", bankId, limit);
+    }
+    
+    public List<Map<String, Object>> getDiscrepancies(Long bankId, long runId) {
+        return jdbcTemplate.queryForList("SELECT d.account_id, d.ledger_balance, d.account_balance, d.difference, d.detected_at " +
+                "FROM reconciliation_discrepancies d JOIN accounts a ON a.id = d.account_id " +
+                "WHERE d.run_id = ? AND a.bank_id = ? ORDER BY d.account_id", runId, bankId);
+    }
+    
+    private long reconcile(boolean full) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> lastRuns = jdbcTemplate.queryForList(
+                "SELECT status, to_transaction_id, started_at FROM reconciliation_runs ORDER BY id DESC LIMIT 1");
+        Map<String, Object> lastRun = lastRuns.isEmpty() ? null : lastRuns.get(0);
+        if (lastRun != null && RUNNING.equals(lastRun.get("status"))
+                && ((Timestamp) lastRun.get("started_at")).toLocalDateTime().isAfter(now.minusMinutes(staleRunMinutes))) {
+            logger.info("Reconciliation is running on another node");
+            return -1;
+        }
+        
+        // Ledger snapshots are only consistent after a completed run; anything else starts over
+        boolean incremental = !full && lastRun != null && COMPLETED.equals(lastRun.get("status"));
+        long fromId = incremental ? ((Number) lastRun.get("to_transaction_id")).longValue() : 0;
+        Long settled = jdbcTemplate.queryForObject("SELECT MAX(id) FROM transactions WHERE id > ? AND created_at <= ?",
+                Long.class, fromId, Timestamp.valueOf(now.minusSeconds(settleSeconds)));
+        long toId = settled != null ? settled : fromId;
+        long runId = startRun(incremental ? INCREMENTAL : FULL, fromId, toId, now);
+        
+        long started = System.currentTimeMillis();
+        AtomicLong scanned = new AtomicLong();
+        AtomicLong checked = new AtomicLong();
+        AtomicLong discrepancies = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            Map<Long, Long> deltas = new ConcurrentHashMap<>();
+            if (!incremental) {
+                seedArchivedTotals(deltas);
+            }
+            if (toId > fromId) {
+                pool.invoke(new StreamTransactions(fromId, toId, deltas, scanned));
+            }
+            
+            Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM accounts");
+            if (bounds.get("min_id") != null) {
+                pool.invoke(new CompareAccounts(runId, incremental, toId, ((Number) bounds.get("min_id")).longValue(),
+                        ((Number) bounds.get("max_id")).longValue(), deltas, checked, discrepancies));
+            }
+            
+            jdbcTemplate.update("UPDATE reconciliation_runs SET status = ?, transactions_scanned = ?, accounts_checked = ?, " +
+                    "discrepancies = ?, finished_at = ? WHERE id = ?", COMPLETED, scanned.get(), checked.get(),
+                    discrepancies.get(), Timestamp.valueOf(LocalDateTime.now()), runId);
+            logger.info("{} reconciliation up to transaction {} completed in {} ms: {} transactions, {} accounts, {} discrepancies",
+                    incremental ? INCREMENTAL : FULL, toId, System.currentTimeMillis() - started,
+                    scanned.get(), checked.get(), discrepancies.get());
+            if (discrepancies.get() > 0) {
+                logger.warn("Reconciliation run {} found {} accounts whose balance does not match the ledger",
+                        runId, discrepancies.get());
+            }
+        } catch (RuntimeException e) {
+            jdbcTemplate.update("UPDATE reconciliation_runs SET status = ?, finished_at = ? WHERE id = ?",
+                    FAILED, Timestamp.valueOf(LocalDateTime.now()), runId);
+            logger.error("Reconciliation run {} failed; the next run starts over in full mode", runId, e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return runId;
+    }
+    
+    // Rows of dropped partitions are only in their totals; a partition still live is streamed instead
+    private void seedArchivedTotals(Map<Long, Long> deltas) {
+        List<String> archived = jdbcTemplate.queryForList("SELECT DISTINCT partition_name FROM archived_ledger_totals", String.class);
+        if (archived.isEmpty()) {
+            return;
+        }
+        Set<String> live = transactionPartitionService.getPartitions().keySet();
+        for (String partition : archived) {
+            if (live.contains(partition)) {
+                continue;
+            }
+            jdbcTemplate.query("SELECT account_id, ledger_total FROM archived_ledger_totals WHERE partition_name = ?",
+                    rs -> {
+                        deltas.merge(rs.getLong(1), Money.toMinor(rs.getBigDecimal(2)), Math::addExact);
+                    }, partition);
+        }
+    }
+    
+    private long startRun(String mode, long fromId, long toId, LocalDateTime now) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO reconciliation_runs " +
+                    "(run_mode, status, from_transaction_id, to_transaction_id, transactions_scanned, accounts_checked, " +
+                    "discrepancies, started_at) VALUES (?, ?, ?, ?, 0, 0, 0, ?)", Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, mode);
+            statement.setString(2, RUNNING);
+            statement.setLong(3, fromId);
+            statement.setLong(4, toId);
+            statement.setTimestamp(5, Timestamp.valueOf(now));
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+    
+    // Net effect in paise of COMPLETED transactions with fromId < id <= toId, per account
+    private class StreamTransactions extends RecursiveAction {
+        private final long fromId;
+        private final long toId;
+        private final Map<Long, Long> deltas;
+        private final AtomicLong scanned;
+        
+        StreamTransactions(long fromId, long toId, Map<Long, Long> deltas, AtomicLong scanned) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.deltas = deltas;
+            this.scanned = scanned;
+        }
+        
+        @Override
+        protected void compute() {
+            if (toId - fromId > transactionChunkSize) {
+                long middle = fromId + (toId - fromId) / 2;
+                invokeAll(new StreamTransactions(fromId, middle, deltas, scanned),
+                        new StreamTransactions(middle, toId, deltas, scanned));
+                return;
+            }
+            
+            Map<Long, Long> local = new HashMap<>();
+            long[] rows = new long[1];
+            jdbcTemplate.query("SELECT from_account_id, to_account_id, amount, COALESCE(credited_amount, amount) FROM transactions " +
+                    "WHERE id > ? AND id <= ? AND transaction_status = 'COMPLETED' ORDER BY id",
+                    rs -> {
+                        long amount = Money.toMinor(rs.getBigDecimal(3));
+                        long from = rs.getLong(1);
+                        if (!rs.wasNull()) {
+                            local.merge(from, -amount, Math::addExact);
+                        }
+                        // Cross-currency transfers credit the converted amount
+                        long to = rs.getLong(2);
+                        if (!rs.wasNull()) {
+                            local.merge(to, Money.toMinor(rs.getBigDecimal(4)), Math::addExact);
+                        }
+                        rows[0]++;
+                    }, fromId, toId);
+            local.forEach((accountId, delta) -> deltas.merge(accountId, delta, Math::addExact));
+            scanned.addAndGet(rows[0]);
+        }
+    }
+    
+    // Compares one account-id range and stores its ledger balances as of toId
+    private class CompareAccounts extends RecursiveAction {
+        private final long runId;
+        private final boolean incremental;
+        private final long toId;
+        private final long firstAccountId;
+        private final long lastAccountId;
+        private final Map<Long, Long> deltas;
+        private final AtomicLong checked;
+        private final AtomicLong discrepancies;
+        
+        CompareAccounts(long runId, boolean incremental, long toId, long firstAccountId, long lastAccountId,
+                        Map<Long, Long> deltas, AtomicLong checked, AtomicLong discrepancies) {
+            this.runId = runId;
+            this.incremental = incremental;
+            this.toId = toId;
+            this.firstAccountId = firstAccountId;
+            this.lastAccountId = lastAccountId;
+            this.deltas = deltas;
+            this.checked = checked;
+            this.discrepancies = discrepancies;
+        }
+        
+        @Override
+        protected void compute() {
+            if (lastAccountId - firstAccountId >= accountChunkSize) {
+                long middle = firstAccountId + (lastAccountId - firstAccountId) / 2;
+                invokeAll(new CompareAccounts(runId, incremental, toId, firstAccountId, middle, deltas, checked, discrepancies),
+                        new CompareAccounts(runId, incremental, toId, middle + 1, lastAccountId, deltas, checked, discrepancies));
+                return;
+            }
+            
+            // One InnoDB (REPEATABLE READ) snapshot for balances and newer postings, so both reflect the same commits
+            TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+            snapshot.executeWithoutResult(status -> compareRange());
+        }
+        
+        private void compareRange() {
+            Map<Long, Long> balances = new LinkedHashMap<>();
+            jdbcTemplate.query("SELECT id, balance FROM accounts WHERE id BETWEEN ? AND ? ORDER BY id",
+                    rs -> {
+                        balances.put(rs.getLong(1), Money.toMinor(rs.getBigDecimal(2)));
+                    }, firstAccountId, lastAccountId);
+            if (balances.isEmpty()) {
+                return;
+            }
+            
+            Map<Long, Long> ledger = new HashMap<>();
+            if (incremental) {
+                jdbcTemplate.query("SELECT account_id, ledger_balance FROM reconciliation_balances WHERE account_id BETWEEN ? AND ?",
+                        rs -> {
+                            ledger.put(rs.getLong(1), Money.toMinor(rs.getBigDecimal(2)));
+                        }, firstAccountId, lastAccountId);
+            }
+            
+            // Postings above the watermark are already in the balances read above
+            Map<Long, Long> pending = new HashMap<>();
+            jdbcTemplate.query("SELECT from_account_id, to_account_id, amount, COALESCE(credited_amount, amount) FROM transactions " +
+                    "WHERE id > ? AND transaction_status = 'COMPLETED' " +
+                    "AND (from_account_id BETWEEN ? AND ? OR to_account_id BETWEEN ? AND ?)",
+                    rs -> {
+                        long amount = Money.toMinor(rs.getBigDecimal(3));
+                        long from = rs.getLong(1);
+                        if (!rs.wasNull()) {
+                            pending.merge(from, -amount, Math::addExact);
+                        }
+                        // Cross-currency transfers credit the converted amount
+                        long to = rs.getLong(2);
+                        if (!rs.wasNull()) {
+                            pending.merge(to, Money.toMinor(rs.getBigDecimal(4)), Math::addExact);
+                        }
+                    }, toId, firstAccountId, lastAccountId, firstAccountId, lastAccountId);
+            
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> snapshots = new ArrayList<>();
+            List<Object[]> mismatches = new ArrayList<>();
+            for (Map.Entry<Long, Long> account : balances.entrySet()) {
+                long accountId = account.getKey();
+                long balance = account.getValue();
+                long ledgerBalance = Math.addExact(ledger.getOrDefault(accountId, 0L), deltas.getOrDefault(accountId, 0L));
+                long expected = Math.addExact(ledgerBalance, pending.getOrDefault(accountId, 0L));
+                if (expected != balance) {
+                    mismatches.add(new Object[] { runId, accountId, Money.toBigDecimal(expected), Money.toBigDecimal(balance),
+                            Money.toBigDecimal(Math.subtractExact(balance, expected)), now });
+                }
+                snapshots.add(new Object[] { accountId, Money.toBigDecimal(ledgerBalance), toId, now });
+            }
+            
+            jdbcTemplate.batchUpdate("INSERT INTO reconciliation_balances (account_id, ledger_balance, last_transaction_id, updated_at) " +
+                    "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE ledger_balance = VALUES(ledger_balance), " +
+                    "last_transaction_id = VALUES(last_transaction_id), updated_at = VALUES(updated_at)", snapshots);
+            if (!mismatches.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO reconciliation_discrepancies " +
+                        "(run_id, account_id, ledger_balance, account_balance, difference, detected_at) VALUES (?, ?, ?, ?, ?, ?)",
+                        mismatches);
+            }
+            checked.addAndGet(balances.size());
+            discrepancies.addAndGet(mismatches.size());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.bankmanagement.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional posting method that is re-run in a fresh transaction when it loses a
+ * concurrent update (a failed version check, a deadlock or a lock wait timeout).
+ * Applied by {@link com.bankmanagement.config.PostingRetryAspect}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RetryOnConflict {
+}
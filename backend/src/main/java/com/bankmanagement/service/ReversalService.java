@@ -0,0 +1,375 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountStatus;
+import com.bankmanagement.model.Money;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.TransactionStatus;
+import com.bankmanagement.model.TransactionType;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reverses COMPLETED transactions with compensating REFUND postings that point back at the
+ * original. Refunds may be partial; the original's refunded_amount is the cumulative guard and is
+ * only read and written under its row lock. Whoever the original credited is debited, and the
+ * other side is credited; cross-currency transfers are reversed at the original's rate.
+ *
+ * Every reversal, single or bulk, goes through {@link #reverseChunk}: originals are locked in id
+ * order, then their accounts in id order, and the postings are written through
+ * {@link BatchPostingWriter}. Bulk runs commit chunk by chunk, so one bad id fails only itself.
+ */
+@Service
+public class ReversalService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReversalService.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private BatchPostingWriter batchPostingWriter;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${reversals.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${reversals.max-batch-size:50000}")
+    private int maxBatchSize;
+    
+    // Refunds one transaction; a null amount refunds whatever hasn't been refunded yet
+    @Transactional
+    public Transaction refund(Long transactionId, BigDecimal amount, String reason, Long bankId) {
+        Map<Long, BigDecimal> request = new HashMap<>();
+        request.put(transactionId, amount);
+        ReversalResult result = reverseChunk(request, reason, bankId);
+        if (!result.getFailures().isEmpty()) {
+            throw new RuntimeException(result.getFailures().get(0).get("reason").toString());
+        }
+        return transactionRepository.findById(result.getRefundTransactionIds().get(0))
+                .orElseThrow(() -> new RuntimeException("Refund was not recorded"));
+    }
+    
+    // Fully reverses every listed transaction, e.g. all postings of a failed payroll run
+    public ReversalResult reverseAll(List<Long> transactionIds, String reason, Long bankId) {
+        Set<Long> ids = new LinkedHashSet<>(transactionIds);
+        if (ids.isEmpty()) {
+            throw new RuntimeException("No transactions to reverse");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new RuntimeException("At most " + maxBatchSize + " transactions can be reversed at once");
+        }
+        
+        long started = System.currentTimeMillis();
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        ReversalResult total = new ReversalResult();
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += chunkSize) {
+            Map<Long, BigDecimal> chunk = new LinkedHashMap<>();
+            all.subList(from, Math.min(from + chunkSize, all.size())).forEach(id -> chunk.put(id, null));
+            try {
+                total.add(chunkTransaction.execute(status -> reverseChunk(chunk, reason, bankId)));
+            } catch (Exception e) {
+                // Nothing in the chunk was written
+                log.warn("Reversal chunk of {} transactions failed: {}", chunk.size(), e.getMessage());
+                chunk.keySet().forEach(id -> total.fail(id, "Reversal failed: " + e.getMessage()));
+            }
+        }
+        log.info("Reversed {} of {} transactions in {} ms", total.getRefundTransactionIds().size(), ids.size(),
+                System.currentTimeMillis() - started);
+        return total;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Transaction> getRefunds(Long transactionId) {
+        return transactionRepository.findByOriginalTransactionIdOrderByCreatedAtAsc(transactionId);
+    }
+    
+    // Runs in the caller's transaction; requests map original id to refund amount (null = the rest)
+    private ReversalResult reverseChunk(Map<Long, BigDecimal> requests, String reason, Long bankId) {
+        ReversalResult result = new ReversalResult();
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", requests.keySet());
+        
+        // Lock order: originals by id, then their accounts by id. original_transaction_id has no
+        // foreign key (V13), so a refund is only written for an original read here: the lock keeps
+        // its row, and its partition, in place until the refund commits
+        Map<Long, Original> originals = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT id, transaction_reference, transaction_type, transaction_status, amount, currency, " +
+                "from_account_id, to_account_id, credited_amount, credited_currency, fx_rate, fx_rate_version, refunded_amount " +
+                "FROM transactions WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                ids,
+                rs -> {
+                    Original original = new Original();
+                    original.id = rs.getLong(1);
+                    original.reference = rs.getString(2);
+                    original.type = TransactionType.valueOf(rs.getString(3));
+                    original.status = TransactionStatus.valueOf(rs.getString(4));
+                    original.amount = rs.getBigDecimal(5);
+                    original.currency = rs.getString(6);
+                    original.fromAccountId = rs.getObject(7, Long.class);
+                    original.toAccountId = rs.getObject(8, Long.class);
+                    original.creditedAmount = rs.getBigDecimal(9);
+                    original.creditedCurrency = rs.getString(10);
+                    original.fxRate = rs.getBigDecimal(11);
+                    original.fxRateVersion = rs.getObject(12, Long.class);
+                    original.refundedAmount = rs.getBigDecimal(13);
+                    originals.put(original.id, original);
+                });
+        
+        Set<Long> accountIds = new LinkedHashSet<>();
+        originals.values().forEach(original -> {
+            if (original.fromAccountId != null) accountIds.add(original.fromAccountId);
+            if (original.toAccountId != null) accountIds.add(original.toAccountId);
+        });
+        Map<Long, LockedAccount> accounts = new HashMap<>();
+        if (!accountIds.isEmpty()) {
+            namedParameterJdbcTemplate.query(
+                    "SELECT id, balance, held_amount, account_status, bank_id, user_id, currency FROM accounts " +
+                    "WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                    new MapSqlParameterSource("ids", accountIds),
+                    rs -> {
+                        LockedAccount account = new LockedAccount();
+                        account.id = rs.getLong(1);
+                        account.balance = rs.getBigDecimal(2);
+                        account.heldAmount = rs.getBigDecimal(3);
+                        account.status = AccountStatus.valueOf(rs.getString(4));
+                        account.bankId = rs.getLong(5);
+                        account.userId = rs.getLong(6);
+                        account.currency = rs.getString(7);
+                        accounts.put(account.id, account);
+                    });
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowStamp = Timestamp.valueOf(now);
+        List<Transaction> postings = new ArrayList<>();
+        Map<Long, BigDecimal> balanceDeltas = new HashMap<>();
+        List<Object[]> refundedUpdates = new ArrayList<>();
+        
+        for (Map.Entry<Long, BigDecimal> request : requests.entrySet()) {
+            Original original = originals.get(request.getKey());
+            String problem = original == null ? "Transaction not found"
+                    : validate(original, accounts, bankId);
+            if (problem != null) {
+                result.fail(request.getKey(), problem);
+                continue;
+            }
+            
+            BigDecimal remaining = original.amount.subtract(original.refundedAmount);
+            BigDecimal refund = request.getValue() != null ? request.getValue() : remaining;
+            problem = validateAmount(original, refund, remaining);
+            if (problem != null) {
+                result.fail(original.id, problem);
+                continue;
+            }
+            
+            // The side the original credited gives the money back, in its own currency
+            LockedAccount debited = original.toAccountId != null ? accounts.get(original.toAccountId) : null;
+            LockedAccount credited = original.fromAccountId != null ? accounts.get(original.fromAccountId) : null;
+            BigDecimal newRefunded = original.refundedAmount.add(refund);
+            BigDecimal debit = debitAmount(original, newRefunded).subtract(debitAmount(original, original.refundedAmount));
+            if (debited != null && debited.balance.subtract(debited.heldAmount).compareTo(debit) < 0) {
+                result.fail(original.id, "Insufficient available balance in account " + debited.id + " to reverse");
+                continue;
+            }
+            
+            Transaction posting = new Transaction();
+            posting.setTransactionReference("RFD" + original.id + "-" + Money.toMinor(newRefunded));
+            posting.setTransactionType(TransactionType.REFUND);
+            posting.setTransactionStatus(TransactionStatus.COMPLETED);
+            posting.setOriginalTransactionId(original.id);
+            posting.setDescription(description(original, reason));
+            posting.setCreatedAt(now);
+            if (debited != null) {
+                debited.balance = debited.balance.subtract(debit);
+                balanceDeltas.merge(debited.id, debit.negate(), BigDecimal::add);
+                posting.setFromAccount(debited.snapshot());
+                posting.setAmount(debit);
+                posting.setCurrency(debited.currency);
+            } else {
+                posting.setAmount(refund);
+                posting.setCurrency(original.currency);
+            }
+            if (credited != null) {
+                credited.balance = credited.balance.add(refund);
+                balanceDeltas.merge(credited.id, refund, BigDecimal::add);
+                posting.setToAccount(credited.snapshot());
+            }
+            if (original.creditedAmount != null) {
+                posting.setCreditedAmount(refund);
+                posting.setCreditedCurrency(original.currency);
+                posting.setFxRate(BigDecimal.ONE.divide(original.fxRate, FxRateService.RATE_SCALE, RoundingMode.HALF_EVEN));
+                posting.setFxRateVersion(original.fxRateVersion);
+            }
+            posting.setBalanceAfterTransaction(debited != null ? debited.balance : credited.balance);
+            postings.add(posting);
+            
+            original.refundedAmount = newRefunded;
+            refundedUpdates.add(new Object[] { newRefunded, nowStamp, original.id });
+        }
+        
+        if (!postings.isEmpty()) {
+            batchPostingWriter.write(postings, balanceDeltas, nowStamp);
+            jdbcTemplate.batchUpdate("UPDATE transactions SET refunded_amount = ?, updated_at = ?, version = version + 1 WHERE id = ?", refundedUpdates);
+            // Delivered after commit, like interactive postings
+            postings.forEach(posting -> {
+                eventPublisher.publishEvent(new TransactionPostedEvent(posting));
+                result.reversed(posting.getId());
+            });
+        }
+        return result;
+    }
+    
+    private String validate(Original original, Map<Long, LockedAccount> accounts, Long bankId) {
+        if (original.status != TransactionStatus.COMPLETED) {
+            return "Only completed transactions can be reversed";
+        }
+        if (original.type == TransactionType.REFUND) {
+            return "Refunds cannot be reversed";
+        }
+        LockedAccount from = original.fromAccountId != null ? accounts.get(original.fromAccountId) : null;
+        LockedAccount to = original.toAccountId != null ? accounts.get(original.toAccountId) : null;
+        if (bankId != null && (from == null || !bankId.equals(from.bankId)) && (to == null || !bankId.equals(to.bankId))) {
+            return "Transaction not found";
+        }
+        if ((from != null && from.status == AccountStatus.CLOSED) || (to != null && to.status == AccountStatus.CLOSED)) {
+            return "Transactions on closed accounts cannot be reversed";
+        }
+        return null;
+    }
+    
+    private String validateAmount(Original original, BigDecimal refund, BigDecimal remaining) {
+        if (remaining.signum() <= 0) {
+            return "Transaction is already fully refunded";
+        }
+        if (refund.signum() <= 0) {
+            return "Refund amount must be greater than zero";
+        }
+        if (refund.stripTrailingZeros().scale() > FxRateService.fractionDigits(original.currency)) {
+            return "Refund amount has too many decimal places for " + original.currency;
+        }
+        if (refund.compareTo(remaining) > 0) {
+            return "Refund exceeds the unrefunded amount of " + remaining.toPlainString() + " " + original.currency;
+        }
+        return null;
+    }
+    
+    // What the credited side has given back once `refunded` of the original is refunded. Rounding the
+    // cumulative figure (not each refund) makes a series of partial refunds add up to a full reversal.
+    private static BigDecimal debitAmount(Original original, BigDecimal refunded) {
+        if (original.creditedAmount == null) {
+            return refunded;
+        }
+        return original.creditedAmount.multiply(refunded)
+                .divide(original.amount, FxRateService.fractionDigits(original.creditedCurrency), RoundingMode.HALF_EVEN);
+    }
+    
+    private static String description(Original original, String reason) {
+        String description = "Refund of " + original.reference;
+        if (reason != null && !reason.isBlank()) {
+            description += ": " + reason.trim();
+        }
+        return description.length() > 500 ? description.substring(0, 500) : description;
+    }
+    
+    /** Outcome of a reversal run: the REFUND postings made and the transactions that were refused. */
+    public static final class ReversalResult {
+        private final List<Long> refundTransactionIds = new ArrayList<>();
+        private final List<Map<String, Object>> failures = new ArrayList<>();
+        
+        public int getReversed() { return refundTransactionIds.size(); }
+        public List<Long> getRefundTransactionIds() { return refundTransactionIds; }
+        public List<Map<String, Object>> getFailures() { return failures; }
+        
+        private void reversed(Long refundTransactionId) {
+            refundTransactionIds.add(refundTransactionId);
+        }
+        
+        private void fail(Long transactionId, String reason) {
+            Map<String, Object> failure = new LinkedHashMap<>();
+            failure.put("transactionId", transactionId);
+            failure.put("reason", reason);
+            failures.add(failure);
+        }
+        
+        private void add(ReversalResult other) {
+            refundTransactionIds.addAll(other.refundTransactionIds);
+            failures.addAll(other.failures);
+        }
+    }
+    
+    private static final class Original {
+        private long id;
+        private String reference;
+        private TransactionType type;
+        private TransactionStatus status;
+        private BigDecimal amount;
+        private String currency;
+        private Long fromAccountId;
+        private Long toAccountId;
+        private BigDecimal creditedAmount;
+        private String creditedCurrency;
+        private BigDecimal fxRate;
+        private Long fxRateVersion;
+        private BigDecimal refundedAmount;
+    }
+    
+    // Balance is kept running across the chunk so balanceAfterTransaction stays exact
+    private static final class LockedAccount {
+        private long id;
+        private BigDecimal balance;
+        private BigDecimal heldAmount;
+        private AccountStatus status;
+        private long bankId;
+        private long userId;
+        private String currency;
+        
+        // Detached copy for the posting and its event, with the balance as of this posting
+        Account snapshot() {
+            User user = new User();
+            user.setId(userId);
+            Account account = new Account();
+            account.setId(id);
+            account.setBalance(balance);
+            account.setCurrency(currency);
+            account.setUser(user);
+            return account;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.TransactionType;
+
+/**
+ * An outgoing posting as seen by the {@link RiskRule}s. Amounts are in hundredths of the
+ * account's currency so rules compare primitives instead of BigDecimals on the posting path.
+ */
+public class RiskCheck {
+    private final TransactionType transactionType;
+    private final long accountId;
+    private final long beneficiaryId;
+    private final long amount;
+    private final String currency;
+    private final long timestamp;
+    
+    public RiskCheck(TransactionType transactionType, long accountId, long beneficiaryId, long amount, String currency,
+                     long timestamp) {
+        this.transactionType = transactionType;
+        this.accountId = accountId;
+        this.beneficiaryId = beneficiaryId;
+        this.amount = amount;
+        this.currency = currency;
+        this.timestamp = timestamp;
+    }
+    
+    public TransactionType getTransactionType() { return transactionType; }
+    public long getAccountId() { return accountId; }
+    // Destination account of a transfer; 0 for withdrawals
+    public long getBeneficiaryId() { return beneficiaryId; }
+    public long getAmount() { return amount; }
+    // The account's currency, which amounts and the account's window are in
+    public String getCurrency() { return currency; }
+    public long getTimestamp() { return timestamp; }
+}
@@ -0,0 +1,116 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Money;
+import com.bankmanagement.model.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the {@link RiskRule}s against an account's recent postings before a withdrawal or
+ * transfer is written. Windows live in memory per node and start empty after a restart,
+ * so the history-based rules only apply once an account has posted again.
+ */
+@Service
+public class RiskEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RiskEngine.class);
+    
+    private final Map<Long, AccountRiskWindow> windows = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private List<RiskRule> rules;
+    
+    @Value("${risk.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${risk.velocity.max-postings:20}")
+    private int velocityPostings;
+    
+    @Value("${risk.outlier.window-size:50}")
+    private int amountSamples;
+    
+    @Value("${risk.beneficiary.history-size:32}")
+    private int beneficiaryHistory;
+    
+    @Value("${risk.max-accounts:500000}")
+    private int maxAccounts;
+    
+    @Value("${risk.idle-seconds:86400}")
+    private long idleSeconds;
+    
+    /**
+     * Returns the first rule's decline reason, or null. An allowed posting is reserved in the
+     * window in the same critical section, so concurrent postings cannot both slip under a limit,
+     * and recorded once its transaction commits; an attempt that rolls back, such as one
+     * PostingRetryAspect retries, doesn't count.
+     */
+    public String assess(TransactionType transactionType, Long accountId, Long beneficiaryId, BigDecimal amount,
+                         String currency) {
+        if (!enabled || rules.isEmpty()) {
+            return null;
+        }
+        
+        AccountRiskWindow window = windows.get(accountId);
+        if (window == null) {
+            if (windows.size() >= maxAccounts) {
+                // Fail open rather than turn memory pressure into an outage
+                logger.warn("Risk engine is tracking {} accounts; not checking account {}", windows.size(), accountId);
+                return null;
+            }
+            window = windows.computeIfAbsent(accountId,
+                    id -> new AccountRiskWindow(velocityPostings, amountSamples, beneficiaryHistory));
+        }
+        
+        RiskCheck check = new RiskCheck(transactionType, accountId, beneficiaryId != null ? beneficiaryId : 0,
+                Money.toMinor(amount), currency, System.currentTimeMillis());
+        synchronized (window) {
+            for (RiskRule rule : rules) {
+                String reason = rule.evaluate(check, window);
+                if (reason != null) {
+                    return reason;
+                }
+            }
+            window.reserve(check);
+        }
+        recordOnCompletion(window, check);
+        return null;
+    }
+    
+    private void recordOnCompletion(AccountRiskWindow window, RiskCheck check) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (window) {
+                window.commit(check);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (window) {
+                    if (status == STATUS_COMMITTED) {
+                        window.commit(check);
+                    } else {
+                        window.release(check);
+                    }
+                }
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${risk.eviction-ms:300000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleSeconds * 1000;
+        windows.values().removeIf(window -> window.getLastSeen() < cutoff);
+    }
+}
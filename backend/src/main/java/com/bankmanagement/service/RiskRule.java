@@ -0,0 +1,12 @@
+package com.bankmanagement.service;
+
+/**
+ * A check run by {@link RiskEngine} before a withdrawal or transfer is posted.
+ * Implement this as a Spring bean to add a rule; rules run in {@code @Order} order
+ * and the first decline wins.
+ */
+public interface RiskRule {
+    
+    // Decline reason, or null to allow. Runs with the account's window locked, so keep it allocation-free.
+    String evaluate(RiskCheck check, AccountRiskWindow window);
+}
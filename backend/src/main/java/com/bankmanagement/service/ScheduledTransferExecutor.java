@@ -0,0 +1,94 @@
+package com.bankmanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Polls the scheduled transfer due queue and runs claimed items on a worker pool.
+ * Every node runs one; claims use SKIP LOCKED leases, so nodes never pick the same item.
+ */
+@Component
+public class ScheduledTransferExecutor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledTransferExecutor.class);
+    
+    private final String nodeId;
+    private final ExecutorService workers;
+    private final Semaphore capacity;
+    
+    @Autowired
+    private ScheduledTransferService scheduledTransferService;
+    
+    @Value("${scheduled-transfers.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${scheduled-transfers.claim-batch-size:100}")
+    private int claimBatchSize;
+    
+    public ScheduledTransferExecutor(@Value("${scheduled-transfers.worker-threads:8}") int workerThreads) {
+        this.nodeId = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-transfer-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Claim only what the workers can start soon, so leases do not expire in the queue
+        this.capacity = new Semaphore(workerThreads * 2);
+    }
+    
+    // Keeps claiming while full batches come back, so month-start peaks drain without waiting for the next poll
+    @Scheduled(fixedDelayString = "${scheduled-transfers.poll-ms:1000}")
+    public void pollDueTransfers() {
+        if (!enabled) {
+            return;
+        }
+        while (true) {
+            int limit = Math.min(claimBatchSize, capacity.availablePermits());
+            if (limit == 0) {
+                return;
+            }
+            List<Long> ids = scheduledTransferService.claimDue(nodeId, limit);
+            for (Long id : ids) {
+                capacity.acquireUninterruptibly();
+                workers.submit(() -> {
+                    try {
+                        scheduledTransferService.execute(id, nodeId);
+                    } catch (RuntimeException e) {
+                        logger.error("Scheduled transfer {} could not be processed", id, e);
+                    } finally {
+                        capacity.release();
+                    }
+                });
+            }
+            if (ids.size() < limit) {
+                return;
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+    
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.exception.DailyLimitExceededException;
+import com.bankmanagement.exception.InsufficientBalanceException;
+import com.bankmanagement.exception.InvalidAmountException;
+import com.bankmanagement.exception.RiskDeclinedException;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.ScheduleFrequency;
+import com.bankmanagement.model.ScheduledTransfer;
+import com.bankmanagement.model.ScheduledTransferStatus;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.ScheduledTransferRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ScheduledTransferService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledTransferService.class);
+    
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Attempts per occurrence for retryable failures (insufficient balance, daily limit)
+    @Value("${scheduled-transfers.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${scheduled-transfers.retry-base-seconds:300}")
+    private long retryBaseSeconds;
+    
+    @Value("${scheduled-transfers.retry-max-seconds:21600}")
+    private long retryMaxSeconds;
+    
+    @Value("${scheduled-transfers.lease-seconds:120}")
+    private long leaseSeconds;
+    
+    @Transactional
+    public ScheduledTransfer createScheduledTransfer(User user, Long fromAccountId, Long toAccountId, BigDecimal amount,
+                                                     String description, ScheduleFrequency frequency,
+                                                     LocalDateTime startAt, LocalDateTime endAt) {
+        if (fromAccountId.equals(toAccountId)) {
+            throw new InvalidAmountException("Cannot transfer to the same account");
+        }
+        
+        Account fromAccount = accountService.getAccountById(fromAccountId);
+        accountService.getAccountById(toAccountId);
+        transactionService.validateTransactionAmount(amount, fromAccount.getCurrency());
+        if (user.getRole() == Role.CUSTOMER && !fromAccount.getUser().getId().equals(user.getId())) {
+            throw new RuntimeException("You can only schedule transfers from your own accounts");
+        }
+        
+        LocalDateTime start = startAt != null ? startAt : LocalDateTime.now();
+        if (endAt != null && endAt.isBefore(start)) {
+            throw new RuntimeException("End date must be after the start date");
+        }
+        
+        ScheduledTransfer scheduledTransfer = new ScheduledTransfer();
+        scheduledTransfer.setUserId(user.getId());
+        scheduledTransfer.setFromAccountId(fromAccountId);
+        scheduledTransfer.setToAccountId(toAccountId);
+        scheduledTransfer.setAmount(amount);
+        scheduledTransfer.setDescription(description);
+        scheduledTransfer.setFrequency(frequency != null ? frequency : ScheduleFrequency.ONCE);
+        scheduledTransfer.setStartAt(start);
+        scheduledTransfer.setEndAt(endAt);
+        scheduledTransfer.setNextRunAt(start);
+        return scheduledTransferRepository.save(scheduledTransfer);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ScheduledTransfer> getScheduledTransfersByUserId(Long userId) {
+        return scheduledTransferRepository.findByUserIdOrderByNextRunAtAsc(userId);
+    }
+    
+    @Transactional
+    public ScheduledTransfer pauseScheduledTransfer(Long id, User user) {
+        ScheduledTransfer scheduledTransfer = getOwnedScheduledTransfer(id, user);
+        if (scheduledTransfer.getStatus() != ScheduledTransferStatus.ACTIVE) {
+            throw new RuntimeException("Only active scheduled transfers can be paused");
+        }
+        scheduledTransfer.setStatus(ScheduledTransferStatus.PAUSED);
+        return scheduledTransferRepository.save(scheduledTransfer);
+    }
+    
+    // Occurrences missed while paused are skipped rather than executed all at once
+    @Transactional
+    public ScheduledTransfer resumeScheduledTransfer(Long id, User user) {
+        ScheduledTransfer scheduledTransfer = getOwnedScheduledTransfer(id, user);
+        if (scheduledTransfer.getStatus() != ScheduledTransferStatus.PAUSED) {
+            throw new RuntimeException("Only paused scheduled transfers can be resumed");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        while (scheduledTransfer.getFrequency() != ScheduleFrequency.ONCE
+                && scheduledTransfer.getCurrentOccurrence().isBefore(now)) {
+            scheduledTransfer.setOccurrenceCount(scheduledTransfer.getOccurrenceCount() + 1);
+        }
+        scheduledTransfer.setAttempts(0);
+        scheduledTransfer.setStatus(ScheduledTransferStatus.ACTIVE);
+        scheduleNext(scheduledTransfer);
+        return scheduledTransferRepository.save(scheduledTransfer);
+    }
+    
+    @Transactional
+    public ScheduledTransfer cancelScheduledTransfer(Long id, User user) {
+        ScheduledTransfer scheduledTransfer = getOwnedScheduledTransfer(id, user);
+        scheduledTransfer.setStatus(ScheduledTransferStatus.CANCELLED);
+        return scheduledTransferRepository.save(scheduledTransfer);
+    }
+    
+    // Leases a batch of due items to this node; rows locked by other nodes' claims are skipped
+    @Transactional
+    public List<Long> claimDue(String owner, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>();
+        for (ScheduledTransfer scheduledTransfer : scheduledTransferRepository.findDueForUpdate(now, limit)) {
+            scheduledTransfer.setLeaseOwner(owner);
+            scheduledTransfer.setLeaseUntil(now.plusSeconds(leaseSeconds));
+            ids.add(scheduledTransfer.getId());
+        }
+        return ids;
+    }
+    
+    /**
+     * Executes the current occurrence of a leased item. The transfer and the schedule update
+     * commit together under the item's row lock, so an occurrence runs at most once even if
+     * the lease expires and another node claims the item.
+     */
+    public void execute(Long id, String owner) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ScheduledTransfer scheduledTransfer = scheduledTransferRepository.findByIdForUpdate(id).orElse(null);
+                if (scheduledTransfer == null || !owner.equals(scheduledTransfer.getLeaseOwner())
+                        || scheduledTransfer.getStatus() != ScheduledTransferStatus.ACTIVE) {
+                    return;
+                }
+                
+                String description = scheduledTransfer.getDescription() != null
+                        ? scheduledTransfer.getDescription()
+                        : "Standing order #" + scheduledTransfer.getId();
+                Transaction transaction;
+                try {
+                    transaction = transactionService.createTransfer(scheduledTransfer.getFromAccountId(),
+                            scheduledTransfer.getToAccountId(), scheduledTransfer.getAmount(), description);
+                } catch (RiskDeclinedException e) {
+                    // Commit the declined transaction record together with the failed schedule
+                    recordFailure(id, owner, e.getMessage(), false);
+                    return;
+                }
+                
+                scheduledTransfer.setLastTransactionId(transaction.getId());
+                scheduledTransfer.setLastRunAt(LocalDateTime.now());
+                scheduledTransfer.setLastError(null);
+                completeOccurrence(scheduledTransfer);
+                scheduledTransferRepository.save(scheduledTransfer);
+            });
+        } catch (InsufficientBalanceException | DailyLimitExceededException | ConcurrencyFailureException e) {
+            // A lost concurrent update is retried with the rest, after a backoff
+            transactionTemplate.executeWithoutResult(status -> recordFailure(id, owner, e.getMessage(), true));
+        } catch (RuntimeException e) {
+            logger.warn("Scheduled transfer {} failed: {}", id, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> recordFailure(id, owner, e.getMessage(), false));
+        }
+    }
+    
+    // Retryable failures back off exponentially; once attempts run out the occurrence is skipped
+    private void recordFailure(Long id, String owner, String message, boolean retryable) {
+        ScheduledTransfer scheduledTransfer = scheduledTransferRepository.findByIdForUpdate(id).orElse(null);
+        if (scheduledTransfer == null || !owner.equals(scheduledTransfer.getLeaseOwner())) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        int attempts = scheduledTransfer.getAttempts() + 1;
+        scheduledTransfer.setAttempts(attempts);
+        scheduledTransfer.setLastRunAt(now);
+        scheduledTransfer.setLastError(truncate(message));
+        
+        if (!retryable) {
+            scheduledTransfer.setStatus(ScheduledTransferStatus.FAILED);
+            releaseLease(scheduledTransfer);
+        } else if (attempts < maxAttempts) {
+            long delay = Math.min(retryMaxSeconds, retryBaseSeconds << Math.min(attempts - 1, 20));
+            scheduledTransfer.setNextRunAt(now.plusSeconds(delay));
+            releaseLease(scheduledTransfer);
+        } else if (scheduledTransfer.getFrequency() == ScheduleFrequency.ONCE) {
+            scheduledTransfer.setStatus(ScheduledTransferStatus.FAILED);
+            releaseLease(scheduledTransfer);
+        } else {
+            scheduledTransfer.setLastError(truncate("Skipped after " + attempts + " attempts: " + message));
+            completeOccurrence(scheduledTransfer);
+        }
+        scheduledTransferRepository.save(scheduledTransfer);
+    }
+    
+    private void completeOccurrence(ScheduledTransfer scheduledTransfer) {
+        scheduledTransfer.setOccurrenceCount(scheduledTransfer.getOccurrenceCount() + 1);
+        scheduledTransfer.setAttempts(0);
+        releaseLease(scheduledTransfer);
+        scheduleNext(scheduledTransfer);
+    }
+    
+    private void scheduleNext(ScheduledTransfer scheduledTransfer) {
+        LocalDateTime next = scheduledTransfer.getCurrentOccurrence();
+        boolean finished = scheduledTransfer.getFrequency() == ScheduleFrequency.ONCE
+                ? scheduledTransfer.getOccurrenceCount() > 0
+                : scheduledTransfer.getEndAt() != null && next.isAfter(scheduledTransfer.getEndAt());
+        if (finished) {
+            scheduledTransfer.setStatus(ScheduledTransferStatus.COMPLETED);
+        } else {
+            scheduledTransfer.setNextRunAt(next);
+        }
+    }
+    
+    private void releaseLease(ScheduledTransfer scheduledTransfer) {
+        scheduledTransfer.setLeaseOwner(null);
+        scheduledTransfer.setLeaseUntil(null);
+    }
+    
+    private ScheduledTransfer getOwnedScheduledTransfer(Long id, User user) {
+        ScheduledTransfer scheduledTransfer = scheduledTransferRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Scheduled transfer not found with id: " + id));
+        if (user.getRole() == Role.CUSTOMER && !scheduledTransfer.getUserId().equals(user.getId())) {
+            throw new RuntimeException("Scheduled transfer not found with id: " + id);
+        }
+        return scheduledTransfer;
+    }
+    
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,241 @@
+package com.bankmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains monthly RANGE partitions on the transactions table and tiers old months
+ * out to transactions_archive or to compressed files.
+ * Requires the one-off migration in db/partitioning/partition_transactions.sql.
+ */
+@Service
+public class TransactionPartitionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPartitionService.class);
+    
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    
+    // Named rather than *, so a column added to transactions but not yet to the archive fails the copy
+    // instead of shifting values; V15 lists the migrations that must keep the two in step
+    static final String ARCHIVE_COLUMNS = "id, transaction_reference, transaction_type, amount, description, "
+            + "transaction_status, from_account_id, to_account_id, balance_after_transaction, created_at, updated_at, "
+            + "failure_reason, currency, credited_amount, credited_currency, fx_rate, fx_rate_version, "
+            + "original_transaction_id, refunded_amount, version";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${transactions.partitioning.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${transactions.partitioning.months-ahead:3}")
+    private int monthsAhead;
+    
+    // Months kept in the live table; 0 disables archiving
+    @Value("${transactions.partitioning.retention-months:0}")
+    private int retentionMonths;
+    
+    // "table" moves rows to transactions_archive, "file" writes gzipped CSV
+    @Value("${transactions.archive.mode:table}")
+    private String archiveMode;
+    
+    @Value("${transactions.archive.directory:archive}")
+    private String archiveDirectory;
+    
+    @Scheduled(cron = "${transactions.partitioning.cron:0 30 1 * * *}")
+    public void runMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        if (!isPartitioned()) {
+            logger.warn("transactions.partitioning.enabled is set but the transactions table is not partitioned; " +
+                    "run db/partitioning/partition_transactions.sql first");
+            return;
+        }
+        
+        createUpcomingPartitions();
+        if (retentionMonths > 0) {
+            archiveExpiredPartitions();
+        }
+    }
+    
+    public boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME IS NOT NULL",
+                Integer.class);
+        return count != null && count > 0;
+    }
+    
+    // Partition name -> exclusive upper bound (first day of the following month), excluding p_future
+    public Map<String, LocalDate> getPartitions() {
+        Map<String, LocalDate> partitions = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                rs -> {
+                    String name = rs.getString("PARTITION_NAME");
+                    String description = rs.getString("PARTITION_DESCRIPTION");
+                    if (!FUTURE_PARTITION.equals(name) && description != null && !"MAXVALUE".equals(description)) {
+                        partitions.put(name, fromDays(Long.parseLong(description)));
+                    }
+                });
+        return partitions;
+    }
+    
+    // Split p_future so there is always a partition for the next few months
+    public void createUpcomingPartitions() {
+        Map<String, LocalDate> partitions = getPartitions();
+        LocalDate lastBound = partitions.values().stream().max(LocalDate::compareTo).orElse(null);
+        
+        YearMonth month = lastBound != null ? YearMonth.from(lastBound) : YearMonth.now();
+        YearMonth target = YearMonth.now().plusMonths(monthsAhead);
+        
+        List<String> definitions = new ArrayList<>();
+        while (!month.isAfter(target)) {
+            LocalDate upperBound = month.plusMonths(1).atDay(1);
+            definitions.add(String.format("PARTITION %s VALUES LESS THAN (TO_DAYS('%s'))",
+                    month.format(PARTITION_NAME), upperBound));
+            month = month.plusMonths(1);
+        }
+        if (definitions.isEmpty()) {
+            return;
+        }
+        
+        definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+        jdbcTemplate.execute("ALTER TABLE transactions REORGANIZE PARTITION " + FUTURE_PARTITION +
+                " INTO (" + String.join(", ", definitions) + ")");
+        logger.info("Created {} transaction partitions up to {}", definitions.size() - 1, target);
+    }
+    
+    public void archiveExpiredPartitions() {
+        LocalDate cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1);
+        
+        for (Map.Entry<String, LocalDate> partition : getPartitions().entrySet()) {
+            if (partition.getValue().isAfter(cutoff)) {
+                continue;
+            }
+            archivePartition(partition.getKey());
+        }
+    }
+    
+    public void archivePartition(String partitionName) {
+        if (!partitionName.matches("p[_A-Za-z0-9]+") || FUTURE_PARTITION.equals(partitionName)) {
+            throw new RuntimeException("Invalid partition name: " + partitionName);
+        }
+        
+        // account_holds.transaction_id has no foreign key (V12); an ACTIVE hold still needs its authorization
+        Integer activeHolds = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_holds h JOIN transactions PARTITION ("
+                + partitionName + ") t ON t.id = h.transaction_id WHERE h.status = 'ACTIVE'", Integer.class);
+        if (activeHolds != null && activeHolds > 0) {
+            throw new RuntimeException("Partition " + partitionName + " still holds " + activeHolds + " active authorizations");
+        }
+        
+        recordArchivedTotals(partitionName);
+        if ("file".equalsIgnoreCase(archiveMode)) {
+            Path file = writePartitionToFile(partitionName);
+            logger.info("Archived partition {} to {}", partitionName, file);
+        } else {
+            // IGNORE keeps a retry after a crash between copy and drop from failing on duplicates
+            int rows = jdbcTemplate.update(
+                    "INSERT IGNORE INTO transactions_archive (" + ARCHIVE_COLUMNS + ") SELECT " + ARCHIVE_COLUMNS
+                            + " FROM transactions PARTITION (" + partitionName + ")");
+            logger.info("Archived {} rows from partition {} to transactions_archive", rows, partitionName);
+        }
+        
+        jdbcTemplate.execute("ALTER TABLE transactions DROP PARTITION " + partitionName);
+    }
+    
+    // Per-account net of the partition's COMPLETED postings, for full reconciliation runs once it is dropped.
+    // Recomputed on a retry, so a crash before the drop never counts a partition twice
+    private void recordArchivedTotals(String partitionName) {
+        String partition = "transactions PARTITION (" + partitionName + ")";
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM archived_ledger_totals WHERE partition_name = ?", partitionName);
+            jdbcTemplate.update("INSERT INTO archived_ledger_totals (partition_name, account_id, ledger_total, archived_at) " +
+                    "SELECT ?, account_id, SUM(delta), ? FROM (" +
+                    "SELECT from_account_id AS account_id, -amount AS delta FROM " + partition +
+                    " WHERE transaction_status = 'COMPLETED' AND from_account_id IS NOT NULL " +
+                    "UNION ALL SELECT to_account_id, COALESCE(credited_amount, amount) FROM " + partition +
+                    " WHERE transaction_status = 'COMPLETED' AND to_account_id IS NOT NULL) postings GROUP BY account_id",
+                    partitionName, Timestamp.valueOf(LocalDateTime.now()));
+        });
+    }
+    
+    private Path writePartitionToFile(String partitionName) {
+        Path file = Paths.get(archiveDirectory, "transactions-" + partitionName + ".csv.gz");
+        try {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+                jdbcTemplate.query("SELECT " + ARCHIVE_COLUMNS + " FROM transactions PARTITION (" + partitionName + ") ORDER BY id", rs -> {
+                    try {
+                        ResultSetMetaData meta = rs.getMetaData();
+                        if (rs.isFirst()) {
+                            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                                writer.write((i > 1 ? "," : "") + meta.getColumnLabel(i));
+                            }
+                            writer.newLine();
+                        }
+                        for (int i = 1; i <= meta.getColumnCount(); i++) {
+                            writer.write((i > 1 ? "," : "") + csv(rs.getString(i)));
+                        }
+                        writer.newLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to archive partition " + partitionName + ": " + e.getMessage());
+        }
+        return file;
+    }
+    
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+    
+    // MySQL TO_DAYS counts from year 0; 719528 is TO_DAYS('1970-01-01')
+    private static LocalDate fromDays(long toDays) {
+        return LocalDate.ofEpochDay(toDays - 719528);
+    }
+}
@@ -0,0 +1,72 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.TransactionStatus;
+import com.bankmanagement.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * In-process event published by {@link TransactionService} for every posting and status change.
+ * Carries a flat snapshot so listeners never touch the entity or its lazy associations after commit.
+ */
+public class TransactionPostedEvent {
+    private final Long transactionId;
+    private final String transactionReference;
+    private final TransactionType transactionType;
+    private final TransactionStatus transactionStatus;
+    private final BigDecimal amount;
+    private final String currency;
+    private final BigDecimal creditedAmount;
+    private final String creditedCurrency;
+    private final String description;
+    private final LocalDateTime createdAt;
+    private final Long fromAccountId;
+    private final Long fromUserId;
+    private final BigDecimal fromAccountBalance;
+    private final Long toAccountId;
+    private final Long toUserId;
+    private final BigDecimal toAccountBalance;
+    
+    public TransactionPostedEvent(Transaction transaction) {
+        this.transactionId = transaction.getId();
+        this.transactionReference = transaction.getTransactionReference();
+        this.transactionType = transaction.getTransactionType();
+        this.transactionStatus = transaction.getTransactionStatus();
+        this.amount = transaction.getAmount();
+        this.currency = transaction.getCurrency();
+        this.creditedAmount = transaction.getCreditedAmount();
+        this.creditedCurrency = transaction.getCreditedCurrency();
+        this.description = transaction.getDescription();
+        this.createdAt = transaction.getCreatedAt();
+        
+        Account from = transaction.getFromAccount();
+        this.fromAccountId = from != null ? from.getId() : null;
+        this.fromUserId = from != null && from.getUser() != null ? from.getUser().getId() : null;
+        this.fromAccountBalance = from != null ? from.getBalance() : null;
+        
+        Account to = transaction.getToAccount();
+        this.toAccountId = to != null ? to.getId() : null;
+        this.toUserId = to != null && to.getUser() != null ? to.getUser().getId() : null;
+        this.toAccountBalance = to != null ? to.getBalance() : null;
+    }
+    
+    public Long getTransactionId() { return transactionId; }
+    public String getTransactionReference() { return transactionReference; }
+    public TransactionType getTransactionType() { return transactionType; }
+    public TransactionStatus getTransactionStatus() { return transactionStatus; }
+    public BigDecimal getAmount() { return amount; }
+    public String getCurrency() { return currency; }
+    public BigDecimal getCreditedAmount() { return creditedAmount; }
+    public String getCreditedCurrency() { return creditedCurrency; }
+    public String getDescription() { return description; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public Long getFromAccountId() { return fromAccountId; }
+    public Long getFromUserId() { return fromUserId; }
+    public BigDecimal getFromAccountBalance() { return fromAccountBalance; }
+    public Long getToAccountId() { return toAccountId; }
+    public Long getToUserId() { return toUserId; }
+    public BigDecimal getToAccountBalance() { return toAccountBalance; }
+}
@@ -1,19 +1,27 @@
 package com.bankmanagement.service;
 
 import com.bankmanagement.model.*;
+import com.bankmanagement.repository.AccountHoldRepository;
 import com.bankmanagement.repository.TransactionRepository;
 import com.bankmanagement.exception.InsufficientBalanceException;
 import com.bankmanagement.exception.InvalidAmountException;
 import com.bankmanagement.exception.AccountNotActiveException;
 import com.bankmanagement.exception.DailyLimitExceededException;
+import com.bankmanagement.exception.RiskDeclinedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 @Service
@@ -25,25 +33,66 @@ public class TransactionService {
     @Autowired
     private AccountService accountService;
     
-    // Daily limits for different transaction types
-    private static final BigDecimal DAILY_WITHDRAWAL_LIMIT = new BigDecimal("50000.00");
-    private static final BigDecimal DAILY_TRANSFER_LIMIT = new BigDecimal("100000.00");
-    private static final BigDecimal MAX_SINGLE_TRANSACTION = new BigDecimal("100000.00");
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private RiskEngine riskEngine;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private DailyLimitUsageCache dailyLimitUsageCache;
+    
+    @Autowired
+    private FxRateService fxRateService;
+    
+    @Autowired
+    private AccountHoldRepository accountHoldRepository;
+    
+    @Autowired
+    private HoldExpiryService holdExpiryService;
+    
+    // Authorizations that aren't captured or voided are released after this long
+    @Value("${holds.default-expiry-minutes:10080}")
+    private int holdDefaultExpiryMinutes;
+    
+    @Value("${holds.max-expiry-minutes:43200}")
+    private int holdMaxExpiryMinutes;
+    
+    // History window in days for account, user and bank listings; 0 means unbounded.
+    // A bounded window lets partitioned transactions tables prune old months.
+    @Value("${transactions.history.window-days:0}")
+    private int historyWindowDays;
+    
+    // Daily and single-transaction caps come from the bank's limit policies
+    @Autowired
+    private LimitPolicyService limitPolicyService;
+    
+    @Autowired
+    private PostingJournal postingJournal;
+    
+    @Autowired
+    private LockingStrategyService lockingStrategyService;
+    
+    // In the base currency; other currencies convert it (see getMinTransactionAmount)
     private static final BigDecimal MIN_TRANSACTION_AMOUNT = new BigDecimal("1.00");
     
+    @RetryOnConflict
     @Transactional
     public Transaction createDeposit(Long accountId, BigDecimal amount, String description) {
-        // Validate amount
-        validateTransactionAmount(amount);
+        Account account = accountService.getAccountForPosting(accountId);
         
-        Account account = accountService.getAccountById(accountId);
-        
-        // Validate account status
+        // Validate amount and account status
+        Money requested = validateTransactionAmount(amount, account.getCurrency());
         validateAccountStatus(account);
+        validateCurrencyScale(amount, account.getCurrency());
         
         // Additional validation for deposits
-        if (amount.compareTo(MAX_SINGLE_TRANSACTION) > 0) {
-            throw new InvalidAmountException("Single deposit amount cannot exceed ₹" + MAX_SINGLE_TRANSACTION);
+        LimitPolicyService.LimitRule limits = limitPolicyService.getRule(account, TransactionType.DEPOSIT);
+        if (exceeds(requested, limits.getMaxSingleAmountMoney())) {
+            throw new InvalidAmountException("Single deposit amount cannot exceed " + money(account.getCurrency(), limits.getMaxSingleAmount()));
         }
         
         Transaction transaction = new Transaction();
@@ -51,6 +100,7 @@ public class TransactionService {
         transaction.setTransactionType(TransactionType.DEPOSIT);
         transaction.setAmount(amount);
         transaction.setDescription(description != null ? description : "Deposit to account");
+        transaction.setCurrency(account.getCurrency());
         transaction.setToAccount(account);
         transaction.setTransactionStatus(TransactionStatus.PENDING);
         
@@ -64,39 +114,55 @@ public class TransactionService {
         transaction.setTransactionStatus(TransactionStatus.COMPLETED);
         transaction.setBalanceAfterTransaction(accountService.getAccountBalance(accountId));
         
-        return transactionRepository.save(transaction);
+        transaction = transactionRepository.save(transaction);
+        publishTransactionEvent(OutboxService.TRANSACTION_POSTED, transaction);
+        return transaction;
     }
     
-    @Transactional
+    // Declines commit their FAILED record instead of rolling it back
+    @RetryOnConflict
+    @Transactional(noRollbackFor = RiskDeclinedException.class)
     public Transaction createWithdrawal(Long accountId, BigDecimal amount, String description) {
-        // Validate amount
-        validateTransactionAmount(amount);
+        Account account = accountService.getAccountForPosting(accountId);
         
-        Account account = accountService.getAccountById(accountId);
-        
-        // Validate account status
+        // Validate amount and account status
+        Money requested = validateTransactionAmount(amount, account.getCurrency());
         validateAccountStatus(account);
+        validateCurrencyScale(amount, account.getCurrency());
         
-        // Check current balance
-        if (account.getBalance().compareTo(amount) < 0) {
+        // Check available balance (held funds can't be withdrawn)
+        if (account.getAvailableBalance().compareTo(amount) < 0) {
             throw new InsufficientBalanceException(
-                String.format("Insufficient balance. Available: ₹%.2f, Requested: ₹%.2f", 
-                    account.getBalance(), amount)
+                String.format("Insufficient balance. Available: %s, Requested: %s", 
+                    money(account.getCurrency(), account.getAvailableBalance()), money(account.getCurrency(), amount))
             );
         }
         
         // Check daily withdrawal limit
-        BigDecimal todayWithdrawals = getTodayWithdrawalAmount(accountId);
-        if (todayWithdrawals.add(amount).compareTo(DAILY_WITHDRAWAL_LIMIT) > 0) {
-            throw new DailyLimitExceededException(
-                String.format("Daily withdrawal limit exceeded. Limit: ₹%.2f, Today's withdrawals: ₹%.2f, Requested: ₹%.2f", 
-                    DAILY_WITHDRAWAL_LIMIT, todayWithdrawals, amount)
-            );
+        LimitPolicyService.LimitRule limits = limitPolicyService.getRule(account, TransactionType.WITHDRAWAL);
+        DailyLimitUsageCache.DailyUsage usage = null;
+        if (limits.getDailyLimitMoney() != null) {
+            usage = dailyLimitUsageCache.getUsageForPosting(account, locksRows(account));
+            Money todayWithdrawals = usage.getWithdrawnMoney();
+            if (exceeds(todayWithdrawals.plus(requested), limits.getDailyLimitMoney())) {
+                throw new DailyLimitExceededException(
+                    String.format("Daily withdrawal limit exceeded. Limit: %s, Today's withdrawals: %s, Requested: %s", 
+                        money(account.getCurrency(), limits.getDailyLimit()), money(account.getCurrency(), todayWithdrawals.toBigDecimal()),
+                        money(account.getCurrency(), amount))
+                );
+            }
         }
         
         // Check single transaction limit
-        if (amount.compareTo(MAX_SINGLE_TRANSACTION) > 0) {
-            throw new InvalidAmountException("Single withdrawal amount cannot exceed ₹" + MAX_SINGLE_TRANSACTION);
+        if (exceeds(requested, limits.getMaxSingleAmountMoney())) {
+            throw new InvalidAmountException("Single withdrawal amount cannot exceed " + money(account.getCurrency(), limits.getMaxSingleAmount()));
+        }
+        
+        // Risk rules run last, on postings that are otherwise valid
+        String declineReason = riskEngine.assess(TransactionType.WITHDRAWAL, accountId, null, amount, account.getCurrency());
+        if (declineReason != null) {
+            recordDeclined(TransactionType.WITHDRAWAL, account, null, amount,
+                description != null ? description : "Withdrawal from account", declineReason);
         }
         
         Transaction transaction = new Transaction();
@@ -104,6 +170,7 @@ public class TransactionService {
         transaction.setTransactionType(TransactionType.WITHDRAWAL);
         transaction.setAmount(amount);
         transaction.setDescription(description != null ? description : "Withdrawal from account");
+        transaction.setCurrency(account.getCurrency());
         transaction.setFromAccount(account);
         transaction.setTransactionStatus(TransactionStatus.PENDING);
         
@@ -112,51 +179,83 @@ public class TransactionService {
         
         // Update account balance
         accountService.deductBalance(accountId, amount);
+        if (usage != null) {
+            dailyLimitUsageCache.recordPosting(account, usage, TransactionType.WITHDRAWAL, amount);
+        }
         
         // Update transaction status and balance after transaction
         transaction.setTransactionStatus(TransactionStatus.COMPLETED);
         transaction.setBalanceAfterTransaction(accountService.getAccountBalance(accountId));
         
-        return transactionRepository.save(transaction);
+        transaction = transactionRepository.save(transaction);
+        publishTransactionEvent(OutboxService.TRANSACTION_POSTED, transaction);
+        return transaction;
     }
     
-    @Transactional
+    @RetryOnConflict
+    @Transactional(noRollbackFor = RiskDeclinedException.class)
     public Transaction createTransfer(Long fromAccountId, Long toAccountId, BigDecimal amount, String description) {
-        // Validate amount
-        validateTransactionAmount(amount);
-        
         // Validate different accounts
         if (fromAccountId.equals(toAccountId)) {
             throw new InvalidAmountException("Cannot transfer to the same account");
         }
         
-        Account fromAccount = accountService.getAccountById(fromAccountId);
-        Account toAccount = accountService.getAccountById(toAccountId);
+        // In id order, so opposing transfers between two row-locked accounts can't deadlock
+        Account fromAccount;
+        Account toAccount;
+        if (fromAccountId < toAccountId) {
+            fromAccount = accountService.getAccountForPosting(fromAccountId);
+            toAccount = accountService.getAccountForPosting(toAccountId);
+        } else {
+            toAccount = accountService.getAccountForPosting(toAccountId);
+            fromAccount = accountService.getAccountForPosting(fromAccountId);
+        }
         
-        // Validate account statuses
+        // Validate amount (in the sending account's currency) and account statuses
+        Money requested = validateTransactionAmount(amount, fromAccount.getCurrency());
         validateAccountStatus(fromAccount);
         validateAccountStatus(toAccount);
+        validateCurrencyScale(amount, fromAccount.getCurrency());
         
-        // Check current balance
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
+        // Check available balance (held funds can't be transferred)
+        if (fromAccount.getAvailableBalance().compareTo(amount) < 0) {
             throw new InsufficientBalanceException(
-                String.format("Insufficient balance in source account. Available: ₹%.2f, Requested: ₹%.2f", 
-                    fromAccount.getBalance(), amount)
+                String.format("Insufficient balance in source account. Available: %s, Requested: %s", 
+                    money(fromAccount.getCurrency(), fromAccount.getAvailableBalance()), money(fromAccount.getCurrency(), amount))
             );
         }
         
-        // Check daily transfer limit
-        BigDecimal todayTransfers = getTodayTransferAmount(fromAccountId);
-        if (todayTransfers.add(amount).compareTo(DAILY_TRANSFER_LIMIT) > 0) {
-            throw new DailyLimitExceededException(
-                String.format("Daily transfer limit exceeded. Limit: ₹%.2f, Today's transfers: ₹%.2f, Requested: ₹%.2f", 
-                    DAILY_TRANSFER_LIMIT, todayTransfers, amount)
-            );
+        // Check daily transfer limit (the sending account's policy applies)
+        LimitPolicyService.LimitRule limits = limitPolicyService.getRule(fromAccount, TransactionType.TRANSFER);
+        DailyLimitUsageCache.DailyUsage usage = null;
+        if (limits.getDailyLimitMoney() != null) {
+            usage = dailyLimitUsageCache.getUsageForPosting(fromAccount, locksRows(fromAccount));
+            Money todayTransfers = usage.getTransferredMoney();
+            if (exceeds(todayTransfers.plus(requested), limits.getDailyLimitMoney())) {
+                throw new DailyLimitExceededException(
+                    String.format("Daily transfer limit exceeded. Limit: %s, Today's transfers: %s, Requested: %s", 
+                        money(fromAccount.getCurrency(), limits.getDailyLimit()), money(fromAccount.getCurrency(), todayTransfers.toBigDecimal()),
+                        money(fromAccount.getCurrency(), amount))
+                );
+            }
         }
         
         // Check single transaction limit
-        if (amount.compareTo(MAX_SINGLE_TRANSACTION) > 0) {
-            throw new InvalidAmountException("Single transfer amount cannot exceed ₹" + MAX_SINGLE_TRANSACTION);
+        if (exceeds(requested, limits.getMaxSingleAmountMoney())) {
+            throw new InvalidAmountException("Single transfer amount cannot exceed " + money(fromAccount.getCurrency(), limits.getMaxSingleAmount()));
+        }
+        
+        // FX stage: the source is debited amount, the destination credited the converted amount.
+        // Rates come from the in-memory table, so this adds no I/O to the posting.
+        FxRateService.Conversion conversion = fxRateService.convert(amount, fromAccount.getCurrency(), toAccount.getCurrency());
+        if (conversion.getAmount().signum() <= 0) {
+            throw new InvalidAmountException("Amount is too small to convert to " + toAccount.getCurrency());
+        }
+        
+        // Risk rules run last, on postings that are otherwise valid
+        String declineReason = riskEngine.assess(TransactionType.TRANSFER, fromAccountId, toAccountId, amount, fromAccount.getCurrency());
+        if (declineReason != null) {
+            recordDeclined(TransactionType.TRANSFER, fromAccount, toAccount, amount, description, declineReason);
         }
         
         Transaction transaction = new Transaction();
@@ -164,84 +263,287 @@ public class TransactionService {
         transaction.setTransactionType(TransactionType.TRANSFER);
         transaction.setAmount(amount);
         transaction.setDescription(description);
+        transaction.setCurrency(fromAccount.getCurrency());
         transaction.setFromAccount(fromAccount);
         transaction.setToAccount(toAccount);
         transaction.setTransactionStatus(TransactionStatus.PENDING);
+        if (!fromAccount.getCurrency().equals(toAccount.getCurrency())) {
+            transaction.setCreditedAmount(conversion.getAmount());
+            transaction.setCreditedCurrency(toAccount.getCurrency());
+            transaction.setFxRate(conversion.getRate());
+            transaction.setFxRateVersion(conversion.getRateVersion());
+        }
         
         // Save transaction first
         transaction = transactionRepository.save(transaction);
         
         // Update account balances
         accountService.deductBalance(fromAccountId, amount);
-        accountService.addBalance(toAccountId, amount);
+        accountService.addBalance(toAccountId, conversion.getAmount());
+        if (usage != null) {
+            dailyLimitUsageCache.recordPosting(fromAccount, usage, TransactionType.TRANSFER, amount);
+        }
         
         // Update transaction status and balance after transaction
         transaction.setTransactionStatus(TransactionStatus.COMPLETED);
         transaction.setBalanceAfterTransaction(accountService.getAccountBalance(fromAccountId));
         
-        return transactionRepository.save(transaction);
+        transaction = transactionRepository.save(transaction);
+        publishTransactionEvent(OutboxService.TRANSACTION_POSTED, transaction);
+        return transaction;
+    }
+    
+    /**
+     * Reserves funds for a later capture. The reservation is a PENDING PAYMENT plus an ACTIVE hold,
+     * and raises accounts.held_amount so every other debit sees the lower available balance.
+     */
+    @RetryOnConflict
+    @Transactional(noRollbackFor = RiskDeclinedException.class)
+    public AccountHold authorize(Long accountId, BigDecimal amount, String description, Integer expiresInMinutes) {
+        int minutes = expiresInMinutes != null ? expiresInMinutes : holdDefaultExpiryMinutes;
+        if (minutes <= 0 || minutes > holdMaxExpiryMinutes) {
+            throw new RuntimeException("Hold expiry must be between 1 and " + holdMaxExpiryMinutes + " minutes");
+        }
+        
+        // Locked so concurrent authorizations on the account see each other's holds
+        Account account = accountService.getAccountForUpdate(accountId);
+        Money requested = validateTransactionAmount(amount, account.getCurrency());
+        validateAccountStatus(account);
+        validateCurrencyScale(amount, account.getCurrency());
+        
+        if (account.getAvailableBalance().compareTo(amount) < 0) {
+            throw new InsufficientBalanceException(
+                String.format("Insufficient balance. Available: %s, Requested: %s", 
+                    money(account.getCurrency(), account.getAvailableBalance()), money(account.getCurrency(), amount))
+            );
+        }
+        
+        LimitPolicyService.LimitRule limits = limitPolicyService.getRule(account, TransactionType.PAYMENT);
+        if (exceeds(requested, limits.getMaxSingleAmountMoney())) {
+            throw new InvalidAmountException("Single payment amount cannot exceed " + money(account.getCurrency(), limits.getMaxSingleAmount()));
+        }
+        
+        String declineReason = riskEngine.assess(TransactionType.PAYMENT, accountId, null, amount, account.getCurrency());
+        if (declineReason != null) {
+            recordDeclined(TransactionType.PAYMENT, account, null, amount,
+                description != null ? description : "Card authorization", declineReason);
+        }
+        
+        Transaction transaction = new Transaction();
+        transaction.setTransactionReference(generateTransactionReference());
+        transaction.setTransactionType(TransactionType.PAYMENT);
+        transaction.setAmount(amount);
+        transaction.setDescription(description != null ? description : "Card authorization");
+        transaction.setCurrency(account.getCurrency());
+        transaction.setFromAccount(account);
+        transaction.setTransactionStatus(TransactionStatus.PENDING);
+        transaction = transactionRepository.save(transaction);
+        
+        AccountHold hold = new AccountHold();
+        hold.setAccountId(accountId);
+        hold.setTransactionId(transaction.getId());
+        hold.setAmount(amount);
+        hold.setCurrency(account.getCurrency());
+        hold.setDescription(transaction.getDescription());
+        hold.setExpiresAt(LocalDateTime.now().plusMinutes(minutes));
+        hold = accountHoldRepository.save(hold);
+        
+        accountService.adjustHeldAmount(accountId, amount);
+        publishTransactionEvent(OutboxService.TRANSACTION_AUTHORIZED, transaction);
+        holdExpiryService.track(hold.getId(), hold.getExpiresAt());
+        return hold;
+    }
+    
+    // Debits up to the authorized amount; whatever isn't captured is released with the hold
+    @RetryOnConflict
+    @Transactional
+    public AccountHold capture(Long holdId, BigDecimal amount) {
+        AccountHold hold = accountHoldRepository.findByIdForUpdate(holdId)
+                .orElseThrow(() -> new RuntimeException("Hold not found with id: " + holdId));
+        if (hold.getStatus() != HoldStatus.ACTIVE) {
+            throw new RuntimeException("Hold is " + hold.getStatus().name().toLowerCase() + " and cannot be captured");
+        }
+        if (!hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("Authorization has expired");
+        }
+        
+        BigDecimal captureAmount = amount != null ? amount : hold.getAmount();
+        validateTransactionAmount(captureAmount, hold.getCurrency());
+        validateCurrencyScale(captureAmount, hold.getCurrency());
+        if (captureAmount.compareTo(hold.getAmount()) > 0) {
+            throw new InvalidAmountException("Capture amount cannot exceed the authorized " + money(hold.getCurrency(), hold.getAmount()));
+        }
+        
+        Account account = accountService.getAccountForPosting(hold.getAccountId());
+        validateAccountStatus(account);
+        
+        // Release the full reservation before debiting, so the capture isn't counted twice
+        accountService.adjustHeldAmount(hold.getAccountId(), hold.getAmount().negate());
+        accountService.deductBalance(hold.getAccountId(), captureAmount);
+        
+        // A new posting rather than completing the authorization in place: reconciliation only
+        // reads COMPLETED rows above its watermark, and the authorization is older than that
+        Transaction authorization = getTransactionById(hold.getTransactionId());
+        authorization.setTransactionStatus(TransactionStatus.CAPTURED);
+        authorization = transactionRepository.save(authorization);
+        
+        Transaction transaction = new Transaction();
+        transaction.setTransactionReference(generateTransactionReference());
+        transaction.setTransactionType(TransactionType.PAYMENT);
+        transaction.setAmount(captureAmount);
+        transaction.setDescription(hold.getDescription());
+        transaction.setCurrency(hold.getCurrency());
+        transaction.setFromAccount(account);
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setBalanceAfterTransaction(accountService.getAccountBalance(hold.getAccountId()));
+        transaction = transactionRepository.save(transaction);
+        
+        hold.setCapturedAmount(captureAmount);
+        hold.setCaptureTransactionId(transaction.getId());
+        hold.setStatus(HoldStatus.CAPTURED);
+        hold = accountHoldRepository.save(hold);
+        
+        publishTransactionEvent(OutboxService.TRANSACTION_STATUS_CHANGED, authorization);
+        publishTransactionEvent(OutboxService.TRANSACTION_POSTED, transaction);
+        holdExpiryService.untrack(holdId);
+        return hold;
+    }
+    
+    @RetryOnConflict
+    @Transactional
+    public AccountHold voidHold(Long holdId) {
+        AccountHold hold = accountHoldRepository.findByIdForUpdate(holdId)
+                .orElseThrow(() -> new RuntimeException("Hold not found with id: " + holdId));
+        if (hold.getStatus() != HoldStatus.ACTIVE) {
+            throw new RuntimeException("Hold is " + hold.getStatus().name().toLowerCase() + " and cannot be voided");
+        }
+        
+        accountService.adjustHeldAmount(hold.getAccountId(), hold.getAmount().negate());
+        hold.setStatus(HoldStatus.VOIDED);
+        hold = accountHoldRepository.save(hold);
+        
+        Transaction transaction = getTransactionById(hold.getTransactionId());
+        transaction.setTransactionStatus(TransactionStatus.CANCELLED);
+        transaction.setFailureReason("Authorization voided");
+        transaction = transactionRepository.save(transaction);
+        
+        publishTransactionEvent(OutboxService.TRANSACTION_STATUS_CHANGED, transaction);
+        holdExpiryService.untrack(holdId);
+        return hold;
+    }
+    
+    @Transactional(readOnly = true)
+    public AccountHold getHold(Long holdId) {
+        return accountHoldRepository.findById(holdId)
+                .orElseThrow(() -> new RuntimeException("Hold not found with id: " + holdId));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AccountHold> getActiveHolds(Long accountId) {
+        return accountHoldRepository.findByAccountIdAndStatusOrderByCreatedAtDesc(accountId, HoldStatus.ACTIVE);
     }
     
+    @Transactional(readOnly = true)
     public Transaction getTransactionById(Long id) {
         return transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
     }
     
+    @Transactional(readOnly = true)
     public Transaction getTransactionByReference(String reference) {
         return transactionRepository.findByTransactionReference(reference)
                 .orElseThrow(() -> new RuntimeException("Transaction not found with reference: " + reference));
     }
     
     // Get transactions by bank ID
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByBankId(Long bankId) {
-        return transactionRepository.findByBankId(bankId);
+        LocalDateTime since = getHistoryStart();
+        return since != null
+                ? transactionRepository.findByBankIdSince(bankId, since)
+                : transactionRepository.findByBankId(bankId);
     }
-
+    
+    @Transactional(readOnly = true)
     public List<Transaction> getAllTransactions() {
         return transactionRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByAccountId(Long accountId) {
         return transactionRepository.findByAccountId(accountId);
     }
     
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByAccountIdOrderByDate(Long accountId) {
-        return transactionRepository.findByAccountIdOrderByCreatedAtDesc(accountId);
+        LocalDateTime since = getHistoryStart();
+        return since != null
+                ? transactionRepository.findByAccountIdSinceOrderByCreatedAtDesc(accountId, since)
+                : transactionRepository.findByAccountIdOrderByCreatedAtDesc(accountId);
     }
     
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByUserId(Long userId) {
-        return transactionRepository.findByUserId(userId);
+        LocalDateTime since = getHistoryStart();
+        return since != null
+                ? transactionRepository.findByUserIdSince(userId, since)
+                : transactionRepository.findByUserId(userId);
     }
     
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByType(TransactionType type) {
         return transactionRepository.findByTransactionType(type);
     }
     
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByStatus(TransactionStatus status) {
         return transactionRepository.findByTransactionStatus(status);
     }
     
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByDateRange(Long accountId, LocalDateTime startDate, LocalDateTime endDate) {
         return transactionRepository.findByAccountIdAndDateRange(accountId, startDate, endDate);
     }
     
+    @RetryOnConflict
+    @Transactional
     public Transaction updateTransactionStatus(Long id, TransactionStatus status) {
         Transaction transaction = getTransactionById(id);
+        // An authorization's status follows its hold, or held_amount would drift
+        if (accountHoldRepository.findByTransactionId(id).isPresent()) {
+            throw new RuntimeException("Authorizations are settled by capturing or voiding their hold");
+        }
         transaction.setTransactionStatus(status);
-        return transactionRepository.save(transaction);
+        transaction = transactionRepository.save(transaction);
+        touchAccounts(transaction);
+        publishTransactionEvent(OutboxService.TRANSACTION_STATUS_CHANGED, transaction);
+        return transaction;
     }
     
+    @RetryOnConflict
+    @Transactional
     public Transaction cancelTransaction(Long id) {
         Transaction transaction = getTransactionById(id);
         
         if (transaction.getTransactionStatus() == TransactionStatus.COMPLETED) {
-            throw new RuntimeException("Cannot cancel completed transaction");
+            throw new RuntimeException("Cannot cancel completed transaction; refund it instead");
+        }
+        
+        // Cancelling an authorization releases its hold
+        AccountHold hold = accountHoldRepository.findByTransactionId(id).orElse(null);
+        if (hold != null && hold.getStatus() == HoldStatus.ACTIVE) {
+            voidHold(hold.getId());
+            return getTransactionById(id);
         }
         
         transaction.setTransactionStatus(TransactionStatus.CANCELLED);
-        return transactionRepository.save(transaction);
+        transaction = transactionRepository.save(transaction);
+        touchAccounts(transaction);
+        publishTransactionEvent(OutboxService.TRANSACTION_STATUS_CHANGED, transaction);
+        return transaction;
     }
     
+    @Transactional(readOnly = true)
     public Long getAccountIdByAccountNumber(String accountNumber) {
         Account account = accountService.getAccountByNumber(accountNumber);
         return account.getId();
@@ -256,24 +558,87 @@ public class TransactionService {
         return reference;
     }
     
-    // Validation helper methods
-    private void validateTransactionAmount(BigDecimal amount) {
+    // Keeps a FAILED transaction with the reason for review, then rejects the posting
+    private void recordDeclined(TransactionType type, Account fromAccount, Account toAccount, BigDecimal amount,
+                                String description, String reason) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionReference(generateTransactionReference());
+        transaction.setTransactionType(type);
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setCurrency(fromAccount.getCurrency());
+        transaction.setFromAccount(fromAccount);
+        transaction.setToAccount(toAccount);
+        transaction.setTransactionStatus(TransactionStatus.FAILED);
+        transaction.setFailureReason(reason);
+        transaction = transactionRepository.save(transaction);
+        touchAccounts(transaction);
+        outboxService.recordTransactionEvent(OutboxService.TRANSACTION_DECLINED, transaction);
+        throw new RiskDeclinedException("Transaction declined: " + reason);
+    }
+    
+    // Postings write their account rows anyway; status-only changes and declines touch them
+    // so the accounts' updated_at, which history ETags derive from, still moves
+    private void touchAccounts(Transaction transaction) {
+        List<Long> accountIds = new ArrayList<>(2);
+        if (transaction.getFromAccount() != null) {
+            accountIds.add(transaction.getFromAccount().getId());
+        }
+        if (transaction.getToAccount() != null) {
+            accountIds.add(transaction.getToAccount().getId());
+        }
+        accountService.touchAccounts(accountIds);
+    }
+    
+    // Null when history isn't windowed
+    public LocalDateTime getHistoryStart() {
+        return historyWindowDays > 0 ? LocalDate.now().minusDays(historyWindowDays).atStartOfDay() : null;
+    }
+    
+    // Durable outbox record plus in-process notification (delivered after commit)
+    private void publishTransactionEvent(String eventType, Transaction transaction) {
+        if (OutboxService.TRANSACTION_POSTED.equals(eventType)) {
+            postingJournal.record(transaction);
+        }
+        outboxService.recordTransactionEvent(eventType, transaction);
+        eventPublisher.publishEvent(new TransactionPostedEvent(transaction));
+    }
+    
+    // Validation helper methods; returns the amount in minor units for the limit checks
+    public Money validateTransactionAmount(BigDecimal amount, String currency) {
         if (amount == null) {
             throw new InvalidAmountException("Transaction amount cannot be null");
         }
         
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount.signum() <= 0) {
             throw new InvalidAmountException("Transaction amount must be greater than zero");
         }
         
-        if (amount.compareTo(MIN_TRANSACTION_AMOUNT) < 0) {
-            throw new InvalidAmountException("Minimum transaction amount is ₹" + MIN_TRANSACTION_AMOUNT);
+        // Check for too many decimal places (max 2); small amounts report the minimum first
+        BigDecimal minimum = getMinTransactionAmount(currency);
+        if (amount.scale() > Money.SCALE) {
+            throw new InvalidAmountException(amount.compareTo(minimum) < 0
+                ? "Minimum transaction amount is " + money(currency, minimum)
+                : "Amount cannot have more than 2 decimal places");
         }
         
-        // Check for too many decimal places (max 2)
-        if (amount.scale() > 2) {
-            throw new InvalidAmountException("Amount cannot have more than 2 decimal places");
+        if (amount.compareTo(minimum) < 0) {
+            throw new InvalidAmountException("Minimum transaction amount is " + money(currency, minimum));
         }
+        return Money.of(amount);
+    }
+    
+    // Yen and similar currencies have no minor unit
+    private void validateCurrencyScale(BigDecimal amount, String currency) {
+        int digits = FxRateService.fractionDigits(currency);
+        if (amount.stripTrailingZeros().scale() > digits) {
+            throw new InvalidAmountException("Amount cannot have more than " + digits + " decimal places in " + currency);
+        }
+    }
+    
+    static String money(String currency, BigDecimal amount) {
+        String formatted = amount.setScale(FxRateService.fractionDigits(currency), RoundingMode.HALF_EVEN).toPlainString();
+        return "INR".equals(currency) ? "₹" + formatted : currency + " " + formatted;
     }
     
     private void validateAccountStatus(Account account) {
@@ -285,49 +650,54 @@ public class TransactionService {
         }
     }
     
-    // Daily limit checking methods
-    private BigDecimal getTodayWithdrawalAmount(Long accountId) {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(23, 59, 59);
-        
-        List<Transaction> todayWithdrawals = transactionRepository
-            .findByFromAccountIdAndTransactionTypeAndCreatedAtBetweenAndTransactionStatus(
-                accountId, TransactionType.WITHDRAWAL, startOfDay, endOfDay, TransactionStatus.COMPLETED
-            );
-        
-        return todayWithdrawals.stream()
-            .map(Transaction::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-    
-    private BigDecimal getTodayTransferAmount(Long accountId) {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(23, 59, 59);
-        
-        List<Transaction> todayTransfers = transactionRepository
-            .findByFromAccountIdAndTransactionTypeAndCreatedAtBetweenAndTransactionStatus(
-                accountId, TransactionType.TRANSFER, startOfDay, endOfDay, TransactionStatus.COMPLETED
-            );
-        
-        return todayTransfers.stream()
-            .map(Transaction::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // What is left of today's limits, from the usage cache rather than a scan of today's postings
+    public Map<String, Object> getRemainingDailyLimits(Long accountId) {
+        Account account = accountService.getAccountById(accountId);
+        LimitPolicyService.LimitRule withdrawal = limitPolicyService.getRule(account, TransactionType.WITHDRAWAL);
+        LimitPolicyService.LimitRule transfer = limitPolicyService.getRule(account, TransactionType.TRANSFER);
+        DailyLimitUsageCache.DailyUsage usage = dailyLimitUsageCache.getUsage(accountId);
+        
+        // A null limit is uncapped, and so is what remains of it
+        Map<String, Object> limits = new LinkedHashMap<>();
+        limits.put("accountId", accountId);
+        limits.put("currency", account.getCurrency());
+        limits.put("dailyWithdrawalLimit", withdrawal.getDailyLimit());
+        limits.put("withdrawnToday", usage.getWithdrawn());
+        limits.put("remainingDailyWithdrawal", remaining(withdrawal.getDailyLimitMoney(), usage.getWithdrawnMoney()));
+        limits.put("dailyTransferLimit", transfer.getDailyLimit());
+        limits.put("transferredToday", usage.getTransferred());
+        limits.put("remainingDailyTransfer", remaining(transfer.getDailyLimitMoney(), usage.getTransferredMoney()));
+        limits.put("maxSingleWithdrawal", withdrawal.getMaxSingleAmount());
+        limits.put("maxSingleTransfer", transfer.getMaxSingleAmount());
+        limits.put("resetsAt", dailyLimitUsageCache.nextReset());
+        return limits;
     }
     
-    // Getters for limits (useful for frontend)
-    public BigDecimal getDailyWithdrawalLimit() {
-        return DAILY_WITHDRAWAL_LIMIT;
+    public static BigDecimal remaining(Money limit, Money used) {
+        return limit != null ? limit.minus(used).max(Money.ZERO).toBigDecimal() : null;
     }
     
-    public BigDecimal getDailyTransferLimit() {
-        return DAILY_TRANSFER_LIMIT;
+    // Whether the account was loaded for posting under a row lock
+    private boolean locksRows(Account account) {
+        Long bankId = account.getBank() != null ? account.getBank().getId() : null;
+        return lockingStrategyService.getStrategy(bankId) == LockingStrategy.PESSIMISTIC;
     }
     
-    public BigDecimal getMaxSingleTransactionLimit() {
-        return MAX_SINGLE_TRANSACTION;
+    private static boolean exceeds(Money amount, Money limit) {
+        return limit != null && amount.isGreaterThan(limit);
     }
     
+    // Daily and single-transaction caps live in LimitPolicyService
     public BigDecimal getMinTransactionAmount() {
         return MIN_TRANSACTION_AMOUNT;
     }
+    
+    // The base-currency minimum at the current rate, and never below the currency's smallest unit
+    public BigDecimal getMinTransactionAmount(String currency) {
+        if (currency == null || currency.equals(fxRateService.getBaseCurrency())) {
+            return MIN_TRANSACTION_AMOUNT;
+        }
+        BigDecimal smallestUnit = BigDecimal.ONE.movePointLeft(FxRateService.fractionDigits(currency));
+        return fxRateService.fromBaseCurrency(MIN_TRANSACTION_AMOUNT, currency).max(smallestUnit);
+    }
 }
@@ -0,0 +1,332 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over user name, username, email and phone, one per bank.
+ * Supports prefix, infix and fuzzy (trigram similarity) matching with ranked results.
+ * Built lazily from the database on a bank's first search and kept current by UserService.
+ */
+@Component
+public class UserSearchIndex {
+    
+    // Scores: exact field match > prefix > infix > fuzzy
+    private static final double EXACT_SCORE = 4.0;
+    private static final double PREFIX_SCORE = 3.0;
+    private static final double INFIX_SCORE = 2.0;
+    
+    private final Map<Long, BankIndex> indexes = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    // Minimum share of query trigrams a fuzzy match must contain
+    @Value("${search.users.fuzzy-threshold:0.5}")
+    private double fuzzyThreshold;
+    
+    public static class SearchResult {
+        private final List<Long> userIds;
+        private final int total;
+        
+        SearchResult(List<Long> userIds, int total) {
+            this.userIds = userIds;
+            this.total = total;
+        }
+        
+        public List<Long> getUserIds() { return userIds; }
+        public int getTotal() { return total; }
+    }
+    
+    public SearchResult search(Long bankId, String query, int page, int size) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+        
+        BankIndex index = getOrLoad(bankId);
+        index.lock.readLock().lock();
+        try {
+            return index.search(normalized, Math.max(0, page), Math.max(1, size), fuzzyThreshold);
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+    
+    public void index(User user) {
+        if (user.getBank() == null || user.getId() == null) {
+            return;
+        }
+        // Banks that were never searched are built from the database on first use
+        BankIndex index = indexes.get(user.getBank().getId());
+        if (index == null) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            index.upsert(user.getId(), user.getFirstName(), user.getLastName(),
+                    user.getUsername(), user.getEmail(), user.getPhoneNumber());
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long bankId, Long userId) {
+        BankIndex index = bankId != null ? indexes.get(bankId) : null;
+        if (index == null) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            index.delete(userId);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+    
+    // Drops a bank's index so the next search rebuilds it from the database
+    public void invalidate(Long bankId) {
+        indexes.remove(bankId);
+    }
+    
+    private BankIndex getOrLoad(Long bankId) {
+        BankIndex existing = indexes.get(bankId);
+        if (existing != null) {
+            return existing;
+        }
+        
+        BankIndex created = new BankIndex();
+        // Hold the write lock while loading so concurrent updates wait and then apply on top
+        created.lock.writeLock().lock();
+        try {
+            BankIndex raced = indexes.putIfAbsent(bankId, created);
+            if (raced != null) {
+                return raced;
+            }
+            for (Object[] row : userRepository.findSearchFieldsByBankId(bankId)) {
+                created.upsert((Long) row[0], (String) row[1], (String) row[2],
+                        (String) row[3], (String) row[4], (String) row[5]);
+            }
+            return created;
+        } catch (RuntimeException e) {
+            indexes.remove(bankId, created);
+            throw e;
+        } finally {
+            created.lock.writeLock().unlock();
+        }
+    }
+    
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+    
+    private static String digitsOnly(String value) {
+        return value == null ? "" : value.replaceAll("[^0-9]", "");
+    }
+    
+    // Word-start markers let one- and two-character queries match as prefixes
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : text.split("[ @._+-]")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "$$" + word;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+    
+    private static Set<String> queryTrigrams(String query) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : query.split("[ @._+-]")) {
+            if (word.length() >= 3) {
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    grams.add(word.substring(i, i + 3));
+                }
+            } else if (!word.isEmpty()) {
+                // Too short for infix grams: match word starts only
+                grams.add(("$$" + word).substring(word.length() - 1));
+            }
+        }
+        return grams;
+    }
+    
+    private static final class UserDoc {
+        final long userId;
+        final String[] fields;
+        final String sortKey;
+        
+        UserDoc(long userId, String[] fields, String sortKey) {
+            this.userId = userId;
+            this.fields = fields;
+            this.sortKey = sortKey;
+        }
+    }
+    
+    // Append-only posting lists of dense doc numbers; deletes are tombstoned and compacted later
+    private static final class BankIndex {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final List<UserDoc> docs = new ArrayList<>();
+        final Map<Long, Integer> docByUser = new HashMap<>();
+        final Map<String, IntList> postings = new HashMap<>();
+        final BitSet deleted = new BitSet();
+        
+        void upsert(Long userId, String firstName, String lastName, String username, String email, String phone) {
+            delete(userId);
+            
+            String name = normalize((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName));
+            String[] fields = { name, normalize(username), normalize(email), digitsOnly(phone) };
+            int doc = docs.size();
+            docs.add(new UserDoc(userId, fields, name));
+            docByUser.put(userId, doc);
+            
+            Set<String> grams = new LinkedHashSet<>();
+            for (String field : fields) {
+                grams.addAll(trigrams(field));
+            }
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+            }
+        }
+        
+        void delete(Long userId) {
+            Integer doc = docByUser.remove(userId);
+            if (doc == null) {
+                return;
+            }
+            deleted.set(doc);
+            docs.set(doc, null);
+            if (deleted.cardinality() > 1024 && deleted.cardinality() > docs.size() / 3) {
+                compact();
+            }
+        }
+        
+        SearchResult search(String query, int page, int size, double fuzzyThreshold) {
+            Set<String> grams = queryTrigrams(query);
+            String digits = digitsOnly(query);
+            boolean numeric = !digits.isEmpty() && digits.length() == query.replaceAll("[\\s()+-]", "").length();
+            if (numeric && digits.length() >= 3) {
+                grams.addAll(queryTrigrams(digits));
+            }
+            
+            // Count shared trigrams per doc
+            Map<Integer, Integer> hits = new HashMap<>();
+            for (String gram : grams) {
+                IntList list = postings.get(gram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.values[i];
+                    if (!deleted.get(doc)) {
+                        hits.merge(doc, 1, Integer::sum);
+                    }
+                }
+            }
+            
+            List<double[]> scored = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> hit : hits.entrySet()) {
+                UserDoc doc = docs.get(hit.getKey());
+                double score = score(doc, query, numeric ? digits : null);
+                if (score == 0 && query.length() < 3) {
+                    // A short query only hits through a word-start gram
+                    score = PREFIX_SCORE;
+                } else if (score == 0) {
+                    double similarity = (double) hit.getValue() / grams.size();
+                    if (hit.getValue() < 2 || similarity < fuzzyThreshold) {
+                        continue;
+                    }
+                    score = similarity;
+                }
+                scored.add(new double[] { score, hit.getKey() });
+            }
+            
+            scored.sort((a, b) -> {
+                int byScore = Double.compare(b[0], a[0]);
+                return byScore != 0 ? byScore : docs.get((int) a[1]).sortKey.compareTo(docs.get((int) b[1]).sortKey);
+            });
+            
+            List<Long> userIds = new ArrayList<>();
+            int from = Math.min(page * size, scored.size());
+            int to = Math.min(from + size, scored.size());
+            for (double[] entry : scored.subList(from, to)) {
+                userIds.add(docs.get((int) entry[1]).userId);
+            }
+            return new SearchResult(userIds, scored.size());
+        }
+        
+        private static double score(UserDoc doc, String query, String digits) {
+            double best = 0;
+            for (int i = 0; i < doc.fields.length; i++) {
+                String field = doc.fields[i];
+                String needle = i == 3 ? digits : query;
+                if (needle == null || needle.isEmpty() || field.isEmpty()) {
+                    continue;
+                }
+                if (field.equals(needle)) {
+                    best = Math.max(best, EXACT_SCORE);
+                } else if (field.startsWith(needle) || field.contains(" " + needle)) {
+                    best = Math.max(best, PREFIX_SCORE);
+                } else if (field.contains(needle)) {
+                    best = Math.max(best, INFIX_SCORE);
+                }
+            }
+            return best;
+        }
+        
+        private void compact() {
+            List<UserDoc> live = new ArrayList<>();
+            for (UserDoc doc : docs) {
+                if (doc != null) {
+                    live.add(doc);
+                }
+            }
+            docs.clear();
+            docByUser.clear();
+            postings.clear();
+            deleted.clear();
+            for (UserDoc doc : live) {
+                int number = docs.size();
+                docs.add(doc);
+                docByUser.put(doc.userId, number);
+                Set<String> grams = new LinkedHashSet<>();
+                for (String field : doc.fields) {
+                    grams.addAll(trigrams(field));
+                }
+                for (String gram : grams) {
+                    postings.computeIfAbsent(gram, g -> new IntList()).add(number);
+                }
+            }
+        }
+    }
+    
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
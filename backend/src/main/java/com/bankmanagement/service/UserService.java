@@ -1,25 +1,39 @@
 package com.bankmanagement.service;
 
+import com.bankmanagement.model.Role;
 import com.bankmanagement.model.User;
 import com.bankmanagement.repository.UserRepository;
+import com.bankmanagement.repository.UserSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -27,15 +41,37 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
     
+    // Called by the authentication provider after a login whose stored hash uses an outdated encoder or cost
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = getUserByUsername(userDetails.getUsername());
+        user.setPassword(newPassword);
+        return userRepository.save(user);
+    }
+    
     // Get users by bank ID
+    @Transactional(readOnly = true)
     public List<User> getUsersByBankId(Long bankId) {
         return userRepository.findByBankId(bankId);
     }
 
     // Get active users by bank ID
+    @Transactional(readOnly = true)
     public List<User> getActiveUsersByBankId(Long bankId) {
         return userRepository.findByBankIdAndIsActiveTrue(bankId);
     }
+    
+    // Filtered, paged admin listing; null filters are ignored
+    @Transactional(readOnly = true)
+    public Page<User> getUsersByBankId(Long bankId, Boolean active, Role role,
+                                       LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable) {
+        Specification<User> specification = Specification.where(UserSpecifications.inBank(bankId))
+                .and(UserSpecifications.isActive(active))
+                .and(UserSpecifications.hasRole(role))
+                .and(UserSpecifications.createdBetween(createdFrom, createdTo));
+        return userRepository.findAll(specification, pageable);
+    }
 
     public User createUser(User user) {
         if (userRepository.existsByUsername(user.getUsername())) {
@@ -45,8 +81,10 @@ public class UserService implements UserDetailsService {
             throw new RuntimeException("Email already exists");
         }
         
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
+        User savedUser = userRepository.save(user);
+        userSearchIndex.index(savedUser);
+        return savedUser;
     }
     
     public User updateUser(Long id, User userDetails) {
@@ -71,65 +109,94 @@ public class UserService implements UserDetailsService {
         user.setRole(userDetails.getRole());
         user.setActive(userDetails.isActive());
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSearchIndex.index(savedUser);
+        return savedUser;
     }
     
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
     
+    @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
     }
     
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
     }
     
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public List<User> getActiveUsers() {
         return userRepository.findByIsActiveTrue();
     }
     
+    @Transactional(readOnly = true)
     public List<User> getInactiveUsers() {
         return userRepository.findByIsActiveFalse();
     }
     
+    @Transactional(readOnly = true)
     public List<User> searchUsersByName(String name) {
         return userRepository.findByNameContaining(name);
     }
     
+    // Ranked search over name, username, email and phone within one bank
+    @Transactional(readOnly = true)
+    public Page<User> searchUsers(Long bankId, String query, int page, int size) {
+        UserSearchIndex.SearchResult result = userSearchIndex.search(bankId, query, page, size);
+        Map<Long, User> usersById = userRepository.findAllById(result.getUserIds()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<User> users = result.getUserIds().stream()
+                .map(usersById::get)
+                .filter(user -> user != null)
+                .collect(Collectors.toList());
+        return new PageImpl<>(users, PageRequest.of(page, size), result.getTotal());
+    }
+    
     public void deleteUser(Long id) {
         User user = getUserById(id);
         userRepository.delete(user);
+        if (user.getBank() != null) {
+            userSearchIndex.remove(user.getBank().getId(), user.getId());
+        }
     }
     
     public User deactivateUser(Long id) {
         User user = getUserById(id);
         user.setActive(false);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSearchIndex.index(savedUser);
+        return savedUser;
     }
     
     public User activateUser(Long id) {
         User user = getUserById(id);
         user.setActive(true);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSearchIndex.index(savedUser);
+        return savedUser;
     }
     
     public boolean changePassword(Long id, String currentPassword, String newPassword) {
         User user = getUserById(id);
         
-        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+        if (!passwordHashingService.matches(currentPassword, user.getPassword())) {
             return false;
         }
         
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.encode(newPassword));
         userRepository.save(user);
         return true;
     }
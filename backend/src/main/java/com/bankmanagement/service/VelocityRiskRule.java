@@ -0,0 +1,25 @@
+package com.bankmanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Declines once an account has made max-postings outgoing postings within window-seconds
+@Component
+@Order(1)
+public class VelocityRiskRule implements RiskRule {
+    
+    @Value("${risk.velocity.max-postings:20}")
+    private int maxPostings;
+    
+    @Value("${risk.velocity.window-seconds:60}")
+    private long windowSeconds;
+    
+    @Override
+    public String evaluate(RiskCheck check, AccountRiskWindow window) {
+        if (window.countPostedSince(check.getTimestamp() - windowSeconds * 1000) >= maxPostings) {
+            return String.format("Velocity limit reached: %d postings in %d seconds", maxPostings, windowSeconds);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,75 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Brings transactions_archive up to the columns V5-V14 gave transactions. The archive only exists
+ * where db/partitioning/partition_transactions.sql was run, and it was created LIKE transactions at
+ * that point, so which columns it lacks depends on when; a Java migration can check instead of
+ * failing on columns that are already there. Without them TransactionPartitionService can't copy
+ * a partition before dropping it.
+ *
+ * A later migration that adds a column to transactions must add it to transactions_archive
+ * (when present) as well, and to TransactionPartitionService.ARCHIVE_COLUMNS.
+ */
+public class V15__Archive_transaction_columns extends BaseJavaMigration {
+    
+    private static final String ARCHIVE_TABLE = "transactions_archive";
+    
+    // Column definitions as the migrations added them to transactions
+    private static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+    
+    static {
+        COLUMNS.put("failure_reason", "VARCHAR(255)");
+        COLUMNS.put("currency", "VARCHAR(3) NOT NULL DEFAULT 'INR'");
+        COLUMNS.put("credited_amount", "DECIMAL(15,2)");
+        COLUMNS.put("credited_currency", "VARCHAR(3)");
+        COLUMNS.put("fx_rate", "DECIMAL(19,8)");
+        COLUMNS.put("fx_rate_version", "BIGINT");
+        COLUMNS.put("original_transaction_id", "BIGINT");
+        COLUMNS.put("refunded_amount", "DECIMAL(15,2) NOT NULL DEFAULT 0");
+        COLUMNS.put("version", "BIGINT NOT NULL DEFAULT 0");
+    }
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        Set<String> existing = archiveColumns(connection.getMetaData(), connection.getCatalog());
+        if (existing.isEmpty()) {
+            return;
+        }
+        
+        try (Statement statement = connection.createStatement()) {
+            // V5: an archive created from a Hibernate enum column can't hold the newer types
+            statement.execute("ALTER TABLE " + ARCHIVE_TABLE + " MODIFY transaction_type VARCHAR(32) NOT NULL");
+            for (Map.Entry<String, String> column : COLUMNS.entrySet()) {
+                if (!existing.contains(column.getKey())) {
+                    statement.execute("ALTER TABLE " + ARCHIVE_TABLE + " ADD COLUMN " + column.getKey() + " " + column.getValue());
+                }
+            }
+        }
+    }
+    
+    // Lower-cased column names, empty when there is no archive table
+    private static Set<String> archiveColumns(DatabaseMetaData metaData, String catalog) throws Exception {
+        Set<String> columns = new HashSet<>();
+        for (String table : new String[] { ARCHIVE_TABLE, ARCHIVE_TABLE.toUpperCase() }) {
+            try (ResultSet rs = metaData.getColumns(catalog, null, table, null)) {
+                while (rs.next()) {
+                    columns.add(rs.getString("COLUMN_NAME").toLowerCase());
+                }
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,22 @@
+-- Transaction limits per bank and account type, compiled into memory by LimitPolicyService.
+-- NULL bank_id / account_type match any bank / account type; NULL limits inherit from the
+-- less specific policy (no value at any level means uncapped).
+CREATE TABLE IF NOT EXISTS limit_policies (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    bank_id BIGINT,
+    account_type VARCHAR(32),
+    transaction_type VARCHAR(32) NOT NULL,
+    daily_limit DECIMAL(15,2),
+    max_single_amount DECIMAL(15,2),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_limit_policies_scope UNIQUE (bank_id, account_type, transaction_type),
+    CONSTRAINT fk_limit_policies_bank FOREIGN KEY (bank_id) REFERENCES banks (id)
+);
+
+-- The limits TransactionService used to hardcode, as the all-banks defaults
+INSERT INTO limit_policies (bank_id, account_type, transaction_type, daily_limit, max_single_amount, created_at, updated_at) VALUES
+    (NULL, NULL, 'DEPOSIT', NULL, 100000.00, NOW(6), NOW(6)),
+    (NULL, NULL, 'WITHDRAWAL', 50000.00, 100000.00, NOW(6), NOW(6)),
+    (NULL, NULL, 'TRANSFER', 100000.00, 100000.00, NOW(6), NOW(6));
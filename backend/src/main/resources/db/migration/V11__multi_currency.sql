@@ -0,0 +1,19 @@
+-- ISO 4217 currency per account; existing balances are rupees
+ALTER TABLE accounts ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'INR';
+
+-- amount is in the source (or only) account's currency; a cross-currency transfer also
+-- records what the destination was credited and the rate used
+ALTER TABLE transactions ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'INR';
+ALTER TABLE transactions ADD COLUMN credited_amount DECIMAL(15,2);
+ALTER TABLE transactions ADD COLUMN credited_currency VARCHAR(3);
+ALTER TABLE transactions ADD COLUMN fx_rate DECIMAL(19,8);
+ALTER TABLE transactions ADD COLUMN fx_rate_version BIGINT;
+
+-- Rate source for FxRateService when fx.rates.source=db: 1 base_currency = rate quote_currency
+CREATE TABLE IF NOT EXISTS fx_rates (
+    base_currency VARCHAR(3) NOT NULL,
+    quote_currency VARCHAR(3) NOT NULL,
+    rate DECIMAL(19,8) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (base_currency, quote_currency)
+);
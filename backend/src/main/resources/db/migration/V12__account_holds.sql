@@ -0,0 +1,36 @@
+-- Running total of ACTIVE holds per account, so available balance (balance - held_amount)
+-- is read off the row instead of summing holds on every posting
+ALTER TABLE accounts ADD COLUMN held_amount DECIMAL(15,2) NOT NULL DEFAULT 0;
+
+-- Card-style authorizations: funds reserved until captured, voided or expired.
+-- transaction_id is the PENDING PAYMENT that records the authorization; a capture posts its own
+-- COMPLETED PAYMENT (capture_transaction_id) so reconciliation's watermark sees it.
+-- Neither has a foreign key: MySQL can't keep one that references a partitioned table, and one
+-- would block DROP PARTITION. TransactionService writes the hold and its postings in one
+-- transaction, and TransactionPartitionService never drops a partition holding an ACTIVE hold's
+-- authorization.
+CREATE TABLE IF NOT EXISTS account_holds (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    account_id BIGINT NOT NULL,
+    transaction_id BIGINT NOT NULL,
+    capture_transaction_id BIGINT,
+    amount DECIMAL(15,2) NOT NULL,
+    captured_amount DECIMAL(15,2),
+    currency VARCHAR(3) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    description VARCHAR(500),
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_account_holds_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
+
+-- HoldExpiryService: ACTIVE holds by expiry, for loading the expiry index
+CREATE INDEX idx_account_holds_expiry ON account_holds (status, expires_at);
+
+-- AccountHoldRepository.findByAccountIdAndStatusOrderByCreatedAtDesc
+CREATE INDEX idx_account_holds_account ON account_holds (account_id, status, created_at);
+
+-- AccountHoldRepository.findByTransactionId
+CREATE INDEX idx_account_holds_transaction ON account_holds (transaction_id);
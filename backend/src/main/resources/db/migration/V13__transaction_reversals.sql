@@ -0,0 +1,10 @@
+-- REFUND postings point at the transaction they compensate; the original keeps a running
+-- total so partial refunds can never add up to more than it moved.
+-- No foreign key: a self-reference can't stay once transactions is partitioned, and would block
+-- DROP PARTITION. ReversalService only writes original_transaction_id for an original it has
+-- read and locked in the same transaction, which also keeps the original's partition in place.
+ALTER TABLE transactions ADD COLUMN original_transaction_id BIGINT;
+ALTER TABLE transactions ADD COLUMN refunded_amount DECIMAL(15,2) NOT NULL DEFAULT 0;
+
+-- TransactionRepository.findByOriginalTransactionIdOrderByCreatedAtAsc
+CREATE INDEX idx_transactions_original ON transactions (original_transaction_id, created_at);
@@ -0,0 +1,8 @@
+-- JPA version columns: every entity update checks and bumps them, and the JDBC batch paths
+-- bump them too, so an entity read before a batch update can't be saved over it
+ALTER TABLE accounts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE transactions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- How postings on a bank's accounts serialize: row locks (PESSIMISTIC) or version checks
+-- with retries (OPTIMISTIC)
+ALTER TABLE banks ADD COLUMN locking_strategy VARCHAR(20) NOT NULL DEFAULT 'PESSIMISTIC';
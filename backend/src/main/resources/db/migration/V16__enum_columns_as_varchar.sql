@@ -0,0 +1,7 @@
+-- ddl-auto is now validate, and the entities map enums to VARCHAR. Tables created by Hibernate
+-- before Flyway still use native ENUMs for these (V5 already widened transaction_type);
+-- on Flyway-created schemas this restates the V1 definitions.
+ALTER TABLE users MODIFY role VARCHAR(32) NOT NULL;
+ALTER TABLE accounts MODIFY account_type VARCHAR(32) NOT NULL;
+ALTER TABLE accounts MODIFY account_status VARCHAR(32) NOT NULL;
+ALTER TABLE transactions MODIFY transaction_status VARCHAR(32) NOT NULL;
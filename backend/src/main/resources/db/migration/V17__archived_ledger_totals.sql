@@ -0,0 +1,10 @@
+-- Per-account net of the COMPLETED postings in each partition archived out of transactions,
+-- written before the partition is dropped. Full reconciliation runs start each ledger from the
+-- totals of partitions that are gone, since their rows are no longer in transactions.
+CREATE TABLE IF NOT EXISTS archived_ledger_totals (
+    partition_name VARCHAR(64) NOT NULL,
+    account_id BIGINT NOT NULL,
+    ledger_total DECIMAL(19,2) NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (partition_name, account_id)
+);
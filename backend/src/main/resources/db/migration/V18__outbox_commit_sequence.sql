@@ -0,0 +1,21 @@
+-- Outbox ids are taken at insert, so a long transaction can commit an id below events a consumer
+-- has already passed. The relay numbers events once they are committed (NULL until then), in
+-- commit order, and consumers read and acknowledge by that number instead of by id.
+ALTER TABLE outbox_events ADD COLUMN sequence_number BIGINT NULL;
+
+-- Everything already here is committed; numbering it by id keeps existing offsets valid
+UPDATE outbox_events SET sequence_number = id;
+
+CREATE UNIQUE INDEX idx_outbox_events_sequence ON outbox_events (sequence_number);
+
+ALTER TABLE outbox_consumer_offsets RENAME COLUMN last_event_id TO last_sequence_number;
+
+-- Single row holding the last number handed out; locked while numbering so only one relay numbers at a time
+CREATE TABLE IF NOT EXISTS outbox_sequencer (
+    id INT NOT NULL,
+    last_sequence_number BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO outbox_sequencer (id, last_sequence_number)
+SELECT 1, COALESCE(MAX(id), 0) FROM outbox_events;
@@ -0,0 +1,87 @@
+-- Baseline schema matching what spring.jpa.hibernate.ddl-auto=update created.
+-- Existing databases are baselined at version 0, so this runs everywhere; IF NOT EXISTS
+-- makes it a no-op on schemas Hibernate already created.
+
+CREATE TABLE IF NOT EXISTS banks (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    bank_code VARCHAR(255) NOT NULL,
+    bank_name VARCHAR(255) NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    contact_number VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    is_active BIT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_banks_bank_code UNIQUE (bank_code)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(50) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255) NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    role VARCHAR(32) NOT NULL,
+    bank_id BIGINT NOT NULL,
+    is_active BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT fk_users_bank FOREIGN KEY (bank_id) REFERENCES banks (id)
+);
+
+CREATE TABLE IF NOT EXISTS accounts (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    account_number VARCHAR(255) NOT NULL,
+    account_type VARCHAR(32) NOT NULL,
+    balance DECIMAL(15,2) NOT NULL,
+    account_status VARCHAR(32) NOT NULL,
+    user_id BIGINT NOT NULL,
+    bank_id BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_accounts_account_number UNIQUE (account_number),
+    CONSTRAINT fk_accounts_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_accounts_bank FOREIGN KEY (bank_id) REFERENCES banks (id)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    transaction_reference VARCHAR(255) NOT NULL,
+    transaction_type VARCHAR(32) NOT NULL,
+    amount DECIMAL(15,2) NOT NULL,
+    description VARCHAR(500),
+    transaction_status VARCHAR(32) NOT NULL,
+    from_account_id BIGINT,
+    to_account_id BIGINT,
+    balance_after_transaction DECIMAL(15,2),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_transactions_reference UNIQUE (transaction_reference),
+    CONSTRAINT fk_transactions_from_account FOREIGN KEY (from_account_id) REFERENCES accounts (id),
+    CONSTRAINT fk_transactions_to_account FOREIGN KEY (to_account_id) REFERENCES accounts (id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_consumer_offsets (
+    consumer_name VARCHAR(100) NOT NULL,
+    last_event_id BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (consumer_name)
+);
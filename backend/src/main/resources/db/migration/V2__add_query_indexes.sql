@@ -0,0 +1,22 @@
+-- Indexes backing the repository queries. Each is named after the query it serves;
+-- IndexVerifier warns at startup when an annotated query has no matching index.
+
+-- AccountRepository.findByBankIdAndAccountStatus / countByBankIdAndAccountStatus
+CREATE INDEX idx_accounts_bank_status ON accounts (bank_id, account_status);
+
+-- AccountRepository.findByUserIdAndAccountStatus
+CREATE INDEX idx_accounts_user_status ON accounts (user_id, account_status);
+
+-- UserRepository.findByBankIdAndIsActiveTrue / countByBankIdAndIsActiveTrue
+CREATE INDEX idx_users_bank_active ON users (bank_id, is_active);
+
+-- TransactionRepository.findByTransactionType / findByTransactionStatus and admin reporting
+CREATE INDEX idx_transactions_type_status_created ON transactions (transaction_type, transaction_status, created_at);
+CREATE INDEX idx_transactions_status_created ON transactions (transaction_status, created_at);
+
+-- TransactionService daily-limit check (from account, type, status, today's window)
+CREATE INDEX idx_transactions_daily_limit ON transactions (from_account_id, transaction_type, transaction_status, created_at);
+
+-- Account history, both directions, newest first
+CREATE INDEX idx_transactions_from_account_created ON transactions (from_account_id, created_at);
+CREATE INDEX idx_transactions_to_account_created ON transactions (to_account_id, created_at);
@@ -0,0 +1,6 @@
+-- Heartbeat row stamped on the primary and read back from the replica to measure lag
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id INT NOT NULL,
+    beat_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,7 @@
+-- Admin listings are paged per bank, newest first by default.
+
+-- UserRepository.findAll(Specification, Pageable) via UserService.getUsersByBankId
+CREATE INDEX idx_users_bank_created ON users (bank_id, created_at);
+
+-- AccountRepository.findAdminAccounts
+CREATE INDEX idx_accounts_bank_created ON accounts (bank_id, created_at);
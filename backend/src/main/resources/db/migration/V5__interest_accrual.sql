@@ -0,0 +1,42 @@
+-- Interest accrual batch job (InterestAccrualService).
+
+-- Tables created by Hibernate before Flyway use a native ENUM for the type; widen it
+-- so new transaction types such as INTEREST can be stored.
+ALTER TABLE transactions MODIFY transaction_type VARCHAR(32) NOT NULL;
+
+-- Per-account carry of sub-cent interest and the last day accrued (makes accrual idempotent per day)
+CREATE TABLE IF NOT EXISTS interest_accruals (
+    account_id BIGINT NOT NULL,
+    carry DECIMAL(25,10) NOT NULL,
+    last_accrual_date DATE NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (account_id)
+);
+
+-- One run per accrual date
+CREATE TABLE IF NOT EXISTS interest_runs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    accrual_date DATE NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    accounts_processed BIGINT NOT NULL,
+    interest_posted DECIMAL(19,2) NOT NULL,
+    started_at DATETIME(6) NOT NULL,
+    finished_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_interest_runs_date UNIQUE (accrual_date)
+);
+
+-- Account-id ranges worked in parallel; last_account_id is the restart checkpoint
+CREATE TABLE IF NOT EXISTS interest_run_partitions (
+    run_id BIGINT NOT NULL,
+    partition_no INT NOT NULL,
+    from_account_id BIGINT NOT NULL,
+    to_account_id BIGINT NOT NULL,
+    last_account_id BIGINT NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (run_id, partition_no)
+);
+
+-- Keyset scan of active savings accounts
+CREATE INDEX idx_accounts_type_status_id ON accounts (account_type, account_status, id);
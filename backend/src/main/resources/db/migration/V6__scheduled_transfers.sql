@@ -0,0 +1,33 @@
+-- Standing orders executed by ScheduledTransferExecutor
+CREATE TABLE IF NOT EXISTS scheduled_transfers (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    from_account_id BIGINT NOT NULL,
+    to_account_id BIGINT NOT NULL,
+    amount DECIMAL(15,2) NOT NULL,
+    description VARCHAR(500),
+    frequency VARCHAR(32) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    start_at DATETIME(6) NOT NULL,
+    end_at DATETIME(6),
+    occurrence_count INT NOT NULL,
+    next_run_at DATETIME(6) NOT NULL,
+    attempts INT NOT NULL,
+    last_error VARCHAR(500),
+    last_transaction_id BIGINT,
+    last_run_at DATETIME(6),
+    lease_owner VARCHAR(100),
+    lease_until DATETIME(6),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_scheduled_transfers_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_scheduled_transfers_from_account FOREIGN KEY (from_account_id) REFERENCES accounts (id),
+    CONSTRAINT fk_scheduled_transfers_to_account FOREIGN KEY (to_account_id) REFERENCES accounts (id)
+);
+
+-- ScheduledTransferRepository.findDueForUpdate: the due queue ordered by next run time
+CREATE INDEX idx_scheduled_transfers_due ON scheduled_transfers (status, next_run_at);
+
+-- ScheduledTransferRepository.findByUserIdOrderByNextRunAtAsc
+CREATE INDEX idx_scheduled_transfers_user ON scheduled_transfers (user_id, next_run_at);
@@ -0,0 +1,2 @@
+-- Why a posting was declined (e.g. by a risk rule); null for successful postings
+ALTER TABLE transactions ADD COLUMN failure_reason VARCHAR(255);
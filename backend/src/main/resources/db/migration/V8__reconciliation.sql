@@ -0,0 +1,40 @@
+-- Balance reconciliation (ReconciliationService).
+
+-- Ledger balance per account as of the run's transaction watermark; incremental runs add to it
+CREATE TABLE IF NOT EXISTS reconciliation_balances (
+    account_id BIGINT NOT NULL,
+    ledger_balance DECIMAL(19,2) NOT NULL,
+    last_transaction_id BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (account_id)
+);
+
+-- One row per run; the highest to_transaction_id of a COMPLETED run is the next run's watermark
+CREATE TABLE IF NOT EXISTS reconciliation_runs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    run_mode VARCHAR(16) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    from_transaction_id BIGINT NOT NULL,
+    to_transaction_id BIGINT NOT NULL,
+    transactions_scanned BIGINT NOT NULL,
+    accounts_checked BIGINT NOT NULL,
+    discrepancies BIGINT NOT NULL,
+    started_at DATETIME(6) NOT NULL,
+    finished_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_reconciliation_runs_status ON reconciliation_runs (status, to_transaction_id);
+
+CREATE TABLE IF NOT EXISTS reconciliation_discrepancies (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    run_id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    ledger_balance DECIMAL(19,2) NOT NULL,
+    account_balance DECIMAL(19,2) NOT NULL,
+    difference DECIMAL(19,2) NOT NULL,
+    detected_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_reconciliation_discrepancies_run ON reconciliation_discrepancies (run_id, account_id);
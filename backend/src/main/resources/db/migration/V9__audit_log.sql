@@ -0,0 +1,17 @@
+-- Admin action audit trail, appended in batches by AuditService
+CREATE TABLE IF NOT EXISTS audit_log (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    bank_id BIGINT,
+    actor_user_id BIGINT,
+    actor_username VARCHAR(255),
+    action VARCHAR(64) NOT NULL,
+    target_type VARCHAR(64) NOT NULL,
+    target_id BIGINT,
+    changes TEXT,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Compliance queries: a bank's trail newest first, optionally for one target
+CREATE INDEX idx_audit_log_bank_created ON audit_log (bank_id, created_at);
+CREATE INDEX idx_audit_log_target ON audit_log (bank_id, target_type, target_id, created_at);
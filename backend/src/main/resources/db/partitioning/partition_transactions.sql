@@ -0,0 +1,66 @@
+-- ============================================
+-- One-off migration: monthly RANGE partitions on transactions.created_at
+-- ============================================
+-- Run once, after the Flyway migrations in db/migration have been applied,
+-- with the application stopped, then set transactions.partitioning.enabled=true.
+--
+-- MySQL requires the partitioning column in every unique key and does not allow
+-- foreign keys on partitioned InnoDB tables, so this script:
+--   1. drops the foreign keys from transactions to accounts (their lookups stay indexed),
+--   2. widens the primary key to (id, created_at),
+--   3. replaces the unique key on transaction_reference with (transaction_reference, created_at),
+--   4. creates the transactions_archive table used by archive tiering,
+--   5. partitions existing rows by month with a catch-all p_future partition.
+-- TransactionPartitionService then keeps future partitions ahead and tiers old ones out.
+
+-- 1. Foreign keys (names differ between Hibernate- and Flyway-created schemas, so look them up)
+SET @fk_sql = (
+    SELECT CONCAT('ALTER TABLE transactions ',
+                  GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', CONSTRAINT_NAME, '`') SEPARATOR ', '))
+    FROM information_schema.TABLE_CONSTRAINTS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND CONSTRAINT_TYPE = 'FOREIGN KEY'
+);
+SET @fk_sql = COALESCE(@fk_sql, 'DO 0');
+PREPARE stmt FROM @fk_sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- The account lookups the foreign keys used are still served by
+-- idx_transactions_from_account_created / idx_transactions_to_account_created (Flyway V2)
+-- No foreign key references transactions: account_holds (V12) and the refunds' self-reference
+-- (V13) are created without one; TransactionService, TransactionPartitionService and
+-- ReversalService check those links instead. A migration must not add one, or this ALTER and every later
+-- DROP PARTITION fail.
+
+-- 2 + 3. Keys must include created_at
+SET @uk_sql = (
+    SELECT CONCAT('ALTER TABLE transactions DROP INDEX `', INDEX_NAME, '`')
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions'
+      AND COLUMN_NAME = 'transaction_reference' AND NON_UNIQUE = 0
+    LIMIT 1
+);
+SET @uk_sql = COALESCE(@uk_sql, 'DO 0');
+PREPARE stmt FROM @uk_sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ALTER TABLE transactions
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at),
+    ADD UNIQUE KEY uk_transactions_reference_created (transaction_reference, created_at);
+
+-- 4. Archive table: same columns, not partitioned, no auto increment.
+--    Flyway migrations that add columns to transactions add them here too (see V15),
+--    and TransactionPartitionService copies rows by an explicit column list.
+CREATE TABLE IF NOT EXISTS transactions_archive LIKE transactions;
+ALTER TABLE transactions_archive MODIFY id BIGINT NOT NULL;
+
+-- 5. Initial partitions. Add one line per month that already holds data;
+--    the maintenance job creates the following months automatically.
+--    Partition names are p<yyyyMM>; each holds rows created before the first day of the next month.
+ALTER TABLE transactions
+PARTITION BY RANGE (TO_DAYS(created_at)) (
+    PARTITION p_history VALUES LESS THAN (TO_DAYS('2025-01-01')),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
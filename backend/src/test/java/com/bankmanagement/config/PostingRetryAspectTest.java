@@ -0,0 +1,81 @@
+package com.bankmanagement.config;
+
+import com.bankmanagement.exception.ConcurrentUpdateException;
+import com.bankmanagement.service.LockingStrategyService;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostingRetryAspectTest {
+    
+    private PostingRetryAspect aspect;
+    private ProceedingJoinPoint joinPoint;
+    
+    @BeforeEach
+    void setUp() {
+        aspect = new PostingRetryAspect();
+        ReflectionTestUtils.setField(aspect, "lockingStrategyService", mock(LockingStrategyService.class));
+        ReflectionTestUtils.setField(aspect, "maxAttempts", 3);
+        ReflectionTestUtils.setField(aspect, "backoffMs", 1L);
+        ReflectionTestUtils.setField(aspect, "maxBackoffMs", 2L);
+        
+        Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn("createDeposit");
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+    
+    @Test
+    void retriesConflictsUntilAnAttemptSucceeds() throws Throwable {
+        Object posted = new Object();
+        when(joinPoint.proceed())
+                .thenThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .thenThrow(new RuntimeException("flush failed", new OptimisticLockException()))
+                .thenReturn(posted);
+        
+        assertSame(posted, aspect.retryOnConflict(joinPoint));
+        verify(joinPoint, times(3)).proceed();
+        
+        Map<String, Object> stats = aspect.getStats().get(0);
+        assertEquals("createDeposit", stats.get("method"));
+        assertEquals(3L, stats.get("attempts"));
+        assertEquals(2L, stats.get("conflicts"));
+        assertEquals(2L, stats.get("retries"));
+        assertEquals(0L, stats.get("exhausted"));
+    }
+    
+    @Test
+    void givesUpAfterMaxAttempts() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new CannotAcquireLockException("lock wait timeout"));
+        
+        ConcurrentUpdateException e = assertThrows(ConcurrentUpdateException.class, () -> aspect.retryOnConflict(joinPoint));
+        assertEquals("The account was changed by another transaction; please try again", e.getMessage());
+        verify(joinPoint, times(3)).proceed();
+        assertEquals(1L, aspect.getStats().get(0).get("exhausted"));
+    }
+    
+    @Test
+    void otherFailuresAreNotRetried() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new RuntimeException("Insufficient balance"));
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> aspect.retryOnConflict(joinPoint));
+        assertEquals("Insufficient balance", e.getMessage());
+        verify(joinPoint, times(1)).proceed();
+        assertEquals(0L, aspect.getStats().get(0).get("conflicts"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.bankmanagement.config;
+
+import com.bankmanagement.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Small budgets, one request per minute of refill, so a burst past capacity is rejected and
+ * nothing refills while the test runs.
+ */
+class RateLimitFilterTest {
+    
+    private RateLimitFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxClients", 100);
+        ReflectionTestUtils.setField(filter, "authCapacity", 3);
+        ReflectionTestUtils.setField(filter, "authPerMinute", 1);
+        ReflectionTestUtils.setField(filter, "postingCapacity", 2);
+        ReflectionTestUtils.setField(filter, "postingPerMinute", 1);
+        ReflectionTestUtils.setField(filter, "readsCapacity", 2);
+        ReflectionTestUtils.setField(filter, "readsPerMinute", 1);
+        filter.init();
+    }
+    
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void rejectsRequestsBeyondTheBurst() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send("POST", "/api/auth/login", "10.0.0.1").getStatus());
+        }
+        
+        MockHttpServletResponse rejected = send("POST", "/api/auth/login", "10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        long retryAfter = Long.parseLong(rejected.getHeader("Retry-After"));
+        assertTrue(retryAfter >= 1 && retryAfter <= 60, rejected.getHeader("Retry-After"));
+        assertEquals("{\"message\":\"Too many requests, retry in " + retryAfter + "s\"}", rejected.getContentAsString());
+    }
+    
+    @Test
+    void groupsHaveSeparateBudgets() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            send("POST", "/api/auth/login", "10.0.0.1");
+        }
+        assertEquals(429, send("POST", "/api/auth/login", "10.0.0.1").getStatus());
+        
+        // GETs under /api/auth count as reads, other writes as postings
+        assertEquals(200, send("GET", "/api/auth/banks", "10.0.0.1").getStatus());
+        assertEquals(200, send("POST", "/api/transactions/deposit", "10.0.0.1").getStatus());
+    }
+    
+    @Test
+    void clientsHaveSeparateBudgets() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            send("GET", "/api/accounts/my-accounts", "10.0.0.1");
+        }
+        assertEquals(429, send("GET", "/api/accounts/my-accounts", "10.0.0.1").getStatus());
+        assertEquals(200, send("GET", "/api/accounts/my-accounts", "10.0.0.2").getStatus());
+        
+        // A logged-in user is keyed by id, not by the address they share
+        User user = new User();
+        user.setId(42L);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        assertEquals(200, send("GET", "/api/accounts/my-accounts", "10.0.0.1").getStatus());
+    }
+    
+    @Test
+    void onlyApiRequestsAreLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send("GET", "/index.html", "10.0.0.1").getStatus());
+            assertEquals(200, send("OPTIONS", "/api/auth/login", "10.0.0.1").getStatus());
+        }
+    }
+    
+    @Test
+    void failsOpenOnceTheClientCapIsReached() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxClients", 1);
+        for (int i = 0; i < 2; i++) {
+            send("POST", "/api/transactions/deposit", "10.0.0.1");
+        }
+        assertEquals(429, send("POST", "/api/transactions/deposit", "10.0.0.1").getStatus());
+        
+        // The exhausted bucket can't be evicted, so a new client goes untracked
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send("POST", "/api/transactions/deposit", "10.0.0.2").getStatus());
+        }
+    }
+    
+    private MockHttpServletResponse send(String method, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,189 @@
+package com.bankmanagement.config;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import com.bankmanagement.service.AccountService;
+import com.bankmanagement.service.TransactionService;
+import com.bankmanagement.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two unreplicated H2 databases as primary and replica, each with a marker row naming itself,
+ * so a query through the routed data source shows where it went.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.replica.username=sa",
+        "datasource.replica.password=",
+        "datasource.replica.driver-class-name=org.h2.Driver",
+        "datasource.replica.migrate=true",
+        "datasource.replica.max-lag-ms=-1",
+        "datasource.replica.sticky-window-ms=60000"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    @BeforeEach
+    void markDatabases() {
+        for (DataSource target : List.of(primaryDataSource, replicaDataSource)) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(target);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS route_marker (name VARCHAR(16))");
+            jdbcTemplate.update("DELETE FROM route_marker");
+            jdbcTemplate.update("INSERT INTO route_marker VALUES (?)", target == primaryDataSource ? "primary" : "replica");
+        }
+    }
+    
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", routedTo(true));
+    }
+    
+    @Test
+    void writesArePinnedToThePrimary() {
+        assertEquals("primary", routedTo(false));
+        // Outside a transaction there is no read-only flag to route on
+        assertEquals("primary", marker());
+    }
+    
+    @Test
+    void stickyUsersReadFromThePrimary() {
+        User user = new User();
+        user.setId(424242L);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        assertEquals("replica", routedTo(true));
+        
+        readYourWritesTracker.markWrite(user.getId());
+        assertEquals("primary", routedTo(true));
+    }
+    
+    @Test
+    void postingMakesTheOwnerSticky() {
+        Bank bank = bankRepository.findByBankCode("BANK1").orElseThrow();
+        User owner = new User();
+        owner.setUsername("routing-owner");
+        owner.setPassword("secret123");
+        owner.setEmail("routing-owner@example.com");
+        owner.setFirstName("Test");
+        owner.setLastName("routing-owner");
+        owner.setPhoneNumber("555");
+        owner.setAddress("Test address");
+        owner.setRole(Role.CUSTOMER);
+        owner.setBank(bank);
+        owner.setActive(true);
+        // One write transaction, so the lookups inside it join it on the primary
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        User created = write.execute(status -> userService.createUser(owner));
+        Long accountId = write.execute(status -> {
+            Account account = new Account();
+            account.setAccountType(AccountType.SAVINGS);
+            return accountService.createAccount(account, created.getId()).getId();
+        });
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(created, null, List.of()));
+        
+        // The replica isn't replicated here, so a read routed to it can't see the new account
+        assertThrows(RuntimeException.class, () -> accountService.getAccountById(accountId));
+        
+        transactionService.createDeposit(accountId, new BigDecimal("100.00"), null);
+        assertTrue(readYourWritesTracker.isSticky(created.getId()));
+        assertEquals(new BigDecimal("100.00"), accountService.getAccountById(accountId).getBalance());
+    }
+    
+    @Test
+    void unhealthyReplicaFallsBackToThePrimary() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                () -> false, readYourWritesTracker);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, readOnly.execute(status -> routing.determineCurrentLookupKey()));
+    }
+    
+    @Test
+    void lagMonitorReadsTheHeartbeatOffTheReplica() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.update("DELETE FROM replica_heartbeat");
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(new JdbcTemplate(primaryDataSource), replica, 2000);
+        
+        // The primary's heartbeat never arrives on an unreplicated replica
+        monitor.check();
+        assertFalse(monitor.isReplicaHealthy());
+        
+        // As if replication had copied it
+        replica.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", Timestamp.from(Instant.now()));
+        monitor.check();
+        assertTrue(monitor.isReplicaHealthy());
+    }
+    
+    private String routedTo(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> marker());
+    }
+    
+    private String marker() {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM route_marker", String.class);
+    }
+}
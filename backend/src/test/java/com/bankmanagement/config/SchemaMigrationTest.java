@@ -0,0 +1,60 @@
+package com.bankmanagement.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs every Flyway migration on an empty database, starts JPA with ddl-auto=validate against
+ * the result, and checks that each @SupportedByIndex query has its index.
+ * H2 in MySQL mode stands in for MySQL, with Hibernate's MySQL dialect so the column types
+ * it validates are the ones it expects in production.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schema;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+        "spring.jpa.show-sql=false",
+        "rate-limit.enabled=false"
+})
+class SchemaMigrationTest {
+    
+    @Autowired
+    private Flyway flyway;
+    
+    @Autowired
+    private IndexVerifier indexVerifier;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Test
+    void allMigrationsApply() {
+        MigrationInfo current = flyway.info().current();
+        assertNotNull(current);
+        assertEquals(0, flyway.info().pending().length);
+        
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals("1", applied[0].getVersion().getVersion());
+        assertEquals(flyway.info().all()[flyway.info().all().length - 1].getVersion(), current.getVersion());
+    }
+    
+    @Test
+    void annotatedQueriesHaveIndexes() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            List<String> missing = indexVerifier.verify(connection.getMetaData());
+            assertEquals(List.of(), missing);
+        }
+    }
+}
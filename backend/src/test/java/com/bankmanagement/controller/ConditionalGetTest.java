@@ -0,0 +1,178 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.config.JwtUtil;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import com.bankmanagement.service.AccountService;
+import com.bankmanagement.service.TransactionService;
+import com.bankmanagement.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETags on the listings: a current If-None-Match is answered with 304, a posting changes the
+ * tag, and a customer can't use one to get around the ownership check. The gzip check goes
+ * through the real server, since MockMvc bypasses Tomcat's compression.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:etag;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    private User owner;
+    private Long accountId;
+    
+    @BeforeEach
+    void setUp() {
+        owner = createCustomer();
+        accountId = openAccount(owner);
+        transactionService.createDeposit(accountId, new BigDecimal("100.00"), null);
+    }
+    
+    @Test
+    void unchangedListingsAreNotModified() throws Exception {
+        String[] paths = { "/api/accounts/my-accounts", "/api/accounts/" + accountId,
+                "/api/transactions/my-transactions", "/api/transactions/account/" + accountId, "/api/auth/banks" };
+        for (String path : paths) {
+            String eTag = mockMvc.perform(get(path).header("Authorization", bearer(owner)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "no-cache, private"))
+                    .andReturn().getResponse().getHeader("ETag");
+            assertTrue(eTag.startsWith("W/\""), path + " " + eTag);
+            
+            mockMvc.perform(get(path).header("Authorization", bearer(owner)).header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified());
+        }
+    }
+    
+    @Test
+    void postingChangesTheTags() throws Exception {
+        String accounts = eTag("/api/accounts/my-accounts");
+        String history = eTag("/api/transactions/account/" + accountId);
+        
+        transactionService.createDeposit(accountId, new BigDecimal("5.00"), null);
+        assertNotEquals(accounts, eTag("/api/accounts/my-accounts"));
+        assertNotEquals(history, eTag("/api/transactions/account/" + accountId));
+        mockMvc.perform(get("/api/accounts/my-accounts").header("Authorization", bearer(owner)).header("If-None-Match", accounts))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    void anotherCustomersTagIsNotAShortcutPastTheOwnershipCheck() throws Exception {
+        String eTag = eTag("/api/accounts/" + accountId);
+        
+        mockMvc.perform(get("/api/accounts/" + accountId).header("Authorization", bearer(createCustomer()))
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void largeJsonResponsesAreGzipped() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            transactionService.createDeposit(accountId, new BigDecimal("1.00"), "Deposit " + i);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/transactions/account/" + accountId))
+                .header("Authorization", bearer(owner))
+                .header("Accept-Encoding", "gzip")
+                .build();
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+        
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        // The weak tag survives compression
+        assertTrue(response.headers().firstValue("ETag").orElse("").startsWith("W/\""));
+        String body = gunzip(response.body());
+        assertTrue(body.startsWith("[") && body.contains("Deposit 19"), body);
+        assertTrue(response.body().length < body.length());
+    }
+    
+    private String eTag(String path) throws Exception {
+        return mockMvc.perform(get(path).header("Authorization", bearer(owner)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+    }
+    
+    private String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(userService.loadUserByUsername(user.getUsername()));
+    }
+    
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    private User createCustomer() {
+        Bank bank = bankRepository.findByBankCode("BANK1").orElseThrow();
+        String username = "etag-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(Role.CUSTOMER);
+        user.setBank(bank);
+        user.setActive(true);
+        return userService.createUser(user);
+    }
+    
+    private Long openAccount(User owner) {
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+        return accountService.createAccount(account, owner.getId()).getId();
+    }
+}
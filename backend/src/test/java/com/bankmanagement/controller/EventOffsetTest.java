@@ -0,0 +1,75 @@
+package com.bankmanagement.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PUT /api/events/consumers/{consumer}/offset: admins move any consumer's offset, an event
+ * consumer only its own, and nobody the relay sinks'.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EventOffsetTest {
+    
+    private static final RequestPostProcessor CONSUMER = user("ledger-export").roles("EVENT_CONSUMER");
+    private static final RequestPostProcessor ADMIN = user("bank1admin").roles("ADMIN");
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void consumerAcknowledgesItsOwnOffset() throws Exception {
+        mockMvc.perform(get("/api/events/consumers/ledger-export").with(CONSUMER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consumer").value("ledger-export"));
+        mockMvc.perform(acknowledge("ledger-export", 0).with(CONSUMER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.offset.lastSequenceNumber").value(0));
+    }
+    
+    @Test
+    void consumerCannotMoveOtherOffsets() throws Exception {
+        mockMvc.perform(acknowledge("reporting", 0).with(CONSUMER))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("Event consumers may only acknowledge their own offset"));
+        mockMvc.perform(acknowledge("sink:file", 0).with(ADMIN))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void adminAcknowledgesAnyConsumer() throws Exception {
+        mockMvc.perform(acknowledge("reporting", 0).with(ADMIN))
+                .andExpect(status().isOk());
+        mockMvc.perform(acknowledge("reporting", Long.MAX_VALUE).with(ADMIN))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Last sequence number is beyond the latest event"));
+    }
+    
+    @Test
+    void otherRolesCannotAcknowledge() throws Exception {
+        mockMvc.perform(acknowledge("reporting", 0).with(user("teller").roles("EMPLOYEE")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(acknowledge("customer", 0).with(user("customer").roles("CUSTOMER")))
+                .andExpect(status().isForbidden());
+    }
+    
+    private static MockHttpServletRequestBuilder acknowledge(String consumer, long lastSequenceNumber) {
+        return put("/api/events/consumers/{consumer}/offset", consumer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lastSequenceNumber\":" + lastSequenceNumber + "}");
+    }
+}
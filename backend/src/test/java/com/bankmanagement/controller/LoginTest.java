@@ -0,0 +1,106 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.exception.PasswordHashingBusyException;
+import com.bankmanagement.service.PasswordHashingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/auth/login: busy hashing pool answers 429 with Retry-After, and a successful login
+ * re-encodes a legacy hash with the configured encoder.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @SpyBean
+    private PasswordHashingService passwordHashingService;
+    
+    @Test
+    void fullQueueIsTooManyRequests() throws Exception {
+        doThrow(new PasswordHashingBusyException("Too many password operations in progress, please retry shortly"))
+                .when(passwordHashingService).submit(any());
+        
+        dispatch(login("bank1admin", "admin123"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Too many password operations in progress, please retry shortly"));
+    }
+    
+    @Test
+    void workDroppedAfterMaxWaitIsTooManyRequests() throws Exception {
+        doReturn(CompletableFuture.failedFuture(new CompletionException(
+                new PasswordHashingBusyException("Too many password operations in progress, please retry shortly"))))
+                .when(passwordHashingService).submit(any());
+        
+        dispatch(login("bank1admin", "admin123"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+    
+    @Test
+    void wrongPasswordIsUnauthorized() throws Exception {
+        dispatch(login("bank1admin", "wrong-password"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid credentials"));
+    }
+    
+    @Test
+    void loginRehashesLegacyHashes() throws Exception {
+        // An unprefixed hash at a lower cost, as stored before the encoder was configurable
+        String legacy = new BCryptPasswordEncoder(4).encode("admin123");
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE username = 'bank2admin'", legacy);
+        
+        dispatch(login("bank2admin", "admin123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+        
+        String stored = jdbcTemplate.queryForObject("SELECT password FROM users WHERE username = 'bank2admin'", String.class);
+        assertTrue(stored.startsWith("{bcrypt}$2a$10$"), stored);
+        dispatch(login("bank2admin", "admin123")).andExpect(status().isOk());
+    }
+    
+    private static RequestBuilder login(String username, String password) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+    }
+    
+    // login returns a CompletableFuture, so the response comes from the async dispatch
+    private ResultActions dispatch(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
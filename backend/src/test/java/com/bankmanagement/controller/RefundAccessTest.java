@@ -0,0 +1,128 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import com.bankmanagement.service.AccountService;
+import com.bankmanagement.service.ReversalService;
+import com.bankmanagement.service.TransactionService;
+import com.bankmanagement.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/transactions/{id}/refunds answers only the original's account owners and the staff
+ * of their bank.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RefundAccessTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private ReversalService reversalService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    private static Long originalId;
+    
+    @BeforeEach
+    void postAndRefund() {
+        if (originalId != null) {
+            return;
+        }
+        Bank bank1 = bankRepository.findByBankCode("BANK1").orElseThrow();
+        Bank bank2 = bankRepository.findByBankCode("BANK2").orElseThrow();
+        User owner = createUser("refund-owner", Role.CUSTOMER, bank1);
+        createUser("refund-other", Role.CUSTOMER, bank1);
+        createUser("refund-staff", Role.EMPLOYEE, bank1);
+        createUser("refund-foreign-staff", Role.EMPLOYEE, bank2);
+        
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+        account = accountService.createAccount(account, owner.getId());
+        Transaction deposit = transactionService.createDeposit(account.getId(), new BigDecimal("100.00"), null);
+        reversalService.refund(deposit.getId(), new BigDecimal("10.00"), "test", bank1.getId());
+        originalId = deposit.getId();
+    }
+    
+    @Test
+    @WithMockUser(username = "refund-owner", roles = "CUSTOMER")
+    void ownerSeesRefunds() throws Exception {
+        mockMvc.perform(get("/api/transactions/" + originalId + "/refunds"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].originalTransactionId").value(originalId));
+    }
+    
+    @Test
+    @WithMockUser(username = "refund-other", roles = "CUSTOMER")
+    void otherCustomerIsRefused() throws Exception {
+        mockMvc.perform(get("/api/transactions/" + originalId + "/refunds"))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(username = "refund-staff", roles = "EMPLOYEE")
+    void staffOfTheBankSeesRefunds() throws Exception {
+        mockMvc.perform(get("/api/transactions/" + originalId + "/refunds"))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    @WithMockUser(username = "refund-foreign-staff", roles = "EMPLOYEE")
+    void staffOfAnotherBankIsRefused() throws Exception {
+        mockMvc.perform(get("/api/transactions/" + originalId + "/refunds"))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(username = "refund-owner", roles = "CUSTOMER")
+    void unknownTransactionIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/transactions/999999/refunds"))
+                .andExpect(status().isNotFound());
+    }
+    
+    private User createUser(String username, Role role, Bank bank) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(role);
+        user.setBank(bank);
+        user.setActive(true);
+        return userService.createUser(user);
+    }
+}
@@ -0,0 +1,92 @@
+package com.bankmanagement.controller;
+
+import com.bankmanagement.config.JwtUtil;
+import com.bankmanagement.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The SSE stream is opened with a short-lived ticket in the query string; the ticket works on
+ * no other path and the login token is never accepted from a URL. Results aren't printed: the
+ * open stream keeps writing to the response while the printer would be reading its headers.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@ActiveProfiles("test")
+class StreamTicketTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private String token;
+    
+    @BeforeEach
+    void setUp() {
+        token = jwtUtil.generateToken(userService.loadUserByUsername("bank1admin"));
+    }
+    
+    @Test
+    void ticketOpensTheStream() throws Exception {
+        String ticket = ticket();
+        assertTrue(jwtUtil.isStreamTicket(ticket));
+        
+        mockMvc.perform(get("/api/accounts/stream").param("ticket", ticket))
+                .andExpect(request().asyncStarted());
+    }
+    
+    @Test
+    void loginTokenIsNotAcceptedInTheQueryString() throws Exception {
+        mockMvc.perform(get("/api/accounts/stream").param("ticket", token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/accounts/stream").param("access_token", token))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    void ticketIsOnlyValidForTheStream() throws Exception {
+        String ticket = ticket();
+        mockMvc.perform(get("/api/accounts/my-accounts").header("Authorization", "Bearer " + ticket))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/accounts/my-accounts").param("ticket", ticket))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/accounts/stream").header("Authorization", "Bearer " + ticket))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    void ticketRequiresALogin() throws Exception {
+        mockMvc.perform(post("/api/accounts/stream/ticket"))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    private String ticket() throws Exception {
+        String body = mockMvc.perform(post("/api/accounts/stream/ticket").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expiresInMs").value(60000))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("ticket").asText();
+    }
+}
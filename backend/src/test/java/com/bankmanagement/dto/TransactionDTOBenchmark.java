@@ -0,0 +1,103 @@
+package com.bankmanagement.dto;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.TransactionStatus;
+import com.bankmanagement.model.TransactionType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a 200-row transaction page: with TransactionDTO's serializer, with Jackson's bean
+ * serializer for the same DTO, and straight from the entities as before the DTO existed.
+ * Run as described in pom.xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionDTOBenchmark {
+    
+    private static final int PAGE_SIZE = 200;
+    
+    private ObjectMapper objectMapper;
+    private ObjectMapper beanMapper;
+    private List<Transaction> transactions;
+    private List<TransactionDTO> dtos;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        beanMapper = objectMapper.copy().addMixIn(TransactionDTO.class, BeanSerialization.class);
+        
+        Account from = new Account();
+        from.setId(1L);
+        from.setAccountNumber("SAV-0001");
+        Account to = new Account();
+        to.setId(2L);
+        to.setAccountNumber("SAV-0002");
+        
+        transactions = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i);
+            transaction.setTransactionReference("TXN17000000000" + (10000 + i));
+            transaction.setTransactionType(TransactionType.TRANSFER);
+            transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+            transaction.setAmount(BigDecimal.valueOf(10000 + i, 2));
+            transaction.setDescription("Transfer #" + i);
+            transaction.setFromAccount(from);
+            transaction.setToAccount(to);
+            transaction.setBalanceAfterTransaction(BigDecimal.valueOf(500000 - i, 2));
+            transaction.setCreatedAt(LocalDateTime.of(2026, 3, 1, 12, 0).plusSeconds(i));
+            transaction.setUpdatedAt(transaction.getCreatedAt());
+            transactions.add(transaction);
+        }
+        dtos = TransactionDTO.from(transactions);
+    }
+    
+    @Benchmark
+    public byte[] dtoSerializer() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+    
+    @Benchmark
+    public byte[] dtoBeanSerializer() throws Exception {
+        return beanMapper.writeValueAsBytes(dtos);
+    }
+    
+    // Includes building the DTOs, as a request does
+    @Benchmark
+    public byte[] buildAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(TransactionDTO.from(transactions));
+    }
+    
+    @Benchmark
+    public byte[] entities() throws Exception {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+    
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialization {
+    }
+}
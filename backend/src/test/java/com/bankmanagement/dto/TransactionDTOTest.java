@@ -0,0 +1,182 @@
+package com.bankmanagement.dto;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.TransactionStatus;
+import com.bankmanagement.model.TransactionType;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The hand-written serializer must produce what Jackson's bean serialization of the getters
+ * produces with the application's ObjectMapper, minus the fields it leaves out when empty.
+ */
+@JsonTest
+class TransactionDTOTest {
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // The same mapper, serializing TransactionDTO from its getters; both read decimals exactly
+    private ObjectMapper beanMapper;
+    
+    @BeforeEach
+    void setUp() {
+        objectMapper = objectMapper.copy().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        beanMapper = objectMapper.copy().addMixIn(TransactionDTO.class, BeanSerialization.class);
+    }
+    
+    @Test
+    void comparesAgainstBeanSerialization() throws Exception {
+        TransactionDTO dto = new TransactionDTO(transaction(TransactionType.DEPOSIT, null));
+        assertTrue(beanMapper.readTree(beanMapper.writeValueAsString(dto)).has("failureReason"));
+        assertFalse(objectMapper.readTree(objectMapper.writeValueAsString(dto)).has("failureReason"));
+    }
+    
+    @Test
+    void depositWithoutFromAccount() throws Exception {
+        Transaction transaction = transaction(TransactionType.DEPOSIT, "Deposit to account");
+        transaction.setToAccount(account(7L, "SAV-0007"));
+        transaction.setBalanceAfterTransaction(new BigDecimal("150.00"));
+        
+        JsonNode json = assertMatchesBeanSerialization(transaction);
+        assertTrue(json.get("fromAccountId").isNull());
+        assertTrue(json.get("fromAccountNumber").isNull());
+        assertEquals(7, json.get("toAccountId").asLong());
+        assertFalse(json.has("creditedAmount"));
+        assertFalse(json.has("failureReason"));
+        assertFalse(json.has("refundedAmount"));
+    }
+    
+    @Test
+    void failedWithdrawalWithoutToAccountOrBalance() throws Exception {
+        Transaction transaction = transaction(TransactionType.WITHDRAWAL, null);
+        transaction.setFromAccount(account(3L, "CUR-0003"));
+        transaction.setTransactionStatus(TransactionStatus.FAILED);
+        transaction.setFailureReason("Velocity limit reached: 20 postings in 60 seconds");
+        
+        JsonNode json = assertMatchesBeanSerialization(transaction);
+        assertTrue(json.get("toAccountId").isNull());
+        assertTrue(json.get("description").isNull());
+        assertTrue(json.get("balanceAfterTransaction").isNull());
+        assertEquals("FAILED", json.get("transactionStatus").asText());
+    }
+    
+    @Test
+    void crossCurrencyTransfer() throws Exception {
+        Transaction transaction = transaction(TransactionType.TRANSFER, "Rent");
+        transaction.setFromAccount(account(1L, "SAV-0001"));
+        transaction.setToAccount(account(2L, "SAV-0002"));
+        transaction.setCreditedAmount(new BigDecimal("1.20"));
+        transaction.setCreditedCurrency("USD");
+        transaction.setFxRate(new BigDecimal("0.01200000"));
+        transaction.setFxRateVersion(4L);
+        
+        JsonNode json = assertMatchesBeanSerialization(transaction);
+        // Decimals keep their column scale
+        String text = objectMapper.writeValueAsString(new TransactionDTO(transaction));
+        assertTrue(text.contains("\"creditedAmount\":1.20,") && text.contains("\"fxRate\":0.01200000,"), text);
+        assertEquals(4, json.get("fxRateVersion").asLong());
+        assertEquals("USD", json.get("creditedCurrency").asText());
+    }
+    
+    @Test
+    void refundAndPartiallyRefundedOriginal() throws Exception {
+        Transaction refund = transaction(TransactionType.REFUND, "Refund");
+        refund.setToAccount(account(1L, "SAV-0001"));
+        refund.setOriginalTransactionId(99L);
+        assertEquals(99, assertMatchesBeanSerialization(refund).get("originalTransactionId").asLong());
+        
+        Transaction original = transaction(TransactionType.WITHDRAWAL, "Card payment");
+        original.setFromAccount(account(1L, "SAV-0001"));
+        original.setRefundedAmount(new BigDecimal("10.00"));
+        assertMatchesBeanSerialization(original);
+        assertTrue(objectMapper.writeValueAsString(new TransactionDTO(original)).contains("\"refundedAmount\":10.00,"));
+    }
+    
+    @Test
+    void escapesStrings() throws Exception {
+        String description = "Quote \" backslash \\ newline \n tab \t control \u0001 rupee ₹ emoji 😀 </script>";
+        Transaction transaction = transaction(TransactionType.DEPOSIT, description);
+        transaction.setToAccount(account(1L, "SAV-\"0001\""));
+        
+        JsonNode json = assertMatchesBeanSerialization(transaction);
+        assertEquals(description, json.get("description").asText());
+        assertEquals("SAV-\"0001\"", json.get("toAccountNumber").asText());
+    }
+    
+    @Test
+    void listsSerializeElementWise() throws Exception {
+        Transaction first = transaction(TransactionType.DEPOSIT, "first");
+        Transaction second = transaction(TransactionType.TRANSFER, "second");
+        second.setFromAccount(account(1L, "SAV-0001"));
+        second.setToAccount(account(2L, "SAV-0002"));
+        
+        List<TransactionDTO> dtos = TransactionDTO.from(List.of(first, second));
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(dtos));
+        assertEquals(2, json.size());
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(dtos.get(1))), json.get(1));
+    }
+    
+    // Serializes with both mappers, drops what the custom serializer omits when empty, compares trees
+    private JsonNode assertMatchesBeanSerialization(Transaction transaction) throws Exception {
+        TransactionDTO dto = new TransactionDTO(transaction);
+        JsonNode actual = objectMapper.readTree(objectMapper.writeValueAsString(dto));
+        
+        ObjectNode expected = (ObjectNode) beanMapper.readTree(beanMapper.writeValueAsString(dto));
+        if (dto.getFailureReason() == null) {
+            expected.remove("failureReason");
+        }
+        if (dto.getCreditedAmount() == null) {
+            expected.remove(List.of("creditedAmount", "creditedCurrency", "fxRate", "fxRateVersion"));
+        }
+        if (dto.getOriginalTransactionId() == null) {
+            expected.remove("originalTransactionId");
+        }
+        if (dto.getRefundedAmount() == null || dto.getRefundedAmount().signum() == 0) {
+            expected.remove("refundedAmount");
+        }
+        assertEquals(expected, actual);
+        return actual;
+    }
+    
+    private static Transaction transaction(TransactionType type, String description) {
+        Transaction transaction = new Transaction();
+        transaction.setId(42L);
+        transaction.setTransactionReference("TXN1700000000000123");
+        transaction.setTransactionType(type);
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setAmount(new BigDecimal("100.00"));
+        transaction.setDescription(description);
+        transaction.setCreatedAt(LocalDateTime.of(2026, 3, 1, 12, 30, 45, 123456000));
+        transaction.setUpdatedAt(LocalDateTime.of(2026, 3, 1, 12, 30, 46));
+        return transaction;
+    }
+    
+    private static Account account(Long id, String accountNumber) {
+        Account account = new Account();
+        account.setId(id);
+        account.setAccountNumber(accountNumber);
+        return account;
+    }
+    
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialization {
+    }
+}
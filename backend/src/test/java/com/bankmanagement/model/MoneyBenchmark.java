@@ -0,0 +1,71 @@
+package com.bankmanagement.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The daily-limit check a posting does: sum the day's amounts, add the request and compare to
+ * the cap, with BigDecimal as before and with Money. Run as described in pom.xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    
+    private static final int POSTINGS = 50;
+    
+    private BigDecimal[] amounts;
+    private Money[] monies;
+    private BigDecimal requested;
+    private Money requestedMoney;
+    private BigDecimal limit;
+    private Money limitMoney;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new BigDecimal[POSTINGS];
+        monies = new Money[POSTINGS];
+        for (int i = 0; i < POSTINGS; i++) {
+            amounts[i] = BigDecimal.valueOf(100 + random.nextInt(99900), Money.SCALE);
+            monies[i] = Money.of(amounts[i]);
+        }
+        requested = new BigDecimal("250.00");
+        requestedMoney = Money.of(requested);
+        limit = new BigDecimal("50000.00");
+        limitMoney = Money.of(limit);
+    }
+    
+    @Benchmark
+    public boolean bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            total = total.add(amount);
+        }
+        return total.add(requested).compareTo(limit) > 0;
+    }
+    
+    @Benchmark
+    public boolean money() {
+        Money total = Money.ZERO;
+        for (Money amount : monies) {
+            total = total.plus(amount);
+        }
+        return total.plus(requestedMoney).isGreaterThan(limitMoney);
+    }
+}
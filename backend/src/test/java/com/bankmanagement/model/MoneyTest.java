@@ -0,0 +1,86 @@
+package com.bankmanagement.model;
+
+import com.bankmanagement.service.FxRateService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+    
+    @Test
+    void toMinorIsExact() {
+        assertEquals(150, Money.toMinor(new BigDecimal("1.50")));
+        assertEquals(150, Money.toMinor(new BigDecimal("1.5")));
+        assertEquals(100, Money.toMinor(new BigDecimal("1.000")));
+        assertEquals(-1, Money.toMinor(new BigDecimal("-0.01")));
+        assertEquals(1200, Money.toMinor(new BigDecimal("1.2E+1")));
+        
+        // Finer than a hundredth is never rounded away
+        assertThrows(ArithmeticException.class, () -> Money.toMinor(new BigDecimal("1.005")));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+    }
+    
+    @Test
+    void fromMinorKeepsTheColumnScale() {
+        assertEquals(new BigDecimal("1.50"), Money.toBigDecimal(150));
+        assertEquals(new BigDecimal("0.00"), Money.ZERO.toBigDecimal());
+        assertEquals(new BigDecimal("-0.01"), Money.ofMinor(-1).toBigDecimal());
+        assertEquals("92233720368547758.07", Money.ofMinor(Long.MAX_VALUE).toString());
+        
+        BigDecimal amount = new BigDecimal("12345.67");
+        assertEquals(amount, Money.of(amount).toBigDecimal());
+    }
+    
+    @Test
+    void zeroIsShared() {
+        assertSame(Money.ZERO, Money.ofMinor(0));
+        assertSame(Money.ZERO, Money.of(new BigDecimal("0.00")));
+        assertSame(Money.ZERO, Money.ofMinor(5).minus(Money.ofMinor(5)));
+    }
+    
+    @Test
+    void arithmeticThrowsInsteadOfWrapping() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+        Money min = Money.ofMinor(Long.MIN_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> min.minus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("92233720368547758.08")));
+        assertEquals(max, max.minus(Money.ofMinor(1)).plus(Money.ofMinor(1)));
+    }
+    
+    @Test
+    void comparisons() {
+        Money one = Money.of(new BigDecimal("1.00"));
+        Money two = Money.of(new BigDecimal("2"));
+        assertTrue(one.isLessThan(two));
+        assertTrue(two.isGreaterThan(one));
+        assertSame(two, one.max(two));
+        assertEquals(-1, Money.ofMinor(-3).signum());
+        assertEquals(one, Money.of(new BigDecimal("1.0")));
+        assertEquals(one.hashCode(), Money.of(new BigDecimal("1")).hashCode());
+    }
+    
+    @Test
+    void nullCapsStayNull() {
+        assertEquals(null, Money.ofNullable(null));
+        assertEquals(Money.ofMinor(5000000), Money.ofNullable(new BigDecimal("50000.00")));
+    }
+    
+    // Money is always at the column scale; a currency's own scale is at most that and is
+    // enforced on input (TransactionService.validateCurrencyScale)
+    @Test
+    void currencyScalesFitTheColumnScale() {
+        assertEquals(2, FxRateService.fractionDigits("INR"));
+        assertEquals(2, FxRateService.fractionDigits("USD"));
+        assertEquals(0, FxRateService.fractionDigits("JPY"));
+        assertTrue(FxRateService.fractionDigits("KWD") <= Money.SCALE);
+        
+        assertEquals(100000, Money.of(new BigDecimal("1000")).getMinor());
+        assertEquals(new BigDecimal("1000.00"), Money.of(new BigDecimal("1000")).toBigDecimal());
+    }
+}
@@ -0,0 +1,158 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.exception.InsufficientBalanceException;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountHold;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.HoldStatus;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.TransactionStatus;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Authorize, capture, void and expiry against one funded account. The expiry schedules are
+ * pushed out and the horizon is zero, so a hold is only expired when the test runs the sweep.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:holds;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "holds.expiry.horizon-minutes=0",
+        "holds.expiry.poll-ms=3600000",
+        "holds.expiry.refill-ms=3600000"
+})
+@ActiveProfiles("test")
+class AccountHoldTest {
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private HoldExpiryService holdExpiryService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long accountId;
+    
+    @BeforeEach
+    void fund() {
+        accountId = openAccount(createCustomer());
+        transactionService.createDeposit(accountId, new BigDecimal("100.00"), null);
+    }
+    
+    @Test
+    void holdReducesTheAvailableBalance() {
+        transactionService.authorize(accountId, new BigDecimal("60.00"), null, 60);
+        
+        Account account = accountService.getAccountById(accountId);
+        assertEquals(new BigDecimal("100.00"), account.getBalance());
+        assertEquals(new BigDecimal("40.00"), account.getAvailableBalance());
+        assertThrows(InsufficientBalanceException.class,
+                () -> transactionService.createWithdrawal(accountId, new BigDecimal("50.00"), null));
+        assertThrows(InsufficientBalanceException.class,
+                () -> transactionService.authorize(accountId, new BigDecimal("50.00"), null, 60));
+    }
+    
+    @Test
+    void partialCaptureDebitsOnlyTheCapturedAmount() {
+        AccountHold hold = transactionService.authorize(accountId, new BigDecimal("60.00"), null, 60);
+        
+        AccountHold captured = transactionService.capture(hold.getId(), new BigDecimal("25.00"));
+        assertEquals(HoldStatus.CAPTURED, captured.getStatus());
+        assertEquals(new BigDecimal("25.00"), captured.getCapturedAmount());
+        assertEquals(TransactionStatus.CAPTURED, transactionService.getTransactionById(hold.getTransactionId()).getTransactionStatus());
+        assertEquals(TransactionStatus.COMPLETED,
+                transactionService.getTransactionById(captured.getCaptureTransactionId()).getTransactionStatus());
+        
+        // The uncaptured 35.00 is released along with the hold
+        Account account = accountService.getAccountById(accountId);
+        assertEquals(new BigDecimal("75.00"), account.getBalance());
+        assertEquals(new BigDecimal("75.00"), account.getAvailableBalance());
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> transactionService.capture(hold.getId(), null));
+        assertEquals("Hold is captured and cannot be captured", e.getMessage());
+    }
+    
+    @Test
+    void captureCannotExceedTheAuthorizedAmount() {
+        AccountHold hold = transactionService.authorize(accountId, new BigDecimal("60.00"), null, 60);
+        
+        assertThrows(RuntimeException.class, () -> transactionService.capture(hold.getId(), new BigDecimal("60.01")));
+        assertEquals(HoldStatus.ACTIVE, transactionService.getHold(hold.getId()).getStatus());
+        assertEquals(new BigDecimal("40.00"), accountService.getAccountById(accountId).getAvailableBalance());
+    }
+    
+    @Test
+    void voidReleasesTheHold() {
+        AccountHold hold = transactionService.authorize(accountId, new BigDecimal("60.00"), null, 60);
+        
+        assertEquals(HoldStatus.VOIDED, transactionService.voidHold(hold.getId()).getStatus());
+        assertEquals(TransactionStatus.CANCELLED, transactionService.getTransactionById(hold.getTransactionId()).getTransactionStatus());
+        Account account = accountService.getAccountById(accountId);
+        assertEquals(new BigDecimal("100.00"), account.getBalance());
+        assertEquals(new BigDecimal("100.00"), account.getAvailableBalance());
+    }
+    
+    @Test
+    void expiredHoldsAreReleasedBySweep() {
+        AccountHold hold = transactionService.authorize(accountId, new BigDecimal("60.00"), null, 1);
+        jdbcTemplate.update("UPDATE account_holds SET expires_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), hold.getId());
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> transactionService.capture(hold.getId(), null));
+        assertEquals("Authorization has expired", e.getMessage());
+        
+        holdExpiryService.refill();
+        holdExpiryService.expireDue();
+        assertEquals(HoldStatus.EXPIRED, transactionService.getHold(hold.getId()).getStatus());
+        assertEquals("Authorization expired", transactionService.getTransactionById(hold.getTransactionId()).getFailureReason());
+        assertEquals(new BigDecimal("100.00"), accountService.getAccountById(accountId).getAvailableBalance());
+    }
+    
+    private User createCustomer() {
+        Bank bank = bankRepository.findByBankCode("BANK1").orElseThrow();
+        String username = "holds-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(Role.CUSTOMER);
+        user.setBank(bank);
+        user.setActive(true);
+        return userService.createUser(user);
+    }
+    
+    private Long openAccount(User owner) {
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+        return accountService.createAccount(account, owner.getId()).getId();
+    }
+}
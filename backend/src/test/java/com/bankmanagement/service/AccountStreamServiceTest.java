@@ -0,0 +1,80 @@
+package com.bankmanagement.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AccountStreamServiceTest {
+    
+    private AccountStreamService accountStreamService;
+    
+    @BeforeEach
+    void setUp() {
+        accountStreamService = new AccountStreamService(1);
+        ReflectionTestUtils.setField(accountStreamService, "timeoutMs", 60000L);
+        ReflectionTestUtils.setField(accountStreamService, "maxClients", 5);
+        ReflectionTestUtils.setField(accountStreamService, "maxClientsPerUser", 2);
+        ReflectionTestUtils.setField(accountStreamService, "clientBufferSize", 4);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        accountStreamService.shutdown();
+    }
+    
+    @Test
+    void capsStreamsPerUser() {
+        accountStreamService.subscribe(1L);
+        accountStreamService.subscribe(1L, 10L);
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> accountStreamService.subscribe(1L));
+        assertEquals("Too many open streams for this user", e.getMessage());
+        // The rejected stream doesn't count towards the global cap
+        assertEquals(2, accountStreamService.getOpenStreamCount());
+        
+        // Other users are unaffected
+        accountStreamService.subscribe(2L);
+        assertEquals(3, accountStreamService.getOpenStreamCount());
+    }
+    
+    @Test
+    void closingAStreamFreesTheUsersSlot() {
+        SseEmitter first = accountStreamService.subscribe(1L);
+        accountStreamService.subscribe(1L);
+        assertThrows(RuntimeException.class, () -> accountStreamService.subscribe(1L));
+        
+        // What the container's completion callback does when the client disconnects
+        ReflectionTestUtils.invokeMethod(accountStreamService, "remove", clientOf(first));
+        accountStreamService.subscribe(1L);
+        assertEquals(2, accountStreamService.getOpenStreamCount());
+    }
+    
+    @Test
+    void capsStreamsGlobally() {
+        ReflectionTestUtils.setField(accountStreamService, "maxClientsPerUser", 5);
+        for (long userId = 1; userId <= 5; userId++) {
+            accountStreamService.subscribe(userId);
+        }
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> accountStreamService.subscribe(6L));
+        assertEquals("Too many open streams, please retry later", e.getMessage());
+        assertEquals(5, accountStreamService.getOpenStreamCount());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Object clientOf(SseEmitter emitter) {
+        Map<Long, Set<Object>> clientsByUser =
+                (Map<Long, Set<Object>>) ReflectionTestUtils.getField(accountStreamService, "clientsByUser");
+        return clientsByUser.values().stream().flatMap(Set::stream)
+                .filter(client -> ReflectionTestUtils.getField(client, "emitter") == emitter)
+                .findFirst().orElseThrow();
+    }
+}
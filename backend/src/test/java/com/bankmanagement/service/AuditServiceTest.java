@@ -0,0 +1,147 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The buffered writer against a mocked JdbcTemplate: a ring of four slots and batches of two.
+ */
+class AuditServiceTest {
+    
+    private AuditService auditService;
+    private JdbcTemplate jdbcTemplate;
+    private User admin;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        auditService = new AuditService(4);
+        ReflectionTestUtils.setField(auditService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(auditService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(auditService, "batchSize", 2);
+        
+        Bank bank = new Bank();
+        bank.setId(7L);
+        admin = new User();
+        admin.setId(11L);
+        admin.setUsername("bank1admin");
+        admin.setBank(bank);
+    }
+    
+    @Test
+    void storesOnlyChangedFields() {
+        User user = customer("old@example.com");
+        Map<String, Object> before = AuditService.userSnapshot(user);
+        user.setEmail("new@example.com");
+        user.setPassword("changed-hash");
+        auditService.record(admin, "USER_UPDATED", AuditService.TARGET_USER, 5L, before, AuditService.userSnapshot(user));
+        
+        // Nothing is written until the writer flushes
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        auditService.flush();
+        
+        Object[] row = writtenBatches(1).get(0).get(0);
+        assertEquals(7L, row[0]);
+        assertEquals(11L, row[1]);
+        assertEquals("bank1admin", row[2]);
+        assertEquals("USER_UPDATED", row[3]);
+        assertEquals("{\"email\":{\"before\":\"old@example.com\",\"after\":\"new@example.com\"}}", row[6]);
+        assertFalse(AuditService.userSnapshot(user).containsKey("password"));
+    }
+    
+    @Test
+    void deletesKeepTheWholeSnapshotAndPlainActionsHaveNoDiff() {
+        auditService.record(admin, "USER_DELETED", AuditService.TARGET_USER, 5L, Map.of("username", "alice"), null);
+        auditService.record(admin, "RECONCILIATION_RUN", AuditService.TARGET_RECONCILIATION, null, null, null);
+        auditService.flush();
+        
+        List<Object[]> rows = writtenBatches(1).get(0);
+        assertEquals("{\"username\":{\"before\":\"alice\",\"after\":null}}", rows.get(0)[6]);
+        assertNull(rows.get(1)[6]);
+    }
+    
+    @Test
+    void flushWritesInBatches() {
+        for (int i = 0; i < 3; i++) {
+            auditService.record(admin, "USER_CREATED", AuditService.TARGET_USER, (long) i, null, Map.of("username", "u" + i));
+        }
+        auditService.flush();
+        
+        List<List<Object[]>> batches = writtenBatches(2);
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, batches.get(1).size());
+        assertEquals(2L, batches.get(1).get(0)[5]);
+    }
+    
+    @Test
+    void fullBufferWritesInline() {
+        for (int i = 0; i < 4; i++) {
+            auditService.record(admin, "USER_CREATED", AuditService.TARGET_USER, (long) i, null, null);
+        }
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        
+        // The fifth record finds no free slot and is written on the caller's thread
+        auditService.record(admin, "USER_CREATED", AuditService.TARGET_USER, 4L, null, null);
+        List<Object[]> inline = writtenBatches(1).get(0);
+        assertEquals(1, inline.size());
+        assertEquals(4L, inline.get(0)[5]);
+    }
+    
+    @Test
+    void failedBatchIsRetriedBeforeNewerRecords() {
+        doThrow(new RuntimeException("database unavailable")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        auditService.record(admin, "USER_CREATED", AuditService.TARGET_USER, 1L, null, null);
+        auditService.flush();
+        
+        reset(jdbcTemplate);
+        auditService.record(admin, "USER_CREATED", AuditService.TARGET_USER, 2L, null, null);
+        auditService.flush();
+        
+        List<List<Object[]>> batches = writtenBatches(2);
+        assertEquals(1L, batches.get(0).get(0)[5]);
+        assertEquals(2L, batches.get(1).get(0)[5]);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> writtenBatches(int count) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(count)).batchUpdate(anyString(), rows.capture());
+        return rows.getAllValues();
+    }
+    
+    private static User customer(String email) {
+        User user = new User();
+        user.setUsername("alice");
+        user.setPassword("hash");
+        user.setEmail(email);
+        user.setFirstName("Alice");
+        user.setLastName("Test");
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(Role.CUSTOMER);
+        user.setActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,154 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.LockingStrategy;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent postings on one account under each locking strategy: none of them may lose an
+ * update. Retries are raised well above what these few threads can exhaust.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:locking;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "posting.retry.max-attempts=50"
+})
+@ActiveProfiles("test")
+class ConcurrentPostingTest {
+    
+    private static final int THREADS = 6;
+    private static final int POSTINGS_PER_THREAD = 5;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private LockingStrategyService lockingStrategyService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    private Bank bank;
+    private LockingStrategy originalStrategy;
+    
+    @BeforeEach
+    void setUp() {
+        bank = bankRepository.findByBankCode("BANK1").orElseThrow();
+        originalStrategy = lockingStrategyService.getStrategy(bank.getId());
+    }
+    
+    @AfterEach
+    void restoreStrategy() {
+        lockingStrategyService.setStrategy(bank.getId(), originalStrategy);
+    }
+    
+    @ParameterizedTest
+    @EnumSource(LockingStrategy.class)
+    void concurrentDepositsAreAllKept(LockingStrategy strategy) throws Exception {
+        lockingStrategyService.setStrategy(bank.getId(), strategy);
+        Long accountId = openAccount(createCustomer());
+        
+        runConcurrently(() -> transactionService.createDeposit(accountId, new BigDecimal("1.00"), null));
+        
+        assertEquals(new BigDecimal("30.00"), accountService.getAccountById(accountId).getBalance());
+    }
+    
+    @ParameterizedTest
+    @EnumSource(LockingStrategy.class)
+    void opposingTransfersKeepTheTotal(LockingStrategy strategy) throws Exception {
+        lockingStrategyService.setStrategy(bank.getId(), strategy);
+        User owner = createCustomer();
+        Long first = openAccount(owner);
+        Long second = openAccount(owner);
+        transactionService.createDeposit(first, new BigDecimal("100.00"), null);
+        transactionService.createDeposit(second, new BigDecimal("100.00"), null);
+        
+        // Half the threads move money one way and half the other, all on the same two rows
+        int[] next = { 0 };
+        runConcurrently(() -> {
+            boolean forward;
+            synchronized (next) {
+                forward = next[0]++ % 2 == 0;
+            }
+            return forward
+                    ? transactionService.createTransfer(first, second, new BigDecimal("2.00"), null)
+                    : transactionService.createTransfer(second, first, new BigDecimal("1.00"), null);
+        });
+        
+        BigDecimal firstBalance = accountService.getAccountById(first).getBalance();
+        BigDecimal secondBalance = accountService.getAccountById(second).getBalance();
+        assertEquals(new BigDecimal("200.00"), firstBalance.add(secondBalance));
+        assertEquals(new BigDecimal("85.00"), firstBalance);
+    }
+    
+    private void runConcurrently(Callable<?> posting) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS * POSTINGS_PER_THREAD; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return posting.call();
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private User createCustomer() {
+        String username = "locking-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(Role.CUSTOMER);
+        user.setBank(bank);
+        user.setActive(true);
+        return userService.createUser(user);
+    }
+    
+    private Long openAccount(User owner) {
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+        return accountService.createAccount(account, owner.getId()).getId();
+    }
+}
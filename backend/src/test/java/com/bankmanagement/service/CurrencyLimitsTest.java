@@ -0,0 +1,129 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.exception.InvalidAmountException;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.TransactionType;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Limit policies and the minimum amount are base-currency (INR) figures, converted for
+ * accounts in other currencies.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CurrencyLimitsTest {
+    
+    @Autowired
+    private LimitPolicyService limitPolicyService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private FxRateService fxRateService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private static Long usdAccountId;
+    
+    @BeforeEach
+    void loadRates() {
+        // 1 USD = 80 INR, 1 INR = 1.8 JPY
+        jdbcTemplate.update("DELETE FROM fx_rates");
+        jdbcTemplate.update("INSERT INTO fx_rates VALUES ('USD', 'INR', 80.00000000, NOW())");
+        jdbcTemplate.update("INSERT INTO fx_rates VALUES ('INR', 'JPY', 1.80000000, NOW())");
+        fxRateService.refresh();
+        
+        if (usdAccountId == null) {
+            Bank bank = bankRepository.findByBankCode("BANK1").orElseThrow();
+            User user = new User();
+            user.setUsername("limits-usd");
+            user.setPassword("secret123");
+            user.setEmail("limits-usd@example.com");
+            user.setFirstName("Test");
+            user.setLastName("limits-usd");
+            user.setPhoneNumber("555");
+            user.setAddress("Test address");
+            user.setRole(Role.CUSTOMER);
+            user.setBank(bank);
+            user.setActive(true);
+            user = userService.createUser(user);
+            
+            Account account = new Account();
+            account.setAccountType(AccountType.SAVINGS);
+            account.setCurrency("USD");
+            usdAccountId = accountService.createAccount(account, user.getId()).getId();
+        }
+    }
+    
+    @Test
+    void baseCurrencyRulesAreUnchanged() {
+        LimitPolicyService.LimitRule rule = limitPolicyService.getRule(null, AccountType.SAVINGS, TransactionType.WITHDRAWAL, "INR");
+        assertEquals(new BigDecimal("50000.00"), rule.getDailyLimit());
+        assertEquals(new BigDecimal("100000.00"), rule.getMaxSingleAmount());
+    }
+    
+    @Test
+    void rulesAreConvertedToTheAccountCurrency() {
+        LimitPolicyService.LimitRule usd = limitPolicyService.getRule(null, AccountType.SAVINGS, TransactionType.WITHDRAWAL, "USD");
+        assertEquals(new BigDecimal("625.00"), usd.getDailyLimit());
+        assertEquals(new BigDecimal("1250.00"), usd.getMaxSingleAmount());
+        
+        LimitPolicyService.LimitRule jpy = limitPolicyService.getRule(null, AccountType.SAVINGS, TransactionType.WITHDRAWAL, "JPY");
+        assertEquals(new BigDecimal("90000"), jpy.getDailyLimit());
+        
+        // Uncapped stays uncapped
+        assertNull(limitPolicyService.getRule(null, AccountType.SAVINGS, TransactionType.DEPOSIT, "USD").getDailyLimit());
+    }
+    
+    @Test
+    void minimumIsConvertedPerCurrency() {
+        assertEquals(new BigDecimal("1.00"), transactionService.getMinTransactionAmount("INR"));
+        assertEquals(new BigDecimal("0.01"), transactionService.getMinTransactionAmount("USD"));
+        assertEquals(new BigDecimal("2"), transactionService.getMinTransactionAmount("JPY"));
+        
+        InvalidAmountException e = assertThrows(InvalidAmountException.class,
+                () -> transactionService.validateTransactionAmount(new BigDecimal("1"), "JPY"));
+        assertEquals("Minimum transaction amount is JPY 2", e.getMessage());
+        e = assertThrows(InvalidAmountException.class,
+                () -> transactionService.validateTransactionAmount(new BigDecimal("0.50"), "INR"));
+        assertEquals("Minimum transaction amount is ₹1.00", e.getMessage());
+    }
+    
+    @Test
+    void postingsUseTheConvertedFigures() {
+        // Below the INR minimum, but above the USD one
+        transactionService.createDeposit(usdAccountId, new BigDecimal("0.50"), null);
+        
+        InvalidAmountException e = assertThrows(InvalidAmountException.class,
+                () -> transactionService.createDeposit(usdAccountId, new BigDecimal("1250.01"), null));
+        assertEquals("Single deposit amount cannot exceed USD 1250.00", e.getMessage());
+        transactionService.createDeposit(usdAccountId, new BigDecimal("1250.00"), null);
+    }
+}
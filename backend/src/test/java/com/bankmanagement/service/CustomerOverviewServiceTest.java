@@ -0,0 +1,139 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.dto.CustomerOverviewDTO;
+import com.bankmanagement.dto.CustomerOverviewDTO.AccountSummary;
+import com.bankmanagement.dto.CustomerOverviewDTO.TransactionSummary;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The dashboard for a customer with two accounts, with the recent transactions capped at two
+ * per account so the per-account ranking is visible.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:overview;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "customers.overview.recent-transactions=2"
+})
+@ActiveProfiles("test")
+class CustomerOverviewServiceTest {
+    
+    @Autowired
+    private CustomerOverviewService customerOverviewService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    private User owner;
+    private Long first;
+    private Long second;
+    
+    @BeforeEach
+    void post() {
+        owner = createCustomer();
+        first = openAccount(owner);
+        second = openAccount(owner);
+        transactionService.createDeposit(first, new BigDecimal("500.00"), null);
+        transactionService.createTransfer(first, second, new BigDecimal("200.00"), null);
+        transactionService.createWithdrawal(first, new BigDecimal("50.00"), null);
+    }
+    
+    @Test
+    void listsAccountsWithTheirLatestTransactionsAndRemainingLimits() {
+        CustomerOverviewDTO overview = customerOverviewService.getOverview(owner.getId());
+        
+        assertEquals(List.of(first, second), overview.getAccounts().stream().map(AccountSummary::getId).toList());
+        assertEquals(new BigDecimal("450.00"), overview.getTotalBalance());
+        
+        AccountSummary firstAccount = overview.getAccounts().get(0);
+        assertEquals(new BigDecimal("250.00"), firstAccount.getBalance());
+        assertEquals(new BigDecimal("250.00"), firstAccount.getAvailableBalance());
+        // Three postings on the account, newest two shown
+        assertEquals(List.of("WITHDRAWAL", "TRANSFER"), types(firstAccount));
+        assertEquals(firstAccount.getDailyWithdrawalLimit().subtract(new BigDecimal("50.00")),
+                firstAccount.getRemainingDailyWithdrawal());
+        assertEquals(firstAccount.getDailyTransferLimit().subtract(new BigDecimal("200.00")),
+                firstAccount.getRemainingDailyTransfer());
+        
+        // The incoming side of the transfer is listed on the receiving account too
+        AccountSummary secondAccount = overview.getAccounts().get(1);
+        assertEquals(new BigDecimal("200.00"), secondAccount.getBalance());
+        assertEquals(List.of("TRANSFER"), types(secondAccount));
+        assertEquals(secondAccount.getDailyWithdrawalLimit(), secondAccount.getRemainingDailyWithdrawal());
+    }
+    
+    @Test
+    void cachedUntilOneOfTheAccountsPosts() {
+        CustomerOverviewDTO overview = customerOverviewService.getOverview(owner.getId());
+        assertSame(overview, customerOverviewService.getOverview(owner.getId()));
+        
+        transactionService.createDeposit(second, new BigDecimal("10.00"), null);
+        CustomerOverviewDTO refreshed = customerOverviewService.getOverview(owner.getId());
+        assertNotSame(overview, refreshed);
+        assertEquals(new BigDecimal("210.00"), refreshed.getAccounts().get(1).getBalance());
+    }
+    
+    @Test
+    void customerWithoutAccountsStillGetsTheBankLimits() {
+        CustomerOverviewDTO overview = customerOverviewService.getOverview(createCustomer().getId());
+        
+        assertTrue(overview.getAccounts().isEmpty());
+        assertNotNull(overview.getDailyWithdrawalLimit());
+        assertNotNull(overview.getDailyTransferLimit());
+        assertEquals(BigDecimal.ZERO, overview.getTotalBalance());
+    }
+    
+    private static List<String> types(AccountSummary account) {
+        return account.getRecentTransactions().stream().map(TransactionSummary::getTransactionType).toList();
+    }
+    
+    private User createCustomer() {
+        Bank bank = bankRepository.findByBankCode("BANK1").orElseThrow();
+        String username = "overview-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(Role.CUSTOMER);
+        user.setBank(bank);
+        user.setActive(true);
+        return userService.createUser(user);
+    }
+    
+    private Long openAccount(User owner) {
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+        return accountService.createAccount(account, owner.getId()).getId();
+    }
+}
@@ -0,0 +1,137 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.exception.DailyLimitExceededException;
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.LockingStrategy;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.TransactionType;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Postings check their daily limit against usage recorded at the account's version, and sum
+ * the DB once the version has moved. Rows are inserted here without touching the account, which
+ * no real writer does, so whether a posting counts them shows which of the two it used.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DailyLimitUsageCacheTest {
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private LimitPolicyService limitPolicyService;
+    
+    @Autowired
+    private LockingStrategyService lockingStrategyService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Bank bank;
+    private LockingStrategy originalStrategy;
+    
+    @BeforeEach
+    void setUp() {
+        bank = bankRepository.findByBankCode("BANK2").orElseThrow();
+        originalStrategy = lockingStrategyService.getStrategy(bank.getId());
+    }
+    
+    @AfterEach
+    void restoreStrategy() {
+        lockingStrategyService.setStrategy(bank.getId(), originalStrategy);
+    }
+    
+    @ParameterizedTest
+    @EnumSource(LockingStrategy.class)
+    void withdrawalsUseTheVersionedUsage(LockingStrategy strategy) {
+        lockingStrategyService.setStrategy(bank.getId(), strategy);
+        Account account = createFundedAccount();
+        BigDecimal limit = limitPolicyService.getRule(account, TransactionType.WITHDRAWAL).getDailyLimit();
+        
+        // The first posting sums the DB and records its usage against the version it commits
+        transactionService.createWithdrawal(account.getId(), new BigDecimal("100.00"), null);
+        
+        // Unseen by the recorded usage, so the next posting isn't held back by it
+        insertUntouchedPosting(account.getId(), TransactionType.WITHDRAWAL, limit.subtract(new BigDecimal("150.00")));
+        transactionService.createWithdrawal(account.getId(), new BigDecimal("100.00"), null);
+        
+        // Any other writer moves the version, and the DB sum then includes the row
+        jdbcTemplate.update("UPDATE accounts SET version = version + 1 WHERE id = ?", account.getId());
+        assertThrows(DailyLimitExceededException.class,
+                () -> transactionService.createWithdrawal(account.getId(), new BigDecimal("100.00"), null));
+    }
+    
+    @ParameterizedTest
+    @EnumSource(LockingStrategy.class)
+    void transfersUseTheVersionedUsage(LockingStrategy strategy) {
+        lockingStrategyService.setStrategy(bank.getId(), strategy);
+        Account from = createFundedAccount();
+        Account to = createFundedAccount();
+        BigDecimal limit = limitPolicyService.getRule(from, TransactionType.TRANSFER).getDailyLimit();
+        
+        transactionService.createTransfer(from.getId(), to.getId(), new BigDecimal("100.00"), null);
+        insertUntouchedPosting(from.getId(), TransactionType.TRANSFER, limit.subtract(new BigDecimal("150.00")));
+        transactionService.createTransfer(from.getId(), to.getId(), new BigDecimal("100.00"), null);
+        
+        jdbcTemplate.update("UPDATE accounts SET version = version + 1 WHERE id = ?", from.getId());
+        assertThrows(DailyLimitExceededException.class,
+                () -> transactionService.createTransfer(from.getId(), to.getId(), new BigDecimal("100.00"), null));
+    }
+    
+    private Account createFundedAccount() {
+        String username = "usage-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(Role.CUSTOMER);
+        user.setBank(bank);
+        user.setActive(true);
+        user = userService.createUser(user);
+        
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+        account = accountService.createAccount(account, user.getId());
+        jdbcTemplate.update("UPDATE accounts SET balance = 10000000.00 WHERE id = ?", account.getId());
+        return accountService.getAccountById(account.getId());
+    }
+    
+    private void insertUntouchedPosting(Long accountId, TransactionType type, BigDecimal amount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO transactions (transaction_reference, transaction_type, amount, currency, " +
+                "transaction_status, from_account_id, created_at, updated_at) VALUES (?, ?, ?, 'INR', 'COMPLETED', ?, ?, ?)",
+                "TEST" + UUID.randomUUID(), type.name(), amount, accountId, now, now);
+    }
+}
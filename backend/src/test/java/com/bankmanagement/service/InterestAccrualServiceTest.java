@@ -0,0 +1,114 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.TransactionType;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Interest is posted through the JDBC batch path; each posting still raises a
+ * TransactionPostedEvent once its chunk commits, as interactive postings do.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:interest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "interest.savings.annual-rate=0.0365",
+        "interest.savings.day-count-basis=365"
+})
+@ActiveProfiles("test")
+class InterestAccrualServiceTest {
+    
+    @Autowired
+    private InterestAccrualService interestAccrualService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private CommittedEvents committedEvents;
+    
+    @Test
+    void postingsAreAnnouncedAfterCommit() {
+        User owner = createCustomer("interest-owner");
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+        Long accountId = accountService.createAccount(account, owner.getId()).getId();
+        jdbcTemplate.update("UPDATE accounts SET balance = 10000.00 WHERE id = ?", accountId);
+        
+        interestAccrualService.runAccrual(LocalDate.now());
+        
+        List<TransactionPostedEvent> events = committedEvents.events.stream()
+                .filter(event -> accountId.equals(event.getToAccountId()))
+                .toList();
+        assertEquals(1, events.size());
+        TransactionPostedEvent event = events.get(0);
+        assertEquals(TransactionType.INTEREST, event.getTransactionType());
+        assertEquals(new BigDecimal("1.00"), event.getAmount());
+        assertEquals(owner.getId(), event.getToUserId());
+        assertEquals(new BigDecimal("10001.00"), event.getToAccountBalance());
+        Long postedId = jdbcTemplate.queryForObject(
+                "SELECT id FROM transactions WHERE to_account_id = ? AND transaction_type = 'INTEREST'", Long.class, accountId);
+        assertEquals(postedId, event.getTransactionId());
+    }
+    
+    private User createCustomer(String username) {
+        Bank bank = bankRepository.findByBankCode("BANK1").orElseThrow();
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(Role.CUSTOMER);
+        user.setBank(bank);
+        user.setActive(true);
+        return userService.createUser(user);
+    }
+    
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CommittedEvents committedEvents() {
+            return new CommittedEvents();
+        }
+    }
+    
+    // Without fallback execution, so only events from committed transactions arrive
+    static class CommittedEvents {
+        private final List<TransactionPostedEvent> events = new CopyOnWriteArrayList<>();
+        
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+        public void onTransactionPosted(TransactionPostedEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.LimitPolicy;
+import com.bankmanagement.model.TransactionType;
+import com.bankmanagement.repository.LimitPolicyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LimitPolicyServiceTest {
+    
+    private LimitPolicyService limitPolicyService;
+    private LimitPolicyRepository limitPolicyRepository;
+    private final List<LimitPolicy> policies = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        limitPolicyRepository = mock(LimitPolicyRepository.class);
+        when(limitPolicyRepository.findAll()).thenReturn(policies);
+        when(limitPolicyRepository.fingerprint()).thenAnswer(invocation -> List.<Object[]>of(new Object[] { (long) policies.size() }));
+        FxRateService fxRateService = mock(FxRateService.class);
+        when(fxRateService.getBaseCurrency()).thenReturn("INR");
+        
+        limitPolicyService = new LimitPolicyService();
+        ReflectionTestUtils.setField(limitPolicyService, "limitPolicyRepository", limitPolicyRepository);
+        ReflectionTestUtils.setField(limitPolicyService, "fxRateService", fxRateService);
+    }
+    
+    @Test
+    void withoutPoliciesTheBuiltInCapsApply() {
+        limitPolicyService.reload();
+        
+        assertRule("50000.00", "100000.00", 1L, AccountType.SAVINGS, TransactionType.WITHDRAWAL);
+        assertRule(null, "100000.00", 1L, null, TransactionType.DEPOSIT);
+        assertRule(null, null, 1L, AccountType.BUSINESS, TransactionType.REFUND);
+    }
+    
+    @Test
+    void moreSpecificPoliciesWinAndNullsInherit() {
+        policies.add(policy(null, AccountType.SAVINGS, "40000.00", null));
+        policies.add(policy(1L, AccountType.SAVINGS, null, "20000.00"));
+        policies.add(policy(1L, null, "30000.00", null));
+        limitPolicyService.reload();
+        
+        // Bank-wide row over the all-banks account-type row; the bank's account-type row only sets the single cap
+        assertRule("30000.00", "20000.00", 1L, AccountType.SAVINGS, TransactionType.WITHDRAWAL);
+        assertRule("30000.00", "100000.00", 1L, AccountType.BUSINESS, TransactionType.WITHDRAWAL);
+        assertRule("30000.00", "100000.00", 1L, null, TransactionType.WITHDRAWAL);
+        // Banks without policies of their own get the all-banks rows
+        assertRule("40000.00", "100000.00", 2L, AccountType.SAVINGS, TransactionType.WITHDRAWAL);
+        assertRule("50000.00", "100000.00", 2L, AccountType.BUSINESS, TransactionType.WITHDRAWAL);
+        assertRule("100000.00", "100000.00", 1L, AccountType.SAVINGS, TransactionType.TRANSFER);
+    }
+    
+    @Test
+    void reloadsOnlyWhenThePoliciesChanged() {
+        limitPolicyService.reload();
+        limitPolicyService.reloadIfChanged();
+        verify(limitPolicyRepository, times(1)).findAll();
+        
+        // Written by another instance
+        policies.add(policy(1L, null, "25000.00", null));
+        limitPolicyService.reloadIfChanged();
+        verify(limitPolicyRepository, times(2)).findAll();
+        assertRule("25000.00", "100000.00", 1L, AccountType.SAVINGS, TransactionType.WITHDRAWAL);
+    }
+    
+    @Test
+    void rejectsInvalidLimits() {
+        assertEquals("Transaction type is required", assertThrows(RuntimeException.class,
+                () -> limitPolicyService.savePolicy(1L, null, null, new BigDecimal("10.00"), null)).getMessage());
+        assertEquals("Limits must be greater than zero", assertThrows(RuntimeException.class,
+                () -> limitPolicyService.savePolicy(1L, null, TransactionType.WITHDRAWAL, BigDecimal.ZERO, null)).getMessage());
+        assertEquals("Limits cannot have more than 2 decimal places", assertThrows(RuntimeException.class,
+                () -> limitPolicyService.savePolicy(1L, null, TransactionType.WITHDRAWAL, null, new BigDecimal("10.001"))).getMessage());
+        verify(limitPolicyRepository, never()).save(any());
+    }
+    
+    private void assertRule(String dailyLimit, String maxSingleAmount, Long bankId, AccountType accountType,
+                            TransactionType transactionType) {
+        LimitPolicyService.LimitRule rule = limitPolicyService.getRule(bankId, accountType, transactionType);
+        if (dailyLimit == null) {
+            assertNull(rule.getDailyLimit());
+        } else {
+            assertEquals(new BigDecimal(dailyLimit), rule.getDailyLimit());
+        }
+        if (maxSingleAmount == null) {
+            assertNull(rule.getMaxSingleAmount());
+        } else {
+            assertEquals(new BigDecimal(maxSingleAmount), rule.getMaxSingleAmount());
+        }
+    }
+    
+    private static LimitPolicy policy(Long bankId, AccountType accountType, String dailyLimit, String maxSingleAmount) {
+        LimitPolicy policy = new LimitPolicy();
+        policy.setBankId(bankId);
+        policy.setAccountType(accountType);
+        policy.setTransactionType(TransactionType.WITHDRAWAL);
+        policy.setDailyLimit(dailyLimit != null ? new BigDecimal(dailyLimit) : null);
+        policy.setMaxSingleAmount(maxSingleAmount != null ? new BigDecimal(maxSingleAmount) : null);
+        return policy;
+    }
+}
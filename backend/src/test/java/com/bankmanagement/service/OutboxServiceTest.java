@@ -0,0 +1,116 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Outbox events are handed out in commit order: an event whose transaction commits after a
+ * consumer acknowledged later events is still delivered to it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "outbox.sequencer.interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class OutboxServiceTest {
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void lateCommitIsDeliveredAfterTheConsumersOffset() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        // A long posting: its event takes the lower id but commits last
+        CompletableFuture<Long> slow = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    long id = insertEvent("slow");
+                    inserted.countDown();
+                    await(commit);
+                    return id;
+                }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+        long fastId = insertEvent("fast");
+        
+        outboxService.assignSequenceNumbers(100);
+        long fastSequence = sequenceNumberOf(fastId);
+        List<OutboxEvent> batch = outboxService.getEventsForConsumer("late-commit", 100);
+        assertEquals(fastId, batch.get(batch.size() - 1).getId());
+        outboxService.acknowledge("late-commit", batch.get(batch.size() - 1).getSequenceNumber());
+        
+        commit.countDown();
+        long slowId = slow.get(5, TimeUnit.SECONDS);
+        assertTrue(slowId < fastId);
+        assertNull(jdbcTemplate.queryForObject("SELECT sequence_number FROM outbox_events WHERE id = ?", Long.class, slowId));
+        
+        outboxService.assignSequenceNumbers(100);
+        assertTrue(sequenceNumberOf(slowId) > fastSequence);
+        List<OutboxEvent> next = outboxService.getEventsForConsumer("late-commit", 100);
+        assertEquals(List.of(slowId), next.stream().map(OutboxEvent::getId).toList());
+    }
+    
+    @Test
+    void unnumberedEventsAreNotHandedOut() {
+        long id = insertEvent("pending");
+        assertTrue(outboxService.getEventsAfter(0L, 1000).stream().noneMatch(event -> event.getId() == id));
+        
+        outboxService.assignSequenceNumbers(100);
+        assertTrue(outboxService.getEventsAfter(0L, 1000).stream().anyMatch(event -> event.getId() == id));
+    }
+    
+    @Test
+    void offsetsCannotPassTheLatestEvent() {
+        outboxService.assignSequenceNumbers(100);
+        long latest = outboxService.getLatestSequenceNumber();
+        
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> outboxService.acknowledge("ahead", latest + 1));
+        assertEquals("Last sequence number is beyond the latest event", e.getMessage());
+        
+        // Offsets never move back
+        outboxService.acknowledge("ahead", latest);
+        assertEquals(latest, outboxService.acknowledge("ahead", 0L).getLastSequenceNumber());
+    }
+    
+    private long insertEvent(String payload) {
+        jdbcTemplate.update("INSERT INTO outbox_events (event_type, aggregate_id, payload, created_at) VALUES (?, ?, ?, ?)",
+                OutboxService.TRANSACTION_POSTED, 0L, "\"" + payload + "\"", Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM outbox_events WHERE payload = ?", Long.class, "\"" + payload + "\"");
+    }
+    
+    private long sequenceNumberOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT sequence_number FROM outbox_events WHERE id = ?", Long.class, id);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.exception.PasswordHashingBusyException;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A login burst: 64 request threads checking BCrypt (cost 10) passwords at once, either directly
+ * on the request thread or through PasswordHashingService's bounded pool. The sample-time mode
+ * reports p99; through the pool, logins beyond the queue fail fast instead of waiting, and the
+ * request threads a direct check would pin stay free. Run as described in pom.xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class PasswordHashingBenchmark {
+    
+    private BCryptPasswordEncoder encoder;
+    private PasswordHashingService passwordHashingService;
+    private String hash;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(10);
+        hash = encoder.encode("admin123");
+        passwordHashingService = new PasswordHashingService(0, 4);
+        ReflectionTestUtils.setField(passwordHashingService, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(passwordHashingService, "maxWaitMs", 2000L);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHashingService.shutdown();
+    }
+    
+    @Benchmark
+    public boolean onRequestThread() {
+        return encoder.matches("admin123", hash);
+    }
+    
+    // A rejected login (429) is a valid, fast outcome of the burst; the counters split the two
+    @Benchmark
+    public boolean throughPool(Outcomes outcomes) {
+        try {
+            boolean matched = passwordHashingService.matches("admin123", hash);
+            outcomes.accepted++;
+            return matched;
+        } catch (PasswordHashingBusyException e) {
+            outcomes.rejected++;
+            return false;
+        }
+    }
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long accepted;
+        public long rejected;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+    
+    private PasswordHashingService passwordHashingService;
+    
+    // Holds the pool's only thread until released
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    @BeforeEach
+    void setUp() {
+        // One thread and a one-slot queue
+        passwordHashingService = new PasswordHashingService(1, 1);
+        ReflectionTestUtils.setField(passwordHashingService, "passwordEncoder", new BCryptPasswordEncoder(4));
+        ReflectionTestUtils.setField(passwordHashingService, "maxWaitMs", 2000L);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingService.shutdown();
+    }
+    
+    @Test
+    void failsFastWhenTheQueueIsFull() throws Exception {
+        CompletableFuture<Boolean> running = passwordHashingService.submit(this::block);
+        CompletableFuture<Boolean> queued = passwordHashingService.submit(() -> true);
+        waitForQueued(1);
+        
+        PasswordHashingBusyException e = assertThrows(PasswordHashingBusyException.class,
+                () -> passwordHashingService.submit(() -> true));
+        assertEquals("Too many password operations in progress, please retry shortly", e.getMessage());
+        
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void dropsWorkThatWaitedLongerThanMaxWait() throws Exception {
+        ReflectionTestUtils.setField(passwordHashingService, "maxWaitMs", 50L);
+        passwordHashingService.submit(this::block);
+        CompletableFuture<Boolean> queued = passwordHashingService.submit(() -> true);
+        
+        Thread.sleep(150);
+        release.countDown();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PasswordHashingBusyException.class, e.getCause());
+    }
+    
+    @Test
+    void blockingCallsTimeOut() {
+        ReflectionTestUtils.setField(passwordHashingService, "maxWaitMs", 50L);
+        passwordHashingService.submit(this::block);
+        
+        PasswordHashingBusyException e = assertThrows(PasswordHashingBusyException.class,
+                () -> passwordHashingService.encode("secret123"));
+        assertEquals("Password operation timed out, please retry shortly", e.getMessage());
+    }
+    
+    @Test
+    void hashesOnThePool() throws Exception {
+        String hash = passwordHashingService.encode("secret123");
+        assertTrue(passwordHashingService.matches("secret123", hash));
+        
+        // Nested calls from a hashing thread run inline instead of waiting on the pool's own queue
+        CompletableFuture<Boolean> nested = passwordHashingService.submit(() -> passwordHashingService.matches("secret123", hash));
+        assertTrue(nested.get(5, TimeUnit.SECONDS));
+    }
+    
+    private boolean block() {
+        try {
+            return release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void waitForQueued(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && passwordHashingService.getQueuedCount() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.Transaction;
+import com.bankmanagement.model.TransactionType;
+import com.bankmanagement.service.PostingJournal.JournalRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The journal on a temporary directory: records written and read back, rollback copies, segment
+ * rolls, and reopening over a torn tail.
+ */
+class PostingJournalTest {
+    
+    @TempDir
+    Path dir;
+    
+    private final List<PostingJournal> opened = new ArrayList<>();
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        for (PostingJournal journal : opened) {
+            journal.close();
+        }
+    }
+    
+    @Test
+    void postingsAreReadBackInOrder() throws IOException {
+        PostingJournal journal = open(PostingJournal.RECORD_SIZE * 64, false);
+        journal.record(posting(TransactionType.DEPOSIT, null, 5L, "100.25", "INR", null, null));
+        journal.record(posting(TransactionType.TRANSFER, 5L, 6L, "40.00", "INR", "48", "JPY"));
+        
+        List<JournalRecord> records = read();
+        assertEquals(List.of(1L, 2L, 3L), records.stream().map(JournalRecord::getSequence).toList());
+        assertEquals(PostingJournal.KIND_START, records.get(0).getKind());
+        
+        JournalRecord deposit = records.get(1);
+        assertEquals(TransactionType.DEPOSIT, deposit.getTransactionType());
+        assertEquals(0L, deposit.getFromAccountId());
+        assertEquals(5L, deposit.getToAccountId());
+        assertEquals(10025L, deposit.getCreditMinor());
+        assertEquals("INR", deposit.getCreditCurrency());
+        assertNull(deposit.getDebitCurrency());
+        
+        // A cross-currency transfer debits and credits in each account's own currency
+        JournalRecord transfer = records.get(2);
+        assertEquals(4000L, transfer.getDebitMinor());
+        assertEquals("INR", transfer.getDebitCurrency());
+        assertEquals(48L, transfer.getCreditMinor());
+        assertEquals("JPY", transfer.getCreditCurrency());
+        assertEquals("REF-TRANSFER", transfer.getReference());
+    }
+    
+    @Test
+    void rolledBackPostingsCancelOnReplay() throws IOException {
+        PostingJournal journal = open(PostingJournal.RECORD_SIZE * 64, false);
+        journal.record(posting(TransactionType.DEPOSIT, null, 5L, "100.00", "INR", null, null));
+        
+        // Appended just before commit, then compensated when the commit fails
+        TransactionSynchronizationManager.initSynchronization();
+        journal.record(posting(TransactionType.WITHDRAWAL, 5L, null, "30.00", "INR", null, null));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        // Nothing reaches the journal until the transaction commits
+        assertEquals(2, read().size());
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        
+        List<JournalRecord> records = read();
+        assertEquals(PostingJournal.KIND_ROLLBACK, records.get(3).getKind());
+        assertEquals(3000L, records.get(3).getDebitMinor());
+        
+        JournalReplayService.ReplayResult result = new JournalReplayService.ReplayResult();
+        JournalReplayService.JournalBalances balances = JournalReplayService.replay(dir, result);
+        assertEquals(2, result.getPostings());
+        assertEquals(1, result.getRollbacks());
+        assertEquals(10000L, balances.minor.get(5L));
+    }
+    
+    @Test
+    void rollsSegmentsAndResumesAfterRestart() throws IOException, InterruptedException {
+        PostingJournal journal = open(PostingJournal.RECORD_SIZE * 3, false);
+        for (int i = 0; i < 4; i++) {
+            journal.record(posting(TransactionType.DEPOSIT, null, 5L, "1.00", "INR", null, null));
+        }
+        journal.close();
+        
+        PostingJournal reopened = open(PostingJournal.RECORD_SIZE * 3, false);
+        reopened.record(posting(TransactionType.DEPOSIT, null, 5L, "1.00", "INR", null, null));
+        
+        assertEquals(List.of("00000000000000000001.journal", "00000000000000000004.journal"), segmentNames());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), read().stream().map(JournalRecord::getSequence).toList());
+    }
+    
+    @Test
+    void reopeningAppendsOverATornRecord() throws IOException, InterruptedException {
+        PostingJournal journal = open(PostingJournal.RECORD_SIZE * 64, false);
+        journal.record(posting(TransactionType.DEPOSIT, null, 5L, "1.00", "INR", null, null));
+        journal.record(posting(TransactionType.DEPOSIT, null, 5L, "2.00", "INR", null, null));
+        journal.close();
+        
+        // Damage the last record as a write cut short by a crash would
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve(segmentNames().get(0)).toFile(), "rw")) {
+            file.seek(PostingJournal.RECORD_SIZE * 2L + 50);
+            file.write(0x7f);
+        }
+        assertEquals(2, read().size());
+        
+        PostingJournal reopened = open(PostingJournal.RECORD_SIZE * 64, false);
+        reopened.record(posting(TransactionType.DEPOSIT, null, 5L, "3.00", "INR", null, null));
+        List<JournalRecord> records = read();
+        assertEquals(List.of(1L, 2L, 3L), records.stream().map(JournalRecord::getSequence).toList());
+        assertEquals(300L, records.get(2).getCreditMinor());
+    }
+    
+    @Test
+    void maintenanceRefusesPostings() throws IOException {
+        PostingJournal journal = open(PostingJournal.RECORD_SIZE * 64, true);
+        
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> journal.record(posting(TransactionType.DEPOSIT, null, 5L, "1.00", "INR", null, null)));
+        assertEquals("Postings are stopped for journal maintenance", e.getMessage());
+        assertEquals(1, read().size());
+    }
+    
+    private PostingJournal open(int segmentBytes, boolean maintenance) throws IOException {
+        PostingJournal journal = new PostingJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directory", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentBytes", segmentBytes);
+        ReflectionTestUtils.setField(journal, "syncTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(journal, "maintenance", maintenance);
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+    
+    private List<JournalRecord> read() throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        PostingJournal.read(dir, records::add);
+        return records;
+    }
+    
+    private List<String> segmentNames() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+    
+    private static Transaction posting(TransactionType type, Long fromAccountId, Long toAccountId, String amount,
+                                       String currency, String creditedAmount, String creditedCurrency) {
+        Transaction posting = new Transaction();
+        posting.setTransactionType(type);
+        posting.setTransactionReference("REF-" + type);
+        posting.setAmount(new BigDecimal(amount));
+        posting.setCurrency(currency);
+        posting.setFromAccount(account(fromAccountId));
+        posting.setToAccount(account(toAccountId));
+        if (creditedAmount != null) {
+            posting.setCreditedAmount(new BigDecimal(creditedAmount));
+            posting.setCreditedCurrency(creditedCurrency);
+        }
+        return posting;
+    }
+    
+    private static Account account(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Account account = new Account();
+        account.setId(id);
+        return account;
+    }
+}
@@ -0,0 +1,167 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Full and incremental runs against real postings, with chunk sizes small enough that the
+ * transaction stream and the account comparison are both split across tasks.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconciliation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "reconciliation.settle-seconds=0",
+        "reconciliation.transaction-chunk-size=2",
+        "reconciliation.account-chunk-size=2"
+})
+@ActiveProfiles("test")
+class ReconciliationServiceTest {
+    
+    @Autowired
+    private ReconciliationService reconciliationService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Bank bank;
+    private Long first;
+    private Long second;
+    
+    @BeforeEach
+    void post() {
+        bank = bankRepository.findByBankCode("BANK1").orElseThrow();
+        User owner = createCustomer();
+        first = openAccount(owner);
+        second = openAccount(owner);
+        transactionService.createDeposit(first, new BigDecimal("500.00"), null);
+        transactionService.createTransfer(first, second, new BigDecimal("200.00"), null);
+        transactionService.createWithdrawal(second, new BigDecimal("50.25"), null);
+    }
+    
+    @Test
+    void matchingLedgersHaveNoDiscrepancies() {
+        long runId = reconciliationService.runReconciliation(true);
+        
+        assertEquals("COMPLETED", runStatus(runId));
+        assertEquals(List.of(), discrepancies(runId));
+        assertEquals(new BigDecimal("300.00"), ledgerBalance(first));
+        assertEquals(new BigDecimal("149.75"), ledgerBalance(second));
+    }
+    
+    @Test
+    void balanceChangedOutsideTheLedgerIsReported() {
+        reconciliationService.runReconciliation(true);
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + 1.50 WHERE id = ?", first);
+        
+        long runId = reconciliationService.runReconciliation(false);
+        List<Map<String, Object>> found = discrepancies(runId);
+        assertEquals(1, found.size());
+        assertEquals(new BigDecimal("300.00"), found.get(0).get("ledger_balance"));
+        assertEquals(new BigDecimal("301.50"), found.get(0).get("account_balance"));
+        assertEquals(new BigDecimal("1.50"), found.get(0).get("difference"));
+        jdbcTemplate.update("UPDATE accounts SET balance = balance - 1.50 WHERE id = ?", first);
+    }
+    
+    @Test
+    void incrementalRunsOnlyReadNewPostings() {
+        long fullRun = reconciliationService.runReconciliation(true);
+        long watermark = jdbcTemplate.queryForObject("SELECT to_transaction_id FROM reconciliation_runs WHERE id = ?", Long.class, fullRun);
+        
+        transactionService.createDeposit(second, new BigDecimal("10.00"), null);
+        long runId = reconciliationService.runReconciliation(false);
+        
+        Map<String, Object> run = jdbcTemplate.queryForMap("SELECT run_mode, from_transaction_id, transactions_scanned FROM reconciliation_runs WHERE id = ?", runId);
+        assertEquals(ReconciliationService.INCREMENTAL, run.get("run_mode"));
+        assertEquals(watermark, ((Number) run.get("from_transaction_id")).longValue());
+        assertEquals(1L, ((Number) run.get("transactions_scanned")).longValue());
+        assertEquals(List.of(), discrepancies(runId));
+        assertEquals(new BigDecimal("159.75"), ledgerBalance(second));
+    }
+    
+    @Test
+    void unsettledPostingsCountAsPending() {
+        reconciliationService.runReconciliation(true);
+        // Every new posting stays above the watermark, but it is already in the balance
+        ReflectionTestUtils.setField(reconciliationService, "settleSeconds", 3600L);
+        try {
+            transactionService.createTransfer(second, first, new BigDecimal("25.00"), null);
+            long runId = reconciliationService.runReconciliation(false);
+            
+            assertEquals(List.of(), discrepancies(runId));
+            // The ledger snapshot stops at the watermark
+            assertEquals(new BigDecimal("149.75"), ledgerBalance(second));
+        } finally {
+            ReflectionTestUtils.setField(reconciliationService, "settleSeconds", 0L);
+        }
+    }
+    
+    // Only this test's accounts; the seeded ones aren't part of the scenario
+    private List<Map<String, Object>> discrepancies(long runId) {
+        return reconciliationService.getDiscrepancies(bank.getId(), runId).stream()
+                .filter(row -> first.equals(((Number) row.get("account_id")).longValue())
+                        || second.equals(((Number) row.get("account_id")).longValue()))
+                .toList();
+    }
+    
+    private String runStatus(long runId) {
+        assertTrue(runId > 0);
+        return jdbcTemplate.queryForObject("SELECT status FROM reconciliation_runs WHERE id = ?", String.class, runId);
+    }
+    
+    private BigDecimal ledgerBalance(Long accountId) {
+        return jdbcTemplate.queryForObject("SELECT ledger_balance FROM reconciliation_balances WHERE account_id = ?",
+                BigDecimal.class, accountId);
+    }
+    
+    private User createCustomer() {
+        String username = "recon-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(Role.CUSTOMER);
+        user.setBank(bank);
+        user.setActive(true);
+        return userService.createUser(user);
+    }
+    
+    private Long openAccount(User owner) {
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+        return accountService.createAccount(account, owner.getId()).getId();
+    }
+}
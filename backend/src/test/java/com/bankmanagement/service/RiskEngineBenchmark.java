@@ -0,0 +1,93 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RiskEngine.assess on warm windows with the default rule settings, outside a transaction so
+ * each allowed posting is recorded at once. accounts=1 has every thread contend on one window.
+ * Run as described in pom.xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RiskEngineBenchmark {
+    
+    @Param({"1", "10000"})
+    private int accounts;
+    
+    private RiskEngine riskEngine;
+    
+    private final BigDecimal amount = new BigDecimal("125.00");
+    
+    @Setup
+    public void setUp() {
+        FxRateService fxRateService = new FxRateService();
+        ReflectionTestUtils.setField(fxRateService, "baseCurrency", "INR");
+        
+        // High enough that the benchmark measures the checks, not declines
+        VelocityRiskRule velocity = new VelocityRiskRule();
+        ReflectionTestUtils.setField(velocity, "maxPostings", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(velocity, "windowSeconds", 60L);
+        
+        AmountOutlierRiskRule outlier = new AmountOutlierRiskRule();
+        ReflectionTestUtils.setField(outlier, "fxRateService", fxRateService);
+        ReflectionTestUtils.setField(outlier, "minSamples", 10);
+        ReflectionTestUtils.setField(outlier, "multiplier", 10L);
+        ReflectionTestUtils.setField(outlier, "minAmount", 10000L);
+        
+        NewBeneficiaryRiskRule beneficiary = new NewBeneficiaryRiskRule();
+        ReflectionTestUtils.setField(beneficiary, "fxRateService", fxRateService);
+        ReflectionTestUtils.setField(beneficiary, "newMaxAmount", 25000L);
+        ReflectionTestUtils.setField(beneficiary, "minHistory", 5);
+        
+        riskEngine = new RiskEngine();
+        ReflectionTestUtils.setField(riskEngine, "rules", List.of(velocity, outlier, beneficiary));
+        ReflectionTestUtils.setField(riskEngine, "enabled", true);
+        ReflectionTestUtils.setField(riskEngine, "velocityPostings", 20);
+        ReflectionTestUtils.setField(riskEngine, "amountSamples", 50);
+        ReflectionTestUtils.setField(riskEngine, "beneficiaryHistory", 32);
+        ReflectionTestUtils.setField(riskEngine, "maxAccounts", 500000);
+        ReflectionTestUtils.setField(riskEngine, "idleSeconds", 86400L);
+        
+        // Fill the windows so every rule has history to look at
+        for (long account = 1; account <= accounts; account++) {
+            for (int i = 0; i < 50; i++) {
+                riskEngine.assess(TransactionType.TRANSFER, account, account + 1 + i % 8, amount, "INR");
+            }
+        }
+    }
+    
+    @Benchmark
+    public String withdrawal() {
+        long account = 1 + ThreadLocalRandom.current().nextInt(accounts);
+        return riskEngine.assess(TransactionType.WITHDRAWAL, account, null, amount, "INR");
+    }
+    
+    @Benchmark
+    public String transferToKnownBeneficiary() {
+        long account = 1 + ThreadLocalRandom.current().nextInt(accounts);
+        return riskEngine.assess(TransactionType.TRANSFER, account, account + 1, amount, "INR");
+    }
+}
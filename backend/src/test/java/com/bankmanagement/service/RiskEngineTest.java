@@ -0,0 +1,193 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RiskEngineTest {
+    
+    private static final long ACCOUNT = 1;
+    
+    private RiskEngine riskEngine;
+    
+    @BeforeEach
+    void setUp() {
+        // Base currency only, so converted thresholds equal the configured ones
+        FxRateService fxRateService = mock(FxRateService.class);
+        when(fxRateService.fromBaseCurrency(any(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        VelocityRiskRule velocity = new VelocityRiskRule();
+        ReflectionTestUtils.setField(velocity, "maxPostings", 3);
+        ReflectionTestUtils.setField(velocity, "windowSeconds", 60L);
+        
+        AmountOutlierRiskRule outlier = new AmountOutlierRiskRule();
+        ReflectionTestUtils.setField(outlier, "fxRateService", fxRateService);
+        ReflectionTestUtils.setField(outlier, "minSamples", 2);
+        ReflectionTestUtils.setField(outlier, "multiplier", 10L);
+        ReflectionTestUtils.setField(outlier, "minAmount", 10000L);
+        
+        NewBeneficiaryRiskRule beneficiary = new NewBeneficiaryRiskRule();
+        ReflectionTestUtils.setField(beneficiary, "fxRateService", fxRateService);
+        ReflectionTestUtils.setField(beneficiary, "newMaxAmount", 25000L);
+        ReflectionTestUtils.setField(beneficiary, "minHistory", 2);
+        
+        riskEngine = new RiskEngine();
+        ReflectionTestUtils.setField(riskEngine, "rules", List.of(velocity, outlier, beneficiary));
+        ReflectionTestUtils.setField(riskEngine, "enabled", true);
+        ReflectionTestUtils.setField(riskEngine, "velocityPostings", 3);
+        ReflectionTestUtils.setField(riskEngine, "amountSamples", 3);
+        ReflectionTestUtils.setField(riskEngine, "beneficiaryHistory", 4);
+        ReflectionTestUtils.setField(riskEngine, "maxAccounts", 10);
+        ReflectionTestUtils.setField(riskEngine, "idleSeconds", 86400L);
+    }
+    
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void allowsUntilTheVelocityLimit() {
+        for (int i = 0; i < 3; i++) {
+            assertNull(withdraw("100.00"));
+        }
+        assertEquals("Velocity limit reached: 3 postings in 60 seconds", withdraw("100.00"));
+    }
+    
+    @Test
+    void declinesOutliersOnceThereIsHistory() {
+        // Not enough samples yet to judge
+        assertNull(riskEngine.assess(TransactionType.WITHDRAWAL, 2L, null, new BigDecimal("50000.00"), "INR"));
+        
+        assertNull(withdraw("100.00"));
+        assertNull(withdraw("100.00"));
+        assertEquals("Amount ₹20000.00 is more than 10x the account's recent average of ₹100.00", withdraw("20000.00"));
+        // Above the multiple, but below the minimum amount an outlier must reach
+        assertNull(withdraw("5000.00"));
+    }
+    
+    @Test
+    void capsTheFirstTransferToANewBeneficiary() {
+        assertNull(transfer(2, "5000.00"));
+        assertNull(transfer(2, "5000.00"));
+        assertEquals("First transfer to a new beneficiary cannot exceed ₹25000.00", transfer(3, "25000.01"));
+        // A beneficiary already paid is not capped
+        window().record(System.currentTimeMillis() - 120_000, 2_500_000, 3);
+        assertNull(transfer(3, "25000.01"));
+    }
+    
+    @Test
+    void ringBuffersEvictTheOldestEntries() {
+        AccountRiskWindow window = new AccountRiskWindow(3, 3, 2);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            window.record(now + i, (i + 1) * 100, 10 + i);
+        }
+        // Only the last three postings and amounts (300, 400, 500) are kept
+        assertEquals(3, window.countPostedSince(now));
+        assertEquals(3, window.getAmountSamples());
+        assertEquals(400, window.getMeanAmount());
+        // And the last two beneficiaries
+        assertTrue(window.hasPaid(14));
+        assertTrue(window.hasPaid(13));
+        assertFalse(window.hasPaid(12));
+    }
+    
+    @Test
+    void idleWindowsAreEvicted() {
+        assertNull(withdraw("100.00"));
+        assertEquals(1, windows().size());
+        
+        riskEngine.evictIdle();
+        assertEquals(1, windows().size());
+        
+        ReflectionTestUtils.setField(riskEngine, "idleSeconds", -1L);
+        riskEngine.evictIdle();
+        assertTrue(windows().isEmpty());
+    }
+    
+    @Test
+    void failsOpenWhenTrackingTooManyAccounts() {
+        ReflectionTestUtils.setField(riskEngine, "maxAccounts", 0);
+        for (int i = 0; i < 5; i++) {
+            assertNull(withdraw("100.00"));
+        }
+        assertTrue(windows().isEmpty());
+    }
+    
+    @Test
+    void rollbackDropsThePendingEntry() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertNull(withdraw("100.00"));
+        // Reserved: counted for velocity, but not yet a posted amount
+        assertEquals(1, window().countPostedSince(0));
+        assertEquals(0, window().getAmountSamples());
+        
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(0, window().countPostedSince(0));
+        assertEquals(0, window().getAmountSamples());
+    }
+    
+    @Test
+    void commitRecordsThePendingEntry() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertNull(withdraw("100.00"));
+        
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(1, window().countPostedSince(0));
+        assertEquals(1, window().getAmountSamples());
+        assertEquals(10000, window().getMeanAmount());
+    }
+    
+    @Test
+    void pendingEntriesCountTowardsVelocity() {
+        TransactionSynchronizationManager.initSynchronization();
+        for (int i = 0; i < 3; i++) {
+            assertNull(withdraw("100.00"));
+        }
+        assertNotNull(withdraw("100.00"));
+    }
+    
+    private String withdraw(String amount) {
+        return riskEngine.assess(TransactionType.WITHDRAWAL, ACCOUNT, null, new BigDecimal(amount), "INR");
+    }
+    
+    private String transfer(long beneficiaryId, String amount) {
+        return riskEngine.assess(TransactionType.TRANSFER, ACCOUNT, beneficiaryId, new BigDecimal(amount), "INR");
+    }
+    
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<Long, AccountRiskWindow> windows() {
+        return (Map<Long, AccountRiskWindow>) ReflectionTestUtils.getField(riskEngine, "windows");
+    }
+    
+    private AccountRiskWindow window() {
+        return windows().get(ACCOUNT);
+    }
+}
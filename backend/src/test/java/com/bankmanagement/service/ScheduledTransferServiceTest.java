@@ -0,0 +1,186 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Account;
+import com.bankmanagement.model.AccountType;
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.Role;
+import com.bankmanagement.model.ScheduleFrequency;
+import com.bankmanagement.model.ScheduledTransfer;
+import com.bankmanagement.model.ScheduledTransferStatus;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.BankRepository;
+import com.bankmanagement.repository.ScheduledTransferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Standing orders claimed and executed by hand as two nodes would; the executor's own polling
+ * is switched off so nothing runs behind the test's back.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:standing-orders;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "scheduled-transfers.enabled=false"
+})
+@ActiveProfiles("test")
+class ScheduledTransferServiceTest {
+    
+    @Autowired
+    private ScheduledTransferService scheduledTransferService;
+    
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private BankRepository bankRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private User owner;
+    private Long from;
+    private Long to;
+    
+    @BeforeEach
+    void fund() {
+        owner = createCustomer();
+        from = openAccount(owner);
+        to = openAccount(owner);
+        transactionService.createDeposit(from, new BigDecimal("100.00"), null);
+    }
+    
+    @AfterEach
+    void restoreLease() {
+        ReflectionTestUtils.setField(scheduledTransferService, "leaseSeconds", 120L);
+    }
+    
+    @Test
+    void dueOccurrenceRunsOnceAndTheNextIsScheduled() {
+        LocalDateTime start = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+        ScheduledTransfer order = schedule(ScheduleFrequency.MONTHLY, "30.00", start);
+        
+        assertTrue(scheduledTransferService.claimDue("node-a", 100).contains(order.getId()));
+        // Leased to node-a, so another node's claim passes it by
+        assertFalse(scheduledTransferService.claimDue("node-b", 100).contains(order.getId()));
+        
+        scheduledTransferService.execute(order.getId(), "node-a");
+        scheduledTransferService.execute(order.getId(), "node-a");
+        
+        ScheduledTransfer executed = reload(order);
+        assertEquals(ScheduledTransferStatus.ACTIVE, executed.getStatus());
+        assertEquals(1, executed.getOccurrenceCount());
+        assertEquals(start.plusMonths(1), executed.getNextRunAt());
+        assertNull(executed.getLeaseOwner());
+        assertEquals(new BigDecimal("70.00"), accountService.getAccountById(from).getBalance());
+        assertEquals(new BigDecimal("30.00"), accountService.getAccountById(to).getBalance());
+    }
+    
+    @Test
+    void nodeWhoseLeaseWasTakenOverDoesNotRunTheOccurrence() throws InterruptedException {
+        ScheduledTransfer order = schedule(ScheduleFrequency.ONCE, "30.00", null);
+        ReflectionTestUtils.setField(scheduledTransferService, "leaseSeconds", 0L);
+        assertTrue(scheduledTransferService.claimDue("node-a", 100).contains(order.getId()));
+        Thread.sleep(10);
+        assertTrue(scheduledTransferService.claimDue("node-b", 100).contains(order.getId()));
+        
+        scheduledTransferService.execute(order.getId(), "node-a");
+        assertEquals(new BigDecimal("100.00"), accountService.getAccountById(from).getBalance());
+        
+        scheduledTransferService.execute(order.getId(), "node-b");
+        assertEquals(ScheduledTransferStatus.COMPLETED, reload(order).getStatus());
+        assertEquals(new BigDecimal("70.00"), accountService.getAccountById(from).getBalance());
+    }
+    
+    @Test
+    void insufficientBalanceIsRetriedWithBackoffUntilAttemptsRunOut() {
+        ScheduledTransfer order = schedule(ScheduleFrequency.ONCE, "150.00", null);
+        scheduledTransferService.claimDue("node-a", 100);
+        LocalDateTime before = LocalDateTime.now();
+        scheduledTransferService.execute(order.getId(), "node-a");
+        
+        ScheduledTransfer retrying = reload(order);
+        assertEquals(ScheduledTransferStatus.ACTIVE, retrying.getStatus());
+        assertEquals(1, retrying.getAttempts());
+        assertTrue(retrying.getLastError().startsWith("Insufficient balance"), retrying.getLastError());
+        assertFalse(retrying.getNextRunAt().isBefore(before.plusSeconds(300)));
+        
+        // Due again for its last attempt
+        jdbcTemplate.update("UPDATE scheduled_transfers SET attempts = 4, next_run_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), order.getId());
+        assertTrue(scheduledTransferService.claimDue("node-a", 100).contains(order.getId()));
+        scheduledTransferService.execute(order.getId(), "node-a");
+        assertEquals(ScheduledTransferStatus.FAILED, reload(order).getStatus());
+        assertEquals(new BigDecimal("100.00"), accountService.getAccountById(from).getBalance());
+    }
+    
+    @Test
+    void resumingSkipsOccurrencesMissedWhilePaused() {
+        LocalDateTime start = LocalDateTime.now().minusDays(3).plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        ScheduledTransfer order = schedule(ScheduleFrequency.DAILY, "10.00", start);
+        scheduledTransferService.pauseScheduledTransfer(order.getId(), owner);
+        assertFalse(scheduledTransferService.claimDue("node-a", 100).contains(order.getId()));
+        
+        ScheduledTransfer resumed = scheduledTransferService.resumeScheduledTransfer(order.getId(), owner);
+        assertEquals(ScheduledTransferStatus.ACTIVE, resumed.getStatus());
+        assertEquals(3, resumed.getOccurrenceCount());
+        assertEquals(start.plusDays(3), resumed.getNextRunAt());
+        assertFalse(scheduledTransferService.claimDue("node-a", 100).contains(order.getId()));
+    }
+    
+    private ScheduledTransfer schedule(ScheduleFrequency frequency, String amount, LocalDateTime start) {
+        return scheduledTransferService.createScheduledTransfer(owner, from, to, new BigDecimal(amount), null,
+                frequency, start, null);
+    }
+    
+    private ScheduledTransfer reload(ScheduledTransfer order) {
+        return scheduledTransferRepository.findById(order.getId()).orElseThrow();
+    }
+    
+    private User createCustomer() {
+        Bank bank = bankRepository.findByBankCode("BANK1").orElseThrow();
+        String username = "orders-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setPhoneNumber("555");
+        user.setAddress("Test address");
+        user.setRole(Role.CUSTOMER);
+        user.setBank(bank);
+        user.setActive(true);
+        return userService.createUser(user);
+    }
+    
+    private Long openAccount(User owner) {
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+        return accountService.createAccount(account, owner.getId()).getId();
+    }
+}
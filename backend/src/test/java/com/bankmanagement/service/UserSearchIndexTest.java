@@ -0,0 +1,104 @@
+package com.bankmanagement.service;
+
+import com.bankmanagement.model.Bank;
+import com.bankmanagement.model.User;
+import com.bankmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexTest {
+    
+    private static final long BANK = 1;
+    
+    private UserSearchIndex userSearchIndex;
+    private UserRepository userRepository;
+    
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 1L, "Alice", "Smith", "asmith", "alice@example.com", "555-0101" });
+        rows.add(new Object[] { 2L, "Alicia", "Keys", "akeys", "alicia@example.com", "555-0102" });
+        rows.add(new Object[] { 3L, "Bob", "Malice", "bmalice", "bob@example.com", "555-0103" });
+        rows.add(new Object[] { 4L, "Carol", "Jones", "cjones", "carol@example.com", "555-0104" });
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findSearchFieldsByBankId(BANK)).thenReturn(rows);
+        when(userRepository.findSearchFieldsByBankId(2L)).thenReturn(List.of());
+        
+        userSearchIndex = new UserSearchIndex();
+        ReflectionTestUtils.setField(userSearchIndex, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userSearchIndex, "fuzzyThreshold", 0.5);
+    }
+    
+    @Test
+    void ranksExactThenPrefixThenInfixThenFuzzy() {
+        assertEquals(List.of(1L), ids("asmith"));
+        // Prefix of Alice's name, inside Bob's surname, and close to Alicia
+        assertEquals(List.of(1L, 3L, 2L), ids("alice"));
+        assertEquals(List.of(4L), ids("jonees"));
+    }
+    
+    @Test
+    void shortQueriesMatchWordStarts() {
+        assertEquals(List.of(4L), ids("ca"));
+        assertEquals(List.of(), ids("  "));
+    }
+    
+    @Test
+    void phoneNumbersMatchOnDigits() {
+        assertEquals(3L, ids("(555) 0103").get(0));
+        assertEquals(3L, ids("5550103").get(0));
+    }
+    
+    @Test
+    void pagesThroughRankedResults() {
+        UserSearchIndex.SearchResult second = userSearchIndex.search(BANK, "alice", 1, 1);
+        assertEquals(List.of(3L), second.getUserIds());
+        assertEquals(3, second.getTotal());
+    }
+    
+    @Test
+    void keptCurrentAfterTheFirstSearch() {
+        ids("alice");
+        userSearchIndex.index(user(5L, "Alice", "Walker", "awalker"));
+        userSearchIndex.index(user(3L, "Bob", "Stone", "bstone"));
+        userSearchIndex.remove(BANK, 2L);
+        
+        assertEquals(List.of(1L, 5L), ids("alice"));
+        assertEquals(List.of(3L), ids("stone"));
+        // Built once; later changes apply to the index in memory
+        verify(userRepository, times(1)).findSearchFieldsByBankId(BANK);
+    }
+    
+    @Test
+    void banksHaveSeparateIndexes() {
+        assertEquals(List.of(), userSearchIndex.search(2L, "alice", 0, 10).getUserIds());
+    }
+    
+    private List<Long> ids(String query) {
+        return userSearchIndex.search(BANK, query, 0, 10).getUserIds();
+    }
+    
+    private static User user(Long id, String firstName, String lastName, String username) {
+        Bank bank = new Bank();
+        bank.setId(BANK);
+        User user = new User();
+        user.setId(id);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPhoneNumber("555-0199");
+        user.setBank(bank);
+        return user;
+    }
+}
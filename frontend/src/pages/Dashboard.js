@@ -46,19 +46,46 @@ const Dashboard = () => {
     loadDashboardData();
   }, [user]);
 
+  // Keep balances and recent transactions live without re-fetching the overview
+  useEffect(() => {
+    if (!user || !isCustomer()) return undefined;
+    const stream = accountService.subscribeToAccountStream({
+      onBalance: ({ accountId, balance }) => {
+        setAccounts((current) => current.map((account) =>
+          account.id === accountId ? { ...account, balance } : account
+        ));
+      },
+      onTransaction: (transaction) => {
+        setTransactions((current) => [
+          transaction,
+          ...current.filter((existing) => existing.id !== transaction.id)
+        ].slice(0, 5));
+      }
+    });
+    return () => stream.close();
+  }, [user]);
+
   const loadDashboardData = async () => {
     try {
       setLoading(true);
       
       if (isCustomer()) {
-        // Load customer data
-        const [accountsRes, transactionsRes] = await Promise.all([
-          accountService.getMyAccounts(),
-          transactionService.getMyTransactions()
-        ]);
+        // Accounts and their recent transactions come back in one overview call
+        const overviewRes = await accountService.getOverview();
+        const overview = overviewRes.data || overviewRes;
+        const accountList = overview.accounts || [];
         
-        setAccounts(accountsRes.data || accountsRes);
-        setTransactions((transactionsRes.data || transactionsRes)?.slice(0, 5) || []); // Latest 5 transactions
+        // A transfer between own accounts shows up under both, so dedupe before taking the latest 5
+        const recent = new Map();
+        accountList.forEach((account) => {
+          (account.recentTransactions || []).forEach((transaction) => recent.set(transaction.id, transaction));
+        });
+        setAccounts(accountList);
+        setTransactions(
+          [...recent.values()]
+            .sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt))
+            .slice(0, 5)
+        );
       } else if (isAdmin() || isEmployee()) {
         // Load admin/employee data
         const [accountsRes, transactionsRes, statsRes] = await Promise.all([
@@ -7,6 +7,49 @@ const accountService = {
   getMyActiveAccounts: () => api.get('/accounts/my-accounts/active'),
   getAccountById: (id) => api.get(`/accounts/${id}`),
   getAccountBalance: (id) => api.get(`/accounts/${id}/balance`),
+  getOverview: () => api.get('/customers/me/overview'),
+
+  // Live balance/transaction updates. EventSource can't send headers, so the stream is opened with a
+  // short-lived ticket instead of the login token; returns a handle whose close() stops it
+  subscribeToAccountStream: ({ onBalance, onTransaction, onError } = {}) => {
+    let source = null;
+    let closed = false;
+
+    const open = async () => {
+      try {
+        const response = await api.post('/accounts/stream/ticket');
+        if (closed) return;
+        source = new EventSource(
+          `${api.defaults.baseURL}/accounts/stream?ticket=${encodeURIComponent(response.data.ticket)}`
+        );
+        if (onBalance) {
+          source.addEventListener('balance', (event) => onBalance(JSON.parse(event.data)));
+        }
+        if (onTransaction) {
+          source.addEventListener('transaction', (event) => onTransaction(JSON.parse(event.data)));
+        }
+        source.onerror = (event) => {
+          if (onError) onError(event);
+          // The browser retries dropped connections itself but gives up on an HTTP error,
+          // e.g. once the ticket has expired, so fetch a new ticket
+          if (source.readyState === EventSource.CLOSED && !closed) {
+            setTimeout(open, 5000);
+          }
+        };
+      } catch (err) {
+        if (onError) onError(err);
+        if (!closed) setTimeout(open, 5000);
+      }
+    };
+
+    open();
+    return {
+      close: () => {
+        closed = true;
+        if (source) source.close();
+      },
+    };
+  },
 
   // Admin/Employee endpoints
   getAllAccounts: () => api.get('/accounts/all'),
@@ -1,5 +1,25 @@
 import api from './api';
 
+// The admin listings are paged, with the total in X-Total-Count. Given a page, return just that
+// page; otherwise walk the pages (by id, so rows can't shift between them) and return every row.
+const PAGE_SIZE = 200;
+
+const getPages = async (url, params = {}) => {
+  if (params.page !== undefined) {
+    const response = await api.get(url, { params });
+    return response.data;
+  }
+  const rows = [];
+  for (let page = 0; ; page++) {
+    const response = await api.get(url, { params: { size: PAGE_SIZE, sort: 'id,asc', ...params, page } });
+    rows.push(...response.data);
+    const total = Number(response.headers['x-total-count']);
+    if (response.data.length === 0 || Number.isNaN(total) || rows.length >= total) {
+      return rows;
+    }
+  }
+};
+
 const adminService = {
   // Dashboard statistics
   getDashboardStats: async () => {
@@ -13,30 +33,27 @@ const adminService = {
   },
 
   // User management
-  getAllUsers: async () => {
+  getAllUsers: async (params = {}) => {
     try {
-      const response = await api.get('/admin/users');
-      return response.data;
+      return await getPages('/admin/users', params);
     } catch (error) {
       console.error('Error fetching all users:', error);
       throw error;
     }
   },
 
-  getActiveUsers: async () => {
+  getActiveUsers: async (params = {}) => {
     try {
-      const response = await api.get('/admin/users/active');
-      return response.data;
+      return await getPages('/admin/users/active', params);
     } catch (error) {
       console.error('Error fetching active users:', error);
       throw error;
     }
   },
 
-  getInactiveUsers: async () => {
+  getInactiveUsers: async (params = {}) => {
     try {
-      const response = await api.get('/admin/users/inactive');
-      return response.data;
+      return await getPages('/admin/users/inactive', params);
     } catch (error) {
       console.error('Error fetching inactive users:', error);
       throw error;
@@ -104,10 +121,9 @@ const adminService = {
   },
 
   // Account management
-  getAdminAccounts: async () => {
+  getAdminAccounts: async (params = {}) => {
     try {
-      const response = await api.get('/admin/accounts');
-      return response.data;
+      return await getPages('/admin/accounts', params);
     } catch (error) {
       console.error('Error fetching admin accounts:', error);
       throw error;
@@ -144,6 +160,17 @@ const adminService = {
       console.error('Error creating admin:', error);
       throw error;
     }
+  },
+
+  // Fully reverses a batch of transactions in one call; the result lists any that were refused
+  reverseTransactions: async (transactionIds, reason) => {
+    try {
+      const response = await api.post('/admin/reversals', { transactionIds, reason });
+      return response.data;
+    } catch (error) {
+      console.error('Error reversing transactions:', error);
+      throw error;
+    }
   }
 };
 
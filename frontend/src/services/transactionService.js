@@ -155,6 +155,85 @@ const transactionService = {
       console.error('Error fetching transaction limits:', error);
       throw error;
     }
+  },
+
+  // What is left of today's withdrawal/transfer limits for one account
+  getRemainingLimits: async (accountId) => {
+    try {
+      const response = await api.get(`/transactions/limits/${accountId}`);
+      return response.data;
+    } catch (error) {
+      console.error('Error fetching remaining limits:', error);
+      throw error;
+    }
+  },
+
+  // Reserve funds on an account; the hold is released if not captured before it expires
+  authorize: async (accountId, amount, description, expiresInMinutes) => {
+    try {
+      const response = await api.post('/transactions/authorize', {
+        accountId,
+        amount,
+        description,
+        expiresInMinutes
+      });
+      return response.data;
+    } catch (error) {
+      console.error('Error authorizing payment:', error);
+      throw error;
+    }
+  },
+
+  // Omit amount to capture the full authorized amount
+  captureHold: async (holdId, amount) => {
+    try {
+      const response = await api.post(`/transactions/holds/${holdId}/capture`, amount != null ? { amount } : {});
+      return response.data;
+    } catch (error) {
+      console.error('Error capturing hold:', error);
+      throw error;
+    }
+  },
+
+  voidHold: async (holdId) => {
+    try {
+      const response = await api.post(`/transactions/holds/${holdId}/void`);
+      return response.data;
+    } catch (error) {
+      console.error('Error voiding hold:', error);
+      throw error;
+    }
+  },
+
+  getActiveHolds: async (accountId) => {
+    try {
+      const response = await api.get(`/transactions/account/${accountId}/holds`);
+      return response.data;
+    } catch (error) {
+      console.error('Error fetching holds:', error);
+      throw error;
+    }
+  },
+
+  // Omit amount to refund everything not yet refunded
+  refundTransaction: async (transactionId, amount, reason) => {
+    try {
+      const response = await api.post(`/transactions/${transactionId}/refund`, { amount, reason });
+      return response.data;
+    } catch (error) {
+      console.error('Error refunding transaction:', error);
+      throw error;
+    }
+  },
+
+  getRefunds: async (transactionId) => {
+    try {
+      const response = await api.get(`/transactions/${transactionId}/refunds`);
+      return response.data;
+    } catch (error) {
+      console.error('Error fetching refunds:', error);
+      throw error;
+    }
   }
 };
 